@@ -0,0 +1,84 @@
+package com.focalizze.Focalizze.configurations;
+
+import com.focalizze.Focalizze.utils.InstrumentedTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Dedicated executors for {@code @Async} work, one bounded pool per workload so a burst of notifications
+ * cannot delay password-reset or 2FA emails. Methods choose their pool by bean name ({@code @Async("emailExecutor")}).
+ * <p>
+ * Executors dedicados para el trabajo {@code @Async}, un pool acotado por carga para que una ráfaga de notificaciones
+ * no retrase los correos de restablecimiento o 2FA. Los métodos eligen su pool por nombre de bean ({@code @Async("emailExecutor")}).
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String WS_INBOUND_EXECUTOR = "wsInboundExecutor";
+    public static final String WS_OUTBOUND_EXECUTOR = "wsOutboundExecutor";
+    public static final String SSE_EXECUTOR = "sseExecutor";
+
+    /**
+     * Pool for notification events (block check and buffering; the writes are batched by the flush).
+     * <p>
+     * Pool para eventos de notificación (comprobación de bloqueo y acumulación; las escrituras van en lote en el volcado).
+     */
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public InstrumentedTaskExecutor notificationExecutor(
+            @Value("${app.async.notifications.pool-size:4}") int poolSize,
+            @Value("${app.async.notifications.queue-capacity:10000}") int queueCapacity) {
+        return new InstrumentedTaskExecutor("notifications", poolSize, queueCapacity);
+    }
+
+    /**
+     * Pool for outgoing emails (slow SMTP calls).
+     * <p>
+     * Pool para los correos salientes (llamadas SMTP lentas).
+     */
+    @Bean(name = EMAIL_EXECUTOR)
+    public InstrumentedTaskExecutor emailExecutor(
+            @Value("${app.async.emails.pool-size:2}") int poolSize,
+            @Value("${app.async.emails.queue-capacity:500}") int queueCapacity) {
+        return new InstrumentedTaskExecutor("emails", poolSize, queueCapacity);
+    }
+
+    /**
+     * Pool for STOMP frames received from clients (CONNECT, SUBSCRIBE, heartbeats).
+     * <p>
+     * Pool para las tramas STOMP recibidas de los clientes (CONNECT, SUBSCRIBE, latidos).
+     */
+    @Bean(name = WS_INBOUND_EXECUTOR)
+    public InstrumentedTaskExecutor wsInboundExecutor(
+            @Value("${app.websocket.inbound.pool-size:4}") int poolSize,
+            @Value("${app.websocket.inbound.queue-capacity:1000}") int queueCapacity) {
+        return new InstrumentedTaskExecutor("ws-inbound", poolSize, queueCapacity);
+    }
+
+    /**
+     * Pool for messages pushed to clients (notifications, badges).
+     * <p>
+     * Pool para los mensajes enviados a los clientes (notificaciones, indicadores).
+     */
+    @Bean(name = WS_OUTBOUND_EXECUTOR)
+    public InstrumentedTaskExecutor wsOutboundExecutor(
+            @Value("${app.websocket.outbound.pool-size:8}") int poolSize,
+            @Value("${app.websocket.outbound.queue-capacity:10000}") int queueCapacity) {
+        return new InstrumentedTaskExecutor("ws-outbound", poolSize, queueCapacity);
+    }
+
+    /**
+     * Pool that writes events to Server-Sent Events streams, so a slow client never blocks the notification flush.
+     * <p>
+     * Pool que escribe los eventos en los flujos Server-Sent Events, para que un cliente lento nunca bloquee el volcado
+     * de notificaciones.
+     */
+    @Bean(name = SSE_EXECUTOR)
+    public InstrumentedTaskExecutor sseExecutor(
+            @Value("${app.notifications.stream.pool-size:2}") int poolSize,
+            @Value("${app.notifications.stream.queue-capacity:10000}") int queueCapacity) {
+        return new InstrumentedTaskExecutor("sse", poolSize, queueCapacity);
+    }
+}
@@ -1,6 +1,7 @@
 package com.focalizze.Focalizze.configurations;
 
 import com.focalizze.Focalizze.utils.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -64,6 +65,8 @@ public class SecurityConfig {
 
                 // 4. Reglas de Autorización (El orden importa: de más específico a más general)
                 .authorizeHttpRequests(auth -> auth
+                        // Re-dispatch of an already authorized async response (SSE stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // A. RUTAS PÚBLICAS (Sin Token)
                         // Autenticación, Registro y 2FA
                         .requestMatchers("/ws/**").permitAll()
@@ -77,6 +80,7 @@ public class SecurityConfig {
                                 "/api/thread/**",
                                 "/api/categories/**",
                                 "/api/search/**",
+                                "/api/hashtags/**",
                                 "/api/threads/*/comments"
                         ).permitAll()
 
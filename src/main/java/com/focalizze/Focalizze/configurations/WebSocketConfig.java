@@ -1,20 +1,68 @@
 package com.focalizze.Focalizze.configurations;
 
+import com.focalizze.Focalizze.utils.InstrumentedTaskExecutor;
+import com.focalizze.Focalizze.utils.WebSocketOutboundMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * Configuration for WebSocket with STOMP messaging.
+ * Client channels run on bounded, instrumented pools; each session has send-time and buffer limits (a client that
+ * cannot keep up is disconnected instead of growing memory), and STOMP heartbeats evict idle sessions.
  * <p>
  * Configuración para WebSocket con mensajería STOMP.
+ * Los canales de cliente usan pools acotados e instrumentados; cada sesión tiene límites de tiempo de envío y de búfer
+ * (un cliente que no da abasto se desconecta en lugar de hacer crecer la memoria), y los latidos STOMP expulsan las
+ * sesiones inactivas.
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final InstrumentedTaskExecutor inboundExecutor;
+    private final InstrumentedTaskExecutor outboundExecutor;
+    private final WebSocketOutboundMonitor outboundMonitor;
+    private final long heartbeatMillis;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferSizeLimit;
+    private final int messageSizeLimit;
+    private final int timeToFirstMessageMillis;
+    private TaskScheduler heartbeatScheduler;
+
+    public WebSocketConfig(@Qualifier(AsyncConfig.WS_INBOUND_EXECUTOR) InstrumentedTaskExecutor inboundExecutor,
+                           @Qualifier(AsyncConfig.WS_OUTBOUND_EXECUTOR) InstrumentedTaskExecutor outboundExecutor,
+                           WebSocketOutboundMonitor outboundMonitor,
+                           @Value("${app.websocket.heartbeat-ms:10000}") long heartbeatMillis,
+                           @Value("${app.websocket.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+                           @Value("${app.websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                           @Value("${app.websocket.message-size-limit:65536}") int messageSizeLimit,
+                           @Value("${app.websocket.time-to-first-message-ms:30000}") int timeToFirstMessageMillis) {
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+        this.outboundMonitor = outboundMonitor;
+        this.heartbeatMillis = heartbeatMillis;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+        this.timeToFirstMessageMillis = timeToFirstMessageMillis;
+    }
+
+    // Lazy: the broker's scheduler is created by this same configuration / Lazy: el planificador del broker lo crea esta misma configuración
+    @Autowired
+    public void setHeartbeatScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler heartbeatScheduler) {
+        this.heartbeatScheduler = heartbeatScheduler;
+    }
+
     /**
      * Registers the STOMP endpoint for client connections.
      * <p>
@@ -37,9 +85,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // Destination prefixes for server-to-client messages (Broadcasting)
-        // Prefijos de destino para mensajes servidor-a-cliente (Difusión)
-        registry.enableSimpleBroker("/topic", "/user");
+        // Destination prefixes for server-to-client messages (Broadcasting).
+        // "/queue" is where user destinations resolve ("/user/queue/x" -> "/queue/x-user{session}").
+        // Prefijos de destino para mensajes servidor-a-cliente (Difusión).
+        // "/queue" es donde se resuelven los destinos de usuario ("/user/queue/x" -> "/queue/x-user{sesión}").
+        registry.enableSimpleBroker("/topic", "/queue", "/user")
+                // Server and client heartbeats; a silent session is closed / Latidos de servidor y cliente; una sesión callada se cierra
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(heartbeatScheduler);
 
         // Prefix for client-to-server messages
         // Prefijo para mensajes cliente-a-servidor
@@ -49,4 +102,39 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Prefijo para mensajes específicos de usuario
         registry.setUserDestinationPrefix("/user");
     }
+
+    /**
+     * Runs frames received from clients on a bounded pool.
+     * <p>
+     * Ejecuta las tramas recibidas de los clientes en un pool acotado.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(inboundExecutor);
+    }
+
+    /**
+     * Runs pushes to clients on a bounded pool, limiting and coalescing what each session has pending.
+     * <p>
+     * Ejecuta los envíos a clientes en un pool acotado, limitando y agrupando lo que cada sesión tiene pendiente.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(outboundExecutor).interceptors(outboundMonitor);
+    }
+
+    /**
+     * Limits per session: time a send may block, bytes buffered for a slow client, inbound message size, and time to
+     * send CONNECT after opening the socket.
+     * <p>
+     * Límites por sesión: tiempo que puede bloquear un envío, bytes en búfer para un cliente lento, tamaño de los
+     * mensajes entrantes y tiempo para enviar CONNECT tras abrir el socket.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .setTimeToFirstMessage(timeToFirstMessageMillis);
+    }
 }
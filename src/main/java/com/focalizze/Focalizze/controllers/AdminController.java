@@ -4,6 +4,8 @@ import com.focalizze.Focalizze.dto.*;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.services.AdminService;
 import com.focalizze.Focalizze.services.BackupService;
+import com.focalizze.Focalizze.services.ExecutorMetricsService;
+import com.focalizze.Focalizze.services.WebSocketMetricsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,6 +42,8 @@ import java.util.Map;
 public class AdminController {
     private final AdminService adminService;
     private final BackupService backupService;
+    private final ExecutorMetricsService executorMetricsService;
+    private final WebSocketMetricsService webSocketMetricsService;
 
     /**
      * Retrieves a paginated list of pending user reports (profile reports).
@@ -216,4 +221,30 @@ public class AdminController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the load of the asynchronous pools (notifications, emails, WebSocket channels): queue depth, queue wait
+     * and rejections.
+     * <p>
+     * Devuelve la carga de los pools asíncronos (notificaciones, correos, canales WebSocket): profundidad de cola,
+     * espera en cola y rechazos.
+     *
+     * @return The stats of each pool. / Las estadísticas de cada pool.
+     */
+    @GetMapping("/executors")
+    public ResponseEntity<List<ExecutorStatsDto>> getExecutorStats() {
+        return ResponseEntity.ok(executorMetricsService.getStats());
+    }
+
+    /**
+     * Returns the outbound WebSocket load: pending, dropped and coalesced messages, and the slowest sessions.
+     * <p>
+     * Devuelve la carga WebSocket de salida: mensajes pendientes, descartados y agrupados, y las sesiones más lentas.
+     *
+     * @return Totals and per-session counters. / Totales y contadores por sesión.
+     */
+    @GetMapping("/websocket")
+    public ResponseEntity<WebSocketStatsDto> getWebSocketStats() {
+        return ResponseEntity.ok(webSocketMetricsService.getStats());
+    }
+}
@@ -1,5 +1,6 @@
 package com.focalizze.Focalizze.controllers;
 
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.DiscoverItemDto;
 import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.User;
@@ -27,6 +28,8 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/feed")
 @RequiredArgsConstructor
 public class FeedController {
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final FeedService feedService;
     private final DiscoverFeedService discoverFeedService;
     private final FeedbackService feedbackService;
@@ -45,11 +48,29 @@ public class FeedController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("publishedAt").descending());
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by("publishedAt").descending());
         return ResponseEntity.ok(feedService.getFeed(pageable));
     }
 
 
+    /**
+     * Retrieves the "Following" feed using cursor (keyset) pagination, for infinite scroll.
+     * <p>
+     * Recupera el feed "Siguiendo" usando paginación por cursor (keyset), para scroll infinito.
+     *
+     * @param cursor Opaque cursor returned by the previous page. / Cursor opaco devuelto por la página anterior.
+     * @param size   Page size. / Tamaño de página.
+     * @return Cursor page of threads. / Página de hilos con cursor.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDto<FeedThreadDto>> getFeedByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(feedService.getFeedByCursor(cursor, size));
+    }
+
     /**
      * Retrieves the "Discover" feed with recommendations.
      * <p>
@@ -66,6 +87,24 @@ public class FeedController {
         return ResponseEntity.ok(discoverFeedService.getDiscoverFeed(currentUser, pageable));
     }
 
+    /**
+     * Retrieves the "Discover" feed using cursor (keyset) pagination.
+     * <p>
+     * Recupera el feed "Descubrir" usando paginación por cursor (keyset).
+     *
+     * @param cursor Opaque cursor returned by the previous page. / Cursor opaco devuelto por la página anterior.
+     * @param size   Number of organic threads per page. / Número de hilos orgánicos por página.
+     * @return Cursor page of discovery items. / Página de ítems de descubrimiento con cursor.
+     */
+    @GetMapping("/discover/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CursorPageDto<DiscoverItemDto>> getDiscoverFeedByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(discoverFeedService.getDiscoverFeedByCursor(currentUser, cursor, size));
+    }
+
     /**
      * Hides a specific thread from the user's feed.
      * <p>
@@ -0,0 +1,58 @@
+package com.focalizze.Focalizze.controllers;
+
+import com.focalizze.Focalizze.dto.CursorPageDto;
+import com.focalizze.Focalizze.dto.FeedThreadDto;
+import com.focalizze.Focalizze.dto.TrendingHashtagDto;
+import com.focalizze.Focalizze.services.HashtagService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for hashtag discovery: threads by tag and trending tags.
+ * <p>
+ * Controlador para el descubrimiento por hashtags: hilos por etiqueta y etiquetas en tendencia.
+ */
+@RestController
+@RequestMapping("/api/hashtags")
+@RequiredArgsConstructor
+public class HashtagController {
+    private final HashtagService hashtagService;
+
+    /**
+     * Retrieves the most used tags of the last hour (by default).
+     * <p>
+     * Recupera las etiquetas más usadas de la última hora (por defecto).
+     *
+     * @param limit Maximum tags. / Máximo de etiquetas.
+     * @return Trending tags, most used first. / Etiquetas en tendencia, la más usada primero.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingHashtagDto>> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(hashtagService.getTrending(limit));
+    }
+
+    /**
+     * Retrieves the newest threads carrying a tag, using cursor (keyset) pagination.
+     * <p>
+     * Recupera los hilos más recientes con una etiqueta, usando paginación por cursor (keyset).
+     *
+     * @param tag    The tag, without {@code #}. / La etiqueta, sin {@code #}.
+     * @param cursor Opaque cursor returned by the previous page. / Cursor opaco devuelto por la página anterior.
+     * @param size   Page size. / Tamaño de página.
+     * @return Cursor page of threads. / Página de hilos con cursor.
+     */
+    @GetMapping("/{tag}/threads")
+    public ResponseEntity<CursorPageDto<FeedThreadDto>> getThreadsByTag(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(hashtagService.getThreadsByTag(tag, cursor, size));
+    }
+}
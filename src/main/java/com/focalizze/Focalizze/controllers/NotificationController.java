@@ -1,13 +1,17 @@
 package com.focalizze.Focalizze.controllers;
 
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.NotificationDto;
+import com.focalizze.Focalizze.dto.UnreadCountDto;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.services.NotificationService;
+import com.focalizze.Focalizze.services.NotificationStreamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,9 +19,10 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Map;
 
 /**
  * Controller for managing user notifications.
@@ -30,6 +35,7 @@ import java.util.Map;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
     /**
      * Retrieves paginated notifications for the current user.
@@ -51,17 +57,55 @@ public class NotificationController {
     }
 
     /**
-     * Checks if the user has any unread notifications.
+     * Retrieves the current user's notifications using cursor (keyset) pagination, newest first.
      * <p>
-     * Comprueba si el usuario tiene notificaciones no leídas.
+     * Recupera las notificaciones del usuario actual usando paginación por cursor (keyset), la más reciente primero.
      *
-     * @return Map with "hasUnread" boolean. / Mapa con booleano "hasUnread".
+     * @param cursor Opaque cursor returned by the previous page. / Cursor opaco devuelto por la página anterior.
+     * @param size   Page size. / Tamaño de página.
+     * @return Cursor page of notifications. / Página de notificaciones con cursor.
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CursorPageDto<NotificationDto>> getMyNotificationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser
+    ) {
+        return ResponseEntity.ok(notificationService.getNotificationsByCursor(currentUser, cursor, size));
+    }
+
+    /**
+     * Returns the unread badge of the user, read from memory.
+     * Clients subscribed to {@code /user/queue/unread} receive the same payload on every change and need not poll.
+     * <p>
+     * Devuelve el indicador de no leídas del usuario, leído de memoria.
+     * Los clientes suscritos a {@code /user/queue/unread} reciben el mismo contenido en cada cambio y no necesitan consultar.
+     *
+     * @return "hasUnread" flag and "unreadCount". / Bandera "hasUnread" y "unreadCount".
      */
     @GetMapping("/unread")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Boolean>> hasUnreadNotifications(@AuthenticationPrincipal User currentUser) {
-        boolean hasUnread = notificationService.hasUnreadNotifications(currentUser);
-        return ResponseEntity.ok(Map.of("hasUnread", hasUnread));
+    public ResponseEntity<UnreadCountDto> hasUnreadNotifications(@AuthenticationPrincipal User currentUser) {
+        int unread = notificationService.getUnreadCount(currentUser);
+        return ResponseEntity.ok(new UnreadCountDto(unread > 0, unread));
+    }
+
+    /**
+     * Opens a Server-Sent Events stream with the current user's notifications ({@code notifications} events) and
+     * unread badge ({@code unread} events), for clients that only need to receive and not a full STOMP session.
+     * Needs the {@code Authorization} header, so a fetch-based SSE client is required (native EventSource cannot send it).
+     * <p>
+     * Abre un flujo Server-Sent Events con las notificaciones ({@code notifications}) y el indicador de no leídas
+     * ({@code unread}) del usuario actual, para clientes que solo necesitan recibir y no una sesión STOMP completa.
+     * Necesita la cabecera {@code Authorization}, así que hace falta un cliente SSE basado en fetch (el EventSource nativo no puede enviarla).
+     *
+     * @return The open event stream. / El flujo de eventos abierto.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamNotifications(@AuthenticationPrincipal User currentUser) {
+        return notificationStreamService.subscribe(currentUser);
     }
 
     /**
@@ -1,16 +1,20 @@
 package com.focalizze.Focalizze.controllers;
 
+import com.focalizze.Focalizze.dto.ContentSearchFiltersDto;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.ThreadResponseDto;
 import com.focalizze.Focalizze.dto.UserSearchDto;
 import com.focalizze.Focalizze.services.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,17 +48,32 @@ public class SearchController {
     }
 
     /**
-     * Searches for threads/content based on a text query.
+     * Searches for threads/content based on a text query, best matches first, one cursor page at a time.
+     * Quoted text is matched as an exact phrase; results can be narrowed by category, author and date.
      * <p>
-     * Busca hilos/contenido basado en una consulta de texto.
+     * Busca hilos/contenido basado en una consulta de texto, las mejores coincidencias primero, una página de cursor cada vez.
+     * El texto entre comillas se busca como frase exacta; los resultados se pueden acotar por categoría, autor y fecha.
      *
-     * @param query The search query. / La consulta de búsqueda.
-     * @return List of matching threads. / Lista de hilos coincidentes.
+     * @param query    The search query. / La consulta de búsqueda.
+     * @param category Optional category name. / Nombre de categoría opcional.
+     * @param author   Optional author username. / Nombre de usuario del autor opcional.
+     * @param from     Optional first publication day (inclusive). / Primer día de publicación opcional (inclusive).
+     * @param to       Optional last publication day (inclusive). / Último día de publicación opcional (inclusive).
+     * @param cursor   Opaque cursor returned by the previous page. / Cursor opaco devuelto por la página anterior.
+     * @param size     Page size (capped by the service). / Tamaño de página (limitado por el servicio).
+     * @return Cursor page of matching threads. / Página de hilos coincidentes con cursor.
      */
     @GetMapping("/content")
-    public ResponseEntity<List<ThreadResponseDto>> searchContent(@RequestParam("q") String query) {
-        List<ThreadResponseDto> results = searchService.searchContent(query);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<CursorPageDto<ThreadResponseDto>> searchContent(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.searchContent(
+                query, new ContentSearchFiltersDto(category, author, from, to), cursor, size));
     }
 
 
@@ -0,0 +1,12 @@
+package com.focalizze.Focalizze.dto;
+
+import java.time.LocalDate;
+
+// DTO con los filtros opcionales de la búsqueda de contenido (categoría, autor y rango de fechas)
+public record ContentSearchFiltersDto(
+        String category,
+        String author,
+        LocalDate from,
+        LocalDate to
+) {
+}
@@ -0,0 +1,11 @@
+package com.focalizze.Focalizze.dto;
+
+import java.util.List;
+
+// Página basada en cursor para scroll infinito: sin total, solo el cursor de la siguiente página
+public record CursorPageDto<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext
+) {
+}
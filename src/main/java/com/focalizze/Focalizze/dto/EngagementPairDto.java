@@ -0,0 +1,12 @@
+package com.focalizze.Focalizze.dto;
+
+import java.time.LocalDateTime;
+
+// Proyección (usuario, hilo) de un like o guardado, usada para construir el índice de similitud entre hilos
+public record EngagementPairDto(
+        Long userId,
+        Long threadId,
+        Long authorId,
+        LocalDateTime engagedAt
+) {
+}
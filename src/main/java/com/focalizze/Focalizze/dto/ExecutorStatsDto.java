@@ -0,0 +1,16 @@
+package com.focalizze.Focalizze.dto;
+
+// Carga de un pool de tareas asíncronas (hilos, cola, tareas y espera en cola en milisegundos)
+public record ExecutorStatsDto(
+        String name,
+        int poolSize,
+        int activeThreads,
+        int queueDepth,
+        int queueCapacity,
+        long submitted,
+        long completed,
+        long rejected,
+        double avgQueueWaitMillis,
+        double maxQueueWaitMillis
+) {
+}
@@ -12,7 +12,8 @@ public record NotificationDto(
         LocalDateTime createdAt,
         Long threadId, // ID del hilo relacionado
         String threadPreview, // Un extracto del primer post del hilo
-        NotificationTriggerUserDto triggerUser // El usuario que causó la notificación
+        NotificationTriggerUserDto triggerUser, // El usuario que causó la notificación (el más reciente si se agruparon varios)
+        int actorCount // Usuarios agrupados en la notificación ("X y 48 más")
 // Puedes añadir más datos aquí, como el avatar del usuario que generó la notificación
 ) {
 
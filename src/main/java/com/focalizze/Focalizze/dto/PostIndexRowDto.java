@@ -0,0 +1,14 @@
+package com.focalizze.Focalizze.dto;
+
+import java.time.LocalDateTime;
+
+// Proyección de un post con los datos de su hilo, usada para construir el índice de búsqueda de contenido
+public record PostIndexRowDto(
+        Long threadId,
+        Long authorId,
+        Long categoryId,
+        LocalDateTime publishedAt,
+        Integer position,
+        String content
+) {
+}
@@ -0,0 +1,15 @@
+package com.focalizze.Focalizze.dto;
+
+import java.time.LocalDateTime;
+
+// Proyección con los contadores de interacción de un hilo, usada para construir los pools de recomendación
+public record ThreadEngagementDto(
+        Long threadId,
+        Long authorId,
+        Long categoryId,
+        Integer likeCount,
+        Integer commentCount,
+        Integer saveCount,
+        LocalDateTime publishedAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.focalizze.Focalizze.dto;
+
+// Banderas del espectador para un hilo (like y guardado), resueltas en una sola consulta por página
+public record ThreadViewerFlagsDto(
+        Long threadId,
+        Boolean liked,
+        Boolean saved
+) {
+}
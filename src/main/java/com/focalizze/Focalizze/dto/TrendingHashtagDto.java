@@ -0,0 +1,8 @@
+package com.focalizze.Focalizze.dto;
+
+// Etiqueta en tendencia y número estimado de hilos que la usaron en la ventana
+public record TrendingHashtagDto(
+        String tag,
+        long count
+) {
+}
@@ -0,0 +1,8 @@
+package com.focalizze.Focalizze.dto;
+
+// Indicador de notificaciones no leídas (respuesta de /unread y mensaje de /user/queue/unread)
+public record UnreadCountDto(
+        boolean hasUnread,
+        int unreadCount
+) {
+}
@@ -0,0 +1,11 @@
+package com.focalizze.Focalizze.dto;
+
+// Proyección de un usuario con los campos que necesita el índice de autocompletado de nombres
+public record UsernameIndexRowDto(
+        Long id,
+        String username,
+        String displayName,
+        String avatarUrl,
+        Integer followersCount
+) {
+}
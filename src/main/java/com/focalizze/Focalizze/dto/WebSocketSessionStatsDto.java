@@ -0,0 +1,12 @@
+package com.focalizze.Focalizze.dto;
+
+// Contadores de una sesión WebSocket (mensajes pendientes, entregados, descartados y agrupados)
+public record WebSocketSessionStatsDto(
+        String sessionId,
+        String username,
+        int pending,
+        long delivered,
+        long dropped,
+        long coalesced
+) {
+}
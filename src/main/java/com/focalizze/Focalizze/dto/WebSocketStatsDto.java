@@ -0,0 +1,13 @@
+package com.focalizze.Focalizze.dto;
+
+import java.util.List;
+
+// Carga del canal WebSocket de salida: sesiones, mensajes pendientes, descartados y agrupados, y las sesiones más atrasadas
+public record WebSocketStatsDto(
+        int sessions,
+        long pending,
+        long dropped,
+        long coalesced,
+        List<WebSocketSessionStatsDto> busiestSessions
+) {
+}
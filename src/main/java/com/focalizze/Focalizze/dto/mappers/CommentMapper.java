@@ -79,7 +79,7 @@ public class CommentMapper {
                 user.getUsername(),
                 user.getDisplayName(),
                 user.getAvatarUrl(defaultAvatarUrl),
-                user.getCalculatedThreadCount(),
+                user.getPublishedThreadCount(),
                 false,
                 user.getFollowingCount(),
                 user.getFollowersCount(),
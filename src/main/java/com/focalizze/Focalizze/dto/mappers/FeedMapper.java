@@ -43,7 +43,7 @@ public class FeedMapper {
                 thread.getUser().getUsername(),
                 thread.getUser().getDisplayName(),
                 thread.getUser().getAvatarUrl(defaultAvatarUrl),
-                thread.getUser().getCalculatedThreadCount(),
+                thread.getUser().getPublishedThreadCount(),
                 false,
                 thread.getUser().getFollowingCount(),
                 thread.getUser().getFollowersCount(),
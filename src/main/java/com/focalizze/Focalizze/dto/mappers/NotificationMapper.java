@@ -70,7 +70,8 @@ public class NotificationMapper {
                 notification.getCreatedAt(),
                 notification.getThread() != null ? notification.getThread().getId() : null,
                 threadPreview,
-                triggerUserDto
+                triggerUserDto,
+                notification.getActorCount()
         );
     }
 }
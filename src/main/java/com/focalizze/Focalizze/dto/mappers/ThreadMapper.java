@@ -29,7 +29,7 @@ public class ThreadMapper {
                 thread.getUser().getUsername(),
                 thread.getUser().getDisplayName(),
                 thread.getUser().getAvatarUrl(defaultAvatarUrl),
-                thread.getUser().getCalculatedThreadCount(), false,
+                thread.getUser().getPublishedThreadCount(), false,
                 thread.getUser().getFollowingCount(),
                 thread.getUser().getFollowersCount(),
                 false,
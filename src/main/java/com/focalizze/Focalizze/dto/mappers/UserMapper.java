@@ -34,7 +34,7 @@ public class UserMapper {
                 user.getUsername(),
                 user.getDisplayName(),
                 user.getAvatarUrl(defaultAvatarUrl), // Usamos el método helper de la entidad
-                user.getCalculatedThreadCount() != null ? user.getCalculatedThreadCount() : 0,
+                user.getPublishedThreadCount() != null ? user.getPublishedThreadCount() : 0,
                 false, // isFollowing por defecto
                 user.getFollowingCount(),
                 user.getFollowersCount(),
@@ -61,7 +61,7 @@ public class UserMapper {
                 user.getUsername(),
                 user.getDisplayName(),
                 user.getAvatarUrl(defaultAvatarUrl),
-                user.getCalculatedThreadCount() != null ? user.getCalculatedThreadCount() : 0,
+                user.getPublishedThreadCount() != null ? user.getPublishedThreadCount() : 0,
                 isFollowing, // Valor calculado real
                 user.getFollowingCount(),
                 user.getFollowersCount(),
@@ -0,0 +1,48 @@
+package com.focalizze.Focalizze.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a one-off data migration run by the application (e.g. backfilling a new column or table).
+ * Lets a migration resume after a restart and be skipped once done.
+ * <p>
+ * Progreso de una migración de datos puntual que ejecuta la aplicación (ej. rellenar una columna o tabla nueva).
+ * Permite reanudar una migración tras un reinicio y omitirla una vez terminada.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "data_migration_tbl")
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class DataMigration {
+
+    /**
+     * Unique name of the migration.
+     * Nombre único de la migración.
+     */
+    @Id
+    @Column(length = 100)
+    @EqualsAndHashCode.Include
+    private String name;
+
+    /**
+     * Last ID processed, for keyset migrations.
+     * Último ID procesado, para migraciones keyset.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lastProcessedId = 0L;
+
+    /**
+     * When the migration finished (null while pending).
+     * Cuándo terminó la migración (null mientras está pendiente).
+     */
+    private LocalDateTime completedAt;
+}
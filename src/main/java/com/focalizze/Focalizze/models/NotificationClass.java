@@ -2,6 +2,7 @@ package com.focalizze.Focalizze.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -19,7 +20,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "notification_tbl")
+@Table(
+        name = "notification_tbl",
+        indexes = {
+                // Per-user unread scans / Recorridos de no leídas por usuario
+                @Index(name = "idx_notification_user_read_created", columnList = "user_id, is_read, created_at"),
+                // Inbox keyset / Keyset de la bandeja
+                @Index(name = "idx_notification_user_created", columnList = "user_id, created_at, id"),
+                // Retention: read rows across all users, oldest first / Retención: leídas de todos los usuarios, las más antiguas primero
+                @Index(name = "idx_notification_read_created", columnList = "is_read, created_at")
+        }
+)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class NotificationClass {
 
@@ -53,6 +64,15 @@ public class NotificationClass {
      */
     private LocalDateTime createdAt;
 
+    /**
+     * Number of distinct users merged into this notification ("X and 48 others liked your thread").
+     * Número de usuarios distintos agrupados en esta notificación ("A X y 48 más les ha gustado tu hilo").
+     */
+    @Builder.Default
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private int actorCount = 1;
+
     /**
      * The recipient of the notification.
      * El destinatario de la notificación.
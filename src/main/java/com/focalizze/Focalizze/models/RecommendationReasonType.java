@@ -15,5 +15,10 @@ public enum RecommendationReasonType {
      * Recommended based on engagement metrics or social circle activity.
      * Recomendado basado en métricas de participación o actividad del círculo social.
      */
-    SOCIAL_PROOF
+    SOCIAL_PROOF,
+    /**
+     * Recommended because users who engaged with a thread the user liked or saved also engaged with this one.
+     * Recomendado porque usuarios que interactuaron con un hilo que el usuario marcó con like o guardó también interactuaron con este.
+     */
+    SIMILAR_CONTENT
 }
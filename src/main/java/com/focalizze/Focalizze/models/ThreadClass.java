@@ -3,7 +3,6 @@ package com.focalizze.Focalizze.models;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.ColumnDefault; // Importante!
 
 import java.time.LocalDateTime;
@@ -26,7 +25,15 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "thread_tbl")
+@Table(
+        name = "thread_tbl",
+        indexes = {
+                // Following, discover and hashtag keyset feeds / Feeds keyset de siguiendo, descubrir y hashtag
+                @Index(name = "idx_thread_visible_published", columnList = "is_published, is_deleted, published_at, id"),
+                // Keyset page of one category / Página keyset de una categoría
+                @Index(name = "idx_thread_category_published", columnList = "category_id, is_published, is_deleted, published_at, id")
+        }
+)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class ThreadClass {
 
@@ -84,7 +91,6 @@ public class ThreadClass {
     private User user;
 
     @OneToMany(mappedBy = "thread", cascade = CascadeType.ALL, orphanRemoval = true)
-    @BatchSize(size = 10)
     @Builder.Default
     @ToString.Exclude
     private List<Post> posts = new ArrayList<>();
@@ -114,4 +120,17 @@ public class ThreadClass {
     @ToString.Exclude
     private CategoryClass category;
 
+    // Normalized hashtags of its posts; the index on tag serves "threads by tag"
+    // Hashtags normalizados de sus posts; el índice por etiqueta sirve "hilos por etiqueta"
+    @ElementCollection
+    @CollectionTable(
+            name = "thread_hashtags",
+            joinColumns = @JoinColumn(name = "thread_id"),
+            indexes = @Index(name = "idx_thread_hashtags_tag", columnList = "tag, thread_id")
+    )
+    @Column(name = "tag", nullable = false, length = 50)
+    @Builder.Default
+    @ToString.Exclude
+    private Set<String> hashtags = new HashSet<>();
+
 }
\ No newline at end of file
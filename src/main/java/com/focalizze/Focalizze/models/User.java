@@ -2,7 +2,7 @@ package com.focalizze.Focalizze.models;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -83,8 +83,22 @@ public class User implements UserDetails {
     private Integer dailyInteractionsRemaining;
     private Integer followingCount;
     private Integer followersCount;
-    @Formula("(SELECT count(*) FROM thread_tbl t WHERE t.user_id = id AND t.is_published = true AND t.is_deleted = false)")
-    private Integer calculatedThreadCount;
+    // Denormalized count of published, non-deleted threads. Only changed through atomic UPDATEs in
+    // UserRepository (never by entity merges), and reconciled nightly by ThreadCountReconciler.
+    // Conteo desnormalizado de hilos publicados y no eliminados. Solo se modifica con UPDATEs atómicos en
+    // UserRepository (nunca al fusionar la entidad), y se reconcilia cada noche con ThreadCountReconciler.
+    @Column(name = "published_thread_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer publishedThreadCount = 0;
+    // Denormalized count of unread notifications, same rules as publishedThreadCount (atomic UPDATEs only,
+    // reconciled nightly by UnreadCountReconciler). Served from memory by NotificationService.
+    // Conteo desnormalizado de notificaciones no leídas, mismas reglas que publishedThreadCount (solo UPDATEs
+    // atómicos, reconciliado cada noche por UnreadCountReconciler). NotificationService lo sirve desde memoria.
+    @Column(name = "unread_notification_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer unreadNotificationCount = 0;
 
     // --- Theme / Tema ---
     @Column(name = "background_type")
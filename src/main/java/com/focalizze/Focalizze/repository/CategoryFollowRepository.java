@@ -4,9 +4,13 @@ import com.focalizze.Focalizze.models.CategoryClass;
 import com.focalizze.Focalizze.models.CategoryFollow;
 import com.focalizze.Focalizze.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for managing {@link CategoryFollow} entities.
@@ -30,4 +34,17 @@ public interface CategoryFollowRepository extends JpaRepository<CategoryFollow,L
      *         Un {@link Optional} que contiene la entidad CategoryFollow si existe.
      */
     Optional<CategoryFollow> findByUserAndCategory(User user, CategoryClass category);
+
+    /**
+     * Retrieves the IDs of the categories followed by a specific user.
+     * <p>
+     * Recupera los IDs de las categorías seguidas por un usuario específico.
+     *
+     * @param userId The ID of the user.
+     *               El ID del usuario.
+     * @return A {@link Set} of category IDs.
+     *         Un {@link Set} de IDs de categorías.
+     */
+    @Query("SELECT cf.category.id FROM CategoryFollow cf WHERE cf.user.id = :userId")
+    Set<Long> findCategoryIdsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,14 @@
+package com.focalizze.Focalizze.repository;
+
+import com.focalizze.Focalizze.models.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for managing {@link DataMigration} progress markers.
+ * <p>
+ * Interfaz de repositorio para gestionar los marcadores de progreso {@link DataMigration}.
+ */
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+}
@@ -142,4 +142,17 @@ public interface FollowRepository extends JpaRepository<Follow,Long> {
     @Query("SELECT f.userFollowed FROM Follow f JOIN f.userFollower u " +
             "WHERE u.username = :username ORDER BY f.createdAt DESC")
     List<User> findFollowingByUsername(@Param("username") String username);
+
+    /**
+     * Retrieves the IDs of the users that a specific user follows.
+     * <p>
+     * Recupera los IDs de los usuarios a los que sigue un usuario específico.
+     *
+     * @param userId The ID of the follower.
+     *               El ID del seguidor.
+     * @return A {@link Set} of followed user IDs.
+     *         Un {@link Set} de IDs de usuarios seguidos.
+     */
+    @Query("SELECT f.userFollowed.id FROM Follow f WHERE f.userFollower.id = :userId")
+    Set<Long> findFollowedIdsByFollowerId(@Param("userId") Long userId);
 }
@@ -33,4 +33,15 @@ public interface HiddenContentRepository extends JpaRepository<HiddenContent, Lo
      */
     @Query("SELECT h.thread.id FROM HiddenContent h WHERE h.user = :user AND h.thread IS NOT NULL")
     Set<Long> findHiddenThreadIdsByUser(@Param("user") User user);
+
+    /**
+     * Same as {@link #findHiddenThreadIdsByUser(User)} by user ID, used to build the cached relationship snapshot.
+     * <p>
+     * Igual que {@link #findHiddenThreadIdsByUser(User)} por ID de usuario, usado para construir la instantánea de relaciones cacheada.
+     *
+     * @param userId The user's ID. / El ID del usuario.
+     * @return A {@link List} of hidden thread IDs. / Una {@link List} de IDs de hilos ocultos.
+     */
+    @Query("SELECT h.thread.id FROM HiddenContent h WHERE h.user.id = :userId AND h.thread IS NOT NULL")
+    List<Long> findHiddenThreadIdsByUserId(@Param("userId") Long userId);
 }
@@ -3,6 +3,7 @@ package com.focalizze.Focalizze.repository;
 import com.focalizze.Focalizze.models.InteractionLog;
 import com.focalizze.Focalizze.models.InteractionType;
 import com.focalizze.Focalizze.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,7 +21,7 @@ import java.util.Optional;
  * Rastrea las acciones del usuario para limitación de tasas, gamificación o fines de auditoría.
  */
 @Repository
-public interface InteractionLogRepository extends JpaRepository<InteractionLog,Long> {
+public interface InteractionLogRepository extends JpaRepository<InteractionLog,Long>, InteractionLogRepositoryCustom {
     /**
      * Counts the number of specific interactions performed by a user since a given time.
      * <p>
@@ -79,4 +80,29 @@ public interface InteractionLogRepository extends JpaRepository<InteractionLog,L
             @Param("user") User user,
             @Param("type") InteractionType type,
             @Param("startOfToday") LocalDateTime startOfToday);
+
+    /**
+     * Counts the interactions of one type performed by a user since a given time.
+     * <p>
+     * Cuenta las interacciones de un tipo realizadas por un usuario desde un momento dado.
+     */
+    long countByUserIdAndTypeAndCreatedAtAfter(Long userId, InteractionType type, LocalDateTime since);
+
+    /**
+     * Returns the IDs of the most recent interactions of one type of a user since a given time, newest first.
+     * The page size is the number of interactions to refund.
+     * <p>
+     * Devuelve los IDs de las interacciones más recientes de un tipo de un usuario desde un momento dado, la más
+     * reciente primero. El tamaño de página es el número de interacciones a reembolsar.
+     */
+    @Query("SELECT i.id FROM InteractionLog i " +
+            "WHERE i.user.id = :userId " +
+            "AND i.type = :type " +
+            "AND i.createdAt >= :since " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Long> findIdsToRefund(
+            @Param("userId") Long userId,
+            @Param("type") InteractionType type,
+            @Param("since") LocalDateTime since,
+            Pageable pageable);
 }
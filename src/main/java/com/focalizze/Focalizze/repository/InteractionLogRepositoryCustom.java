@@ -0,0 +1,22 @@
+package com.focalizze.Focalizze.repository;
+
+import com.focalizze.Focalizze.models.InteractionLog;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for writing interaction logs in bulk.
+ * <p>
+ * Fragmento de repositorio personalizado para escribir registros de interacción en bloque.
+ */
+public interface InteractionLogRepositoryCustom {
+
+    /**
+     * Inserts the logs with a single JDBC batch.
+     * <p>
+     * Inserta los registros con un único lote JDBC.
+     *
+     * @param logs New logs (without ID). / Registros nuevos (sin ID).
+     */
+    void insertAll(List<InteractionLog> logs);
+}
@@ -0,0 +1,51 @@
+package com.focalizze.Focalizze.repository;
+
+import com.focalizze.Focalizze.models.InteractionLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link InteractionLogRepositoryCustom}.
+ * Like notifications, interaction logs have IDENTITY keys that Hibernate cannot batch; nobody reads the generated IDs,
+ * so they are not fetched back.
+ * <p>
+ * Implementación JDBC de {@link InteractionLogRepositoryCustom}.
+ * Como las notificaciones, los registros de interacción tienen claves IDENTITY que Hibernate no puede agrupar; nadie
+ * lee los IDs generados, así que no se recuperan.
+ */
+@RequiredArgsConstructor
+public class InteractionLogRepositoryCustomImpl implements InteractionLogRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO interaction_log_tbl (type, created_at, user_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<InteractionLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                InteractionLog log = logs.get(i);
+                ps.setString(1, log.getType().name());
+                ps.setTimestamp(2, Timestamp.valueOf(log.getCreatedAt()));
+                ps.setLong(3, log.getUser().getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+    }
+}
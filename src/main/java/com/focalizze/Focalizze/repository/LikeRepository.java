@@ -1,11 +1,17 @@
 package com.focalizze.Focalizze.repository;
 
+import com.focalizze.Focalizze.dto.EngagementPairDto;
 import com.focalizze.Focalizze.models.Like;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,4 +36,23 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
      *         Un {@link Optional} que contiene el Like si existe, o vacío si no.
      */
     Optional<Like> findByUserAndThread(User user, ThreadClass thread);
+
+    /**
+     * Recent (user, thread) like pairs on visible threads, newest first, for the offline similarity index.
+     * <p>
+     * Pares (usuario, hilo) de likes recientes sobre hilos visibles, el más reciente primero, para el índice de similitud.
+     *
+     * @param since    Oldest engagement date to include. / Fecha de interacción más antigua a incluir.
+     * @param pageable Scan limit. / Límite de escaneo.
+     * @return Engagement pairs. / Pares de interacción.
+     */
+    @Query("""
+            SELECT new com.focalizze.Focalizze.dto.EngagementPairDto(l.user.id, t.id, t.user.id, l.createdAt)
+            FROM Like l
+            JOIN l.thread t
+            WHERE l.createdAt >= :since
+            AND t.isPublished = true AND t.isDeleted = false
+            ORDER BY l.createdAt DESC
+            """)
+    List<EngagementPairDto> findEngagementPairsSince(@Param("since") LocalDateTime since, Pageable pageable);
 }
@@ -8,6 +8,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Repository interface for managing {@link NotificationClass} entities.
@@ -16,7 +20,7 @@ import org.springframework.data.repository.query.Param;
  * Interfaz de repositorio para gestionar entidades {@link NotificationClass}.
  * Maneja la obtención, conteo y actualización de notificaciones de usuario.
  */
-public interface NotificationRepository extends JpaRepository<NotificationClass,Long> {
+public interface NotificationRepository extends JpaRepository<NotificationClass,Long>, NotificationRepositoryCustom {
 
     /**
      * Retrieves notifications with eagerly fetched relationships (Trigger User, Thread).
@@ -37,6 +41,64 @@ public interface NotificationRepository extends JpaRepository<NotificationClass,
             countQuery = "SELECT count(n) FROM NotificationClass n WHERE n.user = :user")
     Page<NotificationClass> findByUserWithDetails(@Param("user") User user, Pageable pageable);
 
+    /**
+     * Retrieves the next page of a user's inbox using keyset pagination over {@code (createdAt, id)}, newest first.
+     * Served by the {@code (user_id, created_at, id)} index, without OFFSET or COUNT, so every page costs the same
+     * however long the history is.
+     * <p>
+     * Recupera la siguiente página de la bandeja de un usuario con paginación keyset sobre {@code (createdAt, id)},
+     * la más reciente primero. La sirve el índice {@code (user_id, created_at, id)}, sin OFFSET ni COUNT, así que
+     * cada página cuesta lo mismo por larga que sea la historia.
+     *
+     * @param userId          The owner of the notifications. / El propietario de las notificaciones.
+     * @param cursorCreatedAt Date of the last notification of the previous page (null for the first). / Fecha de la última notificación de la página anterior (null para la primera).
+     * @param cursorId        ID of the last notification of the previous page. / ID de la última notificación de la página anterior.
+     * @param pageable        Page size only (page 0). / Solo el tamaño de página (página 0).
+     */
+    @Query("""
+            SELECT n FROM NotificationClass n
+            LEFT JOIN FETCH n.triggerUser
+            LEFT JOIN FETCH n.thread
+            WHERE n.user.id = :userId
+            AND (
+                :cursorCreatedAt IS NULL
+                OR n.createdAt < :cursorCreatedAt
+                OR (n.createdAt = :cursorCreatedAt AND n.id < :cursorId)
+            )
+            ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<NotificationClass> findByUserAfter(
+            @Param("userId") Long userId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Finds the IDs of read notifications older than the cutoff, oldest first, one chunk at a time.
+     * Served by {@code idx_notification_read_created}, with no sort.
+     * <p>
+     * Busca los IDs de notificaciones leídas anteriores al corte, las más antiguas primero, un bloque cada vez.
+     * Lo sirve {@code idx_notification_read_created}, sin ordenación.
+     *
+     * @param cutoff   Notifications created before this date. / Notificaciones creadas antes de esta fecha.
+     * @param pageable Chunk size only (page 0). / Solo el tamaño del bloque (página 0).
+     */
+    @Query("SELECT n.id FROM NotificationClass n WHERE n.isRead = true AND n.createdAt < :cutoff ORDER BY n.createdAt ASC")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Deletes a chunk of notifications in its own short transaction.
+     * <p>
+     * Elimina un bloque de notificaciones en su propia transacción corta.
+     *
+     * @param ids IDs to delete. / IDs a eliminar.
+     * @return Number of deleted rows. / Número de filas eliminadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationClass n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
     /**
      * Efficiently checks if the user has any unread notifications.
      * <p>
@@ -0,0 +1,24 @@
+package com.focalizze.Focalizze.repository;
+
+import com.focalizze.Focalizze.models.NotificationClass;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for writing notifications in bulk.
+ * <p>
+ * Fragmento de repositorio personalizado para escribir notificaciones en bloque.
+ */
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Inserts the notifications with a single JDBC batch, sets their generated IDs and adds them to the
+     * recipients' unread counters, all in one transaction.
+     * <p>
+     * Inserta las notificaciones con un único lote JDBC, asigna sus IDs generados y las suma a los contadores
+     * de no leídas de los destinatarios, todo en una transacción.
+     *
+     * @param notifications New notifications (without ID). / Notificaciones nuevas (sin ID).
+     */
+    void insertAll(List<NotificationClass> notifications);
+}
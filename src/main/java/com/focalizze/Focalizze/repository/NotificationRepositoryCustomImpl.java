@@ -0,0 +1,92 @@
+package com.focalizze.Focalizze.repository;
+
+import com.focalizze.Focalizze.models.NotificationClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link NotificationRepositoryCustom}.
+ * Hibernate cannot batch inserts of entities with IDENTITY keys, so the buffered notifications are written with a
+ * plain JDBC batch: one round trip per flush instead of one per notification.
+ * <p>
+ * Implementación JDBC de {@link NotificationRepositoryCustom}.
+ * Hibernate no puede agrupar inserciones de entidades con claves IDENTITY, así que las notificaciones acumuladas se
+ * escriben con un lote JDBC simple: un viaje a la BD por volcado en lugar de uno por notificación.
+ */
+@RequiredArgsConstructor
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO notification_tbl " +
+            "(type, message, is_read, created_at, actor_count, user_id, trigger_user_id, thread_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INCREMENT_UNREAD_SQL =
+            "UPDATE user_tbl SET unread_notification_count = unread_notification_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<NotificationClass> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NotificationClass notification = notifications.get(i);
+                        ps.setString(1, notification.getType().name());
+                        ps.setString(2, notification.getMessage());
+                        ps.setBoolean(3, notification.isRead());
+                        ps.setTimestamp(4, Timestamp.valueOf(notification.getCreatedAt()));
+                        ps.setInt(5, notification.getActorCount());
+                        ps.setLong(6, notification.getUser().getId());
+                        setNullableId(ps, 7, notification.getTriggerUser() != null ? notification.getTriggerUser().getId() : null);
+                        setNullableId(ps, 8, notification.getThread() != null ? notification.getThread().getId() : null);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return notifications.size();
+                    }
+                },
+                keyHolder);
+
+        // Keys come back in insertion order / Las claves vuelven en orden de inserción
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < notifications.size(); i++) {
+            Object id = keys.get(i).values().iterator().next();
+            notifications.get(i).setId(((Number) id).longValue());
+        }
+
+        // One counter update per recipient / Una actualización de contador por destinatario
+        Map<Long, Integer> unreadByUser = new LinkedHashMap<>();
+        for (NotificationClass notification : notifications) {
+            if (!notification.isRead()) unreadByUser.merge(notification.getUser().getId(), 1, Integer::sum);
+        }
+        List<Object[]> increments = new ArrayList<>(unreadByUser.size());
+        unreadByUser.forEach((userId, count) -> increments.add(new Object[]{count, userId}));
+        jdbcTemplate.batchUpdate(INCREMENT_UNREAD_SQL, increments);
+    }
+
+    private static void setNullableId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) ps.setLong(index, id);
+        else ps.setNull(index, Types.BIGINT);
+    }
+}
@@ -1,5 +1,6 @@
 package com.focalizze.Focalizze.repository;
 
+import com.focalizze.Focalizze.dto.EngagementPairDto;
 import com.focalizze.Focalizze.models.SavedThreads;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -90,4 +92,23 @@ public interface SavedThreadRepository extends JpaRepository<SavedThreads, Long>
     @Query(value = "SELECT s FROM SavedThreads s JOIN FETCH s.thread WHERE s.user = :user ORDER BY s.createdAt DESC",
             countQuery = "SELECT count(s) FROM SavedThreads s WHERE s.user = :user")
     Page<SavedThreads> findByUserOrderByCreatedAtDesc(@Param("user") User user, Pageable pageable);
+
+    /**
+     * Recent (user, thread) save pairs on visible threads, newest first, for the offline similarity index.
+     * <p>
+     * Pares (usuario, hilo) de guardados recientes sobre hilos visibles, el más reciente primero, para el índice de similitud.
+     *
+     * @param since    Oldest engagement date to include. / Fecha de interacción más antigua a incluir.
+     * @param pageable Scan limit. / Límite de escaneo.
+     * @return Engagement pairs. / Pares de interacción.
+     */
+    @Query("""
+            SELECT new com.focalizze.Focalizze.dto.EngagementPairDto(s.user.id, t.id, t.user.id, s.createdAt)
+            FROM SavedThreads s
+            JOIN s.thread t
+            WHERE s.createdAt >= :since
+            AND t.isPublished = true AND t.isDeleted = false
+            ORDER BY s.createdAt DESC
+            """)
+    List<EngagementPairDto> findEngagementPairsSince(@Param("since") LocalDateTime since, Pageable pageable);
 }
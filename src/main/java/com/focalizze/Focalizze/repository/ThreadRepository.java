@@ -1,6 +1,8 @@
 package com.focalizze.Focalizze.repository;
 
-import com.focalizze.Focalizze.models.CategoryClass;
+import com.focalizze.Focalizze.dto.PostIndexRowDto;
+import com.focalizze.Focalizze.dto.ThreadEngagementDto;
+import com.focalizze.Focalizze.dto.ThreadViewerFlagsDto;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
 import org.springframework.data.domain.Page;
@@ -12,6 +14,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -24,7 +27,7 @@ import java.util.Set;
  * Maneja la recuperación de hilos para feeds, perfiles, búsqueda y descubrimiento.
  */
 @Repository
-public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
+public interface ThreadRepository extends JpaRepository<ThreadClass,Long>, ThreadRepositoryCustom {
     // --- CONSULTAS BASE ---
 
     /**
@@ -98,6 +101,123 @@ public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
             Pageable pageable
     );
 
+    /**
+     * Keyset variant of {@link #findFollowingFeed}: returns threads strictly after the cursor
+     * {@code (publishedAt, id)} with no count query. The {@code publishedAt <= cursor} bound lets the database seek
+     * into {@code idx_thread_visible_published} and read backwards in index order instead of sorting the visible set.
+     * Pass null cursor values for the first page and request {@code size + 1} rows to detect a next page.
+     * <p>
+     * Variante keyset de {@link #findFollowingFeed}: devuelve hilos estrictamente posteriores al cursor
+     * {@code (publishedAt, id)} sin consulta de conteo. La cota {@code publishedAt <= cursor} permite a la base de datos
+     * posicionarse en {@code idx_thread_visible_published} y leer hacia atrás en el orden del índice en lugar de
+     * ordenar el conjunto visible.
+     * Pasar valores null en el cursor para la primera página y pedir {@code size + 1} filas para detectar la siguiente.
+     *
+     * @param cursorPublishedAt Publication date of the last seen thread. / Fecha de publicación del último hilo visto.
+     * @param cursorId          ID of the last seen thread. / ID del último hilo visto.
+     * @param pageable          Only the page size is used. / Solo se usa el tamaño de página.
+     * @return Threads after the cursor. / Hilos posteriores al cursor.
+     */
+    @Query("""
+            SELECT t FROM ThreadClass t
+            JOIN FETCH t.user
+            LEFT JOIN FETCH t.category
+            WHERE t.isPublished = true AND t.isDeleted = false
+            AND (
+                t.user.id IN :followedUserIds
+                OR t.category.id IN :followedCategoryIds
+                OR t.user.id = :currentUserId
+            )
+            AND t.user.id NOT IN :blockedUserIds
+            AND (
+                :cursorPublishedAt IS NULL
+                OR (t.publishedAt <= :cursorPublishedAt
+                    AND (t.publishedAt < :cursorPublishedAt OR t.id < :cursorId))
+            )
+            ORDER BY t.publishedAt DESC, t.id DESC
+            """)
+    List<ThreadClass> findFollowingFeedAfter(
+            @Param("followedUserIds") List<Long> followedUserIds,
+            @Param("followedCategoryIds") List<Long> followedCategoryIds,
+            @Param("currentUserId") Long currentUserId,
+            @Param("blockedUserIds") Set<Long> blockedUserIds,
+            @Param("cursorPublishedAt") LocalDateTime cursorPublishedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * IDs-only variant of {@link #findFollowingFeed}, newest first.
+     * Used to (re)build the precomputed home timeline without hydrating entities.
+     * <p>
+     * Variante de {@link #findFollowingFeed} que solo devuelve IDs, del más reciente al más antiguo.
+     * Usada para (re)construir el timeline precalculado sin hidratar entidades.
+     *
+     * @param followedUserIds     IDs of followed users. / IDs de usuarios seguidos.
+     * @param followedCategoryIds IDs of followed categories. / IDs de categorías seguidas.
+     * @param currentUserId       The ID of the current user. / El ID del usuario actual.
+     * @param blockedUserIds      Blocked user IDs (both directions). / IDs bloqueados (ambas direcciones).
+     * @param pageable            Limit of IDs to load. / Límite de IDs a cargar.
+     * @return Ordered list of thread IDs. / Lista ordenada de IDs de hilos.
+     */
+    @Query("""
+            SELECT t.id FROM ThreadClass t
+            WHERE t.isPublished = true AND t.isDeleted = false
+            AND (
+                t.user.id IN :followedUserIds
+                OR t.category.id IN :followedCategoryIds
+                OR t.user.id = :currentUserId
+            )
+            AND t.user.id NOT IN :blockedUserIds
+            ORDER BY t.publishedAt DESC, t.id DESC
+            """)
+    List<Long> findFollowingFeedIds(
+            @Param("followedUserIds") List<Long> followedUserIds,
+            @Param("followedCategoryIds") List<Long> followedCategoryIds,
+            @Param("currentUserId") Long currentUserId,
+            @Param("blockedUserIds") Set<Long> blockedUserIds,
+            Pageable pageable
+    );
+
+    /**
+     * Batch fetch of published threads by ID, with author and category eagerly loaded.
+     * The result order is not guaranteed; callers must reorder by the requested IDs.
+     * <p>
+     * Búsqueda por lotes de hilos publicados por ID, con autor y categoría cargados ansiosamente.
+     * El orden del resultado no está garantizado; el llamador debe reordenar según los IDs pedidos.
+     *
+     * @param ids The thread IDs. / Los IDs de los hilos.
+     * @return Published, non-deleted threads among the given IDs. / Hilos publicados y no eliminados.
+     */
+    @Query("""
+            SELECT t FROM ThreadClass t
+            LEFT JOIN FETCH t.user u
+            LEFT JOIN FETCH t.category c
+            WHERE t.id IN :ids
+            AND t.isPublished = true AND t.isDeleted = false
+            """)
+    List<ThreadClass> findPublishedByIdsWithDetails(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Resolves the viewer's like and save flags for a page of threads in a single round trip.
+     * <p>
+     * Resuelve las banderas de like y guardado del espectador para una página de hilos en un solo viaje a la BD.
+     *
+     * @param user      The viewer. / El espectador.
+     * @param threadIds The thread IDs on the page. / Los IDs de los hilos de la página.
+     * @return One row of flags per existing thread. / Una fila de banderas por hilo existente.
+     */
+    @Query("""
+            SELECT new com.focalizze.Focalizze.dto.ThreadViewerFlagsDto(
+                t.id,
+                CASE WHEN EXISTS (SELECT 1 FROM Like l WHERE l.thread = t AND l.user = :user) THEN true ELSE false END,
+                CASE WHEN EXISTS (SELECT 1 FROM SavedThreads s WHERE s.thread = t AND s.user = :user) THEN true ELSE false END
+            )
+            FROM ThreadClass t
+            WHERE t.id IN :threadIds
+            """)
+    List<ThreadViewerFlagsDto> findViewerFlagsByThreadIds(@Param("user") User user, @Param("threadIds") Collection<Long> threadIds);
+
     /**
      * Global/Guest Feed: Retrieves all published threads.
      * Uses JOIN FETCH to avoid N+1 problems when displaying author/category.
@@ -161,47 +281,38 @@ public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
 
 
     /**
-     * Finds candidates for recommendations (Discovery logic).
-     * Excludes own threads, already followed users, blocked users, and hidden threads.
-     * Prioritizes threads in followed categories or liked by followed users.
+     * Engagement counters of recently published threads, newest first, used to build the recommendation pools.
+     * Returns a projection so no entity (author, category, collections) is loaded.
      * <p>
-     * Encuentra candidatos para recomendaciones (Lógica de descubrimiento).
-     * Excluye hilos propios, usuarios ya seguidos, bloqueados e hilos ocultos.
-     * Prioriza hilos en categorías seguidas o con "me gusta" de usuarios seguidos.
+     * Contadores de interacción de hilos publicados recientemente, más nuevos primero, usados para construir los
+     * pools de recomendación. Devuelve una proyección, así que no se carga ninguna entidad (autor, categoría, colecciones).
      *
-     * @param currentUserId       Current User ID. / ID Usuario actual.
-     * @param followedUserIds     Followed User IDs. / IDs Usuarios seguidos.
-     * @param followedCategoryIds Followed Category IDs. / IDs Categorías seguidas.
-     * @param hiddenThreadIds     Hidden Thread IDs. / IDs Hilos ocultos.
-     * @param blockedUserIds      Blocked User IDs. / IDs Usuarios bloqueados.
-     * @param pageable            Pagination info. / Información de paginación.
-     * @return List of recommended threads. / Lista de hilos recomendados.
+     * @param since    Oldest publication date to include. / Fecha de publicación más antigua a incluir.
+     * @param pageable Scan limit. / Límite de escaneo.
+     * @return Engagement rows. / Filas de interacción.
      */
-    @Query("SELECT DISTINCT t FROM ThreadClass t " +
-            "LEFT JOIN t.likes l " +
-            "WHERE t.isPublished = true AND t.isDeleted = false " +
-            "AND t.user.id != :currentUserId " +
-            "AND t.user.id NOT IN :followedUserIds " +
-            "AND t.id NOT IN :hiddenThreadIds " +
-            "AND t.user.id NOT IN :blockedUserIds " +
-            "AND (" +
-            "    t.category.id IN :followedCategoryIds " +
-            "    OR l.user.id IN :followedUserIds" +
-            ") " +
-            "ORDER BY t.publishedAt DESC")
-    List<ThreadClass> findRecommendationCandidates(
-            @Param("currentUserId") Long currentUserId,
-            @Param("followedUserIds") List<Long> followedUserIds,
-            @Param("followedCategoryIds") List<Long> followedCategoryIds,
-            @Param("hiddenThreadIds") Set<Long> hiddenThreadIds,
-            @Param("blockedUserIds") Set<Long> blockedUserIds,
-            Pageable pageable);
+    @Query("""
+            SELECT new com.focalizze.Focalizze.dto.ThreadEngagementDto(
+                t.id, u.id, c.id, t.likeCount, t.commentCount, t.saveCount, t.publishedAt
+            )
+            FROM ThreadClass t
+            JOIN t.user u
+            LEFT JOIN t.category c
+            WHERE t.isPublished = true AND t.isDeleted = false
+            AND t.publishedAt >= :since
+            ORDER BY t.publishedAt DESC
+            """)
+    List<ThreadEngagementDto> findEngagementSince(@Param("since") LocalDateTime since, Pageable pageable);
 
 
     /**
      * General discovery query for threads not followed by the user.
+     * Threads the user hid are removed with an anti-join on the (user, thread) unique key, so the cost does not grow
+     * with the number of hidden threads.
      * <p>
      * Consulta general de descubrimiento para hilos no seguidos por el usuario.
+     * Los hilos que el usuario ocultó se excluyen con un anti-join sobre la clave única (usuario, hilo), así que el coste
+     * no crece con el número de hilos ocultos.
      *
      * @param currentUserId   Current User ID. / ID Usuario actual.
      * @param followedUserIds Followed User IDs. / IDs Usuarios seguidos.
@@ -215,6 +326,7 @@ public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
             AND t.user.id != :currentUserId
             AND t.user.id NOT IN :followedUserIds
             AND t.user.id NOT IN :blockedUserIds
+            AND NOT EXISTS (SELECT 1 FROM HiddenContent h WHERE h.user.id = :currentUserId AND h.thread = t)
             ORDER BY t.publishedAt DESC
             """,
             countQuery = """
@@ -223,6 +335,7 @@ public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
             AND t.user.id != :currentUserId
             AND t.user.id NOT IN :followedUserIds
             AND t.user.id NOT IN :blockedUserIds
+            AND NOT EXISTS (SELECT 1 FROM HiddenContent h WHERE h.user.id = :currentUserId AND h.thread = t)
             """)
     Page<ThreadClass> findThreadsForDiscover(
             @Param("currentUserId") Long currentUserId,
@@ -231,6 +344,43 @@ public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
             Pageable pageable
     );
 
+    /**
+     * Keyset variant of {@link #findThreadsForDiscover} ordered by {@code (publishedAt, id)}, without count query.
+     * Served by {@code idx_thread_visible_published}.
+     * <p>
+     * Variante keyset de {@link #findThreadsForDiscover} ordenada por {@code (publishedAt, id)}, sin consulta de conteo.
+     * Servida por {@code idx_thread_visible_published}.
+     *
+     * @param cursorPublishedAt Publication date of the last seen thread (null for first page). / Fecha del último hilo visto (null para la primera página).
+     * @param cursorId          ID of the last seen thread. / ID del último hilo visto.
+     * @param pageable          Only the page size is used. / Solo se usa el tamaño de página.
+     * @return Discovery threads after the cursor. / Hilos de descubrimiento posteriores al cursor.
+     */
+    @Query("""
+            SELECT t FROM ThreadClass t
+            JOIN FETCH t.user
+            LEFT JOIN FETCH t.category
+            WHERE t.isPublished = true AND t.isDeleted = false
+            AND t.user.id != :currentUserId
+            AND t.user.id NOT IN :followedUserIds
+            AND t.user.id NOT IN :blockedUserIds
+            AND NOT EXISTS (SELECT 1 FROM HiddenContent h WHERE h.user.id = :currentUserId AND h.thread = t)
+            AND (
+                :cursorPublishedAt IS NULL
+                OR (t.publishedAt <= :cursorPublishedAt
+                    AND (t.publishedAt < :cursorPublishedAt OR t.id < :cursorId))
+            )
+            ORDER BY t.publishedAt DESC, t.id DESC
+            """)
+    List<ThreadClass> findThreadsForDiscoverAfter(
+            @Param("currentUserId") Long currentUserId,
+            @Param("followedUserIds") List<Long> followedUserIds,
+            @Param("blockedUserIds") Set<Long> blockedUserIds,
+            @Param("cursorPublishedAt") LocalDateTime cursorPublishedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
     // --- LÍMITE DIARIO Y VALIDACIONES ---
 
     /**
@@ -269,18 +419,63 @@ public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
     // --- BÚSQUEDA ---
 
     /**
-     * Searches for threads containing a specific string in their posts (posts content).
-     * Performance Note: Uses LIKE %...% which triggers a full table scan.
+     * Keyset scan of visible thread IDs, used to rebuild the content search index in batches.
      * <p>
-     * Busca hilos que contengan una cadena específica en sus publicaciones (contenido de posts).
-     * Nota de Rendimiento: Usa LIKE %...% lo que provoca un escaneo completo de la tabla.
+     * Recorrido keyset de IDs de hilos visibles, usado para reconstruir el índice de búsqueda por lotes.
      *
-     * @param query The search term. / El término de búsqueda.
-     * @return List of matching threads. / Lista de hilos coincidentes.
+     * @param afterId  Last ID of the previous batch (0 for the first). / Último ID del lote anterior (0 para el primero).
+     * @param pageable Only the batch size is used. / Solo se usa el tamaño del lote.
+     * @return Thread IDs in ascending order. / IDs de hilos en orden ascendente.
      */
-    @Query("SELECT t FROM ThreadClass t WHERE t.isPublished = true AND t.isDeleted = false AND EXISTS  " +
-            "(SELECT 1 FROM t.posts p WHERE LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<ThreadClass> findByPostContentContainingIgnoreCase(@Param("query") String query);
+    @Query("""
+            SELECT t.id FROM ThreadClass t
+            WHERE t.isPublished = true AND t.isDeleted = false
+            AND t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<Long> findVisibleIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * IDs of live or scheduled threads after {@code afterId} that have no hashtags yet but mention {@code #},
+     * in ascending order, for the one-off hashtag backfill.
+     * <p>
+     * IDs de los hilos vivos o programados posteriores a {@code afterId} que aún no tienen hashtags pero mencionan
+     * {@code #}, en orden ascendente, para el relleno puntual de hashtags.
+     *
+     * @param afterId  Last ID of the previous batch (0 for the first). / Último ID del lote anterior (0 para el primero).
+     * @param pageable Only the batch size is used. / Solo se usa el tamaño del lote.
+     * @return Thread IDs in ascending order. / IDs de hilos en orden ascendente.
+     */
+    @Query("""
+            SELECT t.id FROM ThreadClass t
+            WHERE t.isDeleted = false
+            AND t.id > :afterId
+            AND t.hashtags IS EMPTY
+            AND EXISTS (SELECT p.id FROM Post p WHERE p.thread = t AND p.content LIKE '%#%')
+            ORDER BY t.id
+            """)
+    List<Long> findIdsWithoutHashtagsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Post texts of the given threads, projected with the fields the search index filters on.
+     * <p>
+     * Textos de los posts de los hilos dados, proyectados con los campos por los que filtra el índice de búsqueda.
+     *
+     * @param threadIds The thread IDs. / Los IDs de los hilos.
+     * @return One row per post, ordered by thread and position. / Una fila por post, ordenadas por hilo y posición.
+     */
+    @Query("""
+            SELECT new com.focalizze.Focalizze.dto.PostIndexRowDto(
+                t.id, u.id, c.id, t.publishedAt, p.position, p.content
+            )
+            FROM Post p
+            JOIN p.thread t
+            JOIN t.user u
+            LEFT JOIN t.category c
+            WHERE t.id IN :threadIds
+            ORDER BY t.id, p.position
+            """)
+    List<PostIndexRowDto> findPostIndexRows(@Param("threadIds") Collection<Long> threadIds);
 
     // --- CATEGORÍAS ---
 
@@ -299,13 +494,77 @@ public interface ThreadRepository extends JpaRepository<ThreadClass,Long> {
     Page<ThreadClass> findPublishedThreadsByCategoryName(@Param("categoryName") String categoryName, Pageable pageable);
 
     /**
-     * Finds all published threads for a category entity.
+     * Keyset page of a category's published threads, newest first, skipping blocked authors in the query itself.
+     * Served by {@code idx_thread_category_published}.
      * <p>
-     * Encuentra todos los hilos publicados para una entidad de categoría.
+     * Página keyset de los hilos publicados de una categoría, el más reciente primero, omitiendo a los autores
+     * bloqueados en la propia consulta. Servida por {@code idx_thread_category_published}.
      *
-     * @param category The category entity. / La entidad categoría.
-     * @return List of threads. / Lista de hilos.
+     * @param categoryId        The category ID. / El ID de la categoría.
+     * @param blockedUserIds    Authors to exclude ({@code -1L} placeholder when empty). / Autores a excluir (marcador {@code -1L} si está vacío).
+     * @param cursorPublishedAt Publication date of the last seen thread (null for first page). / Fecha del último hilo visto (null para la primera página).
+     * @param cursorId          ID of the last seen thread. / ID del último hilo visto.
+     * @param pageable          Only the page size is used. / Solo se usa el tamaño de página.
+     * @return Threads after the cursor. / Hilos posteriores al cursor.
      */
-    @Query("SELECT t FROM ThreadClass t WHERE t.category = :category AND t.isPublished = true AND t.isDeleted = false")
-    List<ThreadClass> findByCategory(@Param("category") CategoryClass category);
-}
\ No newline at end of file
+    @Query("""
+            SELECT t FROM ThreadClass t
+            JOIN FETCH t.user
+            LEFT JOIN FETCH t.category
+            WHERE t.category.id = :categoryId
+            AND t.isPublished = true AND t.isDeleted = false
+            AND t.user.id NOT IN :blockedUserIds
+            AND (
+                :cursorPublishedAt IS NULL
+                OR (t.publishedAt <= :cursorPublishedAt
+                    AND (t.publishedAt < :cursorPublishedAt OR t.id < :cursorId))
+            )
+            ORDER BY t.publishedAt DESC, t.id DESC
+            """)
+    List<ThreadClass> findByCategoryAfter(
+            @Param("categoryId") Long categoryId,
+            @Param("blockedUserIds") Set<Long> blockedUserIds,
+            @Param("cursorPublishedAt") LocalDateTime cursorPublishedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Keyset page of the published threads carrying a hashtag, newest first, skipping blocked authors.
+     * For popular tags the database can walk {@code idx_thread_visible_published} in order and probe
+     * {@code idx_thread_hashtags_tag}; rare tags are cheaper to read from the tag index and sort.
+     * <p>
+     * Página keyset de los hilos publicados con una etiqueta, el más reciente primero, omitiendo a los autores bloqueados.
+     * Para etiquetas populares la base de datos puede recorrer {@code idx_thread_visible_published} en orden y consultar
+     * {@code idx_thread_hashtags_tag}; las etiquetas raras salen más baratas leyendo el índice de etiquetas y ordenando.
+     *
+     * @param tag               Normalized tag, without {@code #}. / Etiqueta normalizada, sin {@code #}.
+     * @param blockedUserIds    Authors to exclude ({@code -1L} placeholder when empty). / Autores a excluir (marcador {@code -1L} si está vacío).
+     * @param cursorPublishedAt Publication date of the last seen thread (null for first page). / Fecha del último hilo visto (null para la primera página).
+     * @param cursorId          ID of the last seen thread. / ID del último hilo visto.
+     * @param pageable          Only the page size is used. / Solo se usa el tamaño de página.
+     * @return Threads after the cursor. / Hilos posteriores al cursor.
+     */
+    @Query("""
+            SELECT t FROM ThreadClass t
+            JOIN t.hashtags tag
+            JOIN FETCH t.user
+            LEFT JOIN FETCH t.category
+            WHERE tag = :tag
+            AND t.isPublished = true AND t.isDeleted = false
+            AND t.user.id NOT IN :blockedUserIds
+            AND (
+                :cursorPublishedAt IS NULL
+                OR (t.publishedAt <= :cursorPublishedAt
+                    AND (t.publishedAt < :cursorPublishedAt OR t.id < :cursorId))
+            )
+            ORDER BY t.publishedAt DESC, t.id DESC
+            """)
+    List<ThreadClass> findByHashtagAfter(
+            @Param("tag") String tag,
+            @Param("blockedUserIds") Set<Long> blockedUserIds,
+            @Param("cursorPublishedAt") LocalDateTime cursorPublishedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+}
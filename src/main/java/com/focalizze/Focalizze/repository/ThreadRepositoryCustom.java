@@ -0,0 +1,21 @@
+package com.focalizze.Focalizze.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Custom repository fragment for writing thread hashtags in bulk.
+ * <p>
+ * Fragmento de repositorio personalizado para escribir hashtags de hilos en bloque.
+ */
+public interface ThreadRepositoryCustom {
+
+    /**
+     * Inserts the given hashtags with a single JDBC batch. The threads must not have hashtags yet.
+     * <p>
+     * Inserta los hashtags dados con un único lote JDBC. Los hilos aún no deben tener hashtags.
+     *
+     * @param tagsByThread Normalized tags per thread ID. / Etiquetas normalizadas por ID de hilo.
+     */
+    void insertHashtags(Map<Long, Set<String>> tagsByThread);
+}
@@ -0,0 +1,51 @@
+package com.focalizze.Focalizze.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC implementation of {@link ThreadRepositoryCustom}.
+ * Writing the {@code thread_hashtags} rows directly avoids loading every thread and its collection just to backfill tags.
+ * <p>
+ * Implementación JDBC de {@link ThreadRepositoryCustom}.
+ * Escribir las filas de {@code thread_hashtags} directamente evita cargar cada hilo y su colección solo para rellenar etiquetas.
+ */
+@RequiredArgsConstructor
+public class ThreadRepositoryCustomImpl implements ThreadRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO thread_hashtags (thread_id, tag) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertHashtags(Map<Long, Set<String>> tagsByThread) {
+        List<Object[]> rows = new ArrayList<>();
+        tagsByThread.forEach((threadId, tags) -> tags.forEach(tag -> rows.add(new Object[]{threadId, tag})));
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] row = rows.get(i);
+                ps.setLong(1, (Long) row[0]);
+                ps.setString(2, (String) row[1]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package com.focalizze.Focalizze.repository;
 
+import com.focalizze.Focalizze.dto.UsernameIndexRowDto;
 import com.focalizze.Focalizze.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -70,15 +72,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean findUserNameAvailable(@Param("username") String username);
 
     /**
-     * Autocomplete helper: Finds up to 5 users starting with the prefix.
+     * Keyset scan of the fields the username autocomplete index needs, used to build it in batches.
      * <p>
-     * Ayuda de autocompletado: Encuentra hasta 5 usuarios que comienzan con el prefijo.
+     * Recorrido keyset de los campos que necesita el índice de autocompletado de nombres, usado para construirlo por lotes.
      *
-     * @param prefix The search prefix. / El prefijo de búsqueda.
-     * @return List of matching users. / Lista de usuarios coincidentes.
+     * @param afterId  Last ID of the previous batch (0 for the first). / Último ID del lote anterior (0 para el primero).
+     * @param pageable Only the batch size is used. / Solo se usa el tamaño del lote.
+     * @return Users in ascending ID order. / Usuarios en orden ascendente de ID.
      */
-    @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT(:prefix, '%'))")
-    List<User> findTop5ByUsernameStartingWithIgnoreCase(String prefix);
+    @Query("""
+            SELECT new com.focalizze.Focalizze.dto.UsernameIndexRowDto(
+                u.id, u.username, u.displayName, u.avatarUrl, u.followersCount
+            )
+            FROM User u
+            WHERE u.id > :afterId
+            ORDER BY u.id
+            """)
+    List<UsernameIndexRowDto> findUsernameIndexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
 
     // --- MÉTODOS DE ACTUALIZACIÓN DE CONTADORES ---
@@ -127,6 +137,90 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("UPDATE User u SET u.followersCount = u.followersCount - 1 WHERE u.id = :userId")
     void decrementFollowersCount(@Param("userId") Long userId);
 
+    /**
+     * Atomically increments the published thread count.
+     * <p>
+     * Incrementa atómicamente el conteo de hilos publicados.
+     *
+     * @param userId The ID of the user. / El ID del usuario.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.publishedThreadCount = u.publishedThreadCount + 1 WHERE u.id = :userId")
+    void incrementPublishedThreadCount(@Param("userId") Long userId);
+
+    /**
+     * Atomically decrements the published thread count, never below zero.
+     * <p>
+     * Decrementa atómicamente el conteo de hilos publicados, nunca por debajo de cero.
+     *
+     * @param userId The ID of the user. / El ID del usuario.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.publishedThreadCount = u.publishedThreadCount - 1 WHERE u.id = :userId AND u.publishedThreadCount > 0")
+    void decrementPublishedThreadCount(@Param("userId") Long userId);
+
+    /**
+     * Recomputes the published thread count of every user whose stored value has drifted.
+     * <p>
+     * Recalcula el conteo de hilos publicados de cada usuario cuyo valor almacenado se ha desviado.
+     *
+     * @return Number of corrected users. / Número de usuarios corregidos.
+     */
+    @Modifying
+    @Query("""
+            UPDATE User u SET u.publishedThreadCount = (
+                SELECT COUNT(t) FROM ThreadClass t
+                WHERE t.user.id = u.id AND t.isPublished = true AND t.isDeleted = false
+            )
+            WHERE u.publishedThreadCount <> (
+                SELECT COUNT(t2) FROM ThreadClass t2
+                WHERE t2.user.id = u.id AND t2.isPublished = true AND t2.isDeleted = false
+            )
+            """)
+    int reconcilePublishedThreadCounts();
+
+    /**
+     * Reads the stored unread notification count of a user.
+     * <p>
+     * Lee el conteo almacenado de notificaciones no leídas de un usuario.
+     *
+     * @param userId The ID of the user. / El ID del usuario.
+     * @return The count, empty if the user does not exist. / El conteo, vacío si el usuario no existe.
+     */
+    @Query("SELECT u.unreadNotificationCount FROM User u WHERE u.id = :userId")
+    Optional<Integer> findUnreadNotificationCountById(@Param("userId") Long userId);
+
+    /**
+     * Resets the unread notification count after the user reads everything.
+     * <p>
+     * Pone a cero el conteo de notificaciones no leídas cuando el usuario lo lee todo.
+     *
+     * @param userId The ID of the user. / El ID del usuario.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.unreadNotificationCount = 0 WHERE u.id = :userId")
+    void resetUnreadNotificationCount(@Param("userId") Long userId);
+
+    /**
+     * Recomputes the unread notification count of every user whose stored value has drifted.
+     * <p>
+     * Recalcula el conteo de notificaciones no leídas de cada usuario cuyo valor almacenado se ha desviado.
+     *
+     * @return Number of corrected users. / Número de usuarios corregidos.
+     */
+    @Modifying
+    @Query("""
+            UPDATE User u SET u.unreadNotificationCount = (
+                SELECT COUNT(n) FROM NotificationClass n
+                WHERE n.user.id = u.id AND n.isRead = false
+            )
+            WHERE u.unreadNotificationCount <> (
+                SELECT COUNT(n2) FROM NotificationClass n2
+                WHERE n2.user.id = u.id AND n2.isRead = false
+            )
+            """)
+    int reconcileUnreadNotificationCounts();
+
     /**
      * Retrieves all users matching a list of usernames.
      * <p>
@@ -0,0 +1,13 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.utils.PoolCandidate;
+
+import java.util.List;
+
+public interface CandidatePoolService {
+    List<PoolCandidate> getCategoryPool(Long categoryId);
+
+    List<PoolCandidate> getTrendingPool();
+
+    void refresh();
+}
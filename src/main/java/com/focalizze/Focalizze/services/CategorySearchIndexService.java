@@ -0,0 +1,9 @@
+package com.focalizze.Focalizze.services;
+
+import java.util.Optional;
+
+public interface CategorySearchIndexService {
+    Optional<Long> resolveId(String name);
+
+    void rebuild();
+}
@@ -0,0 +1,22 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.utils.ContentSearchFilter;
+import com.focalizze.Focalizze.utils.SearchResults;
+import com.focalizze.Focalizze.utils.ThreadSearchIndex;
+
+import java.util.List;
+
+public interface ContentSearchIndexService {
+    List<ThreadSearchIndex.Hit> search(String query, ContentSearchFilter filter, int limit);
+
+    List<ThreadSearchIndex.Hit> search(String query, ContentSearchFilter filter, ThreadSearchIndex.Hit after, int limit);
+
+    SearchResults searchResults(String query, ContentSearchFilter filter, int limit);
+
+    void index(ThreadClass thread);
+
+    void remove(Long threadId);
+
+    void rebuild();
+}
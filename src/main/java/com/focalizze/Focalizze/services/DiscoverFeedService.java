@@ -1,5 +1,6 @@
 package com.focalizze.Focalizze.services;
 
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.DiscoverItemDto;
 import com.focalizze.Focalizze.models.User;
 import org.springframework.data.domain.Page;
@@ -7,4 +8,6 @@ import org.springframework.data.domain.Pageable;
 
 public interface DiscoverFeedService {
     Page<DiscoverItemDto> getDiscoverFeed(User currentUser, Pageable pageable);
+
+    CursorPageDto<DiscoverItemDto> getDiscoverFeedByCursor(User currentUser, String cursor, int size);
 }
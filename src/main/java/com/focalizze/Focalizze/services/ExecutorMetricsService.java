@@ -0,0 +1,9 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.dto.ExecutorStatsDto;
+
+import java.util.List;
+
+public interface ExecutorMetricsService {
+    List<ExecutorStatsDto> getStats();
+}
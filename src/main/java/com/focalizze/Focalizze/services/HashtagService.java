@@ -0,0 +1,20 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.dto.CursorPageDto;
+import com.focalizze.Focalizze.dto.FeedThreadDto;
+import com.focalizze.Focalizze.dto.TrendingHashtagDto;
+import com.focalizze.Focalizze.models.ThreadClass;
+
+import java.util.List;
+
+public interface HashtagService {
+    void applyHashtags(ThreadClass thread);
+
+    void recordPublished(ThreadClass thread);
+
+    int backfillHashtags();
+
+    CursorPageDto<FeedThreadDto> getThreadsByTag(String tag, String cursor, int size);
+
+    List<TrendingHashtagDto> getTrending(int limit);
+}
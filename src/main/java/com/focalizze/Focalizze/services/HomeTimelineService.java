@@ -0,0 +1,14 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.utils.TimelineSnapshot;
+
+public interface HomeTimelineService {
+    TimelineSnapshot getTimeline(Long userId);
+
+    void onThreadPublished(ThreadClass thread);
+
+    void onThreadRemoved(Long threadId);
+
+    void invalidate(Long userId);
+}
@@ -13,5 +13,7 @@ public interface InteractionLimitService {
 
     public void refundInteraction(User user, InteractionType type);
 
+    public void flushPending();
+
 
 }
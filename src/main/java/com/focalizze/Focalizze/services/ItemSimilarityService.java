@@ -0,0 +1,9 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.utils.ItemSimilarityIndex;
+
+public interface ItemSimilarityService {
+    ItemSimilarityIndex getIndex();
+
+    void rebuild();
+}
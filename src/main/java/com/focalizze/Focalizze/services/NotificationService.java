@@ -1,5 +1,6 @@
 package com.focalizze.Focalizze.services;
 
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.NotificationDto;
 import com.focalizze.Focalizze.models.NotificationType;
 import com.focalizze.Focalizze.models.ThreadClass;
@@ -13,6 +14,14 @@ public interface NotificationService {
 
     Page<NotificationDto> getNotificationsForUser(User user, Pageable pageable);
 
+    CursorPageDto<NotificationDto> getNotificationsByCursor(User user, String cursor, int size);
+
     boolean hasUnreadNotifications(User user);
+
+    int getUnreadCount(User user);
     void markAllAsRead(User user);
+
+    void flushPending();
+
+    void evictUnreadCounts();
 }
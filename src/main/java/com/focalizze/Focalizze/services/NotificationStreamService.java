@@ -0,0 +1,14 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.models.User;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface NotificationStreamService {
+    SseEmitter subscribe(User user);
+
+    void send(String username, String destination, Object payload);
+
+    void sendHeartbeat();
+
+    int getConnectionCount();
+}
@@ -0,0 +1,14 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.dto.DiscoverItemDto;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface RecommendationCacheService {
+    List<DiscoverItemDto> getRanked(Long userId, Supplier<List<DiscoverItemDto>> loader);
+
+    int getCapacity();
+
+    void invalidate(Long userId);
+}
@@ -0,0 +1,9 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+
+public interface RelationshipCacheService {
+    RelationshipSnapshot getSnapshot(Long userId);
+
+    void evict(Long userId);
+}
@@ -0,0 +1,19 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.utils.SearchQueryKey;
+import com.focalizze.Focalizze.utils.SearchResults;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface SearchResultCacheService {
+    SearchResults get(SearchQueryKey key, Supplier<SearchResults> loader);
+
+    int getDepth();
+
+    void invalidateThread(Long threadId, Long categoryId, List<String> contents);
+
+    void invalidateThread(Long threadId);
+
+    void invalidateAll();
+}
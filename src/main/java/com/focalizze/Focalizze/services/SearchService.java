@@ -1,5 +1,7 @@
 package com.focalizze.Focalizze.services;
 
+import com.focalizze.Focalizze.dto.ContentSearchFiltersDto;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.ThreadResponseDto;
 import com.focalizze.Focalizze.dto.UserSearchDto;
 
@@ -9,5 +11,5 @@ public interface SearchService {
 
     List<UserSearchDto> searchUsersByPrefix(String prefix);
 
-    List<ThreadResponseDto> searchContent(String query);
+    CursorPageDto<ThreadResponseDto> searchContent(String query, ContentSearchFiltersDto filters, String cursor, int size);
 }
@@ -0,0 +1,7 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.utils.SeenFilter;
+
+public interface SeenItemsService {
+    SeenFilter getFilter(Long userId, boolean newSession);
+}
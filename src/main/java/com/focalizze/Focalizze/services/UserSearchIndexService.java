@@ -0,0 +1,16 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.utils.UsernameIndex;
+
+import java.util.List;
+
+public interface UserSearchIndexService {
+    List<UsernameIndex.Entry> searchByPrefix(String prefix, int limit);
+
+    List<UsernameIndex.Entry> searchFuzzy(String query, int limit);
+
+    void index(User user);
+
+    void rebuild();
+}
@@ -0,0 +1,7 @@
+package com.focalizze.Focalizze.services;
+
+import com.focalizze.Focalizze.dto.WebSocketStatsDto;
+
+public interface WebSocketMetricsService {
+    WebSocketStatsDto getStats();
+}
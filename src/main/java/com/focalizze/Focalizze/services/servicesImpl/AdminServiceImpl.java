@@ -5,6 +5,9 @@ import com.focalizze.Focalizze.models.*;
 import com.focalizze.Focalizze.repository.ReportRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.AdminService;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.HashtagService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -33,6 +36,9 @@ public class AdminServiceImpl implements AdminService {
     private final ReportRepository reportRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final HomeTimelineService homeTimelineService;
+    private final ContentSearchIndexService contentSearchIndexService;
+    private final HashtagService hashtagService;
 
     @Value("${app.default-avatar-url}")
     private String defaultAvatarUrl;
@@ -129,7 +135,12 @@ public class AdminServiceImpl implements AdminService {
             case "DISMISS" -> report.setStatus(ReportStatus.DISMISSED);
 
             case "DELETE" -> {
+                if (thread.isPublished() && !thread.isDeleted()) {
+                    userRepository.decrementPublishedThreadCount(thread.getUser().getId());
+                }
                 thread.setDeleted(true); // Delete logico
+                homeTimelineService.onThreadRemoved(thread.getId());
+                contentSearchIndexService.remove(thread.getId());
                 report.setStatus(ReportStatus.ACTION_TAKEN);
             }
 
@@ -145,6 +156,8 @@ public class AdminServiceImpl implements AdminService {
                 if (request.newContentPost3() != null && posts.size() > 2) {
                     posts.get(2).setContent(request.newContentPost3());
                 }
+                hashtagService.applyHashtags(thread);
+                contentSearchIndexService.index(thread);
 
                 report.setStatus(ReportStatus.ACTION_TAKEN);
             }
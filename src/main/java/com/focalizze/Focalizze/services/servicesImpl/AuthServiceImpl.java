@@ -8,6 +8,7 @@ import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.models.UserRole;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.AuthService;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,6 +30,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RegisterMapper registerMapper;
+    private final UserSearchIndexService userSearchIndexService;
 
     /**
      * Registers a new user in the system.
@@ -64,6 +66,7 @@ public class AuthServiceImpl implements AuthService {
 
         User user = createUserFromRequest(registerRequest);
         User savedUser = userRepository.save(user);
+        userSearchIndexService.index(savedUser);
 
         return registerMapper.toRegisterResponse(savedUser);
     }
@@ -7,6 +7,9 @@ import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.FollowRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.BlockService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -33,6 +36,9 @@ public class BlockServiceImpl implements BlockService {
     private final UserRepository userRepository;
     private final BlockRepository blockRepository;
     private final FollowRepository followRepository;
+    private final HomeTimelineService homeTimelineService;
+    private final RelationshipCacheService relationshipCacheService;
+    private final RecommendationCacheService recommendationCacheService;
 
     @Value("${app.default-avatar-url}")
     private String defaultAvatarUrl;
@@ -71,6 +77,15 @@ public class BlockServiceImpl implements BlockService {
         // Comprobar si ya existe una relación de bloqueo
         Optional<Block> existingBlock = blockRepository.findByBlockerAndBlocked(currentUser, userToToggle);
 
+        // Both users' timelines, cached relations and recommendations depend on the block: rebuild them on next read
+        // Los timelines, relaciones y recomendaciones cacheadas de ambos dependen del bloqueo: se reconstruyen en la próxima lectura
+        homeTimelineService.invalidate(currentUser.getId());
+        homeTimelineService.invalidate(userToToggle.getId());
+        relationshipCacheService.evict(currentUser.getId());
+        relationshipCacheService.evict(userToToggle.getId());
+        recommendationCacheService.invalidate(currentUser.getId());
+        recommendationCacheService.invalidate(userToToggle.getId());
+
         if (existingBlock.isPresent()) {
             // UNBLOCK Logic
             // Lógica de DESBLOQUEO
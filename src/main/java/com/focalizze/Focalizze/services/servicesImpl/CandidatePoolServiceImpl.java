@@ -0,0 +1,135 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.ThreadEngagementDto;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.CandidatePoolService;
+import com.focalizze.Focalizze.utils.PoolCandidate;
+import com.focalizze.Focalizze.utils.ThreadScoring;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Implementation of the {@link CandidatePoolService} interface.
+ * Keeps score-sorted recommendation candidates in memory (one pool per category plus a global trending pool),
+ * rebuilt periodically from a single projection query, so discover requests only filter and rank in memory.
+ * <p>
+ * Implementación de la interfaz {@link CandidatePoolService}.
+ * Mantiene en memoria candidatos de recomendación ordenados por puntuación (un pool por categoría más un pool
+ * global de tendencias), reconstruidos periódicamente con una sola consulta de proyección, de modo que las
+ * peticiones de descubrir solo filtran y ordenan en memoria.
+ */
+@Service
+@Slf4j
+public class CandidatePoolServiceImpl implements CandidatePoolService {
+
+    private static final Comparator<PoolCandidate> BY_SCORE_DESC =
+            Comparator.comparingDouble(PoolCandidate::score).reversed()
+                    .thenComparing(Comparator.comparingLong(PoolCandidate::threadId).reversed());
+
+    private final ThreadRepository threadRepository;
+    private final int windowDays;
+    private final int scanLimit;
+    private final int categoryPoolSize;
+    private final int trendingPoolSize;
+
+    // Immutable snapshot swapped atomically on refresh / Instantánea inmutable que se reemplaza atómicamente al refrescar
+    private volatile Pools pools;
+
+    public CandidatePoolServiceImpl(ThreadRepository threadRepository,
+                                    @Value("${app.recommendations.pool.window-days:7}") int windowDays,
+                                    @Value("${app.recommendations.pool.scan-limit:5000}") int scanLimit,
+                                    @Value("${app.recommendations.pool.category-size:200}") int categoryPoolSize,
+                                    @Value("${app.recommendations.pool.trending-size:500}") int trendingPoolSize) {
+        this.threadRepository = threadRepository;
+        this.windowDays = windowDays;
+        this.scanLimit = scanLimit;
+        this.categoryPoolSize = categoryPoolSize;
+        this.trendingPoolSize = trendingPoolSize;
+    }
+
+    /**
+     * Returns the score-sorted pool of a category (empty if unknown).
+     * <p>
+     * Devuelve el pool ordenado por puntuación de una categoría (vacío si no existe).
+     *
+     * @param categoryId The category ID. / El ID de la categoría.
+     * @return Immutable pool, best first. / Pool inmutable, el mejor primero.
+     */
+    @Override
+    public List<PoolCandidate> getCategoryPool(Long categoryId) {
+        return currentPools().byCategory().getOrDefault(categoryId, List.of());
+    }
+
+    /**
+     * Returns the global score-sorted trending pool.
+     * <p>
+     * Devuelve el pool global de tendencias ordenado por puntuación.
+     *
+     * @return Immutable pool, best first. / Pool inmutable, el mejor primero.
+     */
+    @Override
+    public List<PoolCandidate> getTrendingPool() {
+        return currentPools().trending();
+    }
+
+    /**
+     * Rebuilds all pools from the most recent threads in the scoring window.
+     * <p>
+     * Reconstruye todos los pools a partir de los hilos más recientes de la ventana de puntuación.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ThreadEngagementDto> rows = threadRepository.findEngagementSince(
+                now.minusDays(windowDays), PageRequest.of(0, scanLimit));
+
+        List<PoolCandidate> scored = new ArrayList<>(rows.size());
+        for (ThreadEngagementDto row : rows) {
+            double score = ThreadScoring.score(row.likeCount(), row.commentCount(), row.saveCount(), row.publishedAt(), now);
+            scored.add(new PoolCandidate(row.threadId(), row.authorId(), row.categoryId(), score));
+        }
+        scored.sort(BY_SCORE_DESC);
+
+        // Already sorted: each category keeps its best entries in order
+        // Ya ordenado: cada categoría conserva sus mejores entradas en orden
+        Map<Long, List<PoolCandidate>> byCategory = new HashMap<>();
+        for (PoolCandidate candidate : scored) {
+            if (candidate.categoryId() == null) continue;
+            List<PoolCandidate> pool = byCategory.computeIfAbsent(candidate.categoryId(), id -> new ArrayList<>());
+            if (pool.size() < categoryPoolSize) {
+                pool.add(candidate);
+            }
+        }
+        byCategory.replaceAll((id, pool) -> List.copyOf(pool));
+
+        List<PoolCandidate> trending = List.copyOf(scored.subList(0, Math.min(trendingPoolSize, scored.size())));
+
+        this.pools = new Pools(Map.copyOf(byCategory), trending);
+        log.debug("Recommendation pools rebuilt from {} threads ({} categories). / Pools de recomendación reconstruidos desde {} hilos ({} categorías).",
+                rows.size(), byCategory.size(), rows.size(), byCategory.size());
+    }
+
+    // Builds the pools on first use if the scheduler has not run yet
+    // Construye los pools en el primer uso si el programador aún no se ha ejecutado
+    private Pools currentPools() {
+        Pools current = pools;
+        if (current == null) {
+            synchronized (this) {
+                if (pools == null) {
+                    refresh();
+                }
+                current = pools;
+            }
+        }
+        return current;
+    }
+
+    private record Pools(Map<Long, List<PoolCandidate>> byCategory, List<PoolCandidate> trending) {}
+}
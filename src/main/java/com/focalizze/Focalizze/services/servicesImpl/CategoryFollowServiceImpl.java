@@ -6,6 +6,9 @@ import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.CategoryFollowRepository;
 import com.focalizze.Focalizze.repository.CategoryRepository;
 import com.focalizze.Focalizze.services.CategoryFollowService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -26,6 +29,9 @@ public class CategoryFollowServiceImpl implements CategoryFollowService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryFollowRepository categoryFollowRepository;
+    private final HomeTimelineService homeTimelineService;
+    private final RelationshipCacheService relationshipCacheService;
+    private final RecommendationCacheService recommendationCacheService;
 
     /**
      * Toggles the follow status of a category for a user.
@@ -54,6 +60,12 @@ public class CategoryFollowServiceImpl implements CategoryFollowService {
         Optional<CategoryFollow> existingFollow = categoryFollowRepository
                 .findByUserAndCategory(currentUser, category);
 
+        // The user's timeline sources, cached relations and recommendations change: rebuild them on next read
+        // Las fuentes del timeline, las relaciones y las recomendaciones cacheadas cambian: se reconstruyen en la próxima lectura
+        homeTimelineService.invalidate(currentUser.getId());
+        relationshipCacheService.evict(currentUser.getId());
+        recommendationCacheService.invalidate(currentUser.getId());
+
         if (existingFollow.isPresent()) {
             // Unfollow logic
             // Lógica de dejar de seguir
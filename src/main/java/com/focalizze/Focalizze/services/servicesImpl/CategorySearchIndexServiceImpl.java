@@ -0,0 +1,85 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.models.CategoryClass;
+import com.focalizze.Focalizze.repository.CategoryRepository;
+import com.focalizze.Focalizze.services.CategorySearchIndexService;
+import com.focalizze.Focalizze.utils.TrigramIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Implementation of the {@link CategorySearchIndexService} interface.
+ * Resolves a typed category name to a category even with accents missing or a small typo ("tecnolgia"), using a
+ * {@link TrigramIndex} over category names. Only whole names match, and only above a high similarity, so an ordinary
+ * search word is not mistaken for a category.
+ * <p>
+ * Implementación de la interfaz {@link CategorySearchIndexService}.
+ * Resuelve un nombre de categoría escrito a una categoría aunque falten tildes o haya una pequeña errata ("tecnolgia"),
+ * usando un {@link TrigramIndex} sobre los nombres de categoría. Solo coinciden nombres completos, y solo con una
+ * similitud alta, para no confundir una palabra de búsqueda corriente con una categoría.
+ */
+@Service
+@Slf4j
+public class CategorySearchIndexServiceImpl implements CategorySearchIndexService {
+
+    private final CategoryRepository categoryRepository;
+    private final double minSimilarity;
+    private final TrigramIndex<Long> index;
+
+    private volatile boolean loaded;
+    private Set<Long> indexedIds = Set.of();
+
+    public CategorySearchIndexServiceImpl(CategoryRepository categoryRepository,
+                                          @Value("${app.search.fuzzy.max-candidates:2000}") int maxCandidates,
+                                          @Value("${app.search.fuzzy.category-similarity:0.85}") double minSimilarity) {
+        this.categoryRepository = categoryRepository;
+        this.minSimilarity = minSimilarity;
+        this.index = new TrigramIndex<>(maxCandidates, false);
+    }
+
+    /**
+     * Returns the ID of the category whose name best matches, if it is close enough.
+     * <p>
+     * Devuelve el ID de la categoría cuyo nombre mejor coincide, si se parece lo suficiente.
+     *
+     * @param name The typed name. / El nombre escrito.
+     * @return The category ID, or empty. / El ID de la categoría, o vacío.
+     */
+    @Override
+    public Optional<Long> resolveId(String name) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) rebuild();
+            }
+        }
+        return index.search(name, 1, minSimilarity, Comparator.naturalOrder()).stream()
+                .findFirst()
+                .map(TrigramIndex.Match::value);
+    }
+
+    /**
+     * Applies the current categories to the index: renamed ones are re-indexed and removed ones dropped.
+     * <p>
+     * Aplica las categorías actuales al índice: las renombradas se reindexan y las eliminadas se quitan.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Set<Long> present = new HashSet<>();
+        for (CategoryClass category : categoryRepository.findAll()) {
+            present.add(category.getId());
+            index.put(category.getId(), category.getId(), List.of(category.getName()));
+        }
+        Set<Long> stale = new HashSet<>(indexedIds);
+        stale.removeAll(present);
+        stale.forEach(index::remove);
+        indexedIds = present;
+        loaded = true;
+        log.debug("Category name index refreshed with {} categories. / Índice de nombres de categoría actualizado con {} categorías.",
+                present.size(), present.size());
+    }
+}
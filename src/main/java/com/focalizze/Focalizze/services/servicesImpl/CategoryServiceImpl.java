@@ -6,11 +6,11 @@ import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.CategoryClass;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.CategoryRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.CategoryService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.LongIdSet;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -23,9 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -40,10 +38,9 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
     private final ThreadRepository threadRepository;
     private final ThreadEnricher threadEnricher;
-    private final BlockRepository blockRepository;
+    private final RelationshipCacheService relationshipCacheService;
 
     /**
      * Retrieves all available categories.
@@ -58,26 +55,17 @@ public class CategoryServiceImpl implements CategoryService {
     public List<CategoryDto> getAllCategories() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        Set<Long> followedCategoryIds = new HashSet<>();
+        LongIdSet followedCategoryIds = LongIdSet.empty();
 
-        // Check if principal is a User instance to determine followed categories
-        // Comprobar si el principal es una instancia de User para determinar categorías seguidas
+        // Check if principal is a User instance to determine followed categories (cached relations)
+        // Comprobar si el principal es una instancia de User para determinar categorías seguidas (relaciones cacheadas)
         if (authentication != null && authentication.getPrincipal() instanceof User authenticatedUser) {
-
-            // Fetch fresh user data to ensure collections are initialized
-            // Obtener datos frescos del usuario para asegurar que las colecciones estén inicializadas
-            userRepository.findById(authenticatedUser.getId())
-                    .ifPresent(user -> {
-                        if (user.getFollowedCategories() != null) {
-                            user.getFollowedCategories().forEach(cf ->
-                                    followedCategoryIds.add(cf.getCategory().getId()));
-                        }
-                    });
+            followedCategoryIds = relationshipCacheService.getSnapshot(authenticatedUser.getId()).followedCategoryIds();
         }
 
         List<CategoryClass> allCategories = categoryRepository.findAll();
 
-        final Set<Long> finalFollowedCategoryIds = followedCategoryIds;
+        final LongIdSet finalFollowedCategoryIds = followedCategoryIds;
 
         return allCategories.stream().map(category -> new CategoryDto(
                 category.getId(),
@@ -131,7 +119,7 @@ public class CategoryServiceImpl implements CategoryService {
         Page<ThreadClass> threadPage = threadRepository.findPublishedThreadsByCategoryName(name, pageable);
 
         User currentUser = null;
-        Set<Long> blockedUserIds = new HashSet<>();
+        LongIdSet blockedUserIds = LongIdSet.empty();
 
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -141,8 +129,7 @@ public class CategoryServiceImpl implements CategoryService {
 
             // 1. Fetch blocked IDs (Both directions: I blocked them, or they blocked me)
             // 1. Obtener IDs bloqueados (Ambas direcciones: Yo los bloqueé, o ellos me bloquearon)
-            blockedUserIds.addAll(blockRepository.findBlockedUserIdsByBlocker(currentUser.getId()));
-            blockedUserIds.addAll(blockRepository.findUserIdsWhoBlockedUser(currentUser.getId()));
+            blockedUserIds = relationshipCacheService.getSnapshot(currentUser.getId()).blockedUserIds();
         }
 
         List<ThreadClass> threadsToProcess = threadPage.getContent();
@@ -150,8 +137,9 @@ public class CategoryServiceImpl implements CategoryService {
         // 2. Filter in memory if there are blocked users
         // 2. Filtrar en memoria si hay usuarios bloqueados
         if (!blockedUserIds.isEmpty()) {
+            final LongIdSet finalBlockedUserIds = blockedUserIds;
             threadsToProcess = threadsToProcess.stream()
-                    .filter(thread -> !blockedUserIds.contains(thread.getUser().getId()))
+                    .filter(thread -> !finalBlockedUserIds.contains(thread.getUser().getId()))
                     .toList();
         }
 
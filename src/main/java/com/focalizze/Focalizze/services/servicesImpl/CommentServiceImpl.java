@@ -6,13 +6,13 @@ import com.focalizze.Focalizze.dto.UserDto;
 import com.focalizze.Focalizze.dto.mappers.CommentMapper;
 import com.focalizze.Focalizze.dto.mappers.UserMapper;
 import com.focalizze.Focalizze.models.*;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.CommentRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.CommentService;
 import com.focalizze.Focalizze.services.InteractionLimitService;
 import com.focalizze.Focalizze.services.NotificationService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.LongIdSet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,8 +25,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -36,8 +34,7 @@ public class CommentServiceImpl  implements CommentService {
     private final CommentMapper commentMapper;
     private final InteractionLimitService interactionLimitService;
     private final NotificationService notificationService;
-    private final BlockRepository blockRepository;
-    private final UserRepository userRepository;
+    private final RelationshipCacheService relationshipCacheService;
     private final UserMapper userMapper;
 
     @Override
@@ -48,18 +45,13 @@ public class CommentServiceImpl  implements CommentService {
 
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        Set<Long> blockedByCurrentUser = userRepository.findBlockedUserIdsByBlocker(currentUser.getId());
-        Set<Long> whoBlockedCurrentUser = userRepository.findUserIdsWhoBlockedUser(currentUser.getId());
-
-        Set<Long> allBlockedIds = new HashSet<>();
-        allBlockedIds.addAll(blockedByCurrentUser);
-        allBlockedIds.addAll(whoBlockedCurrentUser);
+        LongIdSet allBlockedIds = relationshipCacheService.getSnapshot(currentUser.getId()).blockedUserIds();
 
         Page<CommentClass> comments;
         if (allBlockedIds.isEmpty()) {
             comments = commentRepository.findActiveCommentsByThread(thread, pageable);
         } else {
-            comments = commentRepository.findActiveRootCommentsByThreadAndFilterBlocked(thread, allBlockedIds, pageable);
+            comments = commentRepository.findActiveRootCommentsByThreadAndFilterBlocked(thread, allBlockedIds.toQuerySet(), pageable);
         }
 
         return comments.map(commentMapper::toCommentResponseDto);
@@ -72,8 +64,8 @@ public class CommentServiceImpl  implements CommentService {
                 .orElseThrow(() -> new RuntimeException("Thread no encontrado"));
 
         User threadAuthor = thread.getUser();
-        boolean isBlocked = blockRepository.existsByBlockerAndBlocked(currentUser, threadAuthor) ||
-                blockRepository.existsByBlockerAndBlocked(threadAuthor, currentUser);
+        boolean isBlocked = relationshipCacheService.getSnapshot(currentUser.getId())
+                .blockedUserIds().contains(threadAuthor.getId());
 
         if (isBlocked) {
             throw new AccessDeniedException("No puedes comentar en este hilo debido a una restricción de bloqueo.");
@@ -0,0 +1,180 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.PostIndexRowDto;
+import com.focalizze.Focalizze.models.Post;
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.SearchResultCacheService;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.focalizze.Focalizze.utils.ContentSearchFilter;
+import com.focalizze.Focalizze.utils.SearchResults;
+import com.focalizze.Focalizze.utils.ThreadSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link ContentSearchIndexService} interface.
+ * Serves content search from an in-memory {@link ThreadSearchIndex} instead of a {@code LIKE '%q%'} scan over every post.
+ * The index is built from the database on first use (and by the scheduled rebuild) and kept current incrementally
+ * when threads are published, edited or deleted. Changes made while a rebuild runs are replayed on the new index.
+ * Inside a transaction, a change reaches the index only after commit, so a rollback leaves it untouched.
+ * <p>
+ * Implementación de la interfaz {@link ContentSearchIndexService}.
+ * Sirve la búsqueda de contenido desde un {@link ThreadSearchIndex} en memoria en lugar de un escaneo {@code LIKE '%q%'}
+ * sobre todos los posts. El índice se construye desde la BD en el primer uso (y en la reconstrucción programada) y se
+ * mantiene al día de forma incremental cuando se publican, editan o borran hilos. Los cambios hechos durante una
+ * reconstrucción se reaplican sobre el índice nuevo.
+ * Dentro de una transacción, un cambio llega al índice solo tras el commit, así que un rollback no lo altera.
+ */
+@Service
+@Slf4j
+public class ContentSearchIndexServiceImpl implements ContentSearchIndexService {
+
+    private final ThreadRepository threadRepository;
+    private final SearchResultCacheService searchResultCacheService;
+    private final int batchSize;
+
+    private final Object rebuildLock = new Object();
+    private volatile ThreadSearchIndex index;
+    // Non-null while a rebuild runs / No null mientras se ejecuta una reconstrucción
+    private List<Consumer<ThreadSearchIndex>> pending;
+
+    public ContentSearchIndexServiceImpl(ThreadRepository threadRepository,
+                                         SearchResultCacheService searchResultCacheService,
+                                         @Value("${app.search.index.batch-size:500}") int batchSize) {
+        this.threadRepository = threadRepository;
+        this.searchResultCacheService = searchResultCacheService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<ThreadSearchIndex.Hit> search(String query, ContentSearchFilter filter, int limit) {
+        return search(query, filter, null, limit);
+    }
+
+    @Override
+    public List<ThreadSearchIndex.Hit> search(String query, ContentSearchFilter filter, ThreadSearchIndex.Hit after, int limit) {
+        return getIndex().search(query, filter == null ? ContentSearchFilter.NONE : filter, after, limit);
+    }
+
+    @Override
+    public SearchResults searchResults(String query, ContentSearchFilter filter, int limit) {
+        return getIndex().searchResults(query, filter == null ? ContentSearchFilter.NONE : filter, limit);
+    }
+
+    /**
+     * Adds or replaces a thread. Unpublished or deleted threads are removed instead.
+     * <p>
+     * Añade o reemplaza un hilo. Los hilos no publicados o borrados se eliminan en su lugar.
+     *
+     * @param thread The thread, with its posts. / El hilo, con sus posts.
+     */
+    @Override
+    public void index(ThreadClass thread) {
+        if (thread.getId() == null) {
+            return;
+        }
+        if (!thread.isPublished() || thread.isDeleted()) {
+            remove(thread.getId());
+            return;
+        }
+
+        long threadId = thread.getId();
+        long authorId = thread.getUser().getId();
+        Long categoryId = thread.getCategory() != null ? thread.getCategory().getId() : null;
+        List<String> contents = thread.getPosts().stream()
+                .sorted(Comparator.comparing(Post::getPosition))
+                .map(Post::getContent)
+                .toList();
+        LocalDateTime publishedAt = thread.getPublishedAt();
+        // Read now, while the posts are loaded; applied after commit / Se lee ahora, con los posts cargados; se aplica tras el commit
+        AfterCommit.run(() -> apply(target -> target.put(threadId, authorId, categoryId, publishedAt, contents)));
+        searchResultCacheService.invalidateThread(threadId, categoryId, contents);
+    }
+
+    @Override
+    public void remove(Long threadId) {
+        if (threadId == null) {
+            return;
+        }
+        AfterCommit.run(() -> apply(target -> target.remove(threadId)));
+        searchResultCacheService.invalidateThread(threadId);
+    }
+
+    /**
+     * Builds a fresh index from every visible thread, in keyset batches, and swaps it in.
+     * <p>
+     * Construye un índice nuevo con todos los hilos visibles, por lotes keyset, y lo sustituye.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+
+            ThreadSearchIndex fresh = new ThreadSearchIndex();
+            long afterId = 0;
+            List<Long> batch;
+            do {
+                batch = threadRepository.findVisibleIdsAfter(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) break;
+                addRows(fresh, threadRepository.findPostIndexRows(batch));
+                afterId = batch.get(batch.size() - 1);
+            } while (batch.size() == batchSize);
+
+            synchronized (this) {
+                // Changes made during the scan are newer than what it read / Los cambios hechos durante el escaneo son más nuevos que lo leído
+                pending.forEach(change -> change.accept(fresh));
+                pending = null;
+                index = fresh;
+            }
+            // Scores depend on the whole corpus / Las puntuaciones dependen de todo el corpus
+            searchResultCacheService.invalidateAll();
+            log.info("Content search index rebuilt with {} threads. / Índice de búsqueda reconstruido con {} hilos.",
+                    fresh.size(), fresh.size());
+        }
+    }
+
+    private ThreadSearchIndex getIndex() {
+        if (index == null) {
+            synchronized (rebuildLock) {
+                if (index == null) {
+                    rebuild();
+                }
+            }
+        }
+        return index;
+    }
+
+    private synchronized void apply(Consumer<ThreadSearchIndex> change) {
+        // Before the first build there is nothing to update: the build reads the database
+        // Antes de la primera construcción no hay nada que actualizar: la construcción lee la BD
+        if (index != null) change.accept(index);
+        if (pending != null) pending.add(change);
+    }
+
+    // Rows come ordered by thread and position / Las filas llegan ordenadas por hilo y posición
+    private void addRows(ThreadSearchIndex target, List<PostIndexRowDto> rows) {
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !rows.get(i).threadId().equals(rows.get(start).threadId())) {
+                PostIndexRowDto first = rows.get(start);
+                List<String> contents = rows.subList(start, i).stream().map(PostIndexRowDto::content).toList();
+                target.put(first.threadId(), first.authorId(), first.categoryId(), first.publishedAt(), contents);
+                start = i;
+            }
+        }
+    }
+}
@@ -1,25 +1,30 @@
 package com.focalizze.Focalizze.services.servicesImpl;
 
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.DiscoverItemDto;
 import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.DiscoverFeedService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
 import com.focalizze.Focalizze.services.RecommendationService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.services.SeenItemsService;
+import com.focalizze.Focalizze.utils.FeedCursor;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+import com.focalizze.Focalizze.utils.SeenFilter;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Implementation of the {@link DiscoverFeedService} interface.
@@ -35,11 +40,14 @@ public class DiscoverFeedServiceImpl implements DiscoverFeedService {
     private final ThreadRepository threadRepository;
     private final RecommendationService recommendationService;
     private final ThreadEnricher threadEnricher;
-    private final UserRepository userRepository;
+    private final RelationshipCacheService relationshipCacheService;
+    private final RecommendationCacheService recommendationCacheService;
+    private final SeenItemsService seenItemsService;
 
     // Configuration: 1 recommendation inserted every 3 normal items
     // Configuración: 1 recomendación insertada cada 3 ítems normales
     private static final int INSERTION_RATE = 3;
+    private static final int MAX_PAGE_SIZE = 50;
 
     /**
      * Retrieves a paginated discover feed.
@@ -58,42 +66,98 @@ public class DiscoverFeedServiceImpl implements DiscoverFeedService {
     @Override
     @Transactional(readOnly = true)
     public Page<DiscoverItemDto> getDiscoverFeed(User currentUser, Pageable pageable) {
-        // 1. Get Followed User IDs (To exclude them from "Discover" feed)
-        // 1. Obtener IDs de Usuarios Seguidos (Para excluirlos del feed "Discover")
-        User userWithFollows = userRepository.findByIdWithFollows(currentUser.getId()).orElse(currentUser);
-        List<Long> followedUserIds = userWithFollows.getFollowing().stream()
-                .map(f -> f.getUserFollowed().getId()).toList();
-
-        // 2. Blocked Logic (Consolidated)
-        // 2. Lógica de Bloqueos (Consolidada)
-        Set<Long> allBlockedIds = new HashSet<>();
-        allBlockedIds.addAll(userRepository.findBlockedUserIdsByBlocker(currentUser.getId()));
-        allBlockedIds.addAll(userRepository.findUserIdsWhoBlockedUser(currentUser.getId()));
-
-        if (allBlockedIds.isEmpty()) {
-            allBlockedIds.add(-1L);
-        }
+        // 1-2. Followed users (excluded from "Discover") and blocks, from the relationship cache
+        // 1-2. Usuarios seguidos (excluidos de "Discover") y bloqueos, desde la caché de relaciones
+        RelationshipSnapshot relations = relationshipCacheService.getSnapshot(currentUser.getId());
 
         // 3. Fetch "Normal Threads" (Base of the Discover Feed)
         // 3. Obtener "Hilos Normales" (Base del Feed de Descubrimiento)
         Page<ThreadClass> normalPage = threadRepository.findThreadsForDiscover(
-                currentUser.getId(), followedUserIds,allBlockedIds, pageable
+                currentUser.getId(),
+                relations.followedUserIds().toQueryList(),
+                relations.blockedUserIds().toQuerySet(),
+                pageable
+        );
+
+        // Each page continues where the previous one left off in the cached ranking; page 0 starts a new "seen" session
+        // Cada página continúa donde la anterior se quedó en el ranking cacheado; la página 0 inicia una nueva sesión de "vistos"
+        int firstRecommendation = pageable.isPaged() ? pageable.getPageNumber() * (pageable.getPageSize() / INSERTION_RATE) : 0;
+        boolean newSession = !pageable.isPaged() || pageable.getPageNumber() == 0;
+        List<DiscoverItemDto> mixedFeed = mixWithRecommendations(normalPage.getContent(), currentUser, firstRecommendation, newSession);
+
+        // Return PageImpl maintaining the total elements from the main query for pagination logic
+        // Devolver PageImpl manteniendo el total de elementos de la consulta principal para la lógica de paginación
+        return new PageImpl<>(mixedFeed, pageable, normalPage.getTotalElements());
+    }
+
+    /**
+     * Cursor-based discover feed for infinite scroll.
+     * Organic threads are read with a keyset query on {@code (publishedAt, id)} and no count query.
+     * <p>
+     * Feed de descubrimiento basado en cursor para scroll infinito.
+     * Los hilos orgánicos se leen con una consulta keyset sobre {@code (publishedAt, id)} y sin consulta de conteo.
+     *
+     * @param currentUser The user requesting the feed. / El usuario que solicita el feed.
+     * @param cursor      Opaque cursor from the previous page (null for first page). / Cursor opaco de la página anterior (null para la primera).
+     * @param size        Number of organic threads per page, clamped to {@link #MAX_PAGE_SIZE}.
+     *                    Número de hilos orgánicos por página, limitado a {@link #MAX_PAGE_SIZE}.
+     * @return A {@link CursorPageDto} of mixed items. / Un {@link CursorPageDto} de ítems mezclados.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<DiscoverItemDto> getDiscoverFeedByCursor(User currentUser, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        RelationshipSnapshot relations = relationshipCacheService.getSnapshot(currentUser.getId());
+
+        List<ThreadClass> threads = threadRepository.findThreadsForDiscoverAfter(
+                currentUser.getId(),
+                relations.followedUserIds().toQueryList(),
+                relations.blockedUserIds().toQuerySet(),
+                after == null ? null : after.publishedAt(),
+                after == null ? null : after.id(),
+                PageRequest.of(0, pageSize + 1)
         );
 
-        List<FeedThreadDto> normalDtos = threadEnricher.enrichList(normalPage.getContent(), currentUser);
+        // One extra row tells whether another page exists / Una fila extra indica si existe otra página
+        boolean hasNext = threads.size() > pageSize;
+        List<ThreadClass> pageThreads = hasNext ? threads.subList(0, pageSize) : threads;
+        String nextCursor = hasNext ? FeedCursor.of(pageThreads.get(pageThreads.size() - 1)).encode() : null;
 
-        // 4. Calculate required recommendations
-        // 4. Calcular recomendaciones requeridas
-        int recommendationsNeeded = (normalDtos.size() / INSERTION_RATE) + 2; // Pedimos un par extra por si acaso
+        return new CursorPageDto<>(mixWithRecommendations(pageThreads, currentUser, 0, after == null), nextCursor, hasNext);
+    }
 
-        // 4. Obtener recomendaciones (sigue igual)
-        List<DiscoverItemDto> recommendations = recommendationService.getRecommendations(currentUser, recommendationsNeeded);
+    /**
+     * Enriches the organic threads and interleaves one recommendation every {@link #INSERTION_RATE} items,
+     * taken from the user's cached ranking starting at {@code firstRecommendation}.
+     * Organic threads come from a unique keyset or offset page and are never filtered, so a repeated page returns the
+     * same items; they are only recorded as shown. Recommendations skip every thread already shown in the session.
+     * <p>
+     * Enriquece los hilos orgánicos e intercala una recomendación cada {@link #INSERTION_RATE} ítems,
+     * tomada del ranking cacheado del usuario a partir de {@code firstRecommendation}.
+     * Los hilos orgánicos vienen de una página keyset u offset única y nunca se filtran, así que una página repetida
+     * devuelve los mismos ítems; solo se registran como mostrados. Las recomendaciones omiten todo hilo ya mostrado en la sesión.
+     */
+    private List<DiscoverItemDto> mixWithRecommendations(List<ThreadClass> normalThreads, User currentUser,
+                                                         int firstRecommendation, boolean newSession) {
+        SeenFilter seen = seenItemsService.getFilter(currentUser.getId(), newSession);
+
+        // Record organic threads so recommendations skip them; a retried page or a false positive must not hide them
+        // Registrar los orgánicos para que las recomendaciones los omitan; un reintento o un falso positivo no debe ocultarlos
+        for (ThreadClass thread : normalThreads) {
+            seen.add(thread.getId());
+        }
+        List<FeedThreadDto> normalDtos = threadEnricher.enrichList(normalThreads, currentUser);
 
+        // 4. Ranked recommendations: one cache read per page, the pipeline only runs on a miss
+        // 4. Recomendaciones ordenadas: una lectura de caché por página, el proceso solo se ejecuta si falla
+        List<DiscoverItemDto> ranked = recommendationCacheService.getRanked(currentUser.getId(),
+                () -> recommendationService.getRecommendations(currentUser, recommendationCacheService.getCapacity()));
         // 5. MIX THE LISTS / MEZCLAR LAS LISTAS
         // Optimization: Pre-allocate capacity to prevent array copying during insertion
         // Optimización: Pre-asignar capacidad para prevenir copia de arrays durante la inserción
-        List<DiscoverItemDto> mixedFeed = new ArrayList<>(normalDtos.size() + recommendations.size());
-        int recIndex = 0;
+        List<DiscoverItemDto> mixedFeed = new ArrayList<>(normalDtos.size() + normalDtos.size() / INSERTION_RATE);
+        int recIndex = firstRecommendation;
 
         for (int i = 0; i < normalDtos.size(); i++) {
             // Add normal thread / Añadir hilo normal
@@ -101,13 +165,18 @@ public class DiscoverFeedServiceImpl implements DiscoverFeedService {
 
             // Insert recommendation every 'INSERTION_RATE' normal threads
             // Insertar recomendación cada 'INSERTION_RATE' hilos normales
-            if ((i + 1) % INSERTION_RATE == 0 && recIndex < recommendations.size()) {
-                mixedFeed.add(recommendations.get(recIndex++));
+            // Skipping recommendations already shown (or present as organic items on this page)
+            // Saltando recomendaciones ya mostradas (o presentes como ítems orgánicos en esta página)
+            if ((i + 1) % INSERTION_RATE == 0) {
+                while (recIndex < ranked.size()) {
+                    DiscoverItemDto recommendation = ranked.get(recIndex++);
+                    if (seen.add(recommendation.thread().id())) {
+                        mixedFeed.add(recommendation);
+                        break;
+                    }
+                }
             }
         }
-
-        // Return PageImpl maintaining the total elements from the main query for pagination logic
-        // Devolver PageImpl manteniendo el total de elementos de la consulta principal para la lógica de paginación
-        return new PageImpl<>(mixedFeed, pageable, normalPage.getTotalElements());
+        return mixedFeed;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.focalizze.Focalizze.services.servicesImpl;
 
+import com.focalizze.Focalizze.configurations.AsyncConfig;
 import com.focalizze.Focalizze.services.EmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -33,7 +34,7 @@ public class EmailServiceImpl implements EmailService {
      * @param to    The recipient's email address. / La dirección de correo del destinatario.
      * @param token The reset token. / El token de restablecimiento.
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     @Override
     public void sendPasswordResetEmail(String to, String token) {
         try {
@@ -69,7 +70,7 @@ public class EmailServiceImpl implements EmailService {
      * @param to   The recipient's email address. / La dirección de correo del destinatario.
      * @param code The numeric OTP code. / El código numérico OTP.
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     @Override
     public void sendTwoFactorCode(String to, String code) {
         try {
@@ -0,0 +1,37 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.ExecutorStatsDto;
+import com.focalizze.Focalizze.services.ExecutorMetricsService;
+import com.focalizze.Focalizze.utils.InstrumentedTaskExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of the {@link ExecutorMetricsService} interface.
+ * Collects the load counters of every asynchronous pool (queue depth, queue wait, rejections) for monitoring.
+ * <p>
+ * Implementación de la interfaz {@link ExecutorMetricsService}.
+ * Recoge los contadores de carga de cada pool asíncrono (profundidad de cola, espera en cola, rechazos) para monitorización.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExecutorMetricsServiceImpl implements ExecutorMetricsService {
+
+    private final List<InstrumentedTaskExecutor> executors;
+
+    /**
+     * Returns the current counters of each pool, ordered by name.
+     * <p>
+     * Devuelve los contadores actuales de cada pool, ordenados por nombre.
+     */
+    @Override
+    public List<ExecutorStatsDto> getStats() {
+        return executors.stream()
+                .map(InstrumentedTaskExecutor::snapshot)
+                .sorted(Comparator.comparing(ExecutorStatsDto::name))
+                .toList();
+    }
+}
@@ -1,25 +1,33 @@
 package com.focalizze.Focalizze.services.servicesImpl;
 
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.FeedService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.FeedCursor;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
+import com.focalizze.Focalizze.utils.TimelineSnapshot;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * Implementation of the {@link FeedService} interface.
@@ -31,16 +39,22 @@ import java.util.Set;
 @Service
 @RequiredArgsConstructor
 public class FeedServiceImpl implements FeedService {
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final ThreadRepository threadRepository;
     private final ThreadEnricher threadEnricher;
     private final UserRepository userRepository;
+    private final HomeTimelineService homeTimelineService;
+    private final RelationshipCacheService relationshipCacheService;
 
     /**
      * Generates the "Following" feed for the authenticated user.
-     * Aggregates threads, filters blocked users, and enriches data (likes, saved status).
+     * Pages inside the in-memory home timeline are served from it (ID slice + batch fetch);
+     * deeper pages fall back to the SQL aggregation query.
      * <p>
      * Genera el feed "Siguiendo" para el usuario autenticado.
-     * Agrega hilos, filtra usuarios bloqueados y enriquece datos (likes, estado guardado).
+     * Las páginas dentro del timeline en memoria se sirven desde él (segmento de IDs + búsqueda por lotes);
+     * las páginas más profundas recurren a la consulta SQL de agregación.
      *
      * @param pageable Pagination info. / Información de paginación.
      * @return A {@link Page} of enriched {@link FeedThreadDto}.
@@ -49,51 +63,29 @@ public class FeedServiceImpl implements FeedService {
     @Override
     @Transactional(readOnly = true)
     public Page<FeedThreadDto> getFeed(Pageable pageable) {
-        //  Get authenticated user
-        // Obtener usuario autenticado
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new EntityNotFoundException("User not found / Usuario no encontrado"));
-
-        // Extract IDs from Lazy Collections (Fetched inside transaction)
-        // Extraer IDs de Colecciones Lazy (Obtenidas dentro de la transacción)
-        List<Long> followedUserIds = new ArrayList<>(
-                currentUser.getFollowing().stream()
-                        .map(follow -> follow.getUserFollowed().getId())
-                        .toList()
-        );
+        User currentUser = getAuthenticatedUser();
+        RelationshipSnapshot relations = relationshipCacheService.getSnapshot(currentUser.getId());
 
-        List<Long> followedCategoryIds = new ArrayList<>(
-                currentUser.getFollowedCategories().stream()
-                        .map(categoryFollow -> categoryFollow.getCategory().getId())
-                        .toList()
-        );
+        if (pageable.isPaged()) {
+            TimelineSnapshot snapshot = homeTimelineService.getTimeline(currentUser.getId());
+            List<Long> timeline = snapshot.threadIds();
+            boolean complete = !snapshot.truncated();
+            long pageEnd = pageable.getOffset() + pageable.getPageSize();
 
-        // Hibernate might generate invalid SQL for "IN ()". We add a dummy ID (-1L).
-        // Hibernate podría generar SQL inválido para "IN ()". Agregamos un ID ficticio (-1L).
-        if (followedUserIds.isEmpty()) {
-            followedUserIds.add(-1L);
-        }
-        if (followedCategoryIds.isEmpty()) {
-            followedCategoryIds.add(-1L);
-        }
-
-        // --- BLOCKED USERS HANDLING / MANEJO DE USUARIOS BLOQUEADOS ---
-        Set<Long> allBlockedIds = new HashSet<>();
-        allBlockedIds.addAll(userRepository.findBlockedUserIdsByBlocker(currentUser.getId()));
-        allBlockedIds.addAll(userRepository.findUserIdsWhoBlockedUser(currentUser.getId()));
-
-        if (allBlockedIds.isEmpty()) {
-            allBlockedIds.add(-1L); // SQL Safety / Seguridad SQL
+            // A complete timeline holds every matching thread; a truncated one only covers its first pages
+            // Un timeline completo contiene todos los hilos; uno truncado solo cubre sus primeras páginas
+            if (complete || pageEnd <= timeline.size()) {
+                return getFeedFromTimeline(timeline, complete, currentUser, relations.blockedUserIds(), pageable);
+            }
         }
 
         // Query the Repository (Includes Self-Threads logic)
         // Consultar el Repositorio (Incluye lógica de Hilos Propios)
         Page<ThreadClass> threadPage = threadRepository.findFollowingFeed(
-                followedUserIds,
-                followedCategoryIds,
+                relations.followedUserIds().toQueryList(),
+                relations.followedCategoryIds().toQueryList(),
                 currentUser.getId(),
-                allBlockedIds,
+                relations.blockedUserIds().toQuerySet(),
                 pageable
         );
 
@@ -102,4 +94,129 @@ public class FeedServiceImpl implements FeedService {
 
         return new PageImpl<>(enrichedContent, pageable, threadPage.getTotalElements());
     }
+
+    /**
+     * Cursor-based "Following" feed for infinite scroll. No total count is computed.
+     * The home timeline is used while the cursor falls inside it; otherwise a keyset query on
+     * {@code (publishedAt, id)} is used, so every page costs the same regardless of depth.
+     * <p>
+     * Feed "Siguiendo" basado en cursor para scroll infinito. No se calcula el total.
+     * Se usa el timeline en memoria mientras el cursor esté dentro de él; si no, una consulta keyset sobre
+     * {@code (publishedAt, id)}, de modo que cada página cuesta lo mismo sin importar la profundidad.
+     *
+     * @param cursor Opaque cursor from the previous page (null for first page). / Cursor opaco de la página anterior (null para la primera).
+     * @param size   Page size, clamped to {@link #MAX_PAGE_SIZE}. / Tamaño de página, limitado a {@link #MAX_PAGE_SIZE}.
+     * @return A {@link CursorPageDto} with the next cursor. / Un {@link CursorPageDto} con el siguiente cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<FeedThreadDto> getFeedByCursor(String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        User currentUser = getAuthenticatedUser();
+        RelationshipSnapshot relations = relationshipCacheService.getSnapshot(currentUser.getId());
+
+        // 1. Try the in-memory timeline / Intentar con el timeline en memoria
+        TimelineSnapshot snapshot = homeTimelineService.getTimeline(currentUser.getId());
+        List<Long> timeline = snapshot.threadIds();
+        int from = after == null ? 0 : timeline.indexOf(after.id()) + 1;
+        if (from > 0 || after == null) {
+            List<Long> slice = timeline.subList(Math.min(from, timeline.size()), Math.min(from + pageSize + 1, timeline.size()));
+            boolean complete = !snapshot.truncated();
+            if (slice.size() > pageSize || complete) {
+                boolean hasNext = slice.size() > pageSize;
+                List<ThreadClass> threads = loadInOrder(hasNext ? slice.subList(0, pageSize) : slice);
+                // A slice of only stale IDs gives no cursor to resume from: fall through to SQL
+                // Un segmento de solo IDs obsoletos no da cursor para continuar: se pasa a SQL
+                if (!threads.isEmpty() || !hasNext) {
+                    return toCursorPage(threads, hasNext, relations.blockedUserIds(), currentUser);
+                }
+            }
+        }
+
+        // 2. Keyset query / Consulta keyset
+        List<ThreadClass> threads = threadRepository.findFollowingFeedAfter(
+                relations.followedUserIds().toQueryList(),
+                relations.followedCategoryIds().toQueryList(),
+                currentUser.getId(),
+                relations.blockedUserIds().toQuerySet(),
+                after == null ? null : after.publishedAt(),
+                after == null ? null : after.id(),
+                PageRequest.of(0, pageSize + 1)
+        );
+
+        boolean hasNext = threads.size() > pageSize;
+        return toCursorPage(hasNext ? threads.subList(0, pageSize) : threads, hasNext, relations.blockedUserIds(), currentUser);
+    }
+
+    /**
+     * Builds a feed page from a slice of the home timeline.
+     * <p>
+     * Construye una página del feed a partir de un segmento del timeline.
+     */
+    private Page<FeedThreadDto> getFeedFromTimeline(List<Long> timeline, boolean complete, User currentUser,
+                                                    LongIdSet blockedIds, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), timeline.size());
+        int to = Math.min(from + pageable.getPageSize(), timeline.size());
+
+        // If the timeline is truncated there may be older threads in the database, so keep "hasNext" open
+        // Si el timeline está truncado puede haber hilos más antiguos en la BD, así que se mantiene "hasNext" abierto
+        long total = complete ? timeline.size() : timeline.size() + 1L;
+
+        List<ThreadClass> ordered = loadInOrder(timeline.subList(from, to)).stream()
+                .filter(thread -> !blockedIds.contains(thread.getUser().getId()))
+                .toList();
+        return new PageImpl<>(threadEnricher.enrichList(ordered, currentUser), pageable, total);
+    }
+
+    /**
+     * Batch-loads threads by ID and re-sorts them to match the given order.
+     * <p>
+     * Carga hilos por lotes y los reordena según el orden dado.
+     */
+    private List<ThreadClass> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ThreadClass> byId = new HashMap<>();
+        for (ThreadClass thread : threadRepository.findPublishedByIdsWithDetails(ids)) {
+            byId.put(thread.getId(), thread);
+        }
+
+        List<ThreadClass> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ThreadClass thread = byId.get(id);
+            if (thread != null) {
+                ordered.add(thread);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Builds the cursor page. The cursor is taken before filtering blocked authors so the next page
+     * always resumes after the last row read.
+     * <p>
+     * Construye la página con cursor. El cursor se toma antes de filtrar autores bloqueados para que la
+     * siguiente página siempre continúe tras la última fila leída.
+     */
+    private CursorPageDto<FeedThreadDto> toCursorPage(List<ThreadClass> threads, boolean hasNext,
+                                                      LongIdSet blockedIds, User currentUser) {
+        String nextCursor = hasNext && !threads.isEmpty()
+                ? FeedCursor.of(threads.get(threads.size() - 1)).encode()
+                : null;
+        List<ThreadClass> visible = threads.stream()
+                .filter(thread -> !blockedIds.contains(thread.getUser().getId()))
+                .toList();
+        return new CursorPageDto<>(threadEnricher.enrichList(visible, currentUser), nextCursor, nextCursor != null);
+    }
+
+    private User getAuthenticatedUser() {
+        //  Get authenticated user
+        // Obtener usuario autenticado
+        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByUsername(currentUsername)
+                .orElseThrow(() -> new EntityNotFoundException("User not found / Usuario no encontrado"));
+    }
 }
@@ -6,6 +6,8 @@ import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.HiddenContentRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.services.FeedbackService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -26,6 +28,8 @@ import java.util.Set;
 public class FeedbackServiceImpl implements FeedbackService {
     private final HiddenContentRepository hiddenRepo;
     private final ThreadRepository threadRepo;
+    private final RecommendationCacheService recommendationCacheService;
+    private final RelationshipCacheService relationshipCacheService;
 
     /**
      * Hides a specific thread for the current user.
@@ -56,6 +60,11 @@ public class FeedbackServiceImpl implements FeedbackService {
                 .build();
 
         hiddenRepo.save(hidden);
+
+        // The cached hidden set and ranking no longer match: rebuild them on the next read
+        // El conjunto de ocultos y el ranking cacheados ya no coinciden: se reconstruyen en la próxima lectura
+        relationshipCacheService.evict(currentUser.getId());
+        recommendationCacheService.invalidate(currentUser.getId());
     }
 
     /**
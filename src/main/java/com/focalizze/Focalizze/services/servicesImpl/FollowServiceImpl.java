@@ -8,7 +8,10 @@ import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.FollowRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.FollowService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
 import com.focalizze.Focalizze.services.NotificationService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -28,6 +31,9 @@ public class FollowServiceImpl implements FollowService {
     private final FollowRepository followRepository;
     private final NotificationService notificationService;
     private final BlockRepository blockRepository;
+    private final HomeTimelineService homeTimelineService;
+    private final RelationshipCacheService relationshipCacheService;
+    private final RecommendationCacheService recommendationCacheService;
 
     @Override
     @Transactional
@@ -52,6 +58,11 @@ public class FollowServiceImpl implements FollowService {
         Optional<Follow> existingFollow = followRepository
                 .findByUserFollowerAndUserFollowed(currentUser, userToFollow);
 
+        // El timeline, las relaciones y las recomendaciones cacheadas del seguidor cambian: se reconstruyen en la próxima lectura.
+        homeTimelineService.invalidate(currentUser.getId());
+        relationshipCacheService.evict(currentUser.getId());
+        recommendationCacheService.invalidate(currentUser.getId());
+
         if (existingFollow.isPresent()) {
             // --- DEJAR DE SEGUIR ---
             followRepository.delete(existingFollow.get());
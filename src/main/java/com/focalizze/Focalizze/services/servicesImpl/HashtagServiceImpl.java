@@ -0,0 +1,240 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.CursorPageDto;
+import com.focalizze.Focalizze.dto.FeedThreadDto;
+import com.focalizze.Focalizze.dto.PostIndexRowDto;
+import com.focalizze.Focalizze.dto.TrendingHashtagDto;
+import com.focalizze.Focalizze.models.DataMigration;
+import com.focalizze.Focalizze.models.Post;
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.repository.DataMigrationRepository;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.HashtagService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.focalizze.Focalizze.utils.FeedCursor;
+import com.focalizze.Focalizze.utils.HashtagExtractor;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.ThreadEnricher;
+import com.focalizze.Focalizze.utils.TrendingCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link HashtagService} interface.
+ * Extracts the hashtags of a thread when it is created or edited and stores them in an indexed table, so "threads by
+ * tag" is an index lookup instead of a text search. Trending tags are counted over a sliding window with a
+ * {@link TrendingCounter}, whose memory does not grow with the number of distinct tags. Inside a transaction, tags
+ * are counted only after commit, so a rolled-back create or edit does not inflate trending.
+ * <p>
+ * Implementación de la interfaz {@link HashtagService}.
+ * Extrae los hashtags de un hilo al crearlo o editarlo y los guarda en una tabla indexada, así que "hilos por etiqueta"
+ * es una consulta por índice en lugar de una búsqueda de texto. Las etiquetas en tendencia se cuentan en una ventana
+ * deslizante con un {@link TrendingCounter}, cuya memoria no crece con el número de etiquetas distintas. Dentro de
+ * una transacción, las etiquetas se cuentan solo tras el commit, así que crear o editar con rollback no infla la tendencia.
+ */
+@Service
+public class HashtagServiceImpl implements HashtagService {
+
+    // Count-min sketch size: 4 rows of 2048 counters per bucket / Tamaño del count-min sketch: 4 filas de 2048 contadores por cubeta
+    private static final int SKETCH_WIDTH = 2048;
+    private static final int SKETCH_DEPTH = 4;
+    // Upper bound of trending tags and of a page / Máximo de etiquetas en tendencia y de una página
+    private static final int MAX_TRENDING = 50;
+    private static final int MAX_PAGE_SIZE = 50;
+    static final String BACKFILL_MIGRATION = "thread-hashtags-backfill";
+
+    private final ThreadRepository threadRepository;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final ThreadEnricher threadEnricher;
+    private final RelationshipCacheService relationshipCacheService;
+    private final TrendingCounter trending;
+    private final int backfillBatchSize;
+
+    public HashtagServiceImpl(ThreadRepository threadRepository,
+                              DataMigrationRepository dataMigrationRepository,
+                              ThreadEnricher threadEnricher,
+                              RelationshipCacheService relationshipCacheService,
+                              @Value("${app.hashtags.trending.window-minutes:60}") long windowMinutes,
+                              @Value("${app.hashtags.trending.buckets:12}") int buckets,
+                              @Value("${app.hashtags.backfill.batch-size:500}") int backfillBatchSize) {
+        this.threadRepository = threadRepository;
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.threadEnricher = threadEnricher;
+        this.relationshipCacheService = relationshipCacheService;
+        this.backfillBatchSize = backfillBatchSize;
+        this.trending = new TrendingCounter(buckets, Duration.ofMinutes(windowMinutes).toMillis() / buckets,
+                SKETCH_WIDTH, SKETCH_DEPTH, MAX_TRENDING * 2);
+    }
+
+    /**
+     * Sets the thread's hashtags from the text of its posts. If the thread is visible, tags it did not have yet
+     * count towards trending.
+     * <p>
+     * Fija los hashtags del hilo a partir del texto de sus posts. Si el hilo es visible, las etiquetas que aún no
+     * tenía cuentan para la tendencia.
+     *
+     * @param thread The thread, with its posts. / El hilo, con sus posts.
+     */
+    @Override
+    public void applyHashtags(ThreadClass thread) {
+        Set<String> tags = HashtagExtractor.extract(thread.getPosts().stream().map(Post::getContent).toList());
+        Set<String> added = new HashSet<>(tags);
+        added.removeAll(thread.getHashtags());
+
+        // Update in place so only changed rows are written / Actualizar en sitio para escribir solo las filas cambiadas
+        thread.getHashtags().retainAll(tags);
+        thread.getHashtags().addAll(tags);
+
+        if (thread.isPublished() && !thread.isDeleted() && !added.isEmpty()) {
+            AfterCommit.run(() -> countTrending(added));
+        }
+    }
+
+    /**
+     * Counts the hashtags of a scheduled thread when it goes live.
+     * <p>
+     * Cuenta los hashtags de un hilo programado cuando se publica.
+     */
+    @Override
+    public void recordPublished(ThreadClass thread) {
+        if (thread.isDeleted()) {
+            return;
+        }
+        Set<String> tags = Set.copyOf(thread.getHashtags());
+        AfterCommit.run(() -> countTrending(tags));
+    }
+
+    /**
+     * One-off migration: stores the hashtags of threads created before tags were extracted. Works in keyset batches
+     * like the search index rebuild, each written in its own transaction, and records the last thread ID processed in
+     * a {@link DataMigration} marker, so a restart resumes where it stopped and a finished migration is skipped.
+     * Threads created since then are tagged on write. Backfilled tags are old, so they do not count towards trending.
+     * <p>
+     * Migración puntual: guarda los hashtags de los hilos creados antes de extraer etiquetas. Trabaja en lotes keyset
+     * como la reconstrucción del índice de búsqueda, cada uno escrito en su propia transacción, y anota el último ID de
+     * hilo procesado en un marcador {@link DataMigration}, así que un reinicio continúa donde se quedó y una migración
+     * terminada se omite. Los hilos creados desde entonces se etiquetan al escribirse. Las etiquetas recuperadas son
+     * antiguas, así que no cuentan para la tendencia.
+     *
+     * @return Number of threads that got hashtags (0 if already done). / Número de hilos que recibieron hashtags (0 si ya estaba hecha).
+     */
+    @Override
+    public int backfillHashtags() {
+        DataMigration migration = dataMigrationRepository.findById(BACKFILL_MIGRATION)
+                .orElseGet(() -> DataMigration.builder().name(BACKFILL_MIGRATION).build());
+        if (migration.getCompletedAt() != null) {
+            return 0;
+        }
+
+        int tagged = 0;
+        List<Long> batch;
+        do {
+            // Already tagged threads are skipped, so a batch replayed after a crash writes nothing twice
+            // Los hilos ya etiquetados se omiten, así que un lote repetido tras una caída no escribe nada dos veces
+            batch = threadRepository.findIdsWithoutHashtagsAfter(migration.getLastProcessedId(), PageRequest.of(0, backfillBatchSize));
+            if (batch.isEmpty()) break;
+            Map<Long, Set<String>> tagsByThread = extractTags(threadRepository.findPostIndexRows(batch));
+            threadRepository.insertHashtags(tagsByThread);
+            tagged += tagsByThread.size();
+            migration.setLastProcessedId(batch.get(batch.size() - 1));
+            migration = dataMigrationRepository.save(migration);
+        } while (batch.size() == backfillBatchSize);
+
+        migration.setCompletedAt(LocalDateTime.now());
+        dataMigrationRepository.save(migration);
+        return tagged;
+    }
+
+    /**
+     * Returns the newest threads carrying a tag, by keyset, without the viewer's blocked users.
+     * <p>
+     * Devuelve los hilos más recientes con una etiqueta, por keyset, sin los usuarios bloqueados del espectador.
+     *
+     * @param tag    The tag, with or without {@code #}. / La etiqueta, con o sin {@code #}.
+     * @param cursor Opaque cursor from the previous page (null for the first). / Cursor opaco de la página anterior (null para la primera).
+     * @param size   Page size, clamped to {@link #MAX_PAGE_SIZE}. / Tamaño de página, limitado a {@link #MAX_PAGE_SIZE}.
+     * @return Cursor page of threads. / Página de hilos con cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<FeedThreadDto> getThreadsByTag(String tag, String cursor, int size) {
+        String normalized = HashtagExtractor.normalize(tag);
+        if (normalized.isEmpty() || normalized.length() > HashtagExtractor.MAX_LENGTH) {
+            return new CursorPageDto<>(List.of(), null, false);
+        }
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        User currentUser = getCurrentUser();
+        LongIdSet blockedIds = currentUser == null
+                ? LongIdSet.empty()
+                : relationshipCacheService.getSnapshot(currentUser.getId()).blockedUserIds();
+
+        List<ThreadClass> threads = threadRepository.findByHashtagAfter(
+                normalized,
+                blockedIds.toQuerySet(),
+                after == null ? null : after.publishedAt(),
+                after == null ? null : after.id(),
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = threads.size() > pageSize;
+        List<ThreadClass> page = hasNext ? threads.subList(0, pageSize) : threads;
+        String nextCursor = hasNext ? FeedCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageDto<>(threadEnricher.enrichList(page, currentUser), nextCursor, hasNext);
+    }
+
+    /**
+     * Returns the most used tags in the trending window, most used first.
+     * <p>
+     * Devuelve las etiquetas más usadas en la ventana de tendencia, la más usada primero.
+     *
+     * @param limit Maximum tags, clamped to {@link #MAX_TRENDING}. / Máximo de etiquetas, limitado a {@link #MAX_TRENDING}.
+     */
+    @Override
+    public List<TrendingHashtagDto> getTrending(int limit) {
+        return trending.top(Math.min(Math.max(limit, 1), MAX_TRENDING), System.currentTimeMillis()).stream()
+                .map(entry -> new TrendingHashtagDto(entry.key(), entry.count()))
+                .toList();
+    }
+
+    private void countTrending(Set<String> tags) {
+        long now = System.currentTimeMillis();
+        tags.forEach(tag -> trending.add(tag, now));
+    }
+
+    // Rows come ordered by thread and position; threads without valid tags are left out
+    // Las filas llegan ordenadas por hilo y posición; los hilos sin etiquetas válidas se omiten
+    private static Map<Long, Set<String>> extractTags(List<PostIndexRowDto> rows) {
+        Map<Long, Set<String>> tagsByThread = new LinkedHashMap<>();
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !rows.get(i).threadId().equals(rows.get(start).threadId())) {
+                Set<String> tags = HashtagExtractor.extract(rows.subList(start, i).stream().map(PostIndexRowDto::content).toList());
+                if (!tags.isEmpty()) {
+                    tagsByThread.put(rows.get(start).threadId(), tags);
+                }
+                start = i;
+            }
+        }
+        return tagsByThread;
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user ? user : null;
+    }
+}
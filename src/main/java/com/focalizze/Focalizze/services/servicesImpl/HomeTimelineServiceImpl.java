@@ -0,0 +1,235 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+import com.focalizze.Focalizze.utils.TimelineSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the {@link HomeTimelineService} interface.
+ * Keeps a bounded, in-memory list of recent thread IDs per user (fan-out on write),
+ * so the "Following" feed is read as a slice of IDs plus one batch fetch.
+ * <p>
+ * Implementación de la interfaz {@link HomeTimelineService}.
+ * Mantiene en memoria una lista acotada de IDs de hilos recientes por usuario (fan-out en escritura),
+ * de modo que el feed "Siguiendo" se lee como un segmento de IDs más una búsqueda por lotes.
+ */
+@Service
+@Slf4j
+public class HomeTimelineServiceImpl implements HomeTimelineService {
+
+    private final ThreadRepository threadRepository;
+    private final RelationshipCacheService relationshipCacheService;
+
+    private final int capacity;
+    private final Cache<Long, Timeline> timelines;
+
+    public HomeTimelineServiceImpl(ThreadRepository threadRepository,
+                                   RelationshipCacheService relationshipCacheService,
+                                   @Value("${app.feed.timeline.capacity:500}") int capacity,
+                                   @Value("${app.feed.timeline.max-users:10000}") long maxUsers,
+                                   @Value("${app.feed.timeline.idle-minutes:30}") long idleMinutes) {
+        this.threadRepository = threadRepository;
+        this.relationshipCacheService = relationshipCacheService;
+        this.capacity = capacity;
+        // Inactive users are evicted and rebuilt lazily on their next visit
+        // Los usuarios inactivos se expulsan y se reconstruyen bajo demanda en su próxima visita
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    /**
+     * Returns the user's timeline (newest first), building it from the database on a cold miss.
+     * <p>
+     * Devuelve el timeline del usuario (más reciente primero), construyéndolo desde la BD si no está en memoria.
+     *
+     * @param userId The viewer's ID. / El ID del espectador.
+     * @return Immutable snapshot of thread IDs. / Copia inmutable de IDs de hilos.
+     */
+    @Override
+    public TimelineSnapshot getTimeline(Long userId) {
+        return timelines.get(userId, this::loadTimeline).snapshot();
+    }
+
+    /**
+     * Fan-out on write: pushes a newly published thread to the warm timelines of the author, the author's followers
+     * and the category followers. Recipients are found among warm timelines, using the relationships each timeline
+     * was built with, so no follower list is loaded; cold timelines are built on read. Inside a transaction the push
+     * happens after commit, so a rolled-back publish leaves timelines untouched.
+     * <p>
+     * Fan-out en escritura: inserta un hilo recién publicado en los timelines en memoria del autor, sus seguidores
+     * y los seguidores de la categoría. Los destinatarios se buscan entre los timelines en memoria, con las relaciones
+     * con las que se construyó cada uno, así que no se carga ninguna lista de seguidores; los fríos se construyen al
+     * leer. Dentro de una transacción se inserta tras el commit, así que una publicación con rollback no los altera.
+     *
+     * @param thread The published thread. / El hilo publicado.
+     */
+    @Override
+    public void onThreadPublished(ThreadClass thread) {
+        if (thread.getId() == null || thread.getUser() == null || thread.isDeleted()) {
+            return;
+        }
+        long threadId = thread.getId();
+        Long authorId = thread.getUser().getId();
+        Long categoryId = thread.getCategory() != null ? thread.getCategory().getId() : null;
+
+        AfterCommit.run(() -> {
+            int delivered = 0;
+            for (Map.Entry<Long, Timeline> entry : timelines.asMap().entrySet()) {
+                if (entry.getValue().accepts(entry.getKey(), authorId, categoryId)) {
+                    entry.getValue().pushFront(threadId);
+                    delivered++;
+                }
+            }
+            log.debug("Thread {} fanned out to {} warm timelines.", threadId, delivered);
+        });
+    }
+
+    /**
+     * Removes a deleted thread from every warm timeline.
+     * <p>
+     * Elimina un hilo borrado de todos los timelines en memoria.
+     *
+     * @param threadId The removed thread ID. / El ID del hilo eliminado.
+     */
+    @Override
+    public void onThreadRemoved(Long threadId) {
+        if (threadId == null) {
+            return;
+        }
+        timelines.asMap().values().forEach(timeline -> timeline.remove(threadId));
+    }
+
+    /**
+     * Drops a user's timeline so it is rebuilt on the next read (follow, unfollow, block...).
+     * Inside a transaction it is dropped again after commit, so a concurrent rebuild cannot keep stale data.
+     * <p>
+     * Descarta el timeline de un usuario para que se reconstruya en la próxima lectura (seguir, dejar de seguir, bloquear...).
+     * Dentro de una transacción se descarta otra vez tras el commit, para que una reconstrucción concurrente no quede obsoleta.
+     *
+     * @param userId The affected user. / El usuario afectado.
+     */
+    @Override
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        AfterCommit.invalidateNowAndOnCompletion(() -> timelines.invalidate(userId));
+    }
+
+    private Timeline loadTimeline(Long userId) {
+        RelationshipSnapshot relations = relationshipCacheService.getSnapshot(userId);
+
+        List<Long> ids = threadRepository.findFollowingFeedIds(
+                relations.followedUserIds().toQueryList(),
+                relations.followedCategoryIds().toQueryList(),
+                userId,
+                relations.blockedUserIds().toQuerySet(),
+                PageRequest.of(0, capacity));
+
+        Timeline timeline = new Timeline(capacity, relations);
+        timeline.fill(ids);
+        return timeline;
+    }
+
+    /**
+     * Fixed-size ring buffer of thread IDs, newest first.
+     * Uses a primitive array to keep the per-user footprint at 8 bytes per entry.
+     * <p>
+     * Buffer circular de tamaño fijo de IDs de hilos, más reciente primero.
+     * Usa un array primitivo para mantener la huella por usuario en 8 bytes por entrada.
+     */
+    static final class Timeline {
+        private final long[] ring;
+        // Relationships the timeline was built with; a follow or block change invalidates it
+        // Relaciones con las que se construyó; un cambio de seguimiento o bloqueo lo invalida
+        private final RelationshipSnapshot relations;
+        private int head;
+        private int size;
+        // Older threads may exist outside the ring; a removal never clears it
+        // Puede haber hilos más antiguos fuera del buffer; un borrado nunca lo desactiva
+        private boolean truncated;
+
+        Timeline(int capacity, RelationshipSnapshot relations) {
+            this.ring = new long[Math.max(1, capacity)];
+            this.relations = relations;
+        }
+
+        // Same rule as the following feed query / Misma regla que la consulta del feed de seguidos
+        boolean accepts(Long ownerId, Long authorId, Long categoryId) {
+            if (authorId.equals(ownerId)) {
+                return true;
+            }
+            if (relations.blockedUserIds().contains(authorId)) {
+                return false;
+            }
+            return relations.followedUserIds().contains(authorId)
+                    || (categoryId != null && relations.followedCategoryIds().contains(categoryId));
+        }
+
+        synchronized void fill(List<Long> newestFirst) {
+            head = 0;
+            size = Math.min(newestFirst.size(), ring.length);
+            truncated = newestFirst.size() >= ring.length;
+            for (int i = 0; i < size; i++) {
+                ring[i] = newestFirst.get(i);
+            }
+        }
+
+        synchronized void pushFront(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ring[(head + i) % ring.length] == id) {
+                    return; // Already delivered / Ya entregado
+                }
+            }
+            head = (head - 1 + ring.length) % ring.length;
+            ring[head] = id;
+            if (size < ring.length) {
+                size++;
+            } else {
+                truncated = true;
+            }
+        }
+
+        synchronized void remove(long id) {
+            int kept = 0;
+            long[] compacted = new long[ring.length];
+            for (int i = 0; i < size; i++) {
+                long value = ring[(head + i) % ring.length];
+                if (value != id) {
+                    compacted[kept++] = value;
+                }
+            }
+            if (kept == size) {
+                return;
+            }
+            System.arraycopy(compacted, 0, ring, 0, kept);
+            head = 0;
+            size = kept;
+        }
+
+        synchronized TimelineSnapshot snapshot() {
+            List<Long> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(ring[(head + i) % ring.length]);
+            }
+            return new TimelineSnapshot(List.copyOf(ids), truncated);
+        }
+    }
+}
@@ -6,34 +6,77 @@ import com.focalizze.Focalizze.models.InteractionType;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.InteractionLogRepository;
 import com.focalizze.Focalizze.services.InteractionLimitService;
-import lombok.RequiredArgsConstructor;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Implementation of the {@link InteractionLimitService} interface.
  * Controls the daily limits of user interactions to prevent spam and encourage quality content.
  * <p>
+ * Limit checks are answered from an in-memory per-user counter of today's interactions, loaded once from
+ * {@code interaction_log_tbl}; the log rows themselves are buffered and written in JDBC batches by a scheduler
+ * (write-behind). A refund decrements the counter and either cancels a still-buffered row or queues the deletion of
+ * the latest row of that type. Counters and buffer only change after the caller's transaction commits.
+ * <p>
  * Implementación de la interfaz {@link InteractionLimitService}.
  * Controla los límites diarios de interacciones de los usuarios para prevenir spam y fomentar contenido de calidad.
+ * <p>
+ * Las comprobaciones del límite se responden desde un contador en memoria por usuario de las interacciones de hoy,
+ * cargado una vez desde {@code interaction_log_tbl}; las filas de registro se acumulan y un planificador las escribe
+ * en lotes JDBC (escritura diferida). Un reembolso decrementa el contador y cancela una fila aún acumulada o encola el
+ * borrado de la última fila de ese tipo. Contadores y búfer solo cambian tras confirmarse la transacción del llamador.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class InteractionLimitServiceImpl implements InteractionLimitService {
 
     private static final int DAILY_INTERACTION_LIMIT = 20;
+    private static final InteractionType[] TYPES = InteractionType.values();
 
     private final InteractionLogRepository interactionLogRepository;
+    private final int batchSize;
+    // Today's interactions per user ID / Interacciones de hoy por ID de usuario
+    private final Cache<Long, DailyCounter> counters;
 
+    // Write-behind buffer, guarded by "this" / Búfer de escritura diferida, protegido por "this"
+    private List<InteractionLog> pendingInserts = new ArrayList<>();
+    private Map<RefundKey, Integer> pendingRefunds = new LinkedHashMap<>();
+    // Held while a flush writes, so a counter never loads between the buffer swap and the commit
+    // Se mantiene mientras un volcado escribe, para que un contador nunca se cargue entre el cambio de búfer y el commit
+    private final Object flushLock = new Object();
+    // Consecutive flushes that failed to write, guarded by flushLock / Volcados fallidos seguidos, protegido por flushLock
+    private int failedFlushes;
+    private final int maxRetries;
 
+    public InteractionLimitServiceImpl(InteractionLogRepository interactionLogRepository,
+                                       @Value("${app.interactions.flush.batch-size:500}") int batchSize,
+                                       @Value("${app.interactions.flush.max-retries:5}") int maxRetries,
+                                       @Value("${app.interactions.counters.max-users:100000}") long maxUsers,
+                                       @Value("${app.interactions.counters.ttl-minutes:60}") long ttlMinutes) {
+        this.interactionLogRepository = interactionLogRepository;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
 
     /**
      * Checks if the user has reached their daily interaction limit.
@@ -50,7 +93,6 @@ public class InteractionLimitServiceImpl implements InteractionLimitService {
      *                                     Si se excede el límite diario (20).
      */
     @Override
-    @Transactional(readOnly = true)
     public void checkInteractionLimit(User user) {
         // Optimization: Fail-fast check for suspension before hitting the DB.
         // Optimización: Verificación rápida de suspensión antes de consultar la BD.
@@ -58,19 +100,15 @@ public class InteractionLimitServiceImpl implements InteractionLimitService {
             throw new AccessDeniedException("Your account is temporarily suspended. / Tu cuenta está suspendida temporalmente.");
         }
 
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        long interactionsToday = interactionLogRepository.countByUserAndCreatedAtAfter(user, startOfToday);
-
-        if (interactionsToday >= DAILY_INTERACTION_LIMIT) {
+        if (counter(user).total(today()) >= DAILY_INTERACTION_LIMIT) {
             throw new DailyLimitExceededException("Daily limit of 20 interactions reached. / Límite diario de 20 interacciones alcanzado.");
         }
     }
 
-
     /**
-     * Records a new interaction log for the user.
+     * Records a new interaction for the user: counted in memory and buffered for the next flush.
      * <p>
-     * Registra un nuevo log de interacción para el usuario.
+     * Registra una nueva interacción para el usuario: se cuenta en memoria y se acumula para el próximo volcado.
      *
      * @param user The user who interacted.
      *             El usuario que interactuó.
@@ -78,14 +116,21 @@ public class InteractionLimitServiceImpl implements InteractionLimitService {
      *             El tipo de interacción (LIKE o COMENTARIO).
      */
     @Override
-    @Transactional
     public void recordInteraction(User user, InteractionType type) {
-        InteractionLog log = InteractionLog.builder()
-                .user(user)
-                .type(type)
-                .createdAt(LocalDateTime.now())
-                .build();
-        interactionLogRepository.save(log);
+        LocalDateTime now = LocalDateTime.now();
+        AfterCommit.run(() -> {
+            InteractionLog log = InteractionLog.builder()
+                    .user(user)
+                    .type(type)
+                    .createdAt(now)
+                    .build();
+            // Load first: a load counts the buffered rows / Cargar primero: una carga cuenta las filas acumuladas
+            DailyCounter counter = counter(user);
+            synchronized (this) {
+                pendingInserts.add(log);
+                counter.increment(type, now.toLocalDate().toEpochDay());
+            }
+        });
     }
 
     /**
@@ -99,42 +144,208 @@ public class InteractionLimitServiceImpl implements InteractionLimitService {
      *         El número de interacciones disponibles (>= 0).
      */
     @Override
-    @Transactional(readOnly = true)
     public int getRemainingInteractions(User user) {
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        long interactionsToday = interactionLogRepository.countByUserAndCreatedAtAfter(user, startOfToday);
-        return (int) Math.max(0, DAILY_INTERACTION_LIMIT - interactionsToday);
+        return Math.max(0, DAILY_INTERACTION_LIMIT - counter(user).total(today()));
     }
 
     /**
-     * Attempts to delete the most recent interaction log of a specific type for today.
-     * Effectively "refunds" the interaction quota to the user (e.g., unlike, delete comment).
+     * Gives back today's most recent interaction of a type (e.g., unlike, delete comment): the counter is decremented
+     * and the matching log row is dropped from the buffer or deleted on the next flush.
      * <p>
-     * Intenta eliminar el log de interacción más reciente de un tipo específico para hoy.
-     * Efectivamente "reembolsa" el cupo de interacción al usuario (ej. quitar like, borrar comentario).
+     * Devuelve la interacción más reciente de hoy de un tipo (ej. quitar like, borrar comentario): el contador se
+     * decrementa y la fila de registro correspondiente se quita del búfer o se borra en el próximo volcado.
      *
      * @param user The user undoing the action.
      *             El usuario que deshace la acción.
      * @param type The type of interaction to refund.
      *             El tipo de interacción a reembolsar.
      */
-    @Transactional
     @Override
     public void refundInteraction(User user, InteractionType type) {
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        AfterCommit.run(() -> {
+            long day = today();
+            DailyCounter counter = counter(user);
+            synchronized (this) {
+                if (!counter.decrement(type, day)) {
+                    log.debug("No interactions to refund for user {} today.", user.getUsername());
+                    return;
+                }
+                // Cancel the newest buffered row, if any / Cancelar la fila acumulada más reciente, si la hay
+                for (int i = pendingInserts.size() - 1; i >= 0; i--) {
+                    InteractionLog pending = pendingInserts.get(i);
+                    if (pending.getUser().getId().equals(user.getId()) && pending.getType() == type) {
+                        pendingInserts.remove(i);
+                        return;
+                    }
+                }
+                pendingRefunds.merge(new RefundKey(user.getId(), type, day), 1, Integer::sum);
+            }
+        });
+    }
+
+    /**
+     * Writes the buffered logs (one JDBC batch per {@code batch-size} rows) and deletes the refunded ones.
+     * If a batch fails, the unwritten rows and the refunds go back to the head of the buffer for the next flush,
+     * up to {@code max-retries} consecutive failures; only then are they dropped.
+     * Called by the scheduler and on shutdown, never from a commit callback, where a new write would join the
+     * finished transaction.
+     * <p>
+     * Escribe los registros acumulados (un lote JDBC por cada {@code batch-size} filas) y borra los reembolsados.
+     * Si un lote falla, las filas no escritas y los reembolsos vuelven al principio del búfer para el próximo volcado,
+     * hasta {@code max-retries} fallos seguidos; solo entonces se descartan.
+     * Lo llama el planificador y el apagado, nunca un callback de commit, donde una nueva escritura se uniría a la
+     * transacción terminada.
+     */
+    @Override
+    @PreDestroy
+    public void flushPending() {
+        synchronized (flushLock) {
+            List<InteractionLog> inserts;
+            Map<RefundKey, Integer> refunds;
+            synchronized (this) {
+                if (pendingInserts.isEmpty() && pendingRefunds.isEmpty()) {
+                    return;
+                }
+                inserts = pendingInserts;
+                refunds = pendingRefunds;
+                pendingInserts = new ArrayList<>();
+                pendingRefunds = new LinkedHashMap<>();
+            }
+
+            int written = 0;
+            try {
+                while (written < inserts.size()) {
+                    int to = Math.min(written + batchSize, inserts.size());
+                    interactionLogRepository.insertAll(inserts.subList(written, to));
+                    written = to;
+                }
+                failedFlushes = 0;
+            } catch (RuntimeException e) {
+                List<InteractionLog> unwritten = inserts.subList(written, inserts.size());
+                if (++failedFlushes <= maxRetries) {
+                    // The counters already include these rows: keep them, and the refunds that may target them, for the next flush
+                    // Los contadores ya incluyen estas filas: conservarlas, y los reembolsos que puedan afectarlas, para el próximo volcado
+                    log.warn("Failed to save {} interaction logs, retry {} of {} / Error al guardar {} registros de interacción, reintento {} de {}",
+                            unwritten.size(), failedFlushes, maxRetries, unwritten.size(), failedFlushes, maxRetries, e);
+                    requeue(unwritten, refunds);
+                    return;
+                }
+                log.error("Dropping {} interaction logs after {} failed flushes / Descartando {} registros de interacción tras {} volcados fallidos",
+                        unwritten.size(), failedFlushes - 1, unwritten.size(), failedFlushes - 1, e);
+                failedFlushes = 0;
+            }
+
+            List<Long> refundedIds = new ArrayList<>();
+            refunds.forEach((key, count) -> refundedIds.addAll(interactionLogRepository.findIdsToRefund(
+                    key.userId(), key.type(), LocalDate.ofEpochDay(key.day()).atStartOfDay(), PageRequest.of(0, count))));
+            if (!refundedIds.isEmpty()) {
+                interactionLogRepository.deleteAllByIdInBatch(refundedIds);
+            }
+            log.debug("Flushed {} interaction logs and {} refunds / Volcados {} registros de interacción y {} reembolsos",
+                    inserts.size(), refundedIds.size(), inserts.size(), refundedIds.size());
+        }
+    }
+
+    // Puts the unwritten rows and refunds back ahead of the ones buffered meanwhile
+    // Devuelve las filas y reembolsos no escritos por delante de los acumulados mientras tanto
+    private synchronized void requeue(List<InteractionLog> inserts, Map<RefundKey, Integer> refunds) {
+        List<InteractionLog> requeuedInserts = new ArrayList<>(inserts);
+        requeuedInserts.addAll(pendingInserts);
+        pendingInserts = requeuedInserts;
+
+        Map<RefundKey, Integer> requeuedRefunds = new LinkedHashMap<>(refunds);
+        pendingRefunds.forEach((key, count) -> requeuedRefunds.merge(key, count, Integer::sum));
+        pendingRefunds = requeuedRefunds;
+    }
+
+    private DailyCounter counter(User user) {
+        return counters.get(user.getId(), this::load);
+    }
 
-        // Usamos la nueva consulta que devuelve una lista
-        List<InteractionLog> logs = interactionLogRepository.findLogsToRefund(user, type, startOfToday);
+    // Today's rows in the table plus the buffered changes / Filas de hoy en la tabla más los cambios acumulados
+    private DailyCounter load(Long userId) {
+        synchronized (flushLock) {
+            long day = today();
+            LocalDateTime startOfToday = LocalDate.ofEpochDay(day).atStartOfDay();
+            int[] counts = new int[TYPES.length];
+            for (InteractionType type : TYPES) {
+                counts[type.ordinal()] = (int) interactionLogRepository.countByUserIdAndTypeAndCreatedAtAfter(userId, type, startOfToday);
+            }
+            synchronized (this) {
+                for (InteractionLog pending : pendingInserts) {
+                    if (pending.getUser().getId().equals(userId) && pending.getCreatedAt().toLocalDate().toEpochDay() == day) {
+                        counts[pending.getType().ordinal()]++;
+                    }
+                }
+                pendingRefunds.forEach((key, count) -> {
+                    if (key.userId().equals(userId) && key.day() == day) counts[key.type().ordinal()] -= count;
+                });
+            }
+            return new DailyCounter(day, counts);
+        }
+    }
+
+    private static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    private record RefundKey(Long userId, InteractionType type, long day) {
+    }
+
+    /**
+     * Atomic counts of one user's interactions per type, read without locking on every limit check. Each slot packs the day (high 32 bits) with the count
+     * (low 32 bits), so a counter from a previous day reads as zero and restarts on the next increment.
+     * <p>
+     * Conteos atómicos de las interacciones de un usuario por tipo, leídos sin bloqueo en cada comprobación. Cada posición empaqueta el día (32 bits altos)
+     * con el conteo (32 bits bajos), así que un contador de un día anterior se lee como cero y se reinicia en el
+     * siguiente incremento.
+     */
+    private static final class DailyCounter {
+
+        private final AtomicLongArray slots = new AtomicLongArray(TYPES.length);
 
-        if (!logs.isEmpty()) {
-            // Take the first one (most recent due to ORDER BY DESC in repo)
-            // Tomamos el primero (el más reciente debido al ORDER BY DESC en el repo)
-            InteractionLog logToDelete = logs.get(0);
+        private DailyCounter(long day, int[] counts) {
+            for (int i = 0; i < counts.length; i++) {
+                slots.set(i, pack(day, Math.max(0, counts[i])));
+            }
+        }
+
+        int total(long day) {
+            int total = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long slot = slots.get(i);
+                if (dayOf(slot) == day) total += countOf(slot);
+            }
+            return total;
+        }
+
+        void increment(InteractionType type, long day) {
+            slots.updateAndGet(type.ordinal(), slot -> dayOf(slot) == day ? slot + 1 : pack(day, 1));
+        }
+
+        // False when there is nothing to refund today / False cuando no hay nada que reembolsar hoy
+        boolean decrement(InteractionType type, long day) {
+            int i = type.ordinal();
+            long slot;
+            do {
+                slot = slots.get(i);
+                if (dayOf(slot) != day || countOf(slot) == 0) {
+                    return false;
+                }
+            } while (!slots.compareAndSet(i, slot, slot - 1));
+            return true;
+        }
+
+        private static long pack(long day, int count) {
+            return (day << 32) | count;
+        }
+
+        private static long dayOf(long slot) {
+            return slot >>> 32;
+        }
 
-            interactionLogRepository.delete(logToDelete);
-            log.info("Interaction log deleted. ID: {}, User: {}", logToDelete.getId(), user.getUsername());
-        } else {
-            log.debug("No logs found to refund for user {} today.", user.getUsername());
+        private static int countOf(long slot) {
+            return (int) slot;
         }
     }
 }
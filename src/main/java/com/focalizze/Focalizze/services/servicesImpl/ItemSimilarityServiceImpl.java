@@ -0,0 +1,83 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.EngagementPairDto;
+import com.focalizze.Focalizze.repository.LikeRepository;
+import com.focalizze.Focalizze.repository.SavedThreadRepository;
+import com.focalizze.Focalizze.services.ItemSimilarityService;
+import com.focalizze.Focalizze.utils.ItemSimilarityIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of the {@link ItemSimilarityService} interface.
+ * Rebuilds the item-to-item co-engagement index offline from recent likes and saves, and serves it from memory.
+ * Until the first rebuild finishes the index is empty and the recommender simply skips this source.
+ * <p>
+ * Implementación de la interfaz {@link ItemSimilarityService}.
+ * Reconstruye fuera de línea el índice de co-interacción entre hilos a partir de likes y guardados recientes,
+ * y lo sirve desde memoria. Hasta que termina la primera reconstrucción el índice está vacío y el recomendador
+ * simplemente omite esta fuente.
+ */
+@Service
+@Slf4j
+public class ItemSimilarityServiceImpl implements ItemSimilarityService {
+
+    private final LikeRepository likeRepository;
+    private final SavedThreadRepository savedThreadRepository;
+    private final int windowDays;
+    private final int scanLimit;
+    private final int maxItemsPerUser;
+    private final int maxNeighbors;
+
+    private volatile ItemSimilarityIndex index = ItemSimilarityIndex.empty();
+
+    public ItemSimilarityServiceImpl(LikeRepository likeRepository,
+                                     SavedThreadRepository savedThreadRepository,
+                                     @Value("${app.recommendations.similarity.window-days:30}") int windowDays,
+                                     @Value("${app.recommendations.similarity.scan-limit:200000}") int scanLimit,
+                                     @Value("${app.recommendations.similarity.items-per-user:50}") int maxItemsPerUser,
+                                     @Value("${app.recommendations.similarity.neighbors:20}") int maxNeighbors) {
+        this.likeRepository = likeRepository;
+        this.savedThreadRepository = savedThreadRepository;
+        this.windowDays = windowDays;
+        this.scanLimit = scanLimit;
+        this.maxItemsPerUser = maxItemsPerUser;
+        this.maxNeighbors = maxNeighbors;
+    }
+
+    @Override
+    public ItemSimilarityIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Reads the recent likes and saves and swaps in a freshly built index.
+     * <p>
+     * Lee los likes y guardados recientes y sustituye el índice por uno recién construido.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        PageRequest scan = PageRequest.of(0, scanLimit);
+
+        List<EngagementPairDto> pairs = new ArrayList<>(likeRepository.findEngagementPairsSince(since, scan));
+        pairs.addAll(savedThreadRepository.findEngagementPairsSince(since, scan));
+        // Newest first across both sources, so each user keeps their latest engagement
+        // Más reciente primero entre ambas fuentes, para que cada usuario conserve su interacción más nueva
+        pairs.sort(Comparator.comparing(EngagementPairDto::engagedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        ItemSimilarityIndex rebuilt = ItemSimilarityIndex.build(pairs, maxItemsPerUser, maxNeighbors);
+        this.index = rebuilt;
+        log.debug("Item similarity index rebuilt: {} threads from {} engagements. / Índice de similitud reconstruido: {} hilos desde {} interacciones.",
+                rebuilt.size(), pairs.size(), rebuilt.size(), pairs.size());
+    }
+}
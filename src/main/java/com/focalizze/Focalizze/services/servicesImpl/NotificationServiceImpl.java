@@ -1,6 +1,9 @@
 package com.focalizze.Focalizze.services.servicesImpl;
 
+import com.focalizze.Focalizze.configurations.AsyncConfig;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.NotificationDto;
+import com.focalizze.Focalizze.dto.UnreadCountDto;
 import com.focalizze.Focalizze.dto.mappers.NotificationMapper;
 import com.focalizze.Focalizze.models.NotificationClass;
 import com.focalizze.Focalizze.models.NotificationType;
@@ -8,41 +11,109 @@ import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.NotificationRepository;
+import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.NotificationService;
-import lombok.RequiredArgsConstructor;
+import com.focalizze.Focalizze.services.NotificationStreamService;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.focalizze.Focalizze.utils.FeedCursor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 /**
  * Implementation of the {@link NotificationService} interface.
  * Handles notification creation, persistence, and real-time delivery via WebSockets.
+ * Events are not written one by one: likes, comments and follows aimed at the same target are buffered for a short
+ * window and merged into one notification carrying the number of distinct actors ("X and 48 others liked your thread").
+ * Each flush writes all merged groups with one JDBC batch and pushes one WebSocket message per group.
  * <p>
  * Implementación de la interfaz {@link NotificationService}.
  * Maneja la creación, persistencia y entrega en tiempo real de notificaciones vía WebSockets.
+ * Los eventos no se escriben uno a uno: los likes, comentarios y seguimientos dirigidos al mismo destino se acumulan
+ * durante una ventana corta y se fusionan en una notificación con el número de actores distintos
+ * ("A X y 48 más les ha gustado tu hilo"). Cada volcado escribe todos los grupos con un lote JDBC y envía un mensaje
+ * WebSocket por grupo.
+ * <p>
+ * The unread count of each user is kept in a column, updated with the inserts and reset when everything is read,
+ * and cached in memory; every change is pushed as a badge update to {@code /user/queue/unread}, so clients
+ * do not need to poll.
+ * <p>
+ * El conteo de no leídas de cada usuario se guarda en una columna, actualizada con las inserciones y puesta a cero
+ * al leerlo todo, y se cachea en memoria; cada cambio se envía como actualización del indicador a
+ * {@code /user/queue/unread}, así los clientes no necesitan consultar periódicamente.
+ * <p>
+ * Every push goes through one dispatch path: the STOMP user destination and the Server-Sent Events stream
+ * of {@link NotificationStreamService}.
+ * <p>
+ * Cada envío pasa por un único camino de despacho: el destino de usuario STOMP y el flujo Server-Sent Events
+ * de {@link NotificationStreamService}.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final NotificationRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final NotificationMapper notificationMapper;
     private final BlockRepository blockRepository;
+    private final UserRepository userRepository;
+    private final NotificationStreamService notificationStreamService;
+    private final int batchSize;
+    // Unread count per user ID, loaded from the column on a miss / Conteo de no leídas por ID de usuario, cargado de la columna si falta
+    private final Cache<Long, Integer> unreadCounts;
+
+    // Groups waiting for the next flush, in arrival order / Grupos a la espera del próximo volcado, en orden de llegada
+    private Map<GroupKey, PendingGroup> pending = new LinkedHashMap<>();
+
+    public NotificationServiceImpl(NotificationRepository notificationRepository,
+                                   SimpMessagingTemplate messagingTemplate,
+                                   NotificationMapper notificationMapper,
+                                   BlockRepository blockRepository,
+                                   UserRepository userRepository,
+                                   NotificationStreamService notificationStreamService,
+                                   @Value("${app.notifications.coalesce.batch-size:500}") int batchSize,
+                                   @Value("${app.notifications.unread.max-users:50000}") long maxUsers,
+                                   @Value("${app.notifications.unread.ttl-minutes:30}") long ttlMinutes) {
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.notificationMapper = notificationMapper;
+        this.blockRepository = blockRepository;
+        this.userRepository = userRepository;
+        this.notificationStreamService = notificationStreamService;
+        this.batchSize = batchSize;
+        // The TTL re-reads the column now and then, bounding any drift / El TTL relee la columna de vez en cuando, acotando cualquier desviación
+        this.unreadCounts = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
 
     /**
-     * Creates a notification and sends it asynchronously to the user.
-     * Performs a final block check before sending.
+     * Queues a notification for the user; it is saved and sent on the next flush, merged with the other events of
+     * the same type on the same target. Performs a final block check before queuing.
      * <p>
-     * Crea una notificación y la envía asincrónicamente al usuario.
-     * Realiza una verificación final de bloqueo antes de enviar.
+     * Encola una notificación para el usuario; se guarda y envía en el próximo volcado, fusionada con los demás
+     * eventos del mismo tipo sobre el mismo destino. Realiza una verificación final de bloqueo antes de encolar.
      *
      * @param userToNotify The recipient.
      *                     El destinatario.
@@ -54,7 +125,7 @@ public class NotificationServiceImpl implements NotificationService {
      *                     El hilo asociado (opcional).
      */
     @Override
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void createAndSendNotification(User userToNotify, NotificationType type, User triggerUser, ThreadClass thread) {
 
         if (triggerUser != null) {
@@ -66,31 +137,69 @@ public class NotificationServiceImpl implements NotificationService {
             }
         }
 
-        String message = buildMessage(type, triggerUser);
-
-        // 1. Create and Save Entity / Crear y Guardar Entidad
-        NotificationClass notification = NotificationClass.builder()
-                .user(userToNotify)
-                .triggerUser(triggerUser) // Guardamos quién originó la notificación
-                .type(type)
-                .message(message) // Guardamos el mensaje generado
-                .isRead(false)
-                .createdAt(LocalDateTime.now())
-                .thread(thread)
-                .build();
-        notificationRepository.save(notification);
+        // Mentions and summaries stay one per actor / Las menciones y resúmenes siguen siendo uno por actor
+        Long actorKey = isCoalesced(type) || triggerUser == null ? null : triggerUser.getId();
+        GroupKey key = new GroupKey(userToNotify.getId(), type, thread != null ? thread.getId() : null, actorKey);
 
-        // 2. Prepare WebSocket DTO / Preparar DTO WebSocket
-        NotificationDto dto = notificationMapper.toDto(notification);
+        boolean full;
+        synchronized (this) {
+            pending.computeIfAbsent(key, k -> new PendingGroup(userToNotify, type, thread))
+                    .add(triggerUser, LocalDateTime.now());
+            full = pending.size() >= batchSize;
+        }
 
-        // 3. Send Real-time Update / Enviar Actualización en Tiempo Real
-        // Destination: /user/{username}/queue/notifications
-        log.debug("Sending WS notification to user: {}", userToNotify.getUsername());
-        messagingTemplate.convertAndSendToUser(
-                userToNotify.getUsername(),
-                "/queue/notifications",
-                dto
-        );
+        // A burst fills a batch before the window ends / Una ráfaga llena un lote antes de que acabe la ventana
+        if (full) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Writes every buffered group as one notification row (one JDBC batch per {@code batch-size} groups)
+     * and pushes one WebSocket message per group. Called by the scheduler at the end of each window.
+     * <p>
+     * Escribe cada grupo acumulado como una fila de notificación (un lote JDBC por cada {@code batch-size} grupos)
+     * y envía un mensaje WebSocket por grupo. Lo llama el planificador al final de cada ventana.
+     */
+    @Override
+    @PreDestroy
+    public void flushPending() {
+        List<PendingGroup> groups;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            groups = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+        }
+
+        for (int from = 0; from < groups.size(); from += batchSize) {
+            List<NotificationClass> batch = new ArrayList<>();
+            for (PendingGroup group : groups.subList(from, Math.min(from + batchSize, groups.size()))) {
+                batch.add(group.toNotification());
+            }
+            try {
+                // 1. Save the batch / Guardar el lote
+                notificationRepository.insertAll(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to save {} notifications / Error al guardar {} notificaciones", batch.size(), batch.size(), e);
+                continue;
+            }
+            // 2. Send Real-time Update / Enviar Actualización en Tiempo Real
+            // Destination: /user/{username}/queue/notifications
+            Map<Long, User> recipients = new LinkedHashMap<>();
+            for (NotificationClass notification : batch) {
+                send(notification);
+                recipients.putIfAbsent(notification.getUser().getId(), notification.getUser());
+            }
+
+            // 3. Refresh and push the badges / Refrescar y enviar los indicadores
+            // The committed column already includes the batch; adding a delta in memory too could count it twice
+            // La columna confirmada ya incluye el lote; sumar además un delta en memoria podría contarlo dos veces
+            unreadCounts.invalidateAll(recipients.keySet());
+            recipients.values().forEach(recipient -> pushUnread(recipient, unreadCount(recipient.getId())));
+        }
+        log.debug("Flushed {} notification groups / Volcados {} grupos de notificaciones", groups.size(), groups.size());
     }
 
     /**
@@ -108,24 +217,85 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     /**
-     * Checks for unread notifications efficiently.
+     * Retrieves the user's inbox with cursor (keyset) pagination over {@code (createdAt, id)}, newest first.
+     * Unlike {@link #getNotificationsForUser}, no COUNT query runs and deep pages cost the same as the first.
+     * <p>
+     * Recupera la bandeja del usuario con paginación por cursor (keyset) sobre {@code (createdAt, id)}, la más
+     * reciente primero. A diferencia de {@link #getNotificationsForUser}, no se ejecuta ningún COUNT y las páginas
+     * profundas cuestan lo mismo que la primera.
+     *
+     * @param user   The owner of the inbox. / El propietario de la bandeja.
+     * @param cursor Opaque cursor from the previous page (null for the first). / Cursor opaco de la página anterior (null para la primera).
+     * @param size   Page size, clamped to {@link #MAX_PAGE_SIZE}. / Tamaño de página, limitado a {@link #MAX_PAGE_SIZE}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<NotificationDto> getNotificationsByCursor(User user, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        List<NotificationClass> notifications = notificationRepository.findByUserAfter(
+                user.getId(),
+                after == null ? null : after.publishedAt(),
+                after == null ? null : after.id(),
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = notifications.size() > pageSize;
+        List<NotificationClass> page = hasNext ? notifications.subList(0, pageSize) : notifications;
+        String nextCursor = hasNext ? FeedCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageDto<>(page.stream().map(notificationMapper::toDto).toList(), nextCursor, hasNext);
+    }
+
+    /**
+     * Checks for unread notifications from the in-memory counter.
      * <p>
-     * Comprueba notificaciones no leídas eficientemente.
+     * Comprueba notificaciones no leídas con el contador en memoria.
      */
     @Override
     public boolean hasUnreadNotifications(User user) {
-        return notificationRepository.existsByUserAndIsReadIsFalse(user);
+        return getUnreadCount(user) > 0;
     }
 
     /**
-     * Marks all notifications as read in a single batch update.
+     * Returns the number of unread notifications, from memory (the column is read only on a miss).
      * <p>
-     * Marca todas las notificaciones como leídas en una sola actualización por lotes.
+     * Devuelve el número de notificaciones no leídas, desde memoria (la columna solo se lee si falta).
+     */
+    @Override
+    public int getUnreadCount(User user) {
+        return unreadCount(user.getId());
+    }
+
+    /**
+     * Marks all notifications as read in a single batch update, resets the counter and clears the badge
+     * on every open session of the user.
+     * <p>
+     * Marca todas las notificaciones como leídas en una sola actualización por lotes, pone a cero el contador
+     * y limpia el indicador en todas las sesiones abiertas del usuario.
      */
     @Override
     @Transactional
     public void markAllAsRead(User user) {
         notificationRepository.markAllAsReadForUser(user.getId());
+        userRepository.resetUnreadNotificationCount(user.getId());
+        // Re-read rather than assume zero: a flush may have committed new rows after the reset
+        // Releer en lugar de suponer cero: un volcado puede haber confirmado filas nuevas tras la puesta a cero
+        AfterCommit.run(() -> {
+            unreadCounts.invalidate(user.getId());
+            pushUnread(user, unreadCount(user.getId()));
+        });
+    }
+
+    /**
+     * Drops the cached counters once the current transaction commits, so they are read again from the
+     * (reconciled) column.
+     * <p>
+     * Descarta los contadores cacheados cuando se confirma la transacción actual, para que se vuelvan a leer
+     * de la columna (reconciliada).
+     */
+    @Override
+    public void evictUnreadCounts() {
+        AfterCommit.run(unreadCounts::invalidateAll);
     }
 
     /**
@@ -133,10 +303,20 @@ public class NotificationServiceImpl implements NotificationService {
      * <p>
      * Ayuda para construir mensajes de notificación consistentes.
      *
-     * @param type The notification type.
+     * @param type       The notification type.
+     * @param actorCount Distinct users merged into the notification.
      * @return The localized message string.
      */
-    private String buildMessage(NotificationType type, User triggerUser) {
+    private static String buildMessage(NotificationType type, int actorCount) {
+        if (actorCount > 1) {
+            String others = " y " + (actorCount - 1) + " más";
+            return switch (type) {
+                case NEW_LIKE -> others + " les ha gustado tu hilo.";
+                case NEW_COMMENT -> others + " han comentado en tu hilo.";
+                case NEW_FOLLOWER -> others + " han comenzado a seguirte.";
+                default -> "Tienes " + actorCount + " notificaciones nuevas.";
+            };
+        }
         return switch (type) {
             case NEW_LIKE -> " le ha gustado tu hilo.";
             case NEW_COMMENT -> " ha comentado en tu hilo.";
@@ -145,4 +325,81 @@ public class NotificationServiceImpl implements NotificationService {
             default -> "Tienes una nueva notificación.";
         };
     }
+
+    private void send(NotificationClass notification) {
+        try {
+            NotificationDto dto = notificationMapper.toDto(notification);
+            log.debug("Sending notification to user: {}", notification.getUser().getUsername());
+            dispatch(notification.getUser(), "/queue/notifications", dto);
+        } catch (RuntimeException e) {
+            // Already saved, the user sees it on the next load / Ya guardada, el usuario la verá en la próxima carga
+            log.warn("Failed to push notification {} / Error al enviar la notificación {}", notification.getId(), notification.getId(), e);
+        }
+    }
+
+    private int unreadCount(Long userId) {
+        return unreadCounts.get(userId, id -> userRepository.findUnreadNotificationCountById(id).orElse(0));
+    }
+
+    // Destination: /user/{username}/queue/unread
+    private void pushUnread(User user, int unread) {
+        try {
+            dispatch(user, "/queue/unread", new UnreadCountDto(unread > 0, unread));
+        } catch (RuntimeException e) {
+            log.warn("Failed to push unread badge to {} / Error al enviar el indicador a {}", user.getUsername(), user.getUsername(), e);
+        }
+    }
+
+    // Destination: /user/{username}{destination} over STOMP, and the matching SSE event
+    // Destino: /user/{username}{destination} por STOMP, y el evento SSE correspondiente
+    private void dispatch(User user, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(user.getUsername(), destination, payload);
+        notificationStreamService.send(user.getUsername(), destination, payload);
+    }
+
+    private static boolean isCoalesced(NotificationType type) {
+        return type == NotificationType.NEW_LIKE || type == NotificationType.NEW_COMMENT || type == NotificationType.NEW_FOLLOWER;
+    }
+
+    // Same recipient, type and thread (and actor, for types that are not merged) / Mismo destinatario, tipo e hilo (y actor, para tipos que no se fusionan)
+    private record GroupKey(Long recipientId, NotificationType type, Long threadId, Long actorId) {
+    }
+
+    // Events merged into one notification; the latest actor is the one shown / Eventos fusionados en una notificación; se muestra el actor más reciente
+    private static final class PendingGroup {
+        private final User recipient;
+        private final NotificationType type;
+        private final ThreadClass thread;
+        private final Set<Long> actorIds = new HashSet<>();
+        private User lastActor;
+        private LocalDateTime lastAt;
+
+        private PendingGroup(User recipient, NotificationType type, ThreadClass thread) {
+            this.recipient = recipient;
+            this.type = type;
+            this.thread = thread;
+        }
+
+        private void add(User actor, LocalDateTime at) {
+            if (actor != null) {
+                actorIds.add(actor.getId());
+                lastActor = actor;
+            }
+            lastAt = at;
+        }
+
+        private NotificationClass toNotification() {
+            int actorCount = Math.max(actorIds.size(), 1);
+            return NotificationClass.builder()
+                    .user(recipient)
+                    .triggerUser(lastActor) // Guardamos quién originó la notificación (el más reciente)
+                    .type(type)
+                    .message(buildMessage(type, actorCount)) // Guardamos el mensaje generado
+                    .actorCount(actorCount)
+                    .isRead(false)
+                    .createdAt(lastAt)
+                    .thread(thread)
+                    .build();
+        }
+    }
 }
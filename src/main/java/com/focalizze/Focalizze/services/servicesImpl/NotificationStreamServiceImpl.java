@@ -0,0 +1,160 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.configurations.AsyncConfig;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.services.NotificationStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Implementation of the {@link NotificationStreamService} interface.
+ * Read-only notification delivery over Server-Sent Events, a lighter alternative to STOMP/SockJS: an open stream is
+ * an async servlet response held without a thread, so a node can keep many idle clients connected. Events are the
+ * same payloads pushed to the STOMP user destinations, named after the destination ({@code notifications},
+ * {@code unread}); writes run on a dedicated pool so a slow client never blocks the sender.
+ * <p>
+ * Implementación de la interfaz {@link NotificationStreamService}.
+ * Entrega de notificaciones de solo lectura por Server-Sent Events, una alternativa más ligera a STOMP/SockJS: un flujo
+ * abierto es una respuesta asíncrona del servlet que no ocupa ningún hilo, así que un nodo puede mantener conectados
+ * muchos clientes inactivos. Los eventos son los mismos contenidos enviados a los destinos de usuario STOMP, con el
+ * nombre del destino ({@code notifications}, {@code unread}); las escrituras van en un pool dedicado para que un
+ * cliente lento nunca bloquee al emisor.
+ */
+@Service
+@Slf4j
+public class NotificationStreamServiceImpl implements NotificationStreamService {
+
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final int maxStreamsPerUser;
+    // Open streams per username, oldest first / Flujos abiertos por nombre de usuario, el más antiguo primero
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public NotificationStreamServiceImpl(@Qualifier(AsyncConfig.SSE_EXECUTOR) Executor executor,
+                                         @Value("${app.notifications.stream.timeout-minutes:30}") long timeoutMinutes,
+                                         @Value("${app.notifications.stream.max-per-user:5}") int maxStreamsPerUser) {
+        this.executor = executor;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+    }
+
+    /**
+     * Opens a stream for the user. Past {@code max-per-user} open streams (tabs), the oldest is closed.
+     * The request is authenticated by the JWT in the {@code Authorization} header, which the browser's native
+     * {@code EventSource} cannot send: clients must use a fetch-based SSE reader (e.g. {@code fetch} with a
+     * {@code ReadableStream}) and reconnect themselves when the stream times out.
+     * <p>
+     * Abre un flujo para el usuario. Por encima de {@code max-per-user} flujos abiertos (pestañas), se cierra el más
+     * antiguo. La petición se autentica con el JWT de la cabecera {@code Authorization}, que el {@code EventSource}
+     * nativo del navegador no puede enviar: los clientes deben usar un lector SSE basado en fetch (p. ej. {@code fetch}
+     * con un {@code ReadableStream}) y reconectarse ellos mismos cuando el flujo caduca.
+     *
+     * @param user The authenticated user. / El usuario autenticado.
+     * @return The emitter to return from the controller. / El emisor a devolver desde el controlador.
+     */
+    @Override
+    public SseEmitter subscribe(User user) {
+        String username = user.getUsername();
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        List<SseEmitter> evicted = new ArrayList<>();
+        // Add and trim inside the map operation, so a concurrent remove cannot detach the list
+        // Añadir y recortar dentro de la operación del mapa, para que un remove concurrente no desligue la lista
+        emitters.compute(username, (k, userEmitters) -> {
+            List<SseEmitter> list = userEmitters != null ? userEmitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            while (list.size() > maxStreamsPerUser) {
+                evicted.add(list.remove(0));
+            }
+            return list;
+        });
+        // Completing may call back into remove: do it outside the map operation
+        // Completar puede volver a llamar a remove: hacerlo fuera de la operación del mapa
+        evicted.forEach(SseEmitter::complete);
+
+        emitter.onCompletion(() -> remove(username, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(username, emitter));
+        return emitter;
+    }
+
+    /**
+     * Sends the payload to every open stream of the user, as an event named after the last segment of the destination.
+     * Does nothing (and costs a map lookup) when the user has no stream open.
+     * <p>
+     * Envía el contenido a cada flujo abierto del usuario, como evento con el nombre del último segmento del destino.
+     * No hace nada (y cuesta una búsqueda en el mapa) cuando el usuario no tiene flujos abiertos.
+     */
+    @Override
+    public void send(String username, String destination, Object payload) {
+        List<SseEmitter> userEmitters = emitters.get(username);
+        if (userEmitters == null || userEmitters.isEmpty()) {
+            return;
+        }
+        String eventName = destination.substring(destination.lastIndexOf('/') + 1);
+        executor.execute(() -> {
+            for (SseEmitter emitter : userEmitters) {
+                write(username, emitter, SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+            }
+        });
+    }
+
+    /**
+     * Writes a comment line to every stream, so proxies keep idle connections open and dead ones are detected.
+     * A single task loops over all streams: one task per user would fill the queue and push the writes back onto
+     * the scheduler thread.
+     * <p>
+     * Escribe una línea de comentario en cada flujo, para que los proxies mantengan abiertas las conexiones inactivas
+     * y se detecten las caídas. Una sola tarea recorre todos los flujos: una tarea por usuario llenaría la cola y
+     * devolvería las escrituras al hilo del planificador.
+     */
+    @Override
+    public void sendHeartbeat() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> emitters.forEach((username, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                write(username, emitter, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return emitters.values().stream().mapToInt(List::size).sum();
+    }
+
+    // Overridable for tests / Sobrescribible en tests
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void write(String username, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client gone / Cliente desconectado
+            log.debug("SSE stream of {} closed / Flujo SSE de {} cerrado", username, username);
+            remove(username, emitter);
+        }
+    }
+
+    private void remove(String username, SseEmitter emitter) {
+        emitters.computeIfPresent(username, (k, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
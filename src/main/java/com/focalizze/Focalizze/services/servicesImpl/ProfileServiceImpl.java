@@ -13,6 +13,7 @@ import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.FileStorageService;
 import com.focalizze.Focalizze.services.ProfileService;
 import com.focalizze.Focalizze.services.ThreadService;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -49,6 +50,7 @@ public class ProfileServiceImpl implements ProfileService {
     private final BlockRepository blockRepository;
 
     private final ThreadService threadService;
+    private final UserSearchIndexService userSearchIndexService;
 
     @Value("${app.default-avatar-url}")
     private String defaultAvatarUrl;
@@ -118,7 +120,7 @@ public class ProfileServiceImpl implements ProfileService {
                 profileUser.getBiography(),
                 (int) followersCount,
                 (int) followingCount,
-                profileUser.getCalculatedThreadCount(),
+                profileUser.getPublishedThreadCount(),
                 threadsAvailableToday,
                 profileUser.getCreatedAt(),
                 isFollowing,
@@ -201,6 +203,7 @@ public class ProfileServiceImpl implements ProfileService {
         }
 
         userRepository.save(user);
+        userSearchIndexService.index(user);
 
         return getProfile(username);
     }
@@ -243,6 +246,7 @@ public class ProfileServiceImpl implements ProfileService {
 
         user.setAvatarUrl(fileDownloadUri);
         userRepository.save(user);
+        userSearchIndexService.index(user);
 
         return fileDownloadUri;
     }
@@ -0,0 +1,77 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.DiscoverItemDto;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the {@link RecommendationCacheService} interface.
+ * Keeps a short-lived, ranked list of recommendations per user, so consecutive discover pages
+ * slice one cached list instead of running the whole candidate pipeline again.
+ * <p>
+ * Implementación de la interfaz {@link RecommendationCacheService}.
+ * Mantiene por usuario una lista ordenada de recomendaciones de vida corta, de modo que las páginas
+ * consecutivas de descubrimiento recorren una lista cacheada en lugar de ejecutar de nuevo todo el proceso de candidatos.
+ */
+@Service
+public class RecommendationCacheServiceImpl implements RecommendationCacheService {
+
+    private final int capacity;
+    private final Cache<Long, List<DiscoverItemDto>> rankings;
+
+    public RecommendationCacheServiceImpl(@Value("${app.recommendations.cache.capacity:60}") int capacity,
+                                          @Value("${app.recommendations.cache.max-users:10000}") long maxUsers,
+                                          @Value("${app.recommendations.cache.ttl-seconds:120}") long ttlSeconds) {
+        this.capacity = capacity;
+        // Expire after write: counters and new threads show up within the TTL even without events
+        // Expira tras escritura: contadores e hilos nuevos aparecen dentro del TTL aunque no haya eventos
+        this.rankings = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the user's ranked recommendations, computing them with {@code loader} on a miss.
+     * <p>
+     * Devuelve las recomendaciones ordenadas del usuario, calculándolas con {@code loader} si no están en caché.
+     *
+     * @param userId The viewer's ID. / El ID del espectador.
+     * @param loader Computes {@link #getCapacity()} recommendations. / Calcula {@link #getCapacity()} recomendaciones.
+     * @return Immutable ranked list. / Lista ordenada inmutable.
+     */
+    @Override
+    public List<DiscoverItemDto> getRanked(Long userId, Supplier<List<DiscoverItemDto>> loader) {
+        return rankings.get(userId, id -> List.copyOf(loader.get()));
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Drops a user's ranking so it is recomputed on the next read (hide, follow, block, category follow...).
+     * Inside a transaction it is dropped again after commit, so a concurrent recompute cannot keep stale data.
+     * <p>
+     * Descarta el ranking de un usuario para que se recalcule en la próxima lectura (ocultar, seguir, bloquear, seguir categoría...).
+     * Dentro de una transacción se descarta otra vez tras el commit, para que un recálculo concurrente no quede obsoleto.
+     *
+     * @param userId The affected user. / El usuario afectado.
+     */
+    @Override
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        AfterCommit.invalidateNowAndOnCompletion(() -> rankings.invalidate(userId));
+    }
+}
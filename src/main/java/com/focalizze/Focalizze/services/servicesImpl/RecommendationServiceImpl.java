@@ -5,23 +5,23 @@ import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.RecommendationReasonType;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
-import com.focalizze.Focalizze.services.BlockService;
-import com.focalizze.Focalizze.services.FeedbackService;
+import com.focalizze.Focalizze.services.CandidatePoolService;
+import com.focalizze.Focalizze.services.ItemSimilarityService;
 import com.focalizze.Focalizze.services.RecommendationService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.ItemSimilarityIndex;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.PoolCandidate;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Comparator;
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the {@link RecommendationService} interface.
@@ -36,20 +36,27 @@ public class RecommendationServiceImpl implements RecommendationService {
 
     private final ThreadRepository threadRepository;
     private final ThreadEnricher threadEnricher;
-    private final UserRepository userRepository;
-    private final FeedbackService feedbackService;
-    private final BlockRepository blockRepository;
+    private final RelationshipCacheService relationshipCacheService;
+    private final CandidatePoolService candidatePoolService;
+    private final ItemSimilarityService itemSimilarityService;
 
-    // Scoring weights / Pesos de puntuación
-    private static final double LIKE_WEIGHT = 0.5;
-    private static final double COMMENT_WEIGHT = 1.5;
-    private static final double SAVE_WEIGHT = 2.0;
-    private static final double RECENCY_WEIGHT = 1.2;
+    // Most recent likes/saves used as seeds for similar content / Likes/guardados más recientes usados como semillas
+    private static final int MAX_SIMILARITY_SEEDS = 10;
+
+    // Best first; ties broken by newest thread ID / El mejor primero; empates resueltos por el ID más reciente
+    private static final Comparator<PoolCandidate> RANKING =
+            Comparator.comparingDouble(PoolCandidate::score).reversed()
+                    .thenComparing(Comparator.comparingLong(PoolCandidate::threadId).reversed());
 
     /**
      * Calculates and returns a list of recommended threads.
+     * Candidates come from memory only: threads similar to the viewer's recent likes and saves, then the precomputed
+     * pools (followed categories, then global popularity). They are only filtered against the viewer's relationships here.
      * <p>
      * Calcula y devuelve una lista de hilos recomendados.
+     * Los candidatos salen solo de memoria: hilos similares a los likes y guardados recientes del espectador, y luego
+     * los pools precalculados (categorías seguidas, luego popularidad global). Aquí solo se filtran según las relaciones
+     * del espectador.
      *
      * @param currentUser The user to generate recommendations for.
      *                    El usuario para quien generar recomendaciones.
@@ -62,128 +69,205 @@ public class RecommendationServiceImpl implements RecommendationService {
     @Transactional(readOnly = true)
     public List<DiscoverItemDto> getRecommendations(User currentUser, int limit) {
         // 1. Gather Context Data / Recopilar Datos de Contexto
-        User userWithFollows = userRepository.findByIdWithFollows(currentUser.getId()).orElse(currentUser);
-
-        // Collect mutable lists for potential "-1L" insertion
-        List<Long> followedUserIds = userWithFollows.getFollowing().stream()
-                .map(f -> f.getUserFollowed().getId())
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        List<Long> followedCategoryIds = userWithFollows.getFollowedCategories().stream()
-                .map(cf -> cf.getCategory().getId())
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        Set<Long> hiddenThreadIds = new HashSet<>(feedbackService.getHiddenThreadIds(currentUser));
-
-        Set<Long> allBlockedIds = new HashSet<>();
-        allBlockedIds.addAll(blockRepository.findBlockedUserIdsByBlocker(currentUser.getId()));
-        allBlockedIds.addAll(blockRepository.findUserIdsWhoBlockedUser(currentUser.getId()));
-
-        // SQL Safety: Insert dummy ID to prevent empty IN clause errors
-        if (followedUserIds.isEmpty()) followedUserIds.add(-1L);
-        if (followedCategoryIds.isEmpty()) followedCategoryIds.add(-1L);
-        if (hiddenThreadIds.isEmpty()) hiddenThreadIds.add(-1L);
-        if (allBlockedIds.isEmpty()) allBlockedIds.add(-1L);
-
-        // Fetch Candidates / Obtener Candidatos
-        List<ThreadClass> candidates = threadRepository.findRecommendationCandidates(
-                currentUser.getId(),
-                followedUserIds,
-                followedCategoryIds,
-                hiddenThreadIds,
-                allBlockedIds,
-                PageRequest.of(0, 100)
-        );
-
-        // Score and Rank / Puntuar y Clasificar
-        List<ScoredThread> scoredThreads = candidates.stream()
-                .map(this::calculateScore)
-                .sorted(Comparator.comparingDouble(ScoredThread::score).reversed())
-                .toList();
-
-        // Diversification & Reason Assignment / Diversificación y Asignación de Razón
-        List<DiscoverItemDto> recommendations = new ArrayList<>();
+        RelationshipSnapshot relations = relationshipCacheService.getSnapshot(currentUser.getId());
+        LongIdSet hiddenThreadIds = relations.hiddenThreadIds();
+
+        Predicate<PoolCandidate> eligible = candidate ->
+                !currentUser.getId().equals(candidate.authorId())
+                        && !relations.followedUserIds().contains(candidate.authorId())
+                        && !relations.blockedUserIds().contains(candidate.authorId())
+                        && !hiddenThreadIds.contains(candidate.threadId());
+
+        // 2. Item-to-item: neighbours of the viewer's recent likes and saves (in memory)
+        // 2. Hilo a hilo: vecinos de los likes y guardados recientes del espectador (en memoria)
+        Map<Long, Long> seedByThread = new HashMap<>();
+        List<PoolCandidate> similarCandidates = findSimilarCandidates(currentUser.getId(), seedByThread);
+
+        // 3. Diversified top-K: similar content, then followed categories, then global popularity
+        // 3. Top-K diversificado: contenido similar, luego categorías seguidas, luego popularidad global
         Set<Long> usedAuthors = new HashSet<>();
+        List<Long> pickedIds = new ArrayList<>(selectTopK(List.of(similarCandidates), limit, eligible, usedAuthors));
+        Set<Long> similarPickIds = new HashSet<>(pickedIds);
 
-        for (ScoredThread scoredThread : scoredThreads) {
-            if (recommendations.size() >= limit) break;
-
-            ThreadClass thread = scoredThread.thread();
-
-            // Filtramos si ya usamos el autor
-            if (!usedAuthors.contains(thread.getUser().getId())) {
-                usedAuthors.add(thread.getUser().getId());
-
-                // Determinamos la razón
-                String reason = "Basado en la popularidad y tus intereses.";
-                RecommendationReasonType type = RecommendationReasonType.SOCIAL_PROOF; // Default
-
-                // Si la categoría del hilo está en mis seguidas
-                // Nota: Usamos contains original, cuidado con el -1 si lo agregaste arriba, pero aquí comparamos IDs reales
-                boolean followsCategory = userWithFollows.getFollowedCategories().stream()
-                        .anyMatch(cf -> cf.getCategory().getId().equals(thread.getCategory().getId()));
-
-                if (followsCategory) {
-                    reason = "Porque sigues la categoría '" + thread.getCategory().getName() + "'.";
-                    type = RecommendationReasonType.CATEGORY_INTEREST;
-                }
-
-                FeedThreadDto enrichedThread = threadEnricher.enrichList(List.of(thread), currentUser).get(0);
-                recommendations.add(new DiscoverItemDto(enrichedThread, true, reason, type.toString()));
-            }
+        List<List<PoolCandidate>> categoryPools = new ArrayList<>();
+        for (long categoryId : relations.followedCategoryIds().toArray()) {
+            categoryPools.add(candidatePoolService.getCategoryPool(categoryId));
+        }
+        pickedIds.addAll(selectTopK(categoryPools, limit - pickedIds.size(), eligible, usedAuthors));
+        pickedIds.addAll(selectTopK(List.of(candidatePoolService.getTrendingPool()),
+                limit - pickedIds.size(), eligible, usedAuthors));
+
+        // 4. Load picks and the seeds that explain them in one query (threads deleted since the last refresh drop out)
+        // 4. Cargar selección y las semillas que la explican en una consulta (los hilos borrados desde el último refresco se descartan)
+        List<Long> idsToLoad = new ArrayList<>(pickedIds);
+        for (Long threadId : similarPickIds) {
+            Long seedId = seedByThread.get(threadId);
+            if (!idsToLoad.contains(seedId)) idsToLoad.add(seedId);
+        }
+        Map<Long, ThreadClass> threadsById = new HashMap<>();
+        if (!idsToLoad.isEmpty()) {
+            threadRepository.findPublishedByIdsWithDetails(idsToLoad).forEach(t -> threadsById.put(t.getId(), t));
         }
+        List<ThreadClass> selected = new ArrayList<>(limit);
+        for (Long threadId : pickedIds) {
+            ThreadClass thread = threadsById.get(threadId);
+            if (thread != null) selected.add(thread);
+        }
+        int pooledCount = selected.size();
 
         // 5. Fallback Strategy / Estrategia de Respaldo
-        if (recommendations.size() < limit) {
+        if (selected.size() < limit) {
             // Fill remaining slots with trending content (filtered manually)
             // Llenar espacios restantes con contenido en tendencia (filtrado manualmente)
+            // SQL Safety: the query lists carry a dummy ID (-1L) when empty
+            // Seguridad SQL: las listas de consulta llevan un ID ficticio (-1L) si están vacías
             Page<ThreadClass> fallbackThreads = threadRepository.findThreadsForDiscover(
-                    currentUser.getId(), followedUserIds, allBlockedIds, PageRequest.of(0, 20)
+                    currentUser.getId(),
+                    relations.followedUserIds().toQueryList(),
+                    relations.blockedUserIds().toQuerySet(),
+                    PageRequest.of(0, 20)
             );
 
+            Set<Long> selectedIds = new HashSet<>(threadsById.keySet());
             for (ThreadClass thread : fallbackThreads) {
-                if (recommendations.size() >= limit) break;
+                if (selected.size() >= limit) break;
 
-                // Verificamos que no esté oculto, que no sea propio y que no esté ya agregado
+                // Verificamos que no esté oculto, que no sea propio y que no esté ya agregado (O(1))
                 boolean isHidden = hiddenThreadIds.contains(thread.getId());
-                boolean alreadyAdded = recommendations.stream().anyMatch(r -> r.thread().id().equals(thread.getId()));
-
-                if (!isHidden && !alreadyAdded && !thread.getUser().getId().equals(currentUser.getId())) {
-                    FeedThreadDto enriched = threadEnricher.enrichList(List.of(thread), currentUser).get(0);
+                boolean isOwn = thread.getUser().getId().equals(currentUser.getId());
 
-                    recommendations.add(new DiscoverItemDto(
-                            enriched,
-                            true,
-                            "Tendencia en Focalizze.",
-                            "TRENDING"
-                    ));
+                if (!isHidden && !isOwn && selectedIds.add(thread.getId())) {
+                    selected.add(thread);
                 }
             }
         }
 
+        if (selected.isEmpty()) {
+            return List.of();
+        }
+
+        // 6. Single batched enrichment, then reasons / Un solo enriquecimiento por lotes y luego razones
+        List<FeedThreadDto> enrichedThreads = threadEnricher.enrichList(selected, currentUser);
+
+        List<DiscoverItemDto> recommendations = new ArrayList<>(selected.size());
+        for (int i = 0; i < selected.size(); i++) {
+            FeedThreadDto enriched = enrichedThreads.get(i);
+            if (i >= pooledCount) {
+                recommendations.add(new DiscoverItemDto(enriched, true, "Tendencia en Focalizze.", "TRENDING"));
+                continue;
+            }
+
+            ThreadClass thread = selected.get(i);
+
+            // Determinamos la razón
+            String reason = "Basado en la popularidad y tus intereses.";
+            RecommendationReasonType type = RecommendationReasonType.SOCIAL_PROOF; // Default
+
+            // Si la categoría del hilo está en mis seguidas
+            boolean followsCategory = thread.getCategory() != null
+                    && relations.followedCategoryIds().contains(thread.getCategory().getId());
+
+            if (similarPickIds.contains(thread.getId())) {
+                ThreadClass seed = threadsById.get(seedByThread.get(thread.getId()));
+                reason = seed != null
+                        ? "Porque te gustó un hilo de @" + seed.getUser().getUsername() + "."
+                        : "Porque te gustó un hilo parecido.";
+                type = RecommendationReasonType.SIMILAR_CONTENT;
+            } else if (followsCategory) {
+                reason = "Porque sigues la categoría '" + thread.getCategory().getName() + "'.";
+                type = RecommendationReasonType.CATEGORY_INTEREST;
+            }
+
+            recommendations.add(new DiscoverItemDto(enriched, true, reason, type.toString()));
+        }
+
         return recommendations;
     }
 
     /**
-     * Internal scoring algorithm.
+     * Scores the neighbours of the viewer's most recent likes and saves by summed similarity.
+     * Threads the viewer already engaged with are skipped; {@code seedByThread} records the strongest seed of each candidate.
      * <p>
-     * Algoritmo de puntuación interno.
+     * Puntúa los vecinos de los likes y guardados más recientes del espectador sumando su similitud.
+     * Se omiten los hilos con los que el espectador ya interactuó; {@code seedByThread} registra la semilla más fuerte de cada candidato.
      */
-    private ScoredThread calculateScore(ThreadClass thread) {
-        double engagementScore = (thread.getLikeCount() * LIKE_WEIGHT) +
-                (thread.getCommentCount() * COMMENT_WEIGHT) +
-                (thread.getSaveCount() * SAVE_WEIGHT);
-
-        long hoursOld = Duration.between(thread.getPublishedAt(), LocalDateTime.now()).toHours();
-        // Evitamos números negativos o ceros extraños en logs recientes
-        hoursOld = Math.max(0, hoursOld);
+    private List<PoolCandidate> findSimilarCandidates(Long userId, Map<Long, Long> seedByThread) {
+        ItemSimilarityIndex index = itemSimilarityService.getIndex();
+        long[] seeds = index.getRecentItems(userId);
+        if (seeds.length == 0) {
+            return List.of();
+        }
 
-        double recencyScore = Math.exp(-hoursOld * 0.01) * RECENCY_WEIGHT;
+        Set<Long> engaged = new HashSet<>();
+        for (long seed : seeds) engaged.add(seed);
+
+        Map<Long, Double> scoreByThread = new HashMap<>();
+        Map<Long, Long> authorByThread = new HashMap<>();
+        Map<Long, Float> strongestByThread = new HashMap<>();
+        for (int i = 0; i < Math.min(seeds.length, MAX_SIMILARITY_SEEDS); i++) {
+            long seed = seeds[i];
+            index.forEachNeighbor(seed, (threadId, authorId, similarity) -> {
+                if (engaged.contains(threadId)) return;
+                scoreByThread.merge(threadId, (double) similarity, Double::sum);
+                authorByThread.put(threadId, authorId);
+                Float strongest = strongestByThread.get(threadId);
+                if (strongest == null || similarity > strongest) {
+                    strongestByThread.put(threadId, similarity);
+                    seedByThread.put(threadId, seed);
+                }
+            });
+        }
 
-        double finalScore = engagementScore * recencyScore;
-        return new ScoredThread(thread, finalScore);
+        List<PoolCandidate> candidates = new ArrayList<>(scoreByThread.size());
+        scoreByThread.forEach((threadId, score) ->
+                candidates.add(new PoolCandidate(threadId, authorByThread.get(threadId), null, score)));
+        return candidates;
     }
 
-    private record ScoredThread(ThreadClass thread, double score) {}
-}
+    /**
+     * Selects the {@code k} best eligible candidates with at most one thread per author, using a bounded min-heap.
+     * Runs in O(n log k) over the pools instead of sorting every candidate. Chosen authors are added to {@code usedAuthors}.
+     * <p>
+     * Selecciona los {@code k} mejores candidatos elegibles con como mucho un hilo por autor, usando un min-heap acotado.
+     * Cuesta O(n log k) sobre los pools en lugar de ordenar todos los candidatos. Los autores elegidos se añaden a {@code usedAuthors}.
+     *
+     * @return Thread IDs, best first. / IDs de hilos, el mejor primero.
+     */
+    private List<Long> selectTopK(List<List<PoolCandidate>> pools, int k, Predicate<PoolCandidate> eligible,
+                                  Set<Long> usedAuthors) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        // Best candidate per author / Mejor candidato por autor
+        Map<Long, PoolCandidate> bestByAuthor = new HashMap<>();
+        for (List<PoolCandidate> pool : pools) {
+            for (PoolCandidate candidate : pool) {
+                if (usedAuthors.contains(candidate.authorId()) || !eligible.test(candidate)) continue;
+                bestByAuthor.merge(candidate.authorId(), candidate,
+                        (current, next) -> RANKING.compare(next, current) < 0 ? next : current);
+            }
+        }
+
+        // Min-heap keeps the k best seen so far; its head is the weakest of them
+        // El min-heap guarda los k mejores vistos; su cabeza es el más débil de ellos
+        PriorityQueue<PoolCandidate> heap = new PriorityQueue<>(k, RANKING.reversed());
+        for (PoolCandidate candidate : bestByAuthor.values()) {
+            if (heap.size() < k) {
+                heap.add(candidate);
+            } else if (RANKING.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
 
+        List<PoolCandidate> top = new ArrayList<>(heap);
+        top.sort(RANKING);
+        List<Long> ids = new ArrayList<>(top.size());
+        for (PoolCandidate candidate : top) {
+            usedAuthors.add(candidate.authorId());
+            ids.add(candidate.threadId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.repository.CategoryFollowRepository;
+import com.focalizze.Focalizze.repository.FollowRepository;
+import com.focalizze.Focalizze.repository.HiddenContentRepository;
+import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Implementation of the {@link RelationshipCacheService} interface.
+ * Caches, per user, the followed users, followed categories, block relations and hidden threads as compact ID sets.
+ * Entries are evicted by the follow/category/block/feedback services when a relation changes.
+ * <p>
+ * Implementación de la interfaz {@link RelationshipCacheService}.
+ * Cachea, por usuario, los usuarios seguidos, las categorías seguidas, los bloqueos y los hilos ocultos como conjuntos compactos de IDs.
+ * Las entradas son expulsadas por los servicios de seguimiento/categoría/bloqueo/feedback cuando cambia una relación.
+ */
+@Service
+public class RelationshipCacheServiceImpl implements RelationshipCacheService {
+
+    private final FollowRepository followRepository;
+    private final CategoryFollowRepository categoryFollowRepository;
+    private final UserRepository userRepository;
+    private final HiddenContentRepository hiddenContentRepository;
+
+    private final Cache<Long, RelationshipSnapshot> snapshots;
+
+    public RelationshipCacheServiceImpl(FollowRepository followRepository,
+                                        CategoryFollowRepository categoryFollowRepository,
+                                        UserRepository userRepository,
+                                        HiddenContentRepository hiddenContentRepository,
+                                        @Value("${app.cache.relationships.max-users:50000}") long maxUsers,
+                                        @Value("${app.cache.relationships.ttl-minutes:30}") long ttlMinutes) {
+        this.followRepository = followRepository;
+        this.categoryFollowRepository = categoryFollowRepository;
+        this.userRepository = userRepository;
+        this.hiddenContentRepository = hiddenContentRepository;
+        // TTL is only a safety net: changes made through the services evict the entry immediately
+        // El TTL es solo una red de seguridad: los cambios hechos por los servicios expulsan la entrada al instante
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Returns the relationship snapshot of a user, loading it on a cache miss.
+     * Anonymous viewers (null ID) get an empty snapshot.
+     * <p>
+     * Devuelve la instantánea de relaciones de un usuario, cargándola si no está en caché.
+     * Los espectadores anónimos (ID null) reciben una instantánea vacía.
+     *
+     * @param userId The viewer's ID. / El ID del espectador.
+     * @return The snapshot. / La instantánea.
+     */
+    @Override
+    public RelationshipSnapshot getSnapshot(Long userId) {
+        if (userId == null) {
+            return RelationshipSnapshot.EMPTY;
+        }
+        return snapshots.get(userId, this::load);
+    }
+
+    /**
+     * Evicts a user's snapshot. When called inside a transaction it evicts again after commit,
+     * so a concurrent reader cannot re-cache the pre-commit state.
+     * <p>
+     * Expulsa la instantánea de un usuario. Si se llama dentro de una transacción vuelve a expulsar tras el commit,
+     * para que un lector concurrente no pueda volver a cachear el estado previo al commit.
+     *
+     * @param userId The affected user. / El usuario afectado.
+     */
+    @Override
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        AfterCommit.invalidateNowAndOnCompletion(() -> snapshots.invalidate(userId));
+    }
+
+    private RelationshipSnapshot load(Long userId) {
+        LongIdSet blockedByMe = LongIdSet.of(userRepository.findBlockedUserIdsByBlocker(userId));
+        LongIdSet blockedMe = LongIdSet.of(userRepository.findUserIdsWhoBlockedUser(userId));
+
+        return new RelationshipSnapshot(
+                LongIdSet.of(followRepository.findFollowedIdsByFollowerId(userId)),
+                LongIdSet.of(categoryFollowRepository.findCategoryIdsByUserId(userId)),
+                blockedByMe,
+                blockedByMe.union(blockedMe),
+                LongIdSet.of(hiddenContentRepository.findHiddenThreadIdsByUserId(userId))
+        );
+    }
+}
@@ -4,11 +4,12 @@ import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.SavedThreads;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.SavedThreadRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.SaveService;
+import com.focalizze.Focalizze.utils.LongIdSet;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -19,10 +20,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Implementation of the {@link SaveService} interface.
@@ -39,7 +38,7 @@ public class SaveServiceImpl implements SaveService {
     private final SavedThreadRepository savedThreadRepository;
     private final ThreadEnricher threadEnricher;
     private final UserRepository userRepository;
-    private final BlockRepository blockRepository;
+    private final RelationshipCacheService relationshipCacheService;
 
     /**
      * Toggles the saved state of a thread for the current user.
@@ -111,9 +110,7 @@ public class SaveServiceImpl implements SaveService {
         Page<SavedThreads> savedThreadsPage = savedThreadRepository.findByUserOrderByCreatedAtDesc(currentUser, pageable);
 
         // 3. Get Blocked IDs
-        Set<Long> allBlockedIds = new HashSet<>();
-        allBlockedIds.addAll(blockRepository.findBlockedUserIdsByBlocker(currentUser.getId()));
-        allBlockedIds.addAll(blockRepository.findUserIdsWhoBlockedUser(currentUser.getId()));
+        LongIdSet allBlockedIds = relationshipCacheService.getSnapshot(currentUser.getId()).blockedUserIds();
 
         // 4. Extract and Filter Threads
         List<ThreadClass> threads = savedThreadsPage.getContent().stream()
@@ -0,0 +1,136 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.services.SearchResultCacheService;
+import com.focalizze.Focalizze.utils.AfterCommit;
+import com.focalizze.Focalizze.utils.SearchQueryKey;
+import com.focalizze.Focalizze.utils.SearchResults;
+import com.focalizze.Focalizze.utils.ThreadSearchIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of the {@link SearchResultCacheService} interface.
+ * Keeps the ranked results of popular searches for a short time, shared by every viewer, so a trending term searched
+ * by many users at once is computed once. Concurrent misses of the same key wait for a single load instead of each
+ * reaching the index or the database. Entries are dropped when a thread that could enter or leave them changes.
+ * <p>
+ * Implementación de la interfaz {@link SearchResultCacheService}.
+ * Guarda durante poco tiempo los resultados ordenados de las búsquedas populares, compartidos por todos los espectadores,
+ * de modo que un término en tendencia buscado por muchos usuarios a la vez se calcula una sola vez. Los fallos
+ * concurrentes de la misma clave esperan a una única carga en lugar de llegar cada uno al índice o a la BD.
+ * Las entradas se descartan cuando cambia un hilo que podría entrar o salir de ellas.
+ */
+@Service
+public class SearchResultCacheServiceImpl implements SearchResultCacheService {
+
+    private final int depth;
+    private final Cache<SearchQueryKey, SearchResults> results;
+
+    public SearchResultCacheServiceImpl(@Value("${app.search.cache.depth:250}") int depth,
+                                        @Value("${app.search.cache.max-queries:10000}") long maxQueries,
+                                        @Value("${app.search.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.depth = depth;
+        // The TTL also bounds a load that raced with an invalidation / El TTL también acota una carga que compitió con una invalidación
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxQueries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the cached results of the search, computing them with {@code loader} on a miss.
+     * Only one caller per key runs the loader; the others wait for its result.
+     * <p>
+     * Devuelve los resultados cacheados de la búsqueda, calculándolos con {@code loader} si no están en caché.
+     * Solo una llamada por clave ejecuta el loader; las demás esperan su resultado.
+     *
+     * @param key    The normalized search. / La búsqueda normalizada.
+     * @param loader Computes up to {@link #getDepth()} results, without viewer blocks. / Calcula hasta {@link #getDepth()} resultados, sin bloqueos del espectador.
+     * @return Shared, immutable results. / Resultados compartidos e inmutables.
+     */
+    @Override
+    public SearchResults get(SearchQueryKey key, Supplier<SearchResults> loader) {
+        return results.get(key, k -> loader.get());
+    }
+
+    @Override
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Drops the searches a published or edited thread may enter or leave: those already listing it, its category
+     * listing, and the text queries whose every word starts one of its words (filters are ignored, erring on the safe side).
+     * <p>
+     * Descarta las búsquedas en las que un hilo publicado o editado puede entrar o de las que puede salir: las que ya lo
+     * listan, el listado de su categoría y las consultas de texto cuyas palabras empiezan todas alguna de las suyas
+     * (los filtros se ignoran, por prudencia).
+     *
+     * @param threadId   The thread. / El hilo.
+     * @param categoryId Its category (may be null). / Su categoría (puede ser null).
+     * @param contents   Text of its posts. / Texto de sus posts.
+     */
+    @Override
+    public void invalidateThread(Long threadId, Long categoryId, List<String> contents) {
+        if (threadId == null) {
+            return;
+        }
+        NavigableSet<String> words = new TreeSet<>();
+        contents.forEach(content -> words.addAll(ThreadSearchIndex.tokenize(content)));
+        invalidateIf((key, cached) -> cached.containsThread(threadId)
+                || (key.categoryId() != null && key.categoryId().equals(categoryId))
+                || (key.query() != null && startsWords(key.terms(), words)));
+    }
+
+    /**
+     * Drops the searches listing a removed thread.
+     * <p>
+     * Descarta las búsquedas que listan un hilo eliminado.
+     */
+    @Override
+    public void invalidateThread(Long threadId) {
+        if (threadId == null) {
+            return;
+        }
+        invalidateIf((key, cached) -> cached.containsThread(threadId));
+    }
+
+    @Override
+    public void invalidateAll() {
+        results.invalidateAll();
+    }
+
+    /**
+     * Inside a transaction the entries are checked again after commit, so a load that read the database before the
+     * commit cannot keep the old results.
+     * <p>
+     * Dentro de una transacción las entradas se comprueban otra vez tras el commit, para que una carga que leyó la BD
+     * antes del commit no conserve los resultados antiguos.
+     */
+    private void invalidateIf(BiPredicate<SearchQueryKey, SearchResults> stale) {
+        Predicate<Map.Entry<SearchQueryKey, SearchResults>> matches = entry -> stale.test(entry.getKey(), entry.getValue());
+        AfterCommit.invalidateNowAndOnCompletion(() -> results.asMap().entrySet().removeIf(matches));
+    }
+
+    private static boolean startsWords(List<String> terms, NavigableSet<String> words) {
+        if (terms.isEmpty()) {
+            return false;
+        }
+        for (String term : terms) {
+            String candidate = words.ceiling(term);
+            if (candidate == null || !candidate.startsWith(term)) return false;
+        }
+        return true;
+    }
+}
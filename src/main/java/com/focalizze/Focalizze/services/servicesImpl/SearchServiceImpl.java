@@ -1,24 +1,39 @@
 package com.focalizze.Focalizze.services.servicesImpl;
 
+import com.focalizze.Focalizze.dto.ContentSearchFiltersDto;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.ThreadResponseDto;
 import com.focalizze.Focalizze.dto.UserSearchDto;
 import com.focalizze.Focalizze.dto.mappers.ThreadMapper;
-import com.focalizze.Focalizze.models.CategoryClass;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.CategoryRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.CategorySearchIndexService;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.services.SearchResultCacheService;
 import com.focalizze.Focalizze.services.SearchService;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
+import com.focalizze.Focalizze.utils.ContentSearchFilter;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.SearchCursor;
+import com.focalizze.Focalizze.utils.SearchQueryKey;
+import com.focalizze.Focalizze.utils.SearchResults;
+import com.focalizze.Focalizze.utils.ThreadSearchIndex;
+import com.focalizze.Focalizze.utils.UsernameIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -33,15 +48,31 @@ import java.util.stream.Collectors;
 public class SearchServiceImpl implements SearchService {
 
     private final UserRepository userRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategorySearchIndexService categorySearchIndexService;
     private final ThreadRepository threadRepository;
     private final ThreadMapper threadMapper;
+    private final RelationshipCacheService relationshipCacheService;
+    private final ContentSearchIndexService contentSearchIndexService;
+    private final UserSearchIndexService userSearchIndexService;
+    private final SearchResultCacheService searchResultCacheService;
+
+    // Autocomplete suggestions per request / Sugerencias de autocompletado por petición
+    private static final int MAX_USER_SUGGESTIONS = 5;
+
+    // Upper bound of content results served per query, across pages / Máximo de resultados de contenido servidos por consulta, entre páginas
+    private static final int MAX_CONTENT_RESULTS = 200;
+    // Upper bound of a single page / Máximo de una sola página
+    private static final int MAX_PAGE_SIZE = 50;
 
 
     /**
-     * Searches for users by username prefix (autocomplete).
+     * Searches for users by username prefix (autocomplete), most followed first, from the in-memory username index.
+     * If fewer than {@link #MAX_USER_SUGGESTIONS} users match, the list is filled with typo-tolerant matches
+     * over usernames and display names, so a misspelled name still finds someone.
      * <p>
-     * Busca usuarios por prefijo de nombre de usuario (autocompletado).
+     * Busca usuarios por prefijo de nombre de usuario (autocompletado), los más seguidos primero, desde el índice en memoria.
+     * Si coinciden menos de {@link #MAX_USER_SUGGESTIONS} usuarios, la lista se completa con coincidencias tolerantes a
+     * erratas sobre nombres de usuario y nombres visibles, para que un nombre mal escrito siga encontrando a alguien.
      *
      * @param prefix The prefix to search for (e.g., "joh").
      *               El prefijo a buscar (ej. "joh").
@@ -63,71 +94,181 @@ public class SearchServiceImpl implements SearchService {
             return List.of();
         }
 
-        List<User> users = userRepository.findTop5ByUsernameStartingWithIgnoreCase(cleanPrefix);
+        List<UsernameIndex.Entry> users = userSearchIndexService.searchByPrefix(cleanPrefix, MAX_USER_SUGGESTIONS);
+        if (users.size() < MAX_USER_SUGGESTIONS) {
+            Map<Long, UsernameIndex.Entry> merged = new LinkedHashMap<>();
+            users.forEach(user -> merged.put(user.id(), user));
+            for (UsernameIndex.Entry user : userSearchIndexService.searchFuzzy(cleanPrefix, MAX_USER_SUGGESTIONS)) {
+                if (merged.size() >= MAX_USER_SUGGESTIONS) break;
+                merged.putIfAbsent(user.id(), user);
+            }
+            users = List.copyOf(merged.values());
+        }
 
         // Mapea a DTO
         return users.stream()
-                .map(user -> new UserSearchDto(user.getUsername(), user.getDisplayName(), user.getAvatarUrl()))
+                .map(user -> new UserSearchDto(user.username(), user.displayName(), user.avatarUrl()))
                 .collect(Collectors.toList());
     }
 
 
     /**
-     * Searches for content based on a query string.
+     * Searches for content based on a query string and optional filters, one bounded page at a time.
      * Strategy:
-     * 1. Check if query matches a Category name exactly.
-     * 2. If not, search Thread post content.
-     * 3. Filter out results from blocked users.
+     * 1. Check if query matches a Category name exactly (and no filter is set): newest threads of that category.
+     * 2. If not, rank threads with the in-memory full-text index (phrases, prefix, category/author/date filters).
+     * The ranked results of a query are shared by every viewer through a short-lived cache; blocked users are skipped
+     * per viewer while paging, so every page is full and the cursor stays consistent.
+     * At most {@link #MAX_CONTENT_RESULTS} results are served in total for a query.
      * <p>
-     * Busca contenido basado en una cadena de consulta.
+     * Busca contenido basado en una cadena de consulta y filtros opcionales, una página acotada cada vez.
      * Estrategia:
-     * 1. Comprobar si la consulta coincide exactamente con el nombre de una Categoría.
-     * 2. Si no, buscar en el contenido de los Posts de los Hilos.
-     * 3. Filtrar resultados de usuarios bloqueados.
+     * 1. Comprobar si la consulta coincide exactamente con el nombre de una Categoría (y no hay filtros): hilos más recientes de esa categoría.
+     * 2. Si no, puntuar los hilos con el índice de texto completo en memoria (frases, prefijo, filtros de categoría/autor/fecha).
+     * Los resultados ordenados de una consulta se comparten entre todos los espectadores mediante una caché de vida corta;
+     * los usuarios bloqueados se omiten por espectador al paginar, así que cada página está completa y el cursor es coherente.
+     * Como máximo se sirven {@link #MAX_CONTENT_RESULTS} resultados en total por consulta.
      *
-     * @param query The search query.
-     *              La consulta de búsqueda.
-     * @return List of threads matching the query.
-     *         Lista de hilos que coinciden con la consulta.
+     * @param query   The search query.
+     *                La consulta de búsqueda.
+     * @param filters Optional category, author and date filters (may be null).
+     *                Filtros opcionales de categoría, autor y fecha (puede ser null).
+     * @param cursor  Opaque cursor from the previous page (null for the first).
+     *                Cursor opaco de la página anterior (null para la primera).
+     * @param size    Requested page size, clamped to {@link #MAX_PAGE_SIZE}.
+     *                Tamaño de página pedido, limitado a {@link #MAX_PAGE_SIZE}.
+     * @return A page of threads matching the query, best first.
+     *         Una página de hilos que coinciden con la consulta, el mejor primero.
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ThreadResponseDto> searchContent(String query) {
+    public CursorPageDto<ThreadResponseDto> searchContent(String query, ContentSearchFiltersDto filters, String cursor, int size) {
         if (query == null || query.isBlank()) {
-            return List.of();
+            return emptyPage();
+        }
+
+        SearchCursor after = SearchCursor.decode(cursor);
+        int served = after == null ? 0 : after.served();
+        int pageSize = Math.min(Math.min(Math.max(size, 1), MAX_PAGE_SIZE), MAX_CONTENT_RESULTS - served);
+        if (pageSize <= 0) {
+            return emptyPage();
         }
 
         // 1. Resolve Current User & Blocked IDs
         // 1. Resolver Usuario Actual e IDs Bloqueados
-        Set<Long> allBlockedIds = new HashSet<>();
+        LongIdSet blockedIds = LongIdSet.empty();
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (principal instanceof User currentUser) {
-            allBlockedIds.addAll(userRepository.findBlockedUserIdsByBlocker(currentUser.getId()));
-            allBlockedIds.addAll(userRepository.findUserIdsWhoBlockedUser(currentUser.getId()));
+            blockedIds = relationshipCacheService.getSnapshot(currentUser.getId()).blockedUserIds();
         }
 
-        // 2. Search Strategy
-        // 2. Estrategia de Búsqueda
-        List<ThreadClass> foundThreads;
+        // 2. Search Strategy: shared results of the query, cached for every viewer
+        // 2. Estrategia de Búsqueda: resultados compartidos de la consulta, cacheados para todos los espectadores
+        SearchResults results;
 
-        // A. Try Category Match / Intentar Coincidencia de Categoría
-        Optional<CategoryClass> category = categoryRepository.findByName(query);
+        // A. Try Category Match, tolerating accents and small typos / Intentar Coincidencia de Categoría, tolerando tildes y erratas pequeñas
+        Optional<Long> categoryId = isEmpty(filters) ? categorySearchIndexService.resolveId(query) : Optional.empty();
 
-        if (category.isPresent()) {
-            foundThreads = threadRepository.findByCategory(category.get());
+        if (categoryId.isPresent()) {
+            results = searchResultCacheService.get(SearchQueryKey.forCategory(categoryId.get()),
+                    () -> loadCategory(categoryId.get()));
         } else {
-            foundThreads = threadRepository.findByPostContentContainingIgnoreCase(query);
+            // B. Full-text index / Índice de texto completo
+            Optional<ContentSearchFilter> filter = resolveFilter(filters);
+            if (filter.isEmpty()) {
+                return emptyPage();
+            }
+            results = searchResultCacheService.get(SearchQueryKey.forText(query, filter.get()),
+                    () -> contentSearchIndexService.searchResults(query, filter.get(), searchResultCacheService.getDepth()));
         }
 
-        // 3. Filter Blocked Users (Memory Filter)
-        // 3. Filtrar Usuarios Bloqueados (Filtro en Memoria)
-        List<ThreadClass> filteredThreads = foundThreads.stream()
-                .filter(thread -> !allBlockedIds.contains(thread.getUser().getId()))
+        // Blocked authors are skipped per viewer; one extra result tells whether another page exists
+        // Los autores bloqueados se omiten por espectador; un resultado extra indica si existe otra página
+        List<ThreadSearchIndex.Hit> hits = results.page(after == null ? null : after.toHit(), blockedIds, pageSize + 1);
+        Map<Long, ThreadClass> loaded = hits.isEmpty() ? Map.of() : loadById(hits.stream().limit(pageSize).map(ThreadSearchIndex.Hit::threadId).toList());
+
+        // 3. Page and cursor / Página y cursor
+        boolean hasNext = hits.size() > pageSize && served + pageSize < MAX_CONTENT_RESULTS;
+        List<ThreadSearchIndex.Hit> pageHits = hits.size() > pageSize ? hits.subList(0, pageSize) : hits;
+        String nextCursor = hasNext ? SearchCursor.of(pageHits.get(pageHits.size() - 1), served + pageHits.size()).encode() : null;
+
+        // Keep the ranking order; a thread deleted since indexing is simply skipped
+        // Conservar el orden del ranking; un hilo borrado desde la indexación simplemente se omite
+        List<ThreadClass> pageThreads = pageHits.stream()
+                .map(hit -> loaded.get(hit.threadId()))
+                .filter(Objects::nonNull)
                 .toList();
 
         // Mapeamos los resultados al DTO de respuesta.
-        return threadMapper.toDtoList(filteredThreads);
+        return new CursorPageDto<>(threadMapper.toDtoList(pageThreads), nextCursor, hasNext);
+    }
+
+    private static CursorPageDto<ThreadResponseDto> emptyPage() {
+        return new CursorPageDto<>(List.of(), null, false);
+    }
+
+    private static boolean isEmpty(ContentSearchFiltersDto filters) {
+        return filters == null || (isBlank(filters.category()) && isBlank(filters.author())
+                && filters.from() == null && filters.to() == null);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Translates category and author names into IDs. Empty when a named one does not exist, since nothing can match.
+     * <p>
+     * Traduce los nombres de categoría y autor a IDs. Vacío si alguno indicado no existe, ya que nada puede coincidir.
+     */
+    private Optional<ContentSearchFilter> resolveFilter(ContentSearchFiltersDto filters) {
+        if (isEmpty(filters)) {
+            return Optional.of(ContentSearchFilter.NONE);
+        }
+
+        Long categoryId = null;
+        if (!isBlank(filters.category())) {
+            Optional<Long> category = categorySearchIndexService.resolveId(filters.category());
+            if (category.isEmpty()) return Optional.empty();
+            categoryId = category.get();
+        }
+
+        Long authorId = null;
+        if (!isBlank(filters.author())) {
+            String username = filters.author().startsWith("@") ? filters.author().substring(1) : filters.author();
+            Optional<User> author = userRepository.findByUsername(username);
+            if (author.isEmpty()) return Optional.empty();
+            authorId = author.get().getId();
+        }
+
+        // 'to' is inclusive: the whole day counts / 'to' es inclusivo: cuenta el día completo
+        return Optional.of(new ContentSearchFilter(
+                categoryId,
+                authorId,
+                filters.from() != null ? filters.from().atStartOfDay() : null,
+                filters.to() != null ? filters.to().plusDays(1).atStartOfDay() : null));
+    }
+
+    /**
+     * Newest published threads of a category, up to the cache depth, ranked like search hits with score {@code 0}.
+     * <p>
+     * Hilos publicados más recientes de una categoría, hasta la profundidad de la caché, ordenados como resultados de
+     * búsqueda con puntuación {@code 0}.
+     */
+    private SearchResults loadCategory(Long categoryId) {
+        List<ThreadClass> threads = threadRepository.findByCategoryAfter(
+                categoryId, LongIdSet.empty().toQuerySet(), null, null, PageRequest.of(0, searchResultCacheService.getDepth()));
+        List<ThreadSearchIndex.Hit> hits = threads.stream()
+                .map(thread -> new ThreadSearchIndex.Hit(thread.getId(), 0, thread.getPublishedAt()))
+                .toList();
+        long[] authorIds = threads.stream().mapToLong(thread -> thread.getUser().getId()).toArray();
+        return SearchResults.of(hits, authorIds);
+    }
+
+    private Map<Long, ThreadClass> loadById(List<Long> ids) {
+        return threadRepository.findPublishedByIdsWithDetails(ids).stream()
+                .collect(Collectors.toMap(ThreadClass::getId, Function.identity()));
     }
 
 }
@@ -0,0 +1,59 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.services.SeenItemsService;
+import com.focalizze.Focalizze.utils.SeenFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Implementation of the {@link SeenItemsService} interface.
+ * Keeps one bounded {@link SeenFilter} per user for the current discover session, so threads already shown
+ * (organic or recommended) are not sent again as recommendations on later pages. Idle sessions expire after the configured window.
+ * <p>
+ * Implementación de la interfaz {@link SeenItemsService}.
+ * Mantiene un {@link SeenFilter} acotado por usuario para la sesión de descubrimiento actual, de modo que los hilos
+ * ya mostrados (orgánicos o recomendados) no se envíen de nuevo como recomendaciones en páginas posteriores. Las sesiones inactivas expiran
+ * tras la ventana configurada.
+ */
+@Service
+public class SeenItemsServiceImpl implements SeenItemsService {
+
+    private final int expectedItems;
+    private final double falsePositiveRate;
+    private final Cache<Long, SeenFilter> filters;
+
+    public SeenItemsServiceImpl(@Value("${app.discover.seen.expected-items:2000}") int expectedItems,
+                                @Value("${app.discover.seen.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${app.discover.seen.max-users:10000}") long maxUsers,
+                                @Value("${app.discover.seen.window-minutes:30}") long windowMinutes) {
+        this.expectedItems = expectedItems;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(windowMinutes))
+                .build();
+    }
+
+    /**
+     * Returns the user's "already shown" filter. The first page of a feed starts a new session with an empty filter.
+     * <p>
+     * Devuelve el filtro de "ya mostrados" del usuario. La primera página de un feed inicia una sesión con un filtro vacío.
+     *
+     * @param userId     The viewer's ID. / El ID del espectador.
+     * @param newSession Whether this is the first page. / Si es la primera página.
+     * @return The session filter. / El filtro de la sesión.
+     */
+    @Override
+    public SeenFilter getFilter(Long userId, boolean newSession) {
+        if (newSession) {
+            SeenFilter fresh = new SeenFilter(expectedItems, falsePositiveRate);
+            filters.put(userId, fresh);
+            return fresh;
+        }
+        return filters.get(userId, id -> new SeenFilter(expectedItems, falsePositiveRate));
+    }
+}
@@ -7,6 +7,9 @@ import com.focalizze.Focalizze.exceptions.DailyLimitExceededException;
 import com.focalizze.Focalizze.models.*;
 import com.focalizze.Focalizze.repository.*;
 import com.focalizze.Focalizze.services.FileStorageService;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.HashtagService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
 import com.focalizze.Focalizze.services.MentionService;
 import com.focalizze.Focalizze.services.ThreadService;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
@@ -45,6 +48,9 @@ public class ThreadServiceImpl implements ThreadService {
     private static final int DAILY_THREAD_LIMIT = 3;
     private final FileStorageService fileStorageService;
     private final ThreadEnricher threadEnricher;
+    private final HomeTimelineService homeTimelineService;
+    private final ContentSearchIndexService contentSearchIndexService;
+    private final HashtagService hashtagService;
 
 
     /**
@@ -130,6 +136,7 @@ public class ThreadServiceImpl implements ThreadService {
         Post post2 = Post.builder().content(requestDto.post2()).position(2).thread(newThread).build();
         Post post3 = Post.builder().content(requestDto.post3()).position(3).thread(newThread).build();
         newThread.setPosts(List.of(post1, post2, post3));
+        hashtagService.applyHashtags(newThread);
 
         // 8. Persist (Cascade handles posts and images)
         ThreadClass savedThread = threadRepository.save(newThread);
@@ -137,6 +144,14 @@ public class ThreadServiceImpl implements ThreadService {
         // 9. Process Mentions
         savedThread.getPosts().forEach(post -> mentionService.processMentions(post, currentUser));
 
+        // 10. Count, fan-out to home timelines and index for search (scheduled threads are handled by ThreadScheduler)
+        // 10. Contar, distribuir a los timelines e indexar para búsqueda (los hilos programados los gestiona ThreadScheduler)
+        if (savedThread.isPublished()) {
+            userRepository.incrementPublishedThreadCount(currentUser.getId());
+            homeTimelineService.onThreadPublished(savedThread);
+            contentSearchIndexService.index(savedThread);
+        }
+
         return threadMapper.mapToResponseDto(savedThread);
     }
 
@@ -203,9 +218,17 @@ public class ThreadServiceImpl implements ThreadService {
             throw new AccessDeniedException("No tienes permiso para borrar este hilo.");
         }
 
+        // Only a visible thread counts towards the author's total / Solo un hilo visible cuenta en el total del autor
+        boolean wasCounted = thread.isPublished() && !thread.isDeleted();
+
         // Logical Delete
         thread.setDeleted(true);
         threadRepository.save(thread);
+        if (wasCounted) {
+            userRepository.decrementPublishedThreadCount(thread.getUser().getId());
+        }
+        homeTimelineService.onThreadRemoved(threadId);
+        contentSearchIndexService.remove(threadId);
     }
 
     /**
@@ -259,49 +282,21 @@ public class ThreadServiceImpl implements ThreadService {
             }
         }
 
+        // Re-extract hashtags from the new text / Volver a extraer los hashtags del nuevo texto
+        hashtagService.applyHashtags(thread);
+
         ThreadClass threadSaved = threadRepository.save(thread);
 
         // Re-process mentions on update
         threadSaved.getPosts().forEach(post -> mentionService.processMentions(post, currentUser));
 
+        // Re-index the new text and category / Reindexar el nuevo texto y categoría
+        contentSearchIndexService.index(threadSaved);
+
         // Devolvemos el hilo actualizado.
         return threadMapper.mapToResponseDto(threadSaved);
     }
 
-    // Método privado refactorizado para evitar duplicar código
-    // Private method refactored to avoid duplicate code
-    private FeedThreadDto enrichDtoWithUserData(ThreadClass thread) {
-        User currentUser = null;
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated() && !"anonymousUser".equals(authentication.getPrincipal())) {
-            currentUser = (User) authentication.getPrincipal();
-        }
-
-        FeedThreadDto dto = feedMapper.toFeedThreadDto(thread);
-
-        boolean isLiked = false;
-        boolean isSaved = false;
-
-        if (currentUser != null) {
-            final Long currentUserId = currentUser.getId();
-            isLiked = thread.getLikes().stream()
-                    .anyMatch(like -> like.getUser().getId().equals(currentUserId));
-            isSaved = savedThreadRepository.existsByUserAndThread(currentUser, thread);
-        }
-
-        return new FeedThreadDto(
-                dto.id(),
-                dto.user(),
-                dto.publicationDate(),
-                dto.posts(),
-                dto.stats(),
-                isLiked,
-                isSaved,
-                dto.categoryName(),
-                dto.images()
-        );
-    }
-
     private void processImages(List<MultipartFile> files, ThreadClass thread, String username) {
         for (MultipartFile file : files) {
             if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
@@ -0,0 +1,161 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.UsernameIndexRowDto;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
+import com.focalizze.Focalizze.utils.TrigramIndex;
+import com.focalizze.Focalizze.utils.UsernameIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of the {@link UserSearchIndexService} interface.
+ * Serves username autocomplete (search box and @mentions) from an in-memory {@link UsernameIndex} instead of a
+ * {@code LOWER(username) LIKE 'p%'} query. The index is built on first use and rebuilt periodically, which also
+ * refreshes the follower counts used for ranking; registrations and profile edits are applied immediately.
+ * A long-lived {@link TrigramIndex} over usernames and display names answers typo-tolerant lookups; it is only
+ * touched for users whose names changed.
+ * <p>
+ * Implementación de la interfaz {@link UserSearchIndexService}.
+ * Sirve el autocompletado de nombres (buscador y @menciones) desde un {@link UsernameIndex} en memoria en lugar de una
+ * consulta {@code LOWER(username) LIKE 'p%'}. El índice se construye en el primer uso y se reconstruye periódicamente,
+ * lo que además refresca los contadores de seguidores usados para ordenar; los registros y las ediciones de perfil se
+ * aplican al instante. Un {@link TrigramIndex} de larga vida sobre nombres de usuario y nombres visibles responde a las
+ * búsquedas tolerantes a erratas; solo se modifica para los usuarios cuyos nombres cambiaron.
+ */
+@Service
+@Slf4j
+public class UserSearchIndexServiceImpl implements UserSearchIndexService {
+
+    private final UserRepository userRepository;
+    private final int batchSize;
+    private final double minFuzzySimilarity;
+    private final TrigramIndex<UsernameIndex.Entry> fuzzyIndex;
+
+    private static final Comparator<UsernameIndex.Entry> BY_FOLLOWERS =
+            Comparator.comparingInt(UsernameIndex.Entry::followers).reversed();
+
+    private final Object rebuildLock = new Object();
+    private volatile UsernameIndex index;
+    // Non-null while a rebuild runs / No null mientras se ejecuta una reconstrucción
+    private List<UsernameIndex.Entry> pending;
+
+    public UserSearchIndexServiceImpl(UserRepository userRepository,
+                                      @Value("${app.search.users.batch-size:5000}") int batchSize,
+                                      @Value("${app.search.fuzzy.max-candidates:2000}") int maxFuzzyCandidates,
+                                      @Value("${app.search.fuzzy.min-similarity:0.6}") double minFuzzySimilarity) {
+        this.userRepository = userRepository;
+        this.batchSize = batchSize;
+        this.minFuzzySimilarity = minFuzzySimilarity;
+        this.fuzzyIndex = new TrigramIndex<>(maxFuzzyCandidates, true);
+    }
+
+    @Override
+    public List<UsernameIndex.Entry> searchByPrefix(String prefix, int limit) {
+        return getIndex().search(prefix, limit);
+    }
+
+    /**
+     * Typo-tolerant lookup over usernames and display names, most similar first (ties: most followed).
+     * <p>
+     * Búsqueda tolerante a erratas sobre nombres de usuario y nombres visibles, el más parecido primero (empates: más seguidos).
+     */
+    @Override
+    public List<UsernameIndex.Entry> searchFuzzy(String query, int limit) {
+        getIndex();
+        return fuzzyIndex.search(query, Math.min(limit, UsernameIndex.MAX_LIMIT), minFuzzySimilarity, BY_FOLLOWERS).stream()
+                .map(TrigramIndex.Match::value)
+                .toList();
+    }
+
+    /**
+     * Adds a newly registered user or refreshes the display data of an existing one.
+     * <p>
+     * Añade un usuario recién registrado o refresca los datos visibles de uno existente.
+     *
+     * @param user The saved user. / El usuario guardado.
+     */
+    @Override
+    public void index(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        UsernameIndex.Entry entry = new UsernameIndex.Entry(user.getId(), user.getUsername(), user.getDisplayName(),
+                user.getAvatarUrl(), user.getFollowersCount() != null ? user.getFollowersCount() : 0);
+        synchronized (this) {
+            // Before the first build there is nothing to update: the build reads the database
+            // Antes de la primera construcción no hay nada que actualizar: la construcción lee la BD
+            if (index != null) {
+                index.put(entry);
+                putFuzzy(entry);
+            }
+            if (pending != null) pending.add(entry);
+        }
+    }
+
+    /**
+     * Builds a fresh index from every user, in keyset batches, and swaps it in.
+     * <p>
+     * Construye un índice nuevo con todos los usuarios, por lotes keyset, y lo sustituye.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+
+            List<UsernameIndex.Entry> entries = new ArrayList<>();
+            long afterId = 0;
+            List<UsernameIndexRowDto> batch;
+            do {
+                batch = userRepository.findUsernameIndexRowsAfter(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) break;
+                for (UsernameIndexRowDto row : batch) {
+                    entries.add(new UsernameIndex.Entry(row.id(), row.username(), row.displayName(), row.avatarUrl(),
+                            row.followersCount() != null ? row.followersCount() : 0));
+                }
+                afterId = batch.get(batch.size() - 1).id();
+            } while (batch.size() == batchSize);
+            UsernameIndex fresh = UsernameIndex.build(entries);
+
+            synchronized (this) {
+                // Only users whose names changed touch the trigram postings / Solo los usuarios cuyos nombres cambiaron tocan los trigramas
+                entries.forEach(this::putFuzzy);
+                // Changes made during the scan are newer than what it read / Los cambios hechos durante el escaneo son más nuevos que lo leído
+                pending.forEach(fresh::put);
+                pending.forEach(this::putFuzzy);
+                pending = null;
+                index = fresh;
+            }
+            log.info("Username index rebuilt with {} users. / Índice de nombres de usuario reconstruido con {} usuarios.",
+                    fresh.size(), fresh.size());
+        }
+    }
+
+    private void putFuzzy(UsernameIndex.Entry entry) {
+        if (entry.username() == null) return;
+        List<String> names = entry.displayName() != null ? List.of(entry.username(), entry.displayName()) : List.of(entry.username());
+        fuzzyIndex.put(entry.id(), entry, names);
+    }
+
+    private UsernameIndex getIndex() {
+        if (index == null) {
+            synchronized (rebuildLock) {
+                if (index == null) {
+                    rebuild();
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -150,7 +150,7 @@ public class UserServiceImpl implements UserService {
                 profileUser.getUsername(),
                 profileUser.getDisplayName(),
                 profileUser.getAvatarUrl(defaultAvatarUrl),
-                profileUser.getCalculatedThreadCount(),
+                profileUser.getPublishedThreadCount(),
                 isFollowing,
                 profileUser.getFollowingCount(),
                 profileUser.getFollowersCount(),
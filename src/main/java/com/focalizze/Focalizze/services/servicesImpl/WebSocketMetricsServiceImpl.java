@@ -0,0 +1,28 @@
+package com.focalizze.Focalizze.services.servicesImpl;
+
+import com.focalizze.Focalizze.dto.WebSocketStatsDto;
+import com.focalizze.Focalizze.services.WebSocketMetricsService;
+import com.focalizze.Focalizze.utils.WebSocketOutboundMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of the {@link WebSocketMetricsService} interface.
+ * Exposes the outbound WebSocket counters: pending, dropped and coalesced messages, in total and per session.
+ * <p>
+ * Implementación de la interfaz {@link WebSocketMetricsService}.
+ * Expone los contadores WebSocket de salida: mensajes pendientes, descartados y agrupados, en total y por sesión.
+ */
+@Service
+@RequiredArgsConstructor
+public class WebSocketMetricsServiceImpl implements WebSocketMetricsService {
+    // Sessions listed in detail / Sesiones listadas en detalle
+    private static final int BUSIEST_SESSIONS = 20;
+
+    private final WebSocketOutboundMonitor outboundMonitor;
+
+    @Override
+    public WebSocketStatsDto getStats() {
+        return outboundMonitor.snapshot(BUSIEST_SESSIONS);
+    }
+}
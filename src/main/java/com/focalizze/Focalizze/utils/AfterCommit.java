@@ -0,0 +1,54 @@
+package com.focalizze.Focalizze.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ties in-memory side effects (caches, indexes, counters, pushes) to the outcome of the current transaction.
+ * Outside a transaction the action runs immediately.
+ * <p>
+ * Vincula efectos en memoria (cachés, índices, contadores, envíos) al resultado de la transacción actual.
+ * Fuera de una transacción la acción se ejecuta de inmediato.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action once the current transaction commits; a rollback skips it.
+     * <p>
+     * Ejecuta la acción cuando se confirma la transacción actual; un rollback la omite.
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Runs an invalidation now and again when the transaction completes, so a load that read the database before
+     * the commit (or rollback) cannot keep stale data.
+     * <p>
+     * Ejecuta una invalidación ahora y otra vez al terminar la transacción, para que una carga que leyó la BD antes
+     * del commit (o rollback) no conserve datos obsoletos.
+     */
+    public static void invalidateNowAndOnCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.services.CandidatePoolService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that keeps the in-memory recommendation pools fresh.
+ * <p>
+ * Tarea programada que mantiene actualizados los pools de recomendación en memoria.
+ */
+@Component
+@RequiredArgsConstructor
+public class CandidatePoolScheduler {
+
+    private final CandidatePoolService candidatePoolService;
+
+    /**
+     * Rebuilds the pools at a fixed delay (first run at startup).
+     * <p>
+     * Reconstruye los pools con un retraso fijo (primera ejecución al arrancar).
+     */
+    @Scheduled(fixedDelayString = "${app.recommendations.pool.refresh-ms:300000}")
+    public void refreshPools() {
+        candidatePoolService.refresh();
+    }
+}
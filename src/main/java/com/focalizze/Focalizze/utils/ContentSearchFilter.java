@@ -0,0 +1,49 @@
+package com.focalizze.Focalizze.utils;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional restrictions of a content search. Null fields do not filter.
+ * <p>
+ * Restricciones opcionales de una búsqueda de contenido. Los campos null no filtran.
+ *
+ * @param categoryId        Only threads of this category. / Solo hilos de esta categoría.
+ * @param authorId          Only threads of this author. / Solo hilos de este autor.
+ * @param from              Published at or after. / Publicados en o después de.
+ * @param to                Published before. / Publicados antes de.
+ * @param excludedAuthorIds Authors never returned (blocks). / Autores que nunca se devuelven (bloqueos).
+ */
+public record ContentSearchFilter(
+        Long categoryId,
+        Long authorId,
+        LocalDateTime from,
+        LocalDateTime to,
+        LongIdSet excludedAuthorIds
+) {
+    public static final ContentSearchFilter NONE = new ContentSearchFilter(null, null, null, null);
+
+    public ContentSearchFilter {
+        if (excludedAuthorIds == null) excludedAuthorIds = LongIdSet.empty();
+    }
+
+    public ContentSearchFilter(Long categoryId, Long authorId, LocalDateTime from, LocalDateTime to) {
+        this(categoryId, authorId, from, to, LongIdSet.empty());
+    }
+
+    /**
+     * Same filter, also excluding the given authors.
+     * <p>
+     * El mismo filtro, excluyendo además a los autores dados.
+     */
+    public ContentSearchFilter excludingAuthors(LongIdSet authorIds) {
+        return new ContentSearchFilter(categoryId, authorId, from, to, excludedAuthorIds.union(authorIds));
+    }
+
+    public boolean matches(Long threadCategoryId, long threadAuthorId, LocalDateTime publishedAt) {
+        if (categoryId != null && !categoryId.equals(threadCategoryId)) return false;
+        if (authorId != null && authorId != threadAuthorId) return false;
+        if (excludedAuthorIds.contains(threadAuthorId)) return false;
+        if (from != null && (publishedAt == null || publishedAt.isBefore(from))) return false;
+        return to == null || (publishedAt != null && publishedAt.isBefore(to));
+    }
+}
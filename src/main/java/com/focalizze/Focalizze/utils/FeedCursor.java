@@ -0,0 +1,80 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.models.NotificationClass;
+import com.focalizze.Focalizze.models.ThreadClass;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for feeds ordered by {@code (publishedAt DESC, id DESC)}.
+ * Encodes the position of the last thread returned so the next page can continue after it.
+ * The notification inbox reuses it over {@code (createdAt DESC, id DESC)}.
+ * <p>
+ * Cursor opaco de keyset para feeds ordenados por {@code (publishedAt DESC, id DESC)}.
+ * Codifica la posición del último hilo devuelto para que la siguiente página continúe tras él.
+ * La bandeja de notificaciones lo reutiliza sobre {@code (createdAt DESC, id DESC)}.
+ *
+ * @param publishedAt Publication date of the last thread. / Fecha de publicación del último hilo.
+ * @param id          ID of the last thread (tie-breaker). / ID del último hilo (desempate).
+ */
+public record FeedCursor(LocalDateTime publishedAt, Long id) {
+
+    /**
+     * Builds the cursor pointing after the given thread.
+     * <p>
+     * Construye el cursor que apunta después del hilo dado.
+     */
+    public static FeedCursor of(ThreadClass thread) {
+        return new FeedCursor(thread.getPublishedAt(), thread.getId());
+    }
+
+    /**
+     * Builds the cursor pointing after the given notification.
+     * <p>
+     * Construye el cursor que apunta después de la notificación dada.
+     */
+    public static FeedCursor of(NotificationClass notification) {
+        return new FeedCursor(notification.getCreatedAt(), notification.getId());
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe string.
+     * <p>
+     * Codifica el cursor como una cadena segura para URL.
+     */
+    public String encode() {
+        // Full precision (seconds + nanos) so no row is skipped at the page boundary
+        // Precisión completa (segundos + nanos) para no saltar filas en el límite de la página
+        Instant instant = publishedAt.toInstant(ZoneOffset.UTC);
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from the client. A blank value means "first page".
+     * <p>
+     * Decodifica un cursor recibido del cliente. Un valor vacío significa "primera página".
+     *
+     * @param cursor The opaque cursor. / El cursor opaco.
+     * @return The decoded cursor, or null for the first page. / El cursor decodificado, o null para la primera página.
+     * @throws IllegalArgumentException If the cursor is malformed. / Si el cursor está mal formado.
+     */
+    public static FeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            long id = Long.parseLong(parts[2]);
+            return new FeedCursor(LocalDateTime.ofInstant(instant, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor / Cursor no válido");
+        }
+    }
+}
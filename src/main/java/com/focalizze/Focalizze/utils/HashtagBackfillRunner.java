@@ -0,0 +1,38 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.services.HashtagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup trigger of the one-off hashtag backfill for threads created before tags were extracted, so "threads by tag"
+ * finds them without waiting for an edit. Progress is stored in {@code data_migration_tbl}: once finished, later
+ * startups only read the marker. A failure is logged and the migration resumes on the next startup.
+ * <p>
+ * Disparador al arrancar del relleno puntual de hashtags de los hilos creados antes de extraer etiquetas, para que
+ * "hilos por etiqueta" los encuentre sin esperar a una edición. El progreso se guarda en {@code data_migration_tbl}:
+ * una vez terminado, los arranques siguientes solo leen el marcador. Un fallo se registra y la migración continúa en
+ * el próximo arranque.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HashtagBackfillRunner {
+
+    private final HashtagService hashtagService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int tagged = hashtagService.backfillHashtags();
+            if (tagged > 0) {
+                log.info("Backfilled hashtags of {} threads. / Rellenados los hashtags de {} hilos.", tagged, tagged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Hashtag backfill failed, it will resume on next startup. / El relleno de hashtags falló, continuará en el próximo arranque.", e);
+        }
+    }
+}
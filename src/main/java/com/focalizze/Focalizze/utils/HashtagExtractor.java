@@ -0,0 +1,86 @@
+package com.focalizze.Focalizze.utils;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts hashtags from post text in a single pass over the characters.
+ * A tag starts with {@code #} at the beginning of a word ("C#" or "&#39;" are not tags), runs over letters, digits and
+ * underscores, and needs at least one letter ("#1" is not a tag). Tags are compared without case or accents, so
+ * "#Programación" and "#programacion" are the same topic.
+ * <p>
+ * Extrae hashtags del texto de los posts en una sola pasada sobre los caracteres.
+ * Una etiqueta empieza con {@code #} al inicio de una palabra ("C#" o "&#39;" no son etiquetas), sigue con letras,
+ * dígitos y guiones bajos, y necesita al menos una letra ("#1" no es etiqueta). Las etiquetas se comparan sin
+ * mayúsculas ni tildes, así que "#Programación" y "#programacion" son el mismo tema.
+ */
+public final class HashtagExtractor {
+
+    // Longest tag kept, matches the column length / Etiqueta más larga que se guarda, coincide con la longitud de la columna
+    public static final int MAX_LENGTH = 50;
+    // Tags kept per thread, so a list of tags cannot flood the index / Etiquetas guardadas por hilo, para que una lista de etiquetas no inunde el índice
+    public static final int MAX_TAGS = 10;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private HashtagExtractor() {
+    }
+
+    /**
+     * Returns the distinct normalized tags of the texts, in order of first appearance, up to {@link #MAX_TAGS}.
+     * <p>
+     * Devuelve las etiquetas normalizadas distintas de los textos, en orden de aparición, hasta {@link #MAX_TAGS}.
+     */
+    public static Set<String> extract(Collection<String> texts) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) continue;
+            int length = text.length();
+            int i = 0;
+            while (i < length && tags.size() < MAX_TAGS) {
+                char c = text.charAt(i);
+                if (c != '#' || (i > 0 && isInsideWord(text.charAt(i - 1)))) {
+                    i++;
+                    continue;
+                }
+                int start = ++i;
+                boolean hasLetter = false;
+                while (i < length && isTagChar(text.charAt(i))) {
+                    hasLetter |= Character.isLetter(text.charAt(i));
+                    i++;
+                }
+                int tagLength = i - start;
+                if (hasLetter && tagLength <= MAX_LENGTH) {
+                    tags.add(normalize(text.substring(start, i)));
+                }
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Normalizes a tag typed by a user (with or without {@code #}) the same way extracted tags are.
+     * <p>
+     * Normaliza una etiqueta escrita por un usuario (con o sin {@code #}) igual que las extraídas.
+     */
+    public static String normalize(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        String trimmed = tag.trim();
+        if (trimmed.startsWith("#")) trimmed = trimmed.substring(1);
+        return DIACRITICS.matcher(Normalizer.normalize(trimmed.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static boolean isTagChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isInsideWord(char previous) {
+        return isTagChar(previous) || previous == '&' || previous == '#';
+    }
+}
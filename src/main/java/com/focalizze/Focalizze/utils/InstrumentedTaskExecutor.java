@@ -0,0 +1,111 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.dto.ExecutorStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size thread pool with a bounded queue that measures its own load: tasks submitted, completed and rejected,
+ * queue depth, and how long tasks waited in the queue before running.
+ * When the queue is full the task runs on the submitting thread, which slows the producer down (backpressure)
+ * instead of growing memory or dropping work.
+ * <p>
+ * Pool de hilos de tamaño fijo con cola acotada que mide su propia carga: tareas enviadas, completadas y rechazadas,
+ * profundidad de la cola y cuánto esperaron las tareas en la cola antes de ejecutarse.
+ * Cuando la cola está llena la tarea se ejecuta en el hilo que la envía, lo que frena al productor (contrapresión)
+ * en lugar de hacer crecer la memoria o descartar trabajo.
+ */
+@Slf4j
+public class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final String name;
+    private final int queueCapacity;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * @param name          Workload name, also the thread name prefix. / Nombre de la carga, también prefijo de los hilos.
+     * @param poolSize      Worker threads. / Hilos de trabajo.
+     * @param queueCapacity Tasks waiting before the caller runs them itself. / Tareas en espera antes de que las ejecute quien las envía.
+     */
+    public InstrumentedTaskExecutor(String name, int poolSize, int queueCapacity) {
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        setThreadNamePrefix(name + "-");
+        setCorePoolSize(poolSize);
+        setMaxPoolSize(poolSize);
+        setQueueCapacity(queueCapacity);
+        setTaskDecorator(this::instrument);
+        setRejectedExecutionHandler(new CallerRunsWhenFull());
+        // Let queued work finish on shutdown / Dejar terminar el trabajo encolado al apagar
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationSeconds(10);
+    }
+
+    /**
+     * Current counters of the pool.
+     * <p>
+     * Contadores actuales del pool.
+     */
+    public ExecutorStatsDto snapshot() {
+        long done = completed.sum();
+        ThreadPoolExecutor executor = getThreadPoolExecutor();
+        return new ExecutorStatsDto(
+                name,
+                getPoolSize(),
+                getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                submitted.sum(),
+                done,
+                rejected.sum(),
+                done == 0 ? 0 : totalWaitNanos.sum() / done / 1_000_000.0,
+                maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Stamps the submission time to measure the queue wait / Marca la hora de envío para medir la espera en cola
+    private Runnable instrument(Runnable task) {
+        submitted.increment();
+        long queuedAt = System.nanoTime();
+        return () -> {
+            long waited = System.nanoTime() - queuedAt;
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            try {
+                task.run();
+            } finally {
+                completed.increment();
+            }
+        };
+    }
+
+    private final class CallerRunsWhenFull implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            rejected.increment();
+            long count = rejected.sum();
+            if (count == 1 || count % 1000 == 0) {
+                log.warn("Executor {} saturated, running on caller ({} so far) / Executor {} saturado, ejecutando en el llamante ({} hasta ahora)",
+                        name, count, name, count);
+            }
+            if (executor.isShutdown()) {
+                log.warn("Executor {} shut down, task dropped / Executor {} apagado, tarea descartada", name, name);
+                return;
+            }
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.services.InteractionLimitService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that writes the buffered interaction logs.
+ * <p>
+ * Tarea programada que escribe los registros de interacción acumulados.
+ */
+@Component
+@RequiredArgsConstructor
+public class InteractionLogFlushScheduler {
+
+    private final InteractionLimitService interactionLimitService;
+
+    /**
+     * Flushes the buffered interaction logs and refunds at a fixed delay.
+     * <p>
+     * Vuelca los registros de interacción y reembolsos acumulados con un retraso fijo.
+     */
+    @Scheduled(fixedDelayString = "${app.interactions.flush.delay-ms:2000}")
+    public void flush() {
+        interactionLimitService.flushPending();
+    }
+}
@@ -0,0 +1,170 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.dto.EngagementPairDto;
+
+import java.util.*;
+
+/**
+ * Immutable item-to-item similarity index built from co-engagement (likes and saves by the same users).
+ * Similarity is the cosine of the two threads' engagement vectors: {@code co(a,b) / sqrt(n(a) * n(b))}.
+ * Everything is stored in sorted primitive arrays, so lookups are binary searches with no boxing.
+ * <p>
+ * Índice inmutable de similitud entre hilos construido a partir de la co-interacción (likes y guardados de los mismos usuarios).
+ * La similitud es el coseno de los vectores de interacción de ambos hilos: {@code co(a,b) / sqrt(n(a) * n(b))}.
+ * Todo se guarda en arrays primitivos ordenados, así que las búsquedas son binarias y sin boxing.
+ */
+public final class ItemSimilarityIndex {
+
+    private static final long[] NO_ITEMS = new long[0];
+    private static final ItemSimilarityIndex EMPTY = new ItemSimilarityIndex(
+            NO_ITEMS, NO_ITEMS, new long[0][], new float[0][], NO_ITEMS, new long[0][]);
+
+    // Row i describes items[i] / La fila i describe items[i]
+    private final long[] items;
+    private final long[] authors;
+    private final long[][] neighbors;
+    private final float[][] weights;
+
+    // Row j holds the recent items of users[j], newest first / La fila j guarda los hilos recientes de users[j]
+    private final long[] users;
+    private final long[][] userItems;
+
+    /**
+     * Receives each neighbor of a thread, best first.
+     * <p>
+     * Recibe cada vecino de un hilo, el mejor primero.
+     */
+    @FunctionalInterface
+    public interface NeighborConsumer {
+        void accept(long threadId, long authorId, float similarity);
+    }
+
+    private ItemSimilarityIndex(long[] items, long[] authors, long[][] neighbors, float[][] weights,
+                                long[] users, long[][] userItems) {
+        this.items = items;
+        this.authors = authors;
+        this.neighbors = neighbors;
+        this.weights = weights;
+        this.users = users;
+        this.userItems = userItems;
+    }
+
+    public static ItemSimilarityIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the index from engagement pairs ordered newest first.
+     * Each user contributes at most {@code maxItemsPerUser} recent threads, which bounds the quadratic co-count step.
+     * <p>
+     * Construye el índice a partir de pares de interacción ordenados del más reciente al más antiguo.
+     * Cada usuario aporta como mucho {@code maxItemsPerUser} hilos recientes, lo que acota el paso cuadrático de co-conteo.
+     *
+     * @param pairs           Likes and saves, newest first. / Likes y guardados, el más reciente primero.
+     * @param maxItemsPerUser Recent threads kept per user. / Hilos recientes guardados por usuario.
+     * @param maxNeighbors    Neighbors kept per thread. / Vecinos guardados por hilo.
+     * @return The index. / El índice.
+     */
+    public static ItemSimilarityIndex build(List<EngagementPairDto> pairs, int maxItemsPerUser, int maxNeighbors) {
+        // 1. Recent distinct threads per user (a like plus a save counts once)
+        // 1. Hilos distintos recientes por usuario (un like más un guardado cuentan una vez)
+        Map<Long, LinkedHashSet<Long>> threadsByUser = new HashMap<>();
+        Map<Long, Long> authorByThread = new HashMap<>();
+        for (EngagementPairDto pair : pairs) {
+            LinkedHashSet<Long> recent = threadsByUser.computeIfAbsent(pair.userId(), id -> new LinkedHashSet<>());
+            if (recent.size() < maxItemsPerUser) {
+                recent.add(pair.threadId());
+                authorByThread.putIfAbsent(pair.threadId(), pair.authorId());
+            }
+        }
+
+        // 2. Engagement count per thread and co-engagement count per pair of threads
+        // 2. Conteo de interacción por hilo y de co-interacción por par de hilos
+        Map<Long, Integer> engagementCount = new HashMap<>();
+        Map<Long, Map<Long, Integer>> coCounts = new HashMap<>();
+        for (LinkedHashSet<Long> recent : threadsByUser.values()) {
+            long[] threads = toArray(recent);
+            for (int i = 0; i < threads.length; i++) {
+                engagementCount.merge(threads[i], 1, Integer::sum);
+                for (int j = i + 1; j < threads.length; j++) {
+                    coCounts.computeIfAbsent(threads[i], id -> new HashMap<>()).merge(threads[j], 1, Integer::sum);
+                    coCounts.computeIfAbsent(threads[j], id -> new HashMap<>()).merge(threads[i], 1, Integer::sum);
+                }
+            }
+        }
+
+        // 3. Top neighbors per thread by cosine similarity / Mejores vecinos por hilo según similitud coseno
+        long[] items = coCounts.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] authors = new long[items.length];
+        long[][] neighbors = new long[items.length][];
+        float[][] weights = new float[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            long item = items[i];
+            int itemCount = engagementCount.get(item);
+            List<Map.Entry<Long, Integer>> row = new ArrayList<>(coCounts.get(item).entrySet());
+            float[] similarities = new float[row.size()];
+            Integer[] order = new Integer[row.size()];
+            for (int k = 0; k < row.size(); k++) {
+                Map.Entry<Long, Integer> entry = row.get(k);
+                similarities[k] = (float) (entry.getValue() / Math.sqrt((double) itemCount * engagementCount.get(entry.getKey())));
+                order[k] = k;
+            }
+            Arrays.sort(order, (a, b) -> Float.compare(similarities[b], similarities[a]));
+
+            int size = Math.min(maxNeighbors, row.size());
+            neighbors[i] = new long[size];
+            weights[i] = new float[size];
+            for (int k = 0; k < size; k++) {
+                neighbors[i][k] = row.get(order[k]).getKey();
+                weights[i][k] = similarities[order[k]];
+            }
+            authors[i] = authorByThread.get(item);
+        }
+
+        // 4. Recent threads per user, used as recommendation seeds / Hilos recientes por usuario, usados como semillas
+        long[] users = threadsByUser.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[][] userItems = new long[users.length][];
+        for (int j = 0; j < users.length; j++) {
+            userItems[j] = toArray(threadsByUser.get(users[j]));
+        }
+
+        return new ItemSimilarityIndex(items, authors, neighbors, weights, users, userItems);
+    }
+
+    /**
+     * Threads the user engaged with recently, newest first (empty if unknown).
+     * <p>
+     * Hilos con los que el usuario interactuó recientemente, el más reciente primero (vacío si no existe).
+     */
+    public long[] getRecentItems(long userId) {
+        int row = Arrays.binarySearch(users, userId);
+        return row < 0 ? NO_ITEMS : userItems[row].clone();
+    }
+
+    /**
+     * Visits the most similar threads of the given thread, best first.
+     * <p>
+     * Recorre los hilos más similares al hilo dado, el mejor primero.
+     */
+    public void forEachNeighbor(long threadId, NeighborConsumer consumer) {
+        int row = Arrays.binarySearch(items, threadId);
+        if (row < 0) return;
+        long[] ids = neighbors[row];
+        float[] similarities = weights[row];
+        for (int k = 0; k < ids.length; k++) {
+            int neighborRow = Arrays.binarySearch(items, ids[k]);
+            consumer.accept(ids[k], authors[neighborRow], similarities[k]);
+        }
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    private static long[] toArray(Collection<Long> ids) {
+        long[] values = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) values[i++] = id;
+        return values;
+    }
+}
@@ -0,0 +1,28 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.services.ItemSimilarityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that rebuilds the item-to-item similarity index offline.
+ * <p>
+ * Tarea programada que reconstruye fuera de línea el índice de similitud entre hilos.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSimilarityScheduler {
+
+    private final ItemSimilarityService itemSimilarityService;
+
+    /**
+     * Rebuilds the index at a fixed delay (first run at startup).
+     * <p>
+     * Reconstruye el índice con un retraso fijo (primera ejecución al arrancar).
+     */
+    @Scheduled(fixedDelayString = "${app.recommendations.similarity.refresh-ms:3600000}")
+    public void rebuildIndex() {
+        itemSimilarityService.rebuild();
+    }
+}
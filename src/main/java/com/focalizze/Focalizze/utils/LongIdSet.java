@@ -0,0 +1,127 @@
+package com.focalizze.Focalizze.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable set of entity IDs backed by a sorted primitive array.
+ * Lookups are binary searches and each ID costs 8 bytes, without boxing.
+ * <p>
+ * Conjunto inmutable de IDs de entidades respaldado por un array primitivo ordenado.
+ * Las búsquedas son binarias y cada ID ocupa 8 bytes, sin boxing.
+ */
+public final class LongIdSet {
+
+    private static final LongIdSet EMPTY = new LongIdSet(new long[0]);
+
+    // Placeholder ID so JPQL "IN ()" / "NOT IN ()" never receives an empty list
+    // ID ficticio para que "IN ()" / "NOT IN ()" en JPQL nunca reciba una lista vacía
+    private static final long SQL_PLACEHOLDER_ID = -1L;
+
+    private final long[] ids;
+
+    private LongIdSet(long[] ids) {
+        this.ids = ids;
+    }
+
+    public static LongIdSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a set from any collection of IDs. Nulls and duplicates are ignored.
+     * <p>
+     * Construye un conjunto a partir de cualquier colección de IDs. Se ignoran nulos y duplicados.
+     */
+    public static LongIdSet of(Collection<Long> source) {
+        if (source == null || source.isEmpty()) {
+            return EMPTY;
+        }
+        long[] values = source.stream().filter(id -> id != null).mapToLong(Long::longValue).sorted().distinct().toArray();
+        return values.length == 0 ? EMPTY : new LongIdSet(values);
+    }
+
+    public boolean contains(Long id) {
+        return id != null && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Copy of the IDs in ascending order.
+     * <p>
+     * Copia de los IDs en orden ascendente.
+     */
+    public long[] toArray() {
+        return ids.clone();
+    }
+
+    /**
+     * Returns a new set with the IDs of both sets.
+     * <p>
+     * Devuelve un nuevo conjunto con los IDs de ambos conjuntos.
+     */
+    public LongIdSet union(LongIdSet other) {
+        if (other.isEmpty()) return this;
+        if (isEmpty()) return other;
+        long[] merged = new long[ids.length + other.ids.length];
+        int i = 0, j = 0, k = 0;
+        while (i < ids.length && j < other.ids.length) {
+            long a = ids[i], b = other.ids[j];
+            if (a < b) { merged[k++] = a; i++; }
+            else if (b < a) { merged[k++] = b; j++; }
+            else { merged[k++] = a; i++; j++; }
+        }
+        while (i < ids.length) merged[k++] = ids[i++];
+        while (j < other.ids.length) merged[k++] = other.ids[j++];
+        return new LongIdSet(Arrays.copyOf(merged, k));
+    }
+
+    /**
+     * IDs as a list for repository parameters, with the {@code -1L} placeholder when empty.
+     * <p>
+     * IDs como lista para parámetros de repositorio, con el marcador {@code -1L} si está vacío.
+     */
+    public List<Long> toQueryList() {
+        if (ids.length == 0) {
+            return List.of(SQL_PLACEHOLDER_ID);
+        }
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) list.add(id);
+        return list;
+    }
+
+    /**
+     * IDs as a set for repository parameters, with the {@code -1L} placeholder when empty.
+     * <p>
+     * IDs como conjunto para parámetros de repositorio, con el marcador {@code -1L} si está vacío.
+     */
+    public Set<Long> toQuerySet() {
+        return new HashSet<>(toQueryList());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LongIdSet other && Arrays.equals(ids, other.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+}
@@ -0,0 +1,28 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.services.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that closes each notification window: buffered events are merged, saved and pushed.
+ * <p>
+ * Tarea programada que cierra cada ventana de notificaciones: los eventos acumulados se fusionan, guardan y envían.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationFlushScheduler {
+
+    private final NotificationService notificationService;
+
+    /**
+     * Flushes the buffered notifications at a fixed delay, the length of the merge window.
+     * <p>
+     * Vuelca las notificaciones acumuladas con un retraso fijo, la duración de la ventana de fusión.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.coalesce.window-ms:5000}")
+    public void flush() {
+        notificationService.flushPending();
+    }
+}
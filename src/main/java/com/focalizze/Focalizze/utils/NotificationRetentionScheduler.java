@@ -0,0 +1,63 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Scheduled task that compacts the notifications table by deleting read notifications older than the retention
+ * period, in small chunks so each transaction stays short. Unread notifications are never removed, so the unread
+ * counters are not affected.
+ * <p>
+ * Tarea programada que compacta la tabla de notificaciones borrando las notificaciones leídas más antiguas que el
+ * periodo de retención, en bloques pequeños para que cada transacción sea corta. Las no leídas nunca se borran, así
+ * que los contadores de no leídas no se ven afectados.
+ */
+@Component
+@Slf4j
+public class NotificationRetentionScheduler {
+
+    private final NotificationRepository notificationRepository;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public NotificationRetentionScheduler(NotificationRepository notificationRepository,
+                                          @Value("${app.notifications.retention.read-days:90}") int retentionDays,
+                                          @Value("${app.notifications.retention.batch-size:1000}") int batchSize) {
+        this.notificationRepository = notificationRepository;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Deletes expired read notifications every night.
+     * <p>
+     * Borra cada noche las notificaciones leídas caducadas.
+     *
+     * @return Number of deleted notifications. / Número de notificaciones borradas.
+     */
+    @Scheduled(cron = "${app.notifications.retention.cron:0 15 4 * * ?}")
+    public int purgeReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findReadIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                deleted += notificationRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == batchSize);
+
+        if (deleted > 0) {
+            log.info("Deleted {} read notifications older than {} days / Borradas {} notificaciones leídas de más de {} días",
+                    deleted, retentionDays, deleted, retentionDays);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,28 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.services.NotificationStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that keeps the Server-Sent Events notification streams alive.
+ * <p>
+ * Tarea programada que mantiene vivos los flujos Server-Sent Events de notificaciones.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationStreamScheduler {
+
+    private final NotificationStreamService notificationStreamService;
+
+    /**
+     * Sends a heartbeat comment to every open stream at a fixed delay.
+     * <p>
+     * Envía un comentario de latido a cada flujo abierto con un retraso fijo.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        notificationStreamService.sendHeartbeat();
+    }
+}
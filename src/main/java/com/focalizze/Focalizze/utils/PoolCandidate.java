@@ -0,0 +1,19 @@
+package com.focalizze.Focalizze.utils;
+
+/**
+ * Lightweight entry of a precomputed recommendation pool: just enough to filter and rank without loading the thread.
+ * <p>
+ * Entrada ligera de un pool de recomendaciones precalculado: lo justo para filtrar y ordenar sin cargar el hilo.
+ *
+ * @param threadId   Thread ID. / ID del hilo.
+ * @param authorId   Author ID. / ID del autor.
+ * @param categoryId Category ID, may be null. / ID de la categoría, puede ser null.
+ * @param score      Engagement and recency score. / Puntuación de interacción y recencia.
+ */
+public record PoolCandidate(
+        long threadId,
+        long authorId,
+        Long categoryId,
+        double score
+) {
+}
@@ -0,0 +1,23 @@
+package com.focalizze.Focalizze.utils;
+
+/**
+ * Immutable view of a user's social graph and hidden threads, used to filter and personalize feeds without querying.
+ * <p>
+ * Vista inmutable del grafo social y los hilos ocultos de un usuario, usada para filtrar y personalizar feeds sin consultar.
+ *
+ * @param followedUserIds     Users the viewer follows. / Usuarios que sigue el espectador.
+ * @param followedCategoryIds Categories the viewer follows. / Categorías que sigue el espectador.
+ * @param blockedByMeIds      Users the viewer blocked. / Usuarios bloqueados por el espectador.
+ * @param blockedUserIds      Users blocked in either direction. / Usuarios bloqueados en cualquier dirección.
+ * @param hiddenThreadIds     Threads the viewer hid. / Hilos que ocultó el espectador.
+ */
+public record RelationshipSnapshot(
+        LongIdSet followedUserIds,
+        LongIdSet followedCategoryIds,
+        LongIdSet blockedByMeIds,
+        LongIdSet blockedUserIds,
+        LongIdSet hiddenThreadIds
+) {
+    public static final RelationshipSnapshot EMPTY = new RelationshipSnapshot(
+            LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty());
+}
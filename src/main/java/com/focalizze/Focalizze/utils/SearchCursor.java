@@ -0,0 +1,87 @@
+package com.focalizze.Focalizze.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for ranked search results ordered by {@code (score DESC, publishedAt DESC, id DESC)}.
+ * Besides the position of the last result it carries how many were already served, so the total depth stays capped.
+ * Category listings have no score and use {@code 0}, which reduces the order to the usual {@code (publishedAt, id)} keyset.
+ * <p>
+ * Cursor opaco para resultados de búsqueda ordenados por {@code (score DESC, publishedAt DESC, id DESC)}.
+ * Además de la posición del último resultado guarda cuántos se han servido ya, para que la profundidad total siga acotada.
+ * Los listados de categoría no tienen puntuación y usan {@code 0}, lo que reduce el orden al keyset habitual {@code (publishedAt, id)}.
+ *
+ * @param score       Score of the last result. / Puntuación del último resultado.
+ * @param publishedAt Publication date of the last result (may be null). / Fecha de publicación del último resultado (puede ser null).
+ * @param id          ID of the last result (tie-breaker). / ID del último resultado (desempate).
+ * @param served      Results returned so far. / Resultados devueltos hasta ahora.
+ */
+public record SearchCursor(double score, LocalDateTime publishedAt, long id, int served) {
+
+    private static final String NO_DATE = "-";
+
+    /**
+     * Builds the cursor pointing after the given hit.
+     * <p>
+     * Construye el cursor que apunta después del resultado dado.
+     */
+    public static SearchCursor of(ThreadSearchIndex.Hit last, int served) {
+        return new SearchCursor(last.score(), last.publishedAt(), last.threadId(), served);
+    }
+
+    public ThreadSearchIndex.Hit toHit() {
+        return new ThreadSearchIndex.Hit(id, score, publishedAt);
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe string. The score is written bit-exact so the boundary hit compares equal.
+     * <p>
+     * Codifica el cursor como una cadena segura para URL. La puntuación se escribe bit a bit para que el último resultado compare igual.
+     */
+    public String encode() {
+        String date = NO_DATE;
+        if (publishedAt != null) {
+            Instant instant = publishedAt.toInstant(ZoneOffset.UTC);
+            date = instant.getEpochSecond() + "." + instant.getNano();
+        }
+        String raw = Long.toHexString(Double.doubleToLongBits(score)) + ":" + date + ":" + id + ":" + served;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from the client. A blank value means "first page".
+     * <p>
+     * Decodifica un cursor recibido del cliente. Un valor vacío significa "primera página".
+     *
+     * @param cursor The opaque cursor. / El cursor opaco.
+     * @return The decoded cursor, or null for the first page. / El cursor decodificado, o null para la primera página.
+     * @throws IllegalArgumentException If the cursor is malformed. / Si el cursor está mal formado.
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            double score = Double.longBitsToDouble(Long.parseUnsignedLong(parts[0], 16));
+            LocalDateTime publishedAt = null;
+            if (!NO_DATE.equals(parts[1])) {
+                String[] date = parts[1].split("\\.");
+                Instant instant = Instant.ofEpochSecond(Long.parseLong(date[0]), Long.parseLong(date[1]));
+                publishedAt = LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+            }
+            int served = Integer.parseInt(parts[3]);
+            if (served < 0) {
+                throw new IllegalArgumentException();
+            }
+            return new SearchCursor(score, publishedAt, Long.parseLong(parts[2]), served);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor / Cursor no válido");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.services.CategorySearchIndexService;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled tasks that build the search indexes at startup and keep them fresh.
+ * Publishing, editing and deleting threads update the content index incrementally; its nightly rebuild
+ * only repairs changes made outside the services (manual data fixes, bulk scripts).
+ * The username index is rebuilt more often, since follower counts (its ranking) change all the time.
+ * <p>
+ * Tareas programadas que construyen los índices de búsqueda al arrancar y los mantienen al día.
+ * Publicar, editar y borrar hilos actualiza el índice de contenido de forma incremental; su reconstrucción nocturna
+ * solo repara cambios hechos fuera de los servicios (correcciones manuales, scripts masivos).
+ * El índice de nombres se reconstruye más a menudo, porque los contadores de seguidores (su orden) cambian constantemente.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexScheduler {
+
+    private final ContentSearchIndexService contentSearchIndexService;
+    private final UserSearchIndexService userSearchIndexService;
+    private final CategorySearchIndexService categorySearchIndexService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.search.index.rebuild-cron:0 0 4 * * ?}")
+    public void rebuild() {
+        contentSearchIndexService.rebuild();
+        categorySearchIndexService.rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.users.refresh-ms:600000}", initialDelayString = "${app.search.users.refresh-ms:600000}")
+    public void rebuildUsernames() {
+        userSearchIndexService.rebuild();
+    }
+}
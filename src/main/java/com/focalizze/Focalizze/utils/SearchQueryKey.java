@@ -0,0 +1,48 @@
+package com.focalizze.Focalizze.utils;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Cache key of a shared search: either a category listing or a normalized full-text query with its filters.
+ * Spellings that search the same ("Java  Spring", "java spring") share one key; a trailing space is kept, since it
+ * turns the last word from a prefix into a whole term. Viewer blocks are never part of the key.
+ * <p>
+ * Clave de caché de una búsqueda compartida: un listado de categoría o una consulta de texto normalizada con sus filtros.
+ * Las escrituras que buscan lo mismo ("Java  Spring", "java spring") comparten clave; el espacio final se conserva,
+ * porque convierte la última palabra de prefijo en término completo. Los bloqueos del espectador nunca forman parte de la clave.
+ *
+ * @param query      Normalized query (null for a category listing). / Consulta normalizada (null para un listado de categoría).
+ * @param terms      Words of the query, to tell which new threads may enter the results. / Palabras de la consulta, para saber qué hilos nuevos pueden entrar en los resultados.
+ * @param categoryId Listed category (null for a text query). / Categoría listada (null para una consulta de texto).
+ * @param filter     Filters of a text query. / Filtros de una consulta de texto.
+ */
+public record SearchQueryKey(String query, List<String> terms, Long categoryId, ContentSearchFilter filter) {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    public static SearchQueryKey forCategory(Long categoryId) {
+        return new SearchQueryKey(null, List.of(), categoryId, null);
+    }
+
+    public static SearchQueryKey forText(String query, ContentSearchFilter filter) {
+        String normalized = normalize(query);
+        return new SearchQueryKey(normalized, ThreadSearchIndex.tokenize(normalized), null, filter);
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses whitespace, keeping quotes and a single trailing space.
+     * <p>
+     * Pasa a minúsculas, elimina tildes y colapsa espacios, conservando las comillas y un único espacio final.
+     */
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String plain = DIACRITICS.matcher(Normalizer.normalize(query.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(plain).replaceAll(" ").stripLeading();
+    }
+}
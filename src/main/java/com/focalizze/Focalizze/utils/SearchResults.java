@@ -0,0 +1,78 @@
+package com.focalizze.Focalizze.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable ranked result list of one search, shared by every viewer. Each hit keeps its author, so blocked authors are
+ * skipped per viewer while paging instead of being baked into the shared list.
+ * <p>
+ * Lista inmutable y ordenada de resultados de una búsqueda, compartida por todos los espectadores. Cada resultado
+ * guarda su autor, así que los autores bloqueados se omiten por espectador al paginar en lugar de fijarse en la lista compartida.
+ */
+public final class SearchResults {
+
+    private static final SearchResults EMPTY = new SearchResults(new ThreadSearchIndex.Hit[0], new long[0]);
+
+    // Ranking order / Orden del ranking
+    private final ThreadSearchIndex.Hit[] hits;
+    private final long[] authorIds;
+    // Sorted, for membership checks / Ordenados, para comprobar pertenencia
+    private final long[] sortedThreadIds;
+
+    private SearchResults(ThreadSearchIndex.Hit[] hits, long[] authorIds) {
+        this.hits = hits;
+        this.authorIds = authorIds;
+        this.sortedThreadIds = Arrays.stream(hits).mapToLong(ThreadSearchIndex.Hit::threadId).sorted().toArray();
+    }
+
+    public static SearchResults empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param hits      Hits in ranking order. / Resultados en orden de ranking.
+     * @param authorIds Author of each hit, at the same position. / Autor de cada resultado, en la misma posición.
+     */
+    public static SearchResults of(List<ThreadSearchIndex.Hit> hits, long[] authorIds) {
+        if (hits.size() != authorIds.length) {
+            throw new IllegalArgumentException("One author per hit / Un autor por resultado");
+        }
+        return hits.isEmpty() ? EMPTY : new SearchResults(hits.toArray(ThreadSearchIndex.Hit[]::new), authorIds.clone());
+    }
+
+    /**
+     * Returns up to {@code limit} hits ranked after {@code after}, skipping the excluded authors.
+     * <p>
+     * Devuelve hasta {@code limit} resultados posteriores a {@code after}, omitiendo a los autores excluidos.
+     *
+     * @param after             Last hit of the previous page (null for the first). / Último resultado de la página anterior (null para la primera).
+     * @param excludedAuthorIds Authors the viewer must not see. / Autores que el espectador no debe ver.
+     */
+    public List<ThreadSearchIndex.Hit> page(ThreadSearchIndex.Hit after, LongIdSet excludedAuthorIds, int limit) {
+        List<ThreadSearchIndex.Hit> page = new ArrayList<>(Math.min(Math.max(limit, 0), hits.length));
+        for (int i = after == null ? 0 : firstAfter(after); i < hits.length && page.size() < limit; i++) {
+            if (!excludedAuthorIds.contains(authorIds[i])) page.add(hits[i]);
+        }
+        return page;
+    }
+
+    public boolean containsThread(long threadId) {
+        return Arrays.binarySearch(sortedThreadIds, threadId) >= 0;
+    }
+
+    public int size() {
+        return hits.length;
+    }
+
+    private int firstAfter(ThreadSearchIndex.Hit after) {
+        int low = 0, high = hits.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ThreadSearchIndex.RANKING.compare(hits[mid], after) <= 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
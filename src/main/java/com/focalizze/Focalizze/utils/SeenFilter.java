@@ -0,0 +1,84 @@
+package com.focalizze.Focalizze.utils;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size Bloom filter of thread IDs already shown to a user in the current browsing session.
+ * Memory is bounded by the expected item count; once that many IDs were added the filter starts over,
+ * so the false-positive rate never degrades. A false positive only hides one unseen thread; it never repeats one.
+ * <p>
+ * Filtro de Bloom de tamaño fijo con los IDs de hilos ya mostrados a un usuario en la sesión actual.
+ * La memoria está acotada por el número de ítems esperado; al alcanzarlo el filtro se reinicia,
+ * así que la tasa de falsos positivos nunca empeora. Un falso positivo solo oculta un hilo no visto; nunca repite uno.
+ */
+public final class SeenFilter {
+
+    private final long[] bits;
+    private final int numBits;
+    private final int numHashes;
+    private final int capacity;
+    private int count;
+
+    /**
+     * @param expectedItems     IDs kept before the filter starts over. / IDs guardados antes de reiniciar el filtro.
+     * @param falsePositiveRate Target false-positive rate, e.g. 0.01. / Tasa objetivo de falsos positivos, ej. 0.01.
+     */
+    public SeenFilter(int expectedItems, double falsePositiveRate) {
+        // Standard sizing: m = -n ln(p) / ln(2)^2 bits and k = m/n ln(2) hashes
+        // Dimensionado estándar: m = -n ln(p) / ln(2)^2 bits y k = m/n ln(2) hashes
+        long optimalBits = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (optimalBits + 63) >>> 6)];
+        this.numBits = bits.length * Long.SIZE;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedItems * Math.log(2)));
+        this.capacity = expectedItems;
+    }
+
+    public synchronized boolean mightContain(long id) {
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the ID as shown.
+     * <p>
+     * Marca el ID como mostrado.
+     *
+     * @return {@code true} if it had not been shown; a false positive returns {@code false} for a new ID.
+     *         {@code true} si no se había mostrado; un falso positivo devuelve {@code false} para un ID nuevo.
+     */
+    public synchronized boolean add(long id) {
+        if (mightContain(id)) {
+            return false;
+        }
+        if (count >= capacity) {
+            Arrays.fill(bits, 0L);
+            count = 0;
+        }
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = Math.floorMod(h1 + (long) i * h2, numBits);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        count++;
+        return true;
+    }
+
+    // SplitMix64 finalizer: spreads sequential IDs across the whole bit array
+    // Finalizador SplitMix64: reparte IDs secuenciales por todo el array de bits
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
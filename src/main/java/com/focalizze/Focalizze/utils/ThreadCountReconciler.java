@@ -0,0 +1,44 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Scheduled task that keeps {@code User.publishedThreadCount} consistent with the threads table.
+ * The counter is maintained incrementally on publish and delete; this job repairs any drift
+ * (missed updates, manual data fixes, rows created before the column existed).
+ * <p>
+ * Tarea programada que mantiene {@code User.publishedThreadCount} coherente con la tabla de hilos.
+ * El contador se mantiene de forma incremental al publicar y borrar; esta tarea corrige cualquier desviación
+ * (actualizaciones perdidas, correcciones manuales de datos, filas creadas antes de existir la columna).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ThreadCountReconciler {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Recomputes drifted counters at startup and every night.
+     * <p>
+     * Recalcula los contadores desviados al arrancar y cada noche.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.users.thread-count.reconcile-cron:0 30 3 * * ?}")
+    @Transactional
+    public void reconcile() {
+        int corrected = userRepository.reconcilePublishedThreadCounts();
+        if (corrected > 0) {
+            log.warn("Corrected {} published thread counters. / Corregidos {} contadores de hilos publicados.", corrected, corrected);
+        } else {
+            log.debug("Published thread counters up to date. / Contadores de hilos publicados al día.");
+        }
+    }
+}
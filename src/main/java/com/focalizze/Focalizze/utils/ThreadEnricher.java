@@ -1,20 +1,19 @@
 package com.focalizze.Focalizze.utils;
 
 import com.focalizze.Focalizze.dto.FeedThreadDto;
+import com.focalizze.Focalizze.dto.ThreadViewerFlagsDto;
 import com.focalizze.Focalizze.dto.UserDto;
 import com.focalizze.Focalizze.dto.mappers.FeedMapper;
-import com.focalizze.Focalizze.dto.mappers.UserMapper;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.BlockRepository;
-import com.focalizze.Focalizze.repository.FollowRepository;
-import com.focalizze.Focalizze.repository.SavedThreadRepository;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -28,10 +27,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ThreadEnricher {
 
-    private final SavedThreadRepository savedThreadRepository;
+    /**
+     * Statements {@link #enrichList} may issue per page: viewer flags, posts batch and images batch.
+     * <p>
+     * Sentencias que {@link #enrichList} puede emitir por página: banderas del espectador, lote de posts y lote de imágenes.
+     */
+    public static final int QUERY_BUDGET_PER_PAGE = 3;
+
+    private static final ThreadViewerFlagsDto NO_FLAGS = new ThreadViewerFlagsDto(null, false, false);
+
+    private final ThreadRepository threadRepository;
     private final FeedMapper feedMapper;
-    private final FollowRepository followRepository;
-    private final BlockRepository blockRepository;
+    private final RelationshipCacheService relationshipCacheService;
 
     /**
      * Enriches a single Thread entity with interaction status for the current user.
@@ -56,25 +63,24 @@ public class ThreadEnricher {
             return baseDto.withInteractionStatus(false, false);
         }
 
-        // 2. Calculate 'isLiked' (In-memory if fetched eagerly)
-        // 2. Calcular 'isLiked' (En memoria si se cargó ansiosamente)
-        boolean isLikedByCurrentUser = thread.getLikes() != null && thread.getLikes().stream()
-                .anyMatch(like -> like.getUser().getId().equals(currentUser.getId()));
-
-        // 3. Calculate 'isSaved' (DB Query - Safe for single item)
-        // 3. Calcular 'isSaved' (Consulta BD - Seguro para un solo ítem)
-        boolean isSavedByCurrentUser = savedThreadRepository.existsByUserAndThread(currentUser, thread);
+        // 2. 'isLiked' and 'isSaved' in one query / 'isLiked' e 'isSaved' en una sola consulta
+        ThreadViewerFlagsDto flags = loadViewerFlags(List.of(thread.getId()), currentUser)
+                .getOrDefault(thread.getId(), NO_FLAGS);
 
-        // 4. Return updated DTO / Devolver DTO actualizado
-        return baseDto.withInteractionStatus(isLikedByCurrentUser, isSavedByCurrentUser);
+        // 3. Return updated DTO / Devolver DTO actualizado
+        return baseDto.withInteractionStatus(flags.liked(), flags.saved());
     }
 
     /**
      * Optimized method to enrich a LIST of threads, avoiding the N+1 SELECT problem.
-     * Performs bulk fetching for saved, followed, and blocked statuses.
+     * Liked and saved flags come from one combined query; following and blocked flags come from the
+     * cached relationship snapshot. Posts and images are batch-loaded, so a page costs at most
+     * {@link #QUERY_BUDGET_PER_PAGE} statements on top of the page query itself.
      * <p>
      * Método optimizado para enriquecer una LISTA de hilos, evitando el problema N+1 SELECT.
-     * Realiza búsquedas por lotes para estados de guardado, seguido y bloqueado.
+     * Las banderas de like y guardado salen de una consulta combinada; las de seguimiento y bloqueo de la
+     * instantánea de relaciones en caché. Posts e imágenes se cargan por lotes, así que una página cuesta
+     * como mucho {@link #QUERY_BUDGET_PER_PAGE} sentencias además de la consulta de la propia página.
      *
      * @param threads     The list of threads to enrich.
      *                    La lista de hilos a enriquecer.
@@ -95,38 +101,29 @@ public class ThreadEnricher {
                     .toList();
         }
 
-        // 2. Extract IDs for bulk queries / Extraer IDs para consultas por lotes
+        // 2. Bulk Fetch: Liked and Saved Status in one query
+        // 2. Búsqueda por lotes: Estado Like y Guardado en una sola consulta
         List<Long> threadIds = threads.stream().map(ThreadClass::getId).toList();
-        Set<Long> authorIds = threads.stream().map(t -> t.getUser().getId()).collect(Collectors.toSet());
-
-        // 3. Bulk Fetch: Saved Status / Búsqueda por lotes: Estado Guardado
-        Set<Long> savedThreadIds = savedThreadRepository.findSavedThreadIdsByUserInThreadIds(currentUser, threadIds);
+        Map<Long, ThreadViewerFlagsDto> flagsByThreadId = loadViewerFlags(threadIds, currentUser);
 
-        // 4. Bulk Fetch: Following Status / Búsqueda por lotes: Estado Siguiendo
-        // (Prevent SQL error if authorIds is empty, though unlikely if threads is not empty)
-        Set<Long> followedUserIds = authorIds.isEmpty() ? Collections.emptySet() :
-                followRepository.findFollowedUserIdsByFollower(currentUser, authorIds);
-
-        // 5. Bulk Fetch: Block Status / Búsqueda por lotes: Estado Bloqueo
-        Set<Long> blockedUserIds = authorIds.isEmpty() ? Collections.emptySet() :
-                blockRepository.findBlockedIdsByBlockerAndBlockedIdsIn(currentUser, authorIds);
+        // 3. Following and Block Status from the cached snapshot (no query when warm)
+        // 3. Estado Siguiendo y Bloqueo desde la instantánea en caché (sin consulta si está caliente)
+        RelationshipSnapshot relations = relationshipCacheService.getSnapshot(currentUser.getId());
 
 
         // --- MAPPING & ENRICHMENT / MAPEO Y ENRIQUECIMIENTO ---
         return threads.stream().map(thread -> {
 
-            // A. 'isLiked' (In-memory)
-            boolean isLiked = thread.getLikes().stream()
-                    .anyMatch(like -> like.getUser().getId().equals(currentUser.getId()));
-
-            // B. 'isSaved' (O(1) lookup in Set)
-            boolean isSaved = savedThreadIds.contains(thread.getId());
+            // A-B. 'isLiked' and 'isSaved' (O(1) lookup in Map)
+            ThreadViewerFlagsDto flags = flagsByThreadId.getOrDefault(thread.getId(), NO_FLAGS);
+            boolean isLiked = flags.liked();
+            boolean isSaved = flags.saved();
 
-            // C. 'isFollowing' (O(1) lookup in Set)
-            boolean isFollowing = followedUserIds.contains(thread.getUser().getId());
+            // C. 'isFollowing' (lookup in snapshot)
+            boolean isFollowing = relations.followedUserIds().contains(thread.getUser().getId());
 
-            // D. 'isBlocked' (O(1) lookup in Set)
-            boolean isBlocked = blockedUserIds.contains(thread.getUser().getId());
+            // D. 'isBlocked' (lookup in snapshot)
+            boolean isBlocked = relations.blockedByMeIds().contains(thread.getUser().getId());
 
             // E. Base DTO / DTO Base
             FeedThreadDto baseDto = feedMapper.toFeedThreadDto(thread);
@@ -164,4 +161,16 @@ public class ThreadEnricher {
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Loads the like/save flags of the given threads for the viewer, keyed by thread ID.
+     * <p>
+     * Carga las banderas de like/guardado de los hilos dados para el espectador, indexadas por ID de hilo.
+     */
+    private Map<Long, ThreadViewerFlagsDto> loadViewerFlags(List<Long> threadIds, User currentUser) {
+        Map<Long, ThreadViewerFlagsDto> flags = new HashMap<>();
+        for (ThreadViewerFlagsDto row : threadRepository.findViewerFlagsByThreadIds(currentUser, threadIds)) {
+            flags.put(row.threadId(), row);
+        }
+        return flags;
+    }
 }
@@ -2,6 +2,10 @@ package com.focalizze.Focalizze.utils;
 
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.HashtagService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -24,6 +28,10 @@ import java.util.List;
 public class ThreadScheduler {
 
     private final ThreadRepository threadRepository;
+    private final UserRepository userRepository;
+    private final HomeTimelineService homeTimelineService;
+    private final ContentSearchIndexService contentSearchIndexService;
+    private final HashtagService hashtagService;
 
     /**
      * Checks every minute for threads that are ready to be published.
@@ -53,6 +61,20 @@ public class ThreadScheduler {
         // saveAll is efficient for batch updates / saveAll es eficiente para actualizaciones por lotes
         threadRepository.saveAll(threadsToPublish);
 
+        // 4. Update author counters (threads deleted while scheduled do not go live)
+        // 4. Actualizar contadores de los autores (los hilos borrados mientras estaban programados no salen)
+        List<ThreadClass> live = threadsToPublish.stream().filter(thread -> !thread.isDeleted()).toList();
+        live.forEach(thread -> userRepository.incrementPublishedThreadCount(thread.getUser().getId()));
+
+        // 5. Fan-out to warm home timelines / Distribuir a los timelines en memoria
+        live.forEach(homeTimelineService::onThreadPublished);
+
+        // 6. Make them searchable / Hacerlos buscables
+        threadsToPublish.forEach(contentSearchIndexService::index);
+
+        // 7. Count their hashtags as trending / Contar sus hashtags para la tendencia
+        threadsToPublish.forEach(hashtagService::recordPublished);
+
         log.info("Publicados {} hilos que estaban programados.", threadsToPublish.size());
     }
 
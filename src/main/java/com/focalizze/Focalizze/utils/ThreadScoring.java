@@ -0,0 +1,51 @@
+package com.focalizze.Focalizze.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Engagement and recency scoring shared by the recommendation pipeline.
+ * <p>
+ * Puntuación de interacción y recencia compartida por el pipeline de recomendaciones.
+ */
+public final class ThreadScoring {
+
+    // Scoring weights / Pesos de puntuación
+    public static final double LIKE_WEIGHT = 0.5;
+    public static final double COMMENT_WEIGHT = 1.5;
+    public static final double SAVE_WEIGHT = 2.0;
+    public static final double RECENCY_WEIGHT = 1.2;
+
+    private ThreadScoring() {
+    }
+
+    /**
+     * Scores a thread by its weighted engagement, decayed by its age in hours.
+     * <p>
+     * Puntúa un hilo por su interacción ponderada, atenuada por su antigüedad en horas.
+     *
+     * @param likes       Like count. / Número de likes.
+     * @param comments    Comment count. / Número de comentarios.
+     * @param saves       Save count. / Número de guardados.
+     * @param publishedAt Publication date. / Fecha de publicación.
+     * @param now         Reference time. / Momento de referencia.
+     * @return The score. / La puntuación.
+     */
+    public static double score(Integer likes, Integer comments, Integer saves, LocalDateTime publishedAt, LocalDateTime now) {
+        double engagementScore = (valueOf(likes) * LIKE_WEIGHT) +
+                (valueOf(comments) * COMMENT_WEIGHT) +
+                (valueOf(saves) * SAVE_WEIGHT);
+
+        long hoursOld = publishedAt == null ? 0 : Duration.between(publishedAt, now).toHours();
+        // Evitamos números negativos o ceros extraños en logs recientes
+        hoursOld = Math.max(0, hoursOld);
+
+        double recencyScore = Math.exp(-hoursOld * 0.01) * RECENCY_WEIGHT;
+
+        return engagementScore * recencyScore;
+    }
+
+    private static int valueOf(Integer count) {
+        return count == null ? 0 : count;
+    }
+}
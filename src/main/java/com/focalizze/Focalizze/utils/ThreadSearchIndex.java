@@ -0,0 +1,336 @@
+package com.focalizze.Focalizze.utils;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the posts of each thread, with BM25 ranking.
+ * Tokens are lower-cased and accent-free; each keeps its positions, so quoted phrases are matched exactly.
+ * All query terms must match; the last bare term also matches as a prefix, so search-as-you-type keeps working.
+ * Updates are incremental ({@link #put}, {@link #remove}) and safe to run concurrently with searches.
+ * <p>
+ * Índice invertido en memoria sobre los posts de cada hilo, con ranking BM25.
+ * Los tokens se pasan a minúsculas y sin tildes; cada uno guarda sus posiciones, así que las frases entre comillas
+ * se comprueban exactamente. Todos los términos deben coincidir; el último término suelto también coincide como prefijo,
+ * así que la búsqueda mientras se escribe sigue funcionando.
+ * Las actualizaciones son incrementales ({@link #put}, {@link #remove}) y seguras en paralelo con las búsquedas.
+ */
+public final class ThreadSearchIndex {
+
+    // BM25 parameters / Parámetros BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Position gap between posts, so a phrase never spans two posts / Salto de posición entre posts, para que una frase no cruce posts
+    private static final int POST_GAP = 100;
+    // Maximum dictionary terms expanded from a prefix / Máximo de términos del diccionario expandidos desde un prefijo
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * A ranked match. / Una coincidencia puntuada.
+     */
+    public record Hit(long threadId, double score, LocalDateTime publishedAt) {
+    }
+
+    private record Doc(long authorId, Long categoryId, LocalDateTime publishedAt, int length, Set<String> terms) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // term -> threadId -> sorted positions / término -> idHilo -> posiciones ordenadas
+    private final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    private long totalLength;
+
+    /**
+     * Indexes (or re-indexes) a thread from the text of its posts, in order.
+     * <p>
+     * Indexa (o reindexa) un hilo a partir del texto de sus posts, en orden.
+     */
+    public void put(long threadId, long authorId, Long categoryId, LocalDateTime publishedAt, List<String> postContents) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        int position = 0;
+        for (String content : postContents) {
+            for (String token : tokenize(content)) {
+                positions.computeIfAbsent(token, t -> new ArrayList<>()).add(position++);
+            }
+            position += POST_GAP;
+        }
+        int length = positions.values().stream().mapToInt(List::size).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(threadId);
+            for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+                int[] termPositions = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(threadId, termPositions);
+            }
+            docs.put(threadId, new Doc(authorId, categoryId, publishedAt, length, positions.keySet()));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long threadId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(threadId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} threads matching every term and phrase of the query, best first
+     * (ties broken by newest).
+     * <p>
+     * Devuelve los {@code limit} mejores hilos que contienen todos los términos y frases de la consulta, el mejor primero
+     * (los empates se resuelven por el más reciente).
+     */
+    public List<Hit> search(String query, ContentSearchFilter filter, int limit) {
+        return search(query, filter, null, limit);
+    }
+
+    /**
+     * Same as {@link #search(String, ContentSearchFilter, int)}, but only returns hits ranked after {@code after},
+     * so consecutive pages are read by keyset and the heap never grows past {@code limit}.
+     * <p>
+     * Igual que {@link #search(String, ContentSearchFilter, int)}, pero solo devuelve resultados posteriores a
+     * {@code after}, así que las páginas se leen por keyset y el heap nunca supera {@code limit}.
+     *
+     * @param after Last hit of the previous page (null for the first). / Último resultado de la página anterior (null para la primera).
+     */
+    public List<Hit> search(String query, ContentSearchFilter filter, Hit after, int limit) {
+        ParsedQuery parsed = ParsedQuery.parse(query);
+        if (parsed.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // 1. Resolve each required token to its postings (the prefix token to a union of terms)
+            // 1. Resolver cada token obligatorio a sus postings (el token de prefijo a una unión de términos)
+            List<List<Map<Long, int[]>>> required = new ArrayList<>();
+            for (String term : parsed.allTerms()) {
+                Map<Long, int[]> exact = postings.get(term);
+                required.add(exact == null ? List.of() : List.of(exact));
+            }
+            if (parsed.prefix() != null) {
+                required.add(expandPrefix(parsed.prefix()));
+            }
+            if (required.stream().anyMatch(List::isEmpty)) {
+                return List.of();
+            }
+
+            // 2. Candidates: documents of the rarest token, checked against every other one
+            // 2. Candidatos: documentos del token más raro, comprobados contra todos los demás
+            List<Map<Long, int[]>> rarest = Collections.min(required, Comparator.comparingInt(ThreadSearchIndex::docCount));
+            Set<Long> candidates = new HashSet<>();
+            rarest.forEach(p -> candidates.addAll(p.keySet()));
+
+            double averageLength = docs.isEmpty() ? 1 : Math.max(1, (double) totalLength / docs.size());
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (Long threadId : candidates) {
+                Doc doc = docs.get(threadId);
+                if (doc == null || !filter.matches(doc.categoryId(), doc.authorId(), doc.publishedAt())) continue;
+                if (!containsAll(required, threadId) || !containsPhrases(parsed.phrases(), threadId)) continue;
+
+                double score = 0;
+                for (List<Map<Long, int[]>> token : required) {
+                    score += bestBm25(token, threadId, doc.length(), averageLength);
+                }
+                Hit hit = new Hit(threadId, score, doc.publishedAt());
+                if (after != null && RANKING.compare(hit, after) <= 0) continue;
+                top.offer(hit);
+                if (top.size() > limit) top.poll();
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #search(String, ContentSearchFilter, int)}, keeping the author of every hit so the list can be
+     * cached once and filtered per viewer.
+     * <p>
+     * Igual que {@link #search(String, ContentSearchFilter, int)}, guardando el autor de cada resultado para que la
+     * lista se pueda cachear una vez y filtrar por espectador.
+     */
+    public SearchResults searchResults(String query, ContentSearchFilter filter, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = search(query, filter, null, limit);
+            long[] authorIds = new long[hits.size()];
+            for (int i = 0; i < authorIds.length; i++) {
+                authorIds[i] = docs.get(hits.get(i).threadId()).authorId();
+            }
+            return SearchResults.of(hits, authorIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best first: score desc, then newest, then highest ID / Mejor primero: puntuación desc, luego más reciente, luego ID mayor
+    static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(Hit::publishedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingLong(Hit::threadId).reversed());
+
+    private void removeLocked(long threadId) {
+        Doc previous = docs.remove(threadId);
+        if (previous == null) return;
+        totalLength -= previous.length();
+        for (String term : previous.terms()) {
+            Map<Long, int[]> termPostings = postings.get(term);
+            if (termPostings == null) continue;
+            termPostings.remove(threadId);
+            if (termPostings.isEmpty()) postings.remove(term);
+        }
+    }
+
+    private List<Map<Long, int[]>> expandPrefix(String prefix) {
+        List<Map<Long, int[]>> expanded = new ArrayList<>();
+        for (Map<Long, int[]> termPostings : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            expanded.add(termPostings);
+            if (expanded.size() >= MAX_PREFIX_EXPANSIONS) break;
+        }
+        return expanded;
+    }
+
+    private boolean containsAll(List<List<Map<Long, int[]>>> required, Long threadId) {
+        for (List<Map<Long, int[]>> token : required) {
+            boolean found = false;
+            for (Map<Long, int[]> termPostings : token) {
+                if (termPostings.containsKey(threadId)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private boolean containsPhrases(List<List<String>> phrases, Long threadId) {
+        for (List<String> phrase : phrases) {
+            int[] first = postings.get(phrase.get(0)).get(threadId);
+            boolean matched = false;
+            for (int start : first) {
+                boolean all = true;
+                for (int k = 1; k < phrase.size() && all; k++) {
+                    all = Arrays.binarySearch(postings.get(phrase.get(k)).get(threadId), start + k) >= 0;
+                }
+                if (all) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) return false;
+        }
+        return true;
+    }
+
+    private double bestBm25(List<Map<Long, int[]>> token, Long threadId, int length, double averageLength) {
+        double best = 0;
+        for (Map<Long, int[]> termPostings : token) {
+            int[] positions = termPostings.get(threadId);
+            if (positions == null) continue;
+            int df = termPostings.size();
+            double idf = Math.log(1 + (docs.size() - df + 0.5) / (df + 0.5));
+            double tf = positions.length;
+            best = Math.max(best, idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength)));
+        }
+        return best;
+    }
+
+    private static int docCount(List<Map<Long, int[]>> token) {
+        int count = 0;
+        for (Map<Long, int[]> termPostings : token) count += termPostings.size();
+        return count;
+    }
+
+    /**
+     * Lower-cases, strips accents and splits on anything that is not a letter or digit.
+     * <p>
+     * Pasa a minúsculas, elimina tildes y separa por todo lo que no sea letra o dígito.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Query split into quoted phrases, bare terms and an optional trailing prefix.
+     * <p>
+     * Consulta separada en frases entre comillas, términos sueltos y un prefijo final opcional.
+     */
+    private record ParsedQuery(List<String> terms, List<List<String>> phrases, String prefix) {
+
+        static ParsedQuery parse(String query) {
+            if (query == null) {
+                return new ParsedQuery(List.of(), List.of(), null);
+            }
+            List<List<String>> phrases = new ArrayList<>();
+            Matcher matcher = PHRASE.matcher(query);
+            StringBuilder rest = new StringBuilder();
+            int last = 0;
+            while (matcher.find()) {
+                rest.append(query, last, matcher.start()).append(' ');
+                List<String> phrase = tokenize(matcher.group(1));
+                if (!phrase.isEmpty()) phrases.add(phrase);
+                last = matcher.end();
+            }
+            String tail = query.substring(last);
+            rest.append(tail);
+
+            List<String> terms = new ArrayList<>(tokenize(rest.toString()));
+            // The word being typed (no trailing space) matches as a prefix
+            // La palabra que se está escribiendo (sin espacio final) coincide como prefijo
+            String prefix = null;
+            if (!terms.isEmpty() && !tail.isEmpty() && Character.isLetterOrDigit(tail.charAt(tail.length() - 1))
+                    && terms.get(terms.size() - 1).length() >= MIN_PREFIX_LENGTH) {
+                prefix = terms.remove(terms.size() - 1);
+            }
+            return new ParsedQuery(terms, phrases, prefix);
+        }
+
+        boolean isEmpty() {
+            return terms.isEmpty() && phrases.isEmpty() && prefix == null;
+        }
+
+        // Bare terms plus every phrase word, deduplicated / Términos sueltos más cada palabra de las frases, sin duplicados
+        List<String> allTerms() {
+            LinkedHashSet<String> all = new LinkedHashSet<>(terms);
+            phrases.forEach(all::addAll);
+            return new ArrayList<>(all);
+        }
+    }
+}
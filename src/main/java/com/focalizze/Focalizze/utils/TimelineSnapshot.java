@@ -0,0 +1,16 @@
+package com.focalizze.Focalizze.utils;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a user's home timeline.
+ * <p>
+ * Copia inmutable del timeline de un usuario.
+ *
+ * @param threadIds Thread IDs, newest first. / IDs de hilos, el más reciente primero.
+ * @param truncated Whether older matching threads may exist outside the timeline (it was loaded full or has evicted
+ *                  entries). Removals never clear it. / Si puede haber hilos más antiguos fuera del timeline (se cargó
+ *                  lleno o ha expulsado entradas). Los borrados nunca lo desactivan.
+ */
+public record TimelineSnapshot(List<Long> threadIds, boolean truncated) {
+}
@@ -0,0 +1,168 @@
+package com.focalizze.Focalizze.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sliding-window counter of the most frequent keys with bounded memory, whatever the number of distinct keys.
+ * The window is split into buckets, each a count-min sketch ({@code depth} rows of {@code width} counters); the count
+ * of a key is the sum of its estimates over the live buckets, and a bucket is cleared when it leaves the window.
+ * Only a small set of candidates (the current heaviest keys) is kept by name to answer "top K".
+ * A count-min sketch can overestimate, never underestimate.
+ * <p>
+ * Contador en ventana deslizante de las claves más frecuentes con memoria acotada, sea cual sea el número de claves
+ * distintas. La ventana se divide en cubetas, cada una un count-min sketch ({@code depth} filas de {@code width}
+ * contadores); la cuenta de una clave es la suma de sus estimaciones en las cubetas vivas, y una cubeta se vacía al
+ * salir de la ventana. Solo se guarda por nombre un pequeño conjunto de candidatas (las claves más pesadas) para
+ * responder al "top K". Un count-min sketch puede sobreestimar, nunca subestimar.
+ */
+public final class TrendingCounter {
+
+    /**
+     * A key and its estimated count in the window. / Una clave y su cuenta estimada en la ventana.
+     */
+    public record Entry(String key, long count) {
+    }
+
+    private final long bucketMillis;
+    private final int width;
+    private final int depth;
+    private final int capacity;
+
+    // [bucket][row * width + column] / [cubeta][fila * width + columna]
+    private final int[][] sketches;
+    private long currentSlot = Long.MIN_VALUE;
+    // Heaviest keys seen, with their last estimate / Claves más pesadas vistas, con su última estimación
+    private final Map<String, Long> candidates = new HashMap<>();
+
+    /**
+     * @param buckets      Buckets in the window. / Cubetas en la ventana.
+     * @param bucketMillis Length of a bucket. / Duración de una cubeta.
+     * @param width        Counters per sketch row. / Contadores por fila del sketch.
+     * @param depth        Sketch rows (hash functions). / Filas del sketch (funciones hash).
+     * @param capacity     Candidate keys tracked by name. / Claves candidatas guardadas por nombre.
+     */
+    public TrendingCounter(int buckets, long bucketMillis, int width, int depth, int capacity) {
+        this.bucketMillis = bucketMillis;
+        this.width = width;
+        this.depth = depth;
+        this.capacity = capacity;
+        this.sketches = new int[buckets][width * depth];
+    }
+
+    /**
+     * Counts one occurrence of the key at the given time.
+     * <p>
+     * Cuenta una aparición de la clave en el instante dado.
+     */
+    public synchronized void add(String key, long nowMillis) {
+        advance(nowMillis);
+        int[] sketch = sketches[bucket(currentSlot)];
+        int hash = key.hashCode();
+        int step = mix(hash);
+        for (int row = 0; row < depth; row++) {
+            sketch[row * width + column(hash, step, row)]++;
+        }
+        offer(key, estimate(hash, step));
+    }
+
+    /**
+     * Returns up to {@code limit} keys with the highest counts in the window, highest first.
+     * <p>
+     * Devuelve hasta {@code limit} claves con las cuentas más altas de la ventana, la más alta primero.
+     */
+    public synchronized List<Entry> top(int limit, long nowMillis) {
+        advance(nowMillis);
+        List<Entry> ranked = new ArrayList<>(candidates.size());
+        candidates.forEach((key, count) -> ranked.add(new Entry(key, count)));
+        ranked.sort((a, b) -> a.count() != b.count() ? Long.compare(b.count(), a.count()) : a.key().compareTo(b.key()));
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, Math.max(limit, 0))) : ranked;
+    }
+
+    /**
+     * Estimated count of a key in the window.
+     * <p>
+     * Cuenta estimada de una clave en la ventana.
+     */
+    public synchronized long count(String key, long nowMillis) {
+        advance(nowMillis);
+        int hash = key.hashCode();
+        return estimate(hash, mix(hash));
+    }
+
+    // Clears the buckets that left the window and re-scores the candidates / Vacía las cubetas que salieron de la ventana y repuntúa las candidatas
+    private void advance(long nowMillis) {
+        long slot = Math.floorDiv(nowMillis, bucketMillis);
+        if (slot <= currentSlot) {
+            return;
+        }
+        if (currentSlot != Long.MIN_VALUE) {
+            long expired = Math.min(slot - currentSlot, sketches.length);
+            for (long k = 1; k <= expired; k++) {
+                Arrays.fill(sketches[bucket(currentSlot + k)], 0);
+            }
+        }
+        currentSlot = slot;
+
+        Iterator<Map.Entry<String, Long>> it = candidates.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> candidate = it.next();
+            int hash = candidate.getKey().hashCode();
+            long count = estimate(hash, mix(hash));
+            if (count == 0) it.remove();
+            else candidate.setValue(count);
+        }
+    }
+
+    private void offer(String key, long count) {
+        if (candidates.containsKey(key) || candidates.size() < capacity) {
+            candidates.put(key, count);
+            return;
+        }
+        String lightest = null;
+        long lightestCount = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            if (candidate.getValue() < lightestCount) {
+                lightest = candidate.getKey();
+                lightestCount = candidate.getValue();
+            }
+        }
+        if (count > lightestCount) {
+            candidates.remove(lightest);
+            candidates.put(key, count);
+        }
+    }
+
+    private long estimate(int hash, int step) {
+        long total = 0;
+        for (int[] sketch : sketches) {
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, sketch[row * width + column(hash, step, row)]);
+            }
+            total += min;
+        }
+        return total;
+    }
+
+    private int bucket(long slot) {
+        return (int) Math.floorMod(slot, (long) sketches.length);
+    }
+
+    // Double hashing: row i uses h1 + i * h2 / Doble hash: la fila i usa h1 + i * h2
+    private int column(int hash, int step, int row) {
+        return Math.floorMod(hash + row * step, width);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h | 1;
+    }
+}
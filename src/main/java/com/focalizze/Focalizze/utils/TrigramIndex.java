@@ -0,0 +1,256 @@
+package com.focalizze.Focalizze.utils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant lookup over short texts (usernames, display names, category names).
+ * Candidates are retrieved through trigram posting lists, rarest trigram first, and capped at {@code maxCandidates}
+ * so the cost per query is bounded; they are then scored by edit distance (with transpositions), which is what tells
+ * "jhon" from "john" apart on short words, where trigram overlap alone is too weak.
+ * Entries are added, replaced and removed one by one.
+ * <p>
+ * Búsqueda tolerante a erratas sobre textos cortos (nombres de usuario, nombres visibles, nombres de categoría).
+ * Los candidatos se obtienen de las listas de trigramas, el trigrama más raro primero, con un máximo de
+ * {@code maxCandidates} para acotar el coste por consulta; después se puntúan por distancia de edición (con
+ * transposiciones), que es lo que distingue "jhon" de "john" en palabras cortas, donde el solapamiento de trigramas
+ * no basta. Las entradas se añaden, reemplazan y eliminan una a una.
+ *
+ * @param <T> Payload returned with each match. / Dato devuelto con cada coincidencia.
+ */
+public final class TrigramIndex<T> {
+
+    // Longer texts are cut: typos matter at the start / Los textos más largos se recortan: las erratas importan al inicio
+    private static final int MAX_TEXT_LENGTH = 64;
+    // Weight of a match against the start of a longer text / Peso de una coincidencia con el inicio de un texto más largo
+    private static final double PREFIX_WEIGHT = 0.9;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * A match and its similarity in {@code [0, 1]}. / Una coincidencia y su similitud en {@code [0, 1]}.
+     */
+    public record Match<T>(T value, double similarity) {
+    }
+
+    private record Doc<T>(T value, List<String> texts, Set<String> trigrams) {
+    }
+
+    private final int maxCandidates;
+    private final boolean partialMatches;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc<T>> docs = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    /**
+     * @param maxCandidates  Maximum entries scored per query. / Máximo de entradas puntuadas por consulta.
+     * @param partialMatches Whether a query may also match a single word or the start of a longer text (autocomplete).
+     *                       Si una consulta también puede coincidir con una sola palabra o el inicio de un texto más largo (autocompletado).
+     */
+    public TrigramIndex(int maxCandidates, boolean partialMatches) {
+        this.maxCandidates = maxCandidates;
+        this.partialMatches = partialMatches;
+    }
+
+    /**
+     * Adds or replaces an entry. If its texts did not change only the payload is swapped.
+     * <p>
+     * Añade o reemplaza una entrada. Si sus textos no cambiaron solo se sustituye el dato.
+     */
+    public void put(long id, T value, List<String> texts) {
+        List<String> normalized = texts.stream()
+                .map(TrigramIndex::normalize)
+                .filter(text -> !text.isEmpty())
+                .distinct()
+                .toList();
+
+        lock.writeLock().lock();
+        try {
+            Doc<T> previous = docs.get(id);
+            if (previous != null && previous.texts().equals(normalized)) {
+                docs.put(id, new Doc<>(value, previous.texts(), previous.trigrams()));
+                return;
+            }
+            removeLocked(id);
+            Set<String> trigrams = new HashSet<>();
+            normalized.forEach(text -> trigrams.addAll(trigrams(text)));
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(id);
+            }
+            docs.put(id, new Doc<>(value, normalized, trigrams));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries with similarity of at least {@code minSimilarity}, best first.
+     * Ties are broken by {@code tieBreak}.
+     * <p>
+     * Devuelve hasta {@code limit} entradas con similitud de al menos {@code minSimilarity}, la mejor primero.
+     * Los empates se resuelven con {@code tieBreak}.
+     */
+    public List<Match<T>> search(String query, int limit, double minSimilarity, Comparator<T> tieBreak) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Match<T>> ranking = Comparator.<Match<T>>comparingDouble(Match::similarity).reversed()
+                .thenComparing(Match::value, tieBreak);
+
+        lock.readLock().lock();
+        try {
+            // 1. Candidates from the rarest trigrams first, up to the budget
+            // 1. Candidatos desde los trigramas más raros primero, hasta el presupuesto
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String trigram : trigrams(normalized)) {
+                Set<Long> list = postings.get(trigram);
+                if (list != null) lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<Long> candidates = new HashSet<>();
+            collect:
+            for (Set<Long> list : lists) {
+                for (Long id : list) {
+                    if (candidates.size() >= maxCandidates) break collect;
+                    candidates.add(id);
+                }
+            }
+
+            // 2. Score by edit distance, keeping the best in a bounded heap
+            // 2. Puntuar por distancia de edición, guardando los mejores en un heap acotado
+            PriorityQueue<Match<T>> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (Long id : candidates) {
+                Doc<T> doc = docs.get(id);
+                double best = 0;
+                for (String text : doc.texts()) {
+                    best = Math.max(best, similarity(normalized, text));
+                }
+                if (best < minSimilarity) continue;
+                top.offer(new Match<>(doc.value(), best));
+                if (top.size() > limit) top.poll();
+            }
+
+            List<Match<T>> ranked = new ArrayList<>(top);
+            ranked.sort(ranking);
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Similarity of the query against the whole text and, if partial matches are enabled, against each word and the start of each.
+     * <p>
+     * Similitud de la consulta con el texto completo y, si se permiten coincidencias parciales, con cada palabra y el inicio de cada una.
+     */
+    private double similarity(String query, String text) {
+        double best = ratio(query, text);
+        if (!partialMatches) {
+            return best;
+        }
+        if (text.length() > query.length()) {
+            best = Math.max(best, PREFIX_WEIGHT * ratio(query, text.substring(0, query.length())));
+        }
+        if (text.indexOf(' ') >= 0) {
+            for (String word : text.split(" ")) {
+                best = Math.max(best, ratio(query, word));
+                if (word.length() > query.length()) {
+                    best = Math.max(best, PREFIX_WEIGHT * ratio(query, word.substring(0, query.length())));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static double ratio(String a, String b) {
+        int longest = Math.max(a.length(), b.length());
+        return longest == 0 ? 1 : 1 - (double) editDistance(a, b) / longest;
+    }
+
+    /**
+     * Optimal string alignment distance: insertions, deletions, substitutions and adjacent transpositions.
+     * <p>
+     * Distancia de alineamiento óptimo: inserciones, borrados, sustituciones y transposiciones adyacentes.
+     */
+    static int editDistance(String a, String b) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private void removeLocked(long id) {
+        Doc<T> previous = docs.remove(id);
+        if (previous == null) return;
+        for (String trigram : previous.trigrams()) {
+            Set<Long> list = postings.get(trigram);
+            if (list == null) continue;
+            list.remove(id);
+            if (list.isEmpty()) postings.remove(trigram);
+        }
+    }
+
+    // Padded like pg_trgm, so word starts weigh more / Con relleno como pg_trgm, para que el inicio de palabra pese más
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : text.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Lower-cases, strips accents and separators, and cuts to {@value #MAX_TEXT_LENGTH} characters.
+     * <p>
+     * Pasa a minúsculas, elimina tildes y separadores, y recorta a {@value #MAX_TEXT_LENGTH} caracteres.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String plain = DIACRITICS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        String collapsed = NON_WORD.matcher(plain).replaceAll(" ").trim();
+        return collapsed.length() > MAX_TEXT_LENGTH ? collapsed.substring(0, MAX_TEXT_LENGTH).trim() : collapsed;
+    }
+}
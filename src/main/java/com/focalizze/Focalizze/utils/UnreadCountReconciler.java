@@ -0,0 +1,47 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Scheduled task that keeps {@code User.unreadNotificationCount} consistent with the notifications table.
+ * The counter is maintained incrementally on flush and reset; this job repairs any drift (notifications deleted with
+ * their thread or user, manual data fixes, rows created before the column existed).
+ * <p>
+ * Tarea programada que mantiene {@code User.unreadNotificationCount} coherente con la tabla de notificaciones.
+ * El contador se mantiene de forma incremental al volcar y al poner a cero; esta tarea corrige cualquier desviación
+ * (notificaciones borradas con su hilo o usuario, correcciones manuales de datos, filas creadas antes de existir la columna).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCountReconciler {
+
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+
+    /**
+     * Recomputes drifted counters at startup and every night.
+     * <p>
+     * Recalcula los contadores desviados al arrancar y cada noche.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.notifications.unread.reconcile-cron:0 45 3 * * ?}")
+    @Transactional
+    public void reconcile() {
+        int corrected = userRepository.reconcileUnreadNotificationCounts();
+        if (corrected > 0) {
+            log.warn("Corrected {} unread notification counters. / Corregidos {} contadores de notificaciones no leídas.", corrected, corrected);
+            notificationService.evictUnreadCounts();
+        } else {
+            log.debug("Unread notification counters up to date. / Contadores de notificaciones no leídas al día.");
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.focalizze.Focalizze.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory username autocomplete index: a sorted array of lower-cased usernames, so every prefix is a contiguous range
+ * found by binary search, ranked by followers. The best entries of every one- and two-letter prefix are precomputed,
+ * since those ranges are the largest; longer prefixes scan their (small) range.
+ * Users registered or edited after the build go to a small concurrent overlay that searches merge in; follower counts
+ * are refreshed by the next build.
+ * <p>
+ * Índice en memoria para autocompletar nombres de usuario: un array ordenado de nombres en minúsculas, así que cada
+ * prefijo es un rango contiguo que se encuentra por búsqueda binaria, ordenado por seguidores. Los mejores de cada
+ * prefijo de una y dos letras se precalculan, porque esos rangos son los más grandes; los prefijos más largos recorren
+ * su rango (pequeño). Los usuarios registrados o editados tras la construcción van a una pequeña capa concurrente que
+ * las búsquedas mezclan; los contadores de seguidores se refrescan en la siguiente construcción.
+ */
+public final class UsernameIndex {
+
+    // Maximum results per search, and entries precomputed per short prefix / Máximo de resultados por búsqueda y entradas precalculadas por prefijo corto
+    public static final int MAX_LIMIT = 20;
+    private static final int SHORT_PREFIX_LENGTH = 2;
+
+    /**
+     * An indexed user. / Un usuario indexado.
+     */
+    public record Entry(long id, String username, String displayName, String avatarUrl, int followers) {
+    }
+
+    // Most followed first, then alphabetical / Más seguidos primero, luego alfabético
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::followers).reversed()
+            .thenComparing(entry -> normalize(entry.username()));
+
+    // Base, sorted by normalized username / Base, ordenada por nombre normalizado
+    private final String[] keys;
+    private final Entry[] entries;
+    private final Map<String, int[]> shortPrefixTops;
+
+    // Changes since the build / Cambios desde la construcción
+    private final ConcurrentSkipListMap<String, Entry> added = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Entry> updated = new ConcurrentHashMap<>();
+
+    private UsernameIndex(String[] keys, Entry[] entries, Map<String, int[]> shortPrefixTops) {
+        this.keys = keys;
+        this.entries = entries;
+        this.shortPrefixTops = shortPrefixTops;
+    }
+
+    public static UsernameIndex empty() {
+        return new UsernameIndex(new String[0], new Entry[0], Map.of());
+    }
+
+    /**
+     * Builds the index from every user.
+     * <p>
+     * Construye el índice a partir de todos los usuarios.
+     */
+    public static UsernameIndex build(Collection<Entry> users) {
+        Entry[] entries = users.stream()
+                .filter(entry -> entry.username() != null)
+                .sorted(Comparator.comparing(entry -> normalize(entry.username())))
+                .toArray(Entry[]::new);
+        String[] keys = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = normalize(entries[i].username());
+        }
+
+        // Bounded heap of positions per short prefix / Heap acotado de posiciones por prefijo corto
+        Comparator<Integer> byRanking = (a, b) -> {
+            int byFollowers = Integer.compare(entries[b].followers(), entries[a].followers());
+            return byFollowers != 0 ? byFollowers : keys[a].compareTo(keys[b]);
+        };
+        Map<String, PriorityQueue<Integer>> heaps = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, keys[i].length()); length++) {
+                PriorityQueue<Integer> heap = heaps.computeIfAbsent(keys[i].substring(0, length),
+                        p -> new PriorityQueue<>(MAX_LIMIT + 1, byRanking.reversed()));
+                heap.offer(i);
+                if (heap.size() > MAX_LIMIT) heap.poll();
+            }
+        }
+        Map<String, int[]> shortPrefixTops = new HashMap<>(heaps.size() * 2);
+        heaps.forEach((prefix, heap) -> shortPrefixTops.put(prefix,
+                heap.stream().sorted(byRanking).mapToInt(Integer::intValue).toArray()));
+
+        return new UsernameIndex(keys, entries, shortPrefixTops);
+    }
+
+    /**
+     * Adds a new user or replaces the data of an existing one.
+     * <p>
+     * Añade un usuario nuevo o reemplaza los datos de uno existente.
+     */
+    public void put(Entry entry) {
+        if (entry.username() == null) {
+            return;
+        }
+        String key = normalize(entry.username());
+        updated.put(entry.id(), entry);
+        int position = Arrays.binarySearch(keys, key);
+        // New name (registration or rename): reachable from the overlay / Nombre nuevo (registro o cambio): accesible desde la capa
+        if (position < 0 || entries[position].id() != entry.id()) {
+            added.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} users whose username starts with the prefix (case-insensitive), most followed first.
+     * <p>
+     * Devuelve hasta {@code limit} usuarios cuyo nombre empieza por el prefijo (sin distinguir mayúsculas), los más seguidos primero.
+     */
+    public List<Entry> search(String prefix, int limit) {
+        String key = normalize(prefix);
+        int max = Math.min(limit, MAX_LIMIT);
+        if (key.isEmpty() || max <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Entry> top = new PriorityQueue<>(max + 1, RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        Consumer<Entry> offer = candidate -> {
+            // Latest data wins; a renamed user no longer matches its old name / Gana el dato más reciente; un usuario renombrado ya no coincide con su nombre antiguo
+            Entry current = updated.getOrDefault(candidate.id(), candidate);
+            if (!normalize(current.username()).startsWith(key) || !seen.add(current.id())) return;
+            top.offer(current);
+            if (top.size() > max) top.poll();
+        };
+
+        if (key.length() <= SHORT_PREFIX_LENGTH) {
+            int[] precomputed = shortPrefixTops.get(key);
+            if (precomputed != null) {
+                for (int position : precomputed) offer.accept(entries[position]);
+            }
+        } else {
+            int from = lowerBound(key);
+            int to = lowerBound(key + Character.MAX_VALUE);
+            for (int i = from; i < to; i++) offer.accept(entries[i]);
+        }
+        added.subMap(key, true, key + Character.MAX_VALUE, false).values().forEach(offer);
+
+        List<Entry> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    public int size() {
+        return entries.length + added.size();
+    }
+
+    public static String normalize(String username) {
+        if (username == null) {
+            return "";
+        }
+        String trimmed = username.trim();
+        if (trimmed.startsWith("@")) trimmed = trimmed.substring(1);
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0, high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
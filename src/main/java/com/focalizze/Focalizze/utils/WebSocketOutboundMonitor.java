@@ -0,0 +1,200 @@
+package com.focalizze.Focalizze.utils;
+
+import com.focalizze.Focalizze.dto.WebSocketSessionStatsDto;
+import com.focalizze.Focalizze.dto.WebSocketStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Interceptor of the outbound STOMP channel that bounds what each session can have waiting to be sent.
+ * Messages to a coalesced destination (e.g. the unread badge) replace older pending ones, since only the latest value
+ * matters; any other message beyond {@code max-pending} for a slow session is dropped (notifications are saved, the
+ * client sees them on its next load) instead of piling up in memory. Keeps per-session counters for monitoring.
+ * <p>
+ * Interceptor del canal STOMP de salida que acota lo que cada sesión puede tener pendiente de envío.
+ * Los mensajes a un destino agrupado (p. ej. el indicador de no leídas) sustituyen a los pendientes anteriores, ya que
+ * solo importa el último valor; cualquier otro mensaje por encima de {@code max-pending} para una sesión lenta se
+ * descarta (las notificaciones están guardadas, el cliente las verá en la siguiente carga) en lugar de acumularse en
+ * memoria. Mantiene contadores por sesión para monitorización.
+ */
+@Component
+@Slf4j
+public class WebSocketOutboundMonitor implements ExecutorChannelInterceptor {
+
+    private final int maxPending;
+    private final List<String> coalescedDestinations;
+    private final Map<String, SessionStats> sessions = new ConcurrentHashMap<>();
+    // Totals, including closed sessions / Totales, incluidas las sesiones cerradas
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public WebSocketOutboundMonitor(@Value("${app.websocket.session.max-pending:100}") int maxPending,
+                                    @Value("${app.websocket.coalesced-destinations:/user/queue/unread}") List<String> coalescedDestinations) {
+        this.maxPending = maxPending;
+        this.coalescedDestinations = List.copyOf(coalescedDestinations);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.put(sessionId, new SessionStats(sessionId, event.getUser() != null ? event.getUser().getName() : null));
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    /**
+     * Counts the message as pending for its session, or drops it if the session is too far behind.
+     * <p>
+     * Cuenta el mensaje como pendiente para su sesión, o lo descarta si la sesión va demasiado atrasada.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SessionStats stats = statsOf(message.getHeaders());
+        if (stats == null) {
+            return message;
+        }
+        String coalesceKey = coalesceKey(message.getHeaders());
+        if (coalesceKey != null) {
+            stats.latest.put(coalesceKey, message);
+        } else if (stats.pending.get() >= maxPending) {
+            stats.dropped.increment();
+            dropped.increment();
+            long count = stats.dropped.sum();
+            if (count == 1 || count % 100 == 0) {
+                log.warn("Slow WebSocket session {} ({}), dropped {} messages / Sesión WebSocket lenta {} ({}), {} mensajes descartados",
+                        stats.sessionId, stats.username, count, stats.sessionId, stats.username, count);
+            }
+            return null;
+        }
+        stats.pending.incrementAndGet();
+        return message;
+    }
+
+    /**
+     * Skips a coalesced message that a newer one for the same destination has replaced.
+     * The channel still calls {@link #afterMessageHandled} for it, which releases its pending slot.
+     * <p>
+     * Omite un mensaje agrupado que otro más reciente para el mismo destino ha sustituido.
+     * El canal sigue llamando a {@link #afterMessageHandled} para él, que libera su posición pendiente.
+     */
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        SessionStats stats = statsOf(message.getHeaders());
+        if (stats == null) {
+            return message;
+        }
+        String coalesceKey = coalesceKey(message.getHeaders());
+        if (coalesceKey != null && stats.latest.get(coalesceKey) != message) {
+            stats.superseded.add(message);
+            stats.coalesced.increment();
+            coalesced.increment();
+            return null;
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SessionStats stats = statsOf(message.getHeaders());
+        if (stats == null) {
+            return;
+        }
+        // Called once per message that passed preSend, skipped or not / Se llama una vez por mensaje que pasó preSend, omitido o no
+        stats.pending.decrementAndGet();
+        if (stats.superseded.remove(message)) {
+            return;
+        }
+        stats.delivered.increment();
+        String coalesceKey = coalesceKey(message.getHeaders());
+        if (coalesceKey != null) {
+            stats.latest.remove(coalesceKey, message);
+        }
+    }
+
+    /**
+     * Current totals and the sessions with the most pending messages.
+     * <p>
+     * Totales actuales y las sesiones con más mensajes pendientes.
+     *
+     * @param limit Sessions to list. / Sesiones a listar.
+     */
+    public WebSocketStatsDto snapshot(int limit) {
+        List<WebSocketSessionStatsDto> all = sessions.values().stream()
+                .map(SessionStats::toDto)
+                .sorted(Comparator.comparingInt(WebSocketSessionStatsDto::pending).reversed()
+                        .thenComparing(Comparator.comparingLong(WebSocketSessionStatsDto::dropped).reversed()))
+                .toList();
+        long pending = all.stream().mapToLong(WebSocketSessionStatsDto::pending).sum();
+        return new WebSocketStatsDto(all.size(), pending, dropped.sum(), coalesced.sum(),
+                all.subList(0, Math.min(Math.max(limit, 0), all.size())));
+    }
+
+    // Only application messages to a connected session are tracked / Solo se siguen los mensajes de aplicación a una sesión conectada
+    private SessionStats statsOf(MessageHeaders headers) {
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        return sessionId == null ? null : sessions.get(sessionId);
+    }
+
+    // User destinations keep the subscribed destination in a header / Los destinos de usuario guardan en una cabecera el destino suscrito
+    private String coalesceKey(MessageHeaders headers) {
+        Object original = headers.get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION);
+        String destination = original != null ? original.toString() : SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null) {
+            return null;
+        }
+        for (String prefix : coalescedDestinations) {
+            if (destination.startsWith(prefix)) return destination;
+        }
+        return null;
+    }
+
+    private static final class SessionStats {
+        private final String sessionId;
+        private final String username;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        // Latest pending message per coalesced destination / Último mensaje pendiente por destino agrupado
+        private final Map<String, Message<?>> latest = new ConcurrentHashMap<>();
+        // Skipped in beforeHandle, awaiting afterMessageHandled / Omitidos en beforeHandle, a la espera de afterMessageHandled
+        private final Set<Message<?>> superseded = ConcurrentHashMap.newKeySet();
+
+        private SessionStats(String sessionId, String username) {
+            this.sessionId = sessionId;
+            this.username = username;
+        }
+
+        private WebSocketSessionStatsDto toDto() {
+            return new WebSocketSessionStatsDto(sessionId, username, pending.get(),
+                    delivered.sum(), dropped.sum(), coalesced.sum());
+        }
+    }
+}
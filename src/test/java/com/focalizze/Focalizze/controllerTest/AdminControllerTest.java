@@ -9,6 +9,8 @@ import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.models.UserRole;
 import com.focalizze.Focalizze.services.AdminService;
 import com.focalizze.Focalizze.services.BackupService;
+import com.focalizze.Focalizze.services.ExecutorMetricsService;
+import com.focalizze.Focalizze.services.WebSocketMetricsService;
 import com.focalizze.Focalizze.utils.JwtRequestFilter;
 import com.focalizze.Focalizze.utils.JwtUtil;
 import jakarta.servlet.FilterChain;
@@ -62,6 +64,8 @@ public class AdminControllerTest {
     // Dependencias del controlador
     @MockitoBean private AdminService adminService;
     @MockitoBean private BackupService backupService;
+    @MockitoBean private ExecutorMetricsService executorMetricsService;
+    @MockitoBean private WebSocketMetricsService webSocketMetricsService;
 
     // Dependencias de SecurityConfig
     @MockitoBean private JwtUtil jwtUtil;
@@ -148,4 +152,39 @@ public class AdminControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("attachment")));
     }
+
+    @Test
+    @DisplayName("getExecutorStats: Should return the load of each async pool")
+    void getExecutorStats_Success() throws Exception {
+        ExecutorStatsDto stats = new ExecutorStatsDto("notifications", 4, 1, 12, 10000, 100, 88, 0, 3.5, 40.0);
+        given(executorMetricsService.getStats()).willReturn(List.of(stats));
+
+        mockMvc.perform(get("/api/admin/executors")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("notifications"))
+                .andExpect(jsonPath("$[0].queueDepth").value(12));
+    }
+
+    @Test
+    @DisplayName("getExecutorStats: Should return 403 for non-admin users")
+    void getExecutorStats_NotAdmin_Returns403() throws Exception {
+        mockMvc.perform(get("/api/admin/executors")
+                        .with(user("user").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("getWebSocketStats: Should return outbound totals and busiest sessions")
+    void getWebSocketStats_Success() throws Exception {
+        WebSocketStatsDto stats = new WebSocketStatsDto(1, 5, 2, 7,
+                List.of(new WebSocketSessionStatsDto("s1", "alice", 5, 40, 2, 7)));
+        given(webSocketMetricsService.getStats()).willReturn(stats);
+
+        mockMvc.perform(get("/api/admin/websocket")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dropped").value(2))
+                .andExpect(jsonPath("$.busiestSessions[0].username").value("alice"));
+    }
 }
@@ -3,6 +3,7 @@ package com.focalizze.Focalizze.controllerTest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.focalizze.Focalizze.configurations.SecurityConfig;
 import com.focalizze.Focalizze.controllers.FeedController;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.DiscoverItemDto;
 import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.User;
@@ -40,6 +41,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FeedController.class)
@@ -116,6 +118,37 @@ public class FeedControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("getFeedByCursor: Should pass the cursor to the service and return 200 OK")
+    void getFeedByCursor_Success() throws Exception {
+        // Given
+        given(feedService.getFeedByCursor("abc", 10)).willReturn(new CursorPageDto<>(List.of(), "next", true));
+        authenticateUser();
+
+        // When & Then
+        mockMvc.perform(get("/api/feed/cursor")
+                        .param("cursor", "abc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("getDiscoverFeedByCursor: Should return first page when no cursor is sent (200 OK)")
+    void getDiscoverFeedByCursor_Success() throws Exception {
+        // Given
+        given(discoverFeedService.getDiscoverFeedByCursor(any(User.class), isNull(), eq(20)))
+                .willReturn(new CursorPageDto<>(List.of(), null, false));
+        authenticateUser();
+
+        // When & Then
+        mockMvc.perform(get("/api/feed/discover/cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     @Test
     @DisplayName("hideThread: Should call service and return 200 OK")
     void hideThread_Success() throws Exception {
@@ -0,0 +1,84 @@
+package com.focalizze.Focalizze.controllerTest;
+
+import com.focalizze.Focalizze.configurations.SecurityConfig;
+import com.focalizze.Focalizze.controllers.HashtagController;
+import com.focalizze.Focalizze.dto.CursorPageDto;
+import com.focalizze.Focalizze.dto.FeedThreadDto;
+import com.focalizze.Focalizze.dto.TrendingHashtagDto;
+import com.focalizze.Focalizze.services.HashtagService;
+import com.focalizze.Focalizze.utils.JwtRequestFilter;
+import com.focalizze.Focalizze.utils.JwtUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(HashtagController.class)
+@Import(SecurityConfig.class)
+class HashtagControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private HashtagService hashtagService;
+
+    // Security Mocks
+    @MockitoBean private JwtUtil jwtUtil;
+    @MockitoBean private UserDetailsService userDetailsService;
+    @MockitoBean private AuthenticationProvider authenticationProvider;
+    @MockitoBean private JwtRequestFilter jwtRequestFilter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Bypass del filtro JWT
+        doAnswer(invocation -> {
+            FilterChain chain = invocation.getArgument(2);
+            chain.doFilter(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(jwtRequestFilter).doFilter(any(HttpServletRequest.class), any(HttpServletResponse.class), any(FilterChain.class));
+    }
+
+    @Test
+    @DisplayName("getTrending: Debería devolver las etiquetas en tendencia sin autenticación (200 OK)")
+    void getTrending_Anonymous_Success() throws Exception {
+        // Given
+        given(hashtagService.getTrending(5)).willReturn(List.of(new TrendingHashtagDto("java", 12)));
+
+        // When & Then
+        mockMvc.perform(get("/api/hashtags/trending").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tag").value("java"))
+                .andExpect(jsonPath("$[0].count").value(12));
+    }
+
+    @Test
+    @DisplayName("getThreadsByTag: Debería pasar etiqueta, cursor y tamaño al servicio (200 OK)")
+    void getThreadsByTag_Success() throws Exception {
+        // Given
+        FeedThreadDto thread = new FeedThreadDto(7L, null, null, List.of(), null, false, false, null, List.of());
+        given(hashtagService.getThreadsByTag("java", "abc", 5)).willReturn(new CursorPageDto<>(List.of(thread), "next", true));
+
+        // When & Then
+        mockMvc.perform(get("/api/hashtags/java/threads").param("cursor", "abc").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(7L))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+}
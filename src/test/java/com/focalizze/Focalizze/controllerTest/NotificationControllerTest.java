@@ -1,11 +1,13 @@
 package com.focalizze.Focalizze.controllerTest;
 import com.focalizze.Focalizze.configurations.SecurityConfig;
 import com.focalizze.Focalizze.controllers.NotificationController;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.NotificationDto;
 import com.focalizze.Focalizze.models.User;
 
 import com.focalizze.Focalizze.models.UserRole;
 import com.focalizze.Focalizze.services.NotificationService;
+import com.focalizze.Focalizze.services.NotificationStreamService;
 import com.focalizze.Focalizze.utils.JwtRequestFilter;
 import com.focalizze.Focalizze.utils.JwtUtil;
 import jakarta.servlet.FilterChain;
@@ -27,16 +29,19 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(NotificationController.class)
@@ -46,6 +51,7 @@ class NotificationControllerTest {
     @Autowired private MockMvc mockMvc;
 
     @MockitoBean private NotificationService notificationService;
+    @MockitoBean private NotificationStreamService notificationStreamService;
 
     // Security Mocks
     @MockitoBean private JwtUtil jwtUtil;
@@ -84,7 +90,8 @@ class NotificationControllerTest {
                 null,
                 null,
                 "1h",
-                null
+                null,
+                1
         );
 
         Page<NotificationDto> page = new PageImpl<>(List.of(dto));
@@ -101,17 +108,37 @@ class NotificationControllerTest {
     }
 
     @Test
-    @DisplayName("hasUnreadNotifications: Should return boolean status")
+    @DisplayName("hasUnreadNotifications: Should return boolean status and count")
     void hasUnreadNotifications_Success() throws Exception {
         // Given
         authenticateUser();
-        given(notificationService.hasUnreadNotifications(any(User.class))).willReturn(true);
+        given(notificationService.getUnreadCount(any(User.class))).willReturn(3);
 
         // When & Then
         mockMvc.perform(get("/api/notifications/unread")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.hasUnread").value(true));
+                .andExpect(jsonPath("$.hasUnread").value(true))
+                .andExpect(jsonPath("$.unreadCount").value(3));
+    }
+
+    @Test
+    @DisplayName("getMyNotificationsByCursor: Should return cursor page")
+    void getMyNotificationsByCursor_Success() throws Exception {
+        // Given
+        authenticateUser();
+        NotificationDto dto = new NotificationDto(1L, "NEW_LIKE", "Msg", false, null, null, null, null, 3);
+        given(notificationService.getNotificationsByCursor(any(User.class), eq("abc"), eq(20)))
+                .willReturn(new CursorPageDto<>(List.of(dto), "next", true));
+
+        // When & Then
+        mockMvc.perform(get("/api/notifications/cursor")
+                        .param("cursor", "abc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].actorCount").value(3))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
     }
 
     @Test
@@ -129,6 +156,28 @@ class NotificationControllerTest {
     }
 
     // Helper para evitar ClassCastException
+    @Test
+    @DisplayName("streamNotifications: Should open an async SSE stream for the user")
+    void streamNotifications_Success() throws Exception {
+        // Given
+        authenticateUser();
+        given(notificationStreamService.subscribe(any(User.class))).willReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/notifications/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(notificationStreamService).subscribe(any(User.class));
+    }
+
+    @Test
+    @DisplayName("streamNotifications: Should reject anonymous users")
+    void streamNotifications_Anonymous() throws Exception {
+        mockMvc.perform(get("/api/notifications/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
+    }
+
     private void authenticateUser() {
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                 currentUser, null, currentUser.getAuthorities());
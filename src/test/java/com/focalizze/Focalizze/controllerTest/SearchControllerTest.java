@@ -2,6 +2,8 @@ package com.focalizze.Focalizze.controllerTest;
 
 import com.focalizze.Focalizze.configurations.SecurityConfig;
 import com.focalizze.Focalizze.controllers.SearchController;
+import com.focalizze.Focalizze.dto.ContentSearchFiltersDto;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.ThreadResponseDto;
 import com.focalizze.Focalizze.dto.UserSearchDto;
 import com.focalizze.Focalizze.models.User;
@@ -26,6 +28,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -87,14 +90,39 @@ class SearchControllerTest {
 
         // Mock simple de respuesta (no necesitamos llenar todos los campos para probar el controller)
         ThreadResponseDto threadDto = new ThreadResponseDto(1L, null, null, null, null, null, null);
-        given(searchService.searchContent("query")).willReturn(List.of(threadDto));
+        given(searchService.searchContent("query", new ContentSearchFiltersDto(null, null, null, null), null, 20))
+                .willReturn(new CursorPageDto<>(List.of(threadDto), "next", true));
 
         // When & Then
         mockMvc.perform(get("/api/search/content")
                         .param("q", "query")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L));
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("searchContent: Should pass filters, cursor and size to the service")
+    void searchContent_WithFilters_ShouldBindFilters() throws Exception {
+        // Given
+        authenticateUser();
+        ContentSearchFiltersDto filters = new ContentSearchFiltersDto("Tech", "john", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        given(searchService.searchContent("\"hola mundo\"", filters, "abc", 5))
+                .willReturn(new CursorPageDto<>(List.of(new ThreadResponseDto(2L, null, null, null, null, null, null)), null, false));
+
+        // When & Then
+        mockMvc.perform(get("/api/search/content")
+                        .param("q", "\"hola mundo\"")
+                        .param("category", "Tech")
+                        .param("author", "john")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31")
+                        .param("cursor", "abc")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2L));
     }
 
     // Helper para autenticación manual
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -125,6 +126,42 @@ public class InteractionLogRepositoryTest {
         assertThat(logs.get(1).getId()).isEqualTo(log2.getId());
     }
 
+    @Test
+    @DisplayName("findIdsToRefund: Debería devolver solo los IDs de los N logs más recientes del tipo")
+    void findIdsToRefund_ShouldReturnLatestIds() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        InteractionLog latest = createLog(testUser, InteractionType.LIKE, now);
+        createLog(testUser, InteractionType.LIKE, now.minusMinutes(5));
+        createLog(testUser, InteractionType.COMMENT, now);
+        entityManager.flush();
+
+        // When
+        List<Long> ids = interactionLogRepository.findIdsToRefund(
+                testUser.getId(), InteractionType.LIKE, now.minusHours(1), PageRequest.of(0, 1));
+
+        // Then
+        assertThat(ids).containsExactly(latest.getId());
+    }
+
+    @Test
+    @DisplayName("insertAll: Debería insertar los logs en un lote JDBC")
+    void insertAll_ShouldInsertBatch() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<InteractionLog> logs = List.of(
+                InteractionLog.builder().user(testUser).type(InteractionType.LIKE).createdAt(now).build(),
+                InteractionLog.builder().user(testUser).type(InteractionType.COMMENT).createdAt(now).build());
+
+        // When
+        interactionLogRepository.insertAll(logs);
+
+        // Then
+        assertThat(interactionLogRepository.countByUserIdAndTypeAndCreatedAtAfter(
+                testUser.getId(), InteractionType.LIKE, now.minusMinutes(1))).isEqualTo(1);
+        assertThat(interactionLogRepository.countByUserAndCreatedAtAfter(testUser, now.minusMinutes(1))).isEqualTo(2);
+    }
+
     private InteractionLog createLog(User user, InteractionType type, LocalDateTime createdAt) {
         InteractionLog log = InteractionLog.builder()
                 .user(user)
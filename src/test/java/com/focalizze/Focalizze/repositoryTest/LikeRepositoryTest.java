@@ -1,4 +1,5 @@
 package com.focalizze.Focalizze.repositoryTest;
+import com.focalizze.Focalizze.dto.EngagementPairDto;
 import com.focalizze.Focalizze.models.*;
 import com.focalizze.Focalizze.repository.LikeRepository;
 import jakarta.persistence.EntityManager;
@@ -10,10 +11,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -94,7 +97,46 @@ public class LikeRepositoryTest {
         assertThat(result).isNotPresent();
     }
 
+    @Test
+    @DisplayName("findEngagementPairsSince: Debería devolver los likes de la ventana, el más reciente primero")
+    void findEngagementPairsSince_ShouldReturnRecentPairsNewestFirst() {
+        // Given
+        User otherLiker = createUser("other", "other@test.com");
+        User oldLiker = createUser("old", "old@test.com");
+        LocalDateTime now = LocalDateTime.now();
+        persistLike(liker, thread);
+        persistLike(otherLiker, thread);
+        persistLike(oldLiker, thread);
+        // @PrePersist fija createdAt, así que se retrocede con una actualización masiva
+        setLikeCreatedAt(liker, now.minusDays(2));
+        setLikeCreatedAt(oldLiker, now.minusDays(40)); // Fuera de la ventana
+
+        // When
+        List<EngagementPairDto> result = likeRepository.findEngagementPairsSince(now.minusDays(30), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result).extracting(EngagementPairDto::userId).containsExactly(otherLiker.getId(), liker.getId());
+        assertThat(result.get(0).threadId()).isEqualTo(thread.getId());
+        assertThat(result.get(0).authorId()).isEqualTo(thread.getUser().getId());
+    }
+
     // --- Helpers ---
+    private void persistLike(User user, ThreadClass target) {
+        entityManager.persist(Like.builder()
+                .user(user)
+                .thread(target)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+    }
+
+    private void setLikeCreatedAt(User user, LocalDateTime createdAt) {
+        entityManager.createQuery("UPDATE Like l SET l.createdAt = :createdAt WHERE l.user = :user")
+                .setParameter("createdAt", createdAt)
+                .setParameter("user", user)
+                .executeUpdate();
+    }
+
     private User createUser(String username, String email) {
         User user = User.builder()
                 .username(username)
@@ -0,0 +1,188 @@
+package com.focalizze.Focalizze.repositoryTest;
+
+import com.focalizze.Focalizze.models.*;
+import com.focalizze.Focalizze.repository.NotificationRepository;
+import com.focalizze.Focalizze.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+public class NotificationRepositoryTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User recipient;
+    private User actor;
+    private ThreadClass thread;
+
+    @BeforeEach
+    void setUp() {
+        recipient = createUser("recipient", "recipient@test.com");
+        actor = createUser("actor", "actor@test.com");
+
+        CategoryClass category = new CategoryClass();
+        category.setName("General");
+        category.setDescription("Desc");
+        entityManager.persist(category);
+
+        thread = new ThreadClass();
+        thread.setUser(recipient);
+        thread.setCategory(category);
+        thread.setPublishedAt(LocalDateTime.now());
+        thread.setPublished(true);
+        thread.setDeleted(false);
+        entityManager.persist(thread);
+
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("insertAll: Debería insertar el lote por JDBC y asignar los IDs generados")
+    void insertAll_ShouldInsertBatchAndAssignIds() {
+        // Given
+        NotificationClass merged = NotificationClass.builder()
+                .user(recipient).triggerUser(actor).thread(thread)
+                .type(NotificationType.NEW_LIKE).message(" y 47 más les ha gustado tu hilo.")
+                .actorCount(48).createdAt(LocalDateTime.now()).build();
+        NotificationClass follow = NotificationClass.builder()
+                .user(recipient).triggerUser(actor)
+                .type(NotificationType.NEW_FOLLOWER).message(" ha comenzado a seguirte.")
+                .createdAt(LocalDateTime.now().minusMinutes(1)).build();
+
+        // When
+        notificationRepository.insertAll(List.of(merged, follow));
+        entityManager.clear();
+
+        // Then
+        assertThat(merged.getId()).isNotNull();
+        assertThat(follow.getId()).isNotNull().isNotEqualTo(merged.getId());
+
+        NotificationClass loaded = entityManager.find(NotificationClass.class, merged.getId());
+        assertThat(loaded.getActorCount()).isEqualTo(48);
+        assertThat(loaded.getThread().getId()).isEqualTo(thread.getId());
+        assertThat(loaded.getTriggerUser().getId()).isEqualTo(actor.getId());
+        assertThat(loaded.isRead()).isFalse();
+
+        NotificationClass loadedFollow = entityManager.find(NotificationClass.class, follow.getId());
+        assertThat(loadedFollow.getThread()).isNull();
+        assertThat(loadedFollow.getActorCount()).isEqualTo(1);
+
+        assertThat(notificationRepository.findByUserWithDetails(recipient, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(2);
+        assertThat(userRepository.findUnreadNotificationCountById(recipient.getId())).contains(2);
+        assertThat(userRepository.findUnreadNotificationCountById(actor.getId())).contains(0);
+    }
+
+    @Test
+    @DisplayName("reconcileUnreadNotificationCounts: Debería corregir solo los contadores desviados")
+    void reconcileUnreadNotificationCounts_ShouldFixDrift() {
+        // Given
+        // Insertada por JPA, sin pasar por el contador
+        entityManager.persist(NotificationClass.builder()
+                .user(recipient).triggerUser(actor)
+                .type(NotificationType.NEW_FOLLOWER).message(" ha comenzado a seguirte.")
+                .createdAt(LocalDateTime.now()).build());
+        entityManager.flush();
+
+        // When
+        int corrected = userRepository.reconcileUnreadNotificationCounts();
+        entityManager.clear();
+
+        // Then
+        assertThat(corrected).isEqualTo(1);
+        assertThat(userRepository.findUnreadNotificationCountById(recipient.getId())).contains(1);
+
+        // When: Leerlo todo
+        notificationRepository.markAllAsReadForUser(recipient.getId());
+        userRepository.resetUnreadNotificationCount(recipient.getId());
+
+        // Then
+        assertThat(userRepository.reconcileUnreadNotificationCounts()).isZero();
+    }
+
+    @Test
+    @DisplayName("findByUserAfter: Debería paginar por (createdAt, id) descendente desde el cursor")
+    void findByUserAfter_ShouldPageByKeyset() {
+        // Given
+        LocalDateTime base = LocalDateTime.now().withNano(0);
+        NotificationClass oldest = persistNotification(recipient, base.minusMinutes(2), false);
+        NotificationClass tieLow = persistNotification(recipient, base, false);
+        NotificationClass tieHigh = persistNotification(recipient, base, true);
+        persistNotification(actor, base.plusMinutes(1), false);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<NotificationClass> first = notificationRepository.findByUserAfter(recipient.getId(), null, null, PageRequest.of(0, 2));
+        NotificationClass last = first.get(first.size() - 1);
+        List<NotificationClass> second = notificationRepository.findByUserAfter(recipient.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(first).extracting(NotificationClass::getId).containsExactly(tieHigh.getId(), tieLow.getId());
+        assertThat(second).extracting(NotificationClass::getId).containsExactly(oldest.getId());
+    }
+
+    @Test
+    @DisplayName("findReadIdsCreatedBefore/deleteByIdIn: Debería borrar solo las leídas anteriores al corte")
+    void purgeReadBefore_ShouldKeepUnreadAndRecent() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        NotificationClass oldRead = persistNotification(recipient, now.minusDays(100), true);
+        NotificationClass oldUnread = persistNotification(recipient, now.minusDays(100), false);
+        NotificationClass recentRead = persistNotification(recipient, now.minusDays(1), true);
+        entityManager.flush();
+
+        // When
+        List<Long> ids = notificationRepository.findReadIdsCreatedBefore(now.minusDays(90), PageRequest.of(0, 10));
+        int deleted = notificationRepository.deleteByIdIn(ids);
+        entityManager.clear();
+
+        // Then
+        assertThat(ids).containsExactly(oldRead.getId());
+        assertThat(deleted).isEqualTo(1);
+        assertThat(notificationRepository.findAllById(List.of(oldRead.getId(), oldUnread.getId(), recentRead.getId())))
+                .extracting(NotificationClass::getId)
+                .containsExactlyInAnyOrder(oldUnread.getId(), recentRead.getId());
+    }
+
+    private NotificationClass persistNotification(User owner, LocalDateTime createdAt, boolean read) {
+        NotificationClass notification = NotificationClass.builder()
+                .user(owner).triggerUser(actor).thread(thread)
+                .type(NotificationType.NEW_LIKE).message(" le ha gustado tu hilo.")
+                .isRead(read).createdAt(createdAt).build();
+        entityManager.persist(notification);
+        return notification;
+    }
+
+    private User createUser(String username, String email) {
+        User user = User.builder()
+                .username(username)
+                .email(email)
+                .password("pass")
+                .displayName(username)
+                .role(UserRole.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+}
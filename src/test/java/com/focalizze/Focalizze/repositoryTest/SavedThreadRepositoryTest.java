@@ -1,4 +1,5 @@
 package com.focalizze.Focalizze.repositoryTest;
+import com.focalizze.Focalizze.dto.EngagementPairDto;
 import com.focalizze.Focalizze.models.*;
 import com.focalizze.Focalizze.repository.SavedThreadRepository;
 import jakarta.persistence.EntityManager;
@@ -158,6 +159,24 @@ public class SavedThreadRepositoryTest {
         assertThat(page.getContent().get(0).getThread().getUser()).isNotNull();
     }
 
+    @Test
+    @DisplayName("findEngagementPairsSince: Debería omitir hilos borrados")
+    void findEngagementPairsSince_ShouldSkipDeletedThreads() {
+        // Given
+        saveThread(currentUser, thread1);
+        saveThread(currentUser, thread2);
+        thread2.setDeleted(true);
+        entityManager.flush();
+
+        // When
+        List<EngagementPairDto> result = savedThreadRepository.findEngagementPairsSince(
+                LocalDateTime.now().minusDays(1), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result).extracting(EngagementPairDto::threadId).containsExactly(thread1.getId());
+        assertThat(result.get(0).userId()).isEqualTo(currentUser.getId());
+    }
+
     // --- Helpers ---
 
     private User createUser(String username, String email) {
@@ -0,0 +1,163 @@
+package com.focalizze.Focalizze.repositoryTest;
+
+import com.focalizze.Focalizze.dto.FeedThreadDto;
+import com.focalizze.Focalizze.dto.mappers.FeedMapper;
+import com.focalizze.Focalizze.models.*;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+import com.focalizze.Focalizze.utils.ThreadEnricher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ThreadEnricher.class, FeedMapper.class})
+public class ThreadEnricherQueryBudgetTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private ThreadEnricher threadEnricher;
+
+    @Autowired
+    private ThreadRepository threadRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private RelationshipCacheService relationshipCacheService;
+
+    private User viewer;
+    private User followedAuthor;
+    private final List<Long> threadIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        viewer = createUser("viewer", "viewer@test.com");
+        followedAuthor = createUser("followed", "followed@test.com");
+        User otherAuthor = createUser("other", "other@test.com");
+
+        CategoryClass category = new CategoryClass();
+        category.setName("General");
+        category.setDescription("Desc");
+        entityManager.persist(category);
+
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User author = (i % 2 == 0) ? followedAuthor : otherAuthor;
+            ThreadClass thread = createThread(author, category, base.minusMinutes(i));
+            threadIds.add(thread.getId());
+        }
+
+        // El espectador da like al primer hilo y guarda el segundo
+        entityManager.persist(Like.builder().user(viewer).thread(entityManager.find(ThreadClass.class, threadIds.get(0)))
+                .createdAt(LocalDateTime.now()).build());
+        entityManager.persist(SavedThreads.builder().user(viewer).thread(entityManager.find(ThreadClass.class, threadIds.get(1)))
+                .createdAt(LocalDateTime.now()).build());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        given(relationshipCacheService.getSnapshot(viewer.getId())).willReturn(new RelationshipSnapshot(
+                LongIdSet.of(Set.of(followedAuthor.getId())), LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+    }
+
+    @Test
+    @DisplayName("enrichList: Debería enriquecer una página completa dentro del presupuesto de consultas")
+    void enrichList_ShouldStayWithinQueryBudget() {
+        // Given: La página ya cargada (autor y categoría con JOIN FETCH)
+        List<ThreadClass> page = threadRepository.findPublishedByIdsWithDetails(threadIds);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<FeedThreadDto> result = threadEnricher.enrichList(page, viewer);
+
+        // Then
+        assertThat(statistics.isStatisticsEnabled()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(ThreadEnricher.QUERY_BUDGET_PER_PAGE);
+        assertThat(result).hasSize(PAGE_SIZE);
+        assertThat(result).allSatisfy(dto -> {
+            assertThat(dto.posts()).hasSize(2);
+            assertThat(dto.images()).hasSize(1);
+        });
+    }
+
+    @Test
+    @DisplayName("enrichList: Debería calcular las banderas del espectador correctamente")
+    void enrichList_ShouldResolveViewerFlags() {
+        // Given
+        List<ThreadClass> page = threadRepository.findPublishedByIdsWithDetails(threadIds);
+
+        // When
+        List<FeedThreadDto> result = threadEnricher.enrichList(page, viewer);
+
+        // Then
+        for (FeedThreadDto dto : result) {
+            assertThat(dto.isLiked()).isEqualTo(dto.id().equals(threadIds.get(0)));
+            assertThat(dto.isSaved()).isEqualTo(dto.id().equals(threadIds.get(1)));
+            assertThat(dto.user().isFollowing()).isEqualTo(dto.user().id().equals(followedAuthor.getId()));
+        }
+    }
+
+    // --- Helpers ---
+    private User createUser(String username, String email) {
+        User user = User.builder()
+                .username(username)
+                .email(email)
+                .password("pass")
+                .displayName(username)
+                .role(UserRole.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    private ThreadClass createThread(User author, CategoryClass category, LocalDateTime publishedAt) {
+        ThreadClass thread = new ThreadClass();
+        thread.setUser(author);
+        thread.setCategory(category);
+        thread.setCreatedAt(publishedAt);
+        thread.setPublishedAt(publishedAt);
+        thread.setPublished(true);
+        thread.setDeleted(false);
+        entityManager.persist(thread);
+
+        for (int position = 1; position <= 2; position++) {
+            entityManager.persist(Post.builder()
+                    .thread(thread)
+                    .content("Post " + position)
+                    .position(position)
+                    .createdAt(publishedAt)
+                    .build());
+        }
+        entityManager.persist(ThreadImage.builder().thread(thread).imageUrl("img-" + publishedAt).build());
+        return thread;
+    }
+}
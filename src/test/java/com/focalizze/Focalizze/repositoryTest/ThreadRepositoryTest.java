@@ -0,0 +1,238 @@
+package com.focalizze.Focalizze.repositoryTest;
+
+import com.focalizze.Focalizze.dto.ThreadEngagementDto;
+import com.focalizze.Focalizze.models.CategoryClass;
+import com.focalizze.Focalizze.models.HiddenContent;
+import com.focalizze.Focalizze.models.Post;
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.models.UserRole;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+public class ThreadRepositoryTest {
+    @Autowired
+    private ThreadRepository threadRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User viewer;
+    private User author;
+    private ThreadClass oldest;
+    private ThreadClass tiedLow;
+    private ThreadClass tiedHigh;
+    private ThreadClass newest;
+
+    @BeforeEach
+    void setUp() {
+        viewer = createUser("viewer", "viewer@test.com");
+        author = createUser("author", "author@test.com");
+
+        CategoryClass category = new CategoryClass();
+        category.setName("General");
+        category.setDescription("Desc");
+        entityManager.persist(category);
+
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        oldest = createThread(author, category, base.minusHours(2));
+        // Dos hilos con la misma fecha: el desempate es el ID
+        tiedLow = createThread(author, category, base.minusHours(1));
+        tiedHigh = createThread(author, category, base.minusHours(1));
+        newest = createThread(author, category, base);
+
+        entityManager.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findFollowingFeedAfter: Debería paginar por (publishedAt, id) sin saltar ni repetir hilos empatados")
+    void findFollowingFeedAfter_WalksAllPagesInOrder() {
+        // Given
+        List<Long> followed = List.of(author.getId());
+        List<Long> noCategories = List.of(-1L);
+        Set<Long> noBlocks = Set.of(-1L);
+
+        // When
+        List<ThreadClass> first = threadRepository.findFollowingFeedAfter(
+                followed, noCategories, viewer.getId(), noBlocks, null, null, PageRequest.of(0, 2));
+        ThreadClass last = first.get(first.size() - 1);
+        List<ThreadClass> second = threadRepository.findFollowingFeedAfter(
+                followed, noCategories, viewer.getId(), noBlocks, last.getPublishedAt(), last.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(first).extracting(ThreadClass::getId).containsExactly(newest.getId(), tiedHigh.getId());
+        assertThat(second).extracting(ThreadClass::getId).containsExactly(tiedLow.getId(), oldest.getId());
+    }
+
+    @Test
+    @DisplayName("findThreadsForDiscoverAfter: Debería excluir al propio usuario y continuar tras el cursor")
+    void findThreadsForDiscoverAfter_ContinuesAfterCursor() {
+        // When
+        List<ThreadClass> result = threadRepository.findThreadsForDiscoverAfter(
+                viewer.getId(), List.of(-1L), Set.of(-1L),
+                newest.getPublishedAt(), newest.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result).extracting(ThreadClass::getId)
+                .containsExactly(tiedHigh.getId(), tiedLow.getId(), oldest.getId());
+    }
+
+    @Test
+    @DisplayName("findThreadsForDiscover: Debería excluir los hilos ocultos por el espectador con un anti-join")
+    void findThreadsForDiscover_ExcludesHiddenThreads() {
+        // Given: El espectador ocultó un hilo; otro usuario ocultó otro que el espectador sí debe ver
+        User other = createUser("other", "other@test.com");
+        entityManager.persist(HiddenContent.builder().user(viewer).thread(newest).reasonType("NOT_INTERESTED").build());
+        entityManager.persist(HiddenContent.builder().user(other).thread(oldest).reasonType("NOT_INTERESTED").build());
+        entityManager.flush();
+
+        // When
+        Page<ThreadClass> page = threadRepository.findThreadsForDiscover(
+                viewer.getId(), List.of(-1L), Set.of(-1L), PageRequest.of(0, 10));
+        List<ThreadClass> afterCursor = threadRepository.findThreadsForDiscoverAfter(
+                viewer.getId(), List.of(-1L), Set.of(-1L), null, null, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(page.getContent()).extracting(ThreadClass::getId)
+                .containsExactlyInAnyOrder(tiedHigh.getId(), tiedLow.getId(), oldest.getId());
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(afterCursor).extracting(ThreadClass::getId)
+                .containsExactly(tiedHigh.getId(), tiedLow.getId(), oldest.getId());
+    }
+
+    @Test
+    @DisplayName("findEngagementSince: Debería proyectar hilos recientes, incluidos los que no tienen categoría")
+    void findEngagementSince_ProjectsRecentThreads() {
+        // Given
+        ThreadClass uncategorized = createThread(author, null, LocalDateTime.of(2025, 1, 1, 13, 0));
+        entityManager.flush();
+
+        // When
+        List<ThreadEngagementDto> result = threadRepository.findEngagementSince(
+                LocalDateTime.of(2025, 1, 1, 11, 30), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result).extracting(ThreadEngagementDto::threadId)
+                .containsExactly(uncategorized.getId(), newest.getId());
+        assertThat(result.get(0).categoryId()).isNull();
+        assertThat(result.get(1).authorId()).isEqualTo(author.getId());
+    }
+
+    @Test
+    @DisplayName("findByCategoryAfter: Debería excluir autores bloqueados en la consulta y continuar tras el cursor")
+    void findByCategoryAfter_ExcludesBlockedAndContinuesAfterCursor() {
+        // Given: Un autor bloqueado publica en la misma categoría
+        User blocked = createUser("blocked", "blocked@test.com");
+        ThreadClass blockedThread = createThread(blocked, newest.getCategory(), LocalDateTime.of(2025, 1, 1, 11, 30));
+        entityManager.flush();
+        Long categoryId = newest.getCategory().getId();
+
+        // When
+        List<ThreadClass> first = threadRepository.findByCategoryAfter(
+                categoryId, Set.of(blocked.getId()), null, null, PageRequest.of(0, 2));
+        List<ThreadClass> unblocked = threadRepository.findByCategoryAfter(
+                categoryId, Set.of(-1L), newest.getPublishedAt(), newest.getId(), PageRequest.of(0, 1));
+
+        // Then
+        assertThat(first).extracting(ThreadClass::getId).containsExactly(newest.getId(), tiedHigh.getId());
+        assertThat(unblocked).extracting(ThreadClass::getId).containsExactly(blockedThread.getId());
+    }
+
+    @Test
+    @DisplayName("findByHashtagAfter: Debería listar solo los hilos con la etiqueta, por keyset y sin bloqueados")
+    void findByHashtagAfter_FiltersByTagAndContinuesAfterCursor() {
+        // Given: Tres hilos etiquetados, uno de un autor bloqueado
+        User blocked = createUser("blocked", "blocked@test.com");
+        ThreadClass blockedThread = createThread(blocked, newest.getCategory(), LocalDateTime.of(2025, 1, 1, 11, 30));
+        blockedThread.getHashtags().add("java");
+        newest.getHashtags().add("java");
+        tiedHigh.getHashtags().addAll(Set.of("java", "spring"));
+        oldest.getHashtags().add("spring");
+        entityManager.flush();
+        Set<Long> blockedIds = Set.of(blocked.getId());
+
+        // When
+        List<ThreadClass> first = threadRepository.findByHashtagAfter("java", blockedIds, null, null, PageRequest.of(0, 1));
+        List<ThreadClass> next = threadRepository.findByHashtagAfter(
+                "java", blockedIds, newest.getPublishedAt(), newest.getId(), PageRequest.of(0, 5));
+
+        // Then
+        assertThat(first).extracting(ThreadClass::getId).containsExactly(newest.getId());
+        assertThat(next).extracting(ThreadClass::getId).containsExactly(tiedHigh.getId());
+    }
+
+    @Test
+    @DisplayName("findIdsWithoutHashtagsAfter + insertHashtags: Debería rellenar solo los hilos sin etiquetas que mencionan #")
+    void backfillQueries_ShouldFindAndTagUntaggedThreads() {
+        // Given: Un hilo sin etiquetas que menciona #java, uno ya etiquetado y uno sin #
+        createPost(oldest, "Aprendiendo #java");
+        createPost(tiedLow, "Sin etiquetas");
+        createPost(newest, "Ya etiquetado #spring");
+        newest.getHashtags().add("spring");
+        entityManager.flush();
+
+        // When
+        List<Long> ids = threadRepository.findIdsWithoutHashtagsAfter(0L, PageRequest.of(0, 10));
+        threadRepository.insertHashtags(Map.of(oldest.getId(), Set.of("java")));
+        entityManager.clear();
+
+        // Then
+        assertThat(ids).containsExactly(oldest.getId());
+        assertThat(threadRepository.findIdsWithoutHashtagsAfter(0L, PageRequest.of(0, 10))).isEmpty();
+        assertThat(threadRepository.findByHashtagAfter("java", Set.of(-1L), null, null, PageRequest.of(0, 5)))
+                .extracting(ThreadClass::getId).containsExactly(oldest.getId());
+    }
+
+    private void createPost(ThreadClass thread, String content) {
+        entityManager.persist(Post.builder().thread(thread).position(1).content(content).build());
+    }
+
+    private User createUser(String username, String email) {
+        User user = User.builder()
+                .username(username)
+                .email(email)
+                .password("pass")
+                .displayName(username)
+                .role(UserRole.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    private ThreadClass createThread(User author, CategoryClass category, LocalDateTime publishedAt) {
+        ThreadClass thread = new ThreadClass();
+        thread.setUser(author);
+        thread.setCategory(category);
+        thread.setCreatedAt(publishedAt);
+        thread.setPublishedAt(publishedAt);
+        thread.setPublished(true);
+        thread.setDeleted(false);
+        entityManager.persist(thread);
+        return thread;
+    }
+}
@@ -33,6 +33,9 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     // Definimos constantes para evitar errores de tipeo (typos)
     private static final String TEST_USERNAME = "testuser";
     private static final String TEST_EMAIL = "test@example.com";
@@ -112,4 +115,66 @@ class UserRepositoryTest {
         // No debería estar disponible (false)
         assertThat(isAvailable).isFalse();
     }
+
+    // --- CONTADOR DE HILOS PUBLICADOS ---
+
+    @Test
+    @DisplayName("Debería incrementar y decrementar el contador de hilos sin bajar de cero")
+    void publishedThreadCount_IncrementAndDecrement() {
+        Long userId = userRepository.findByUsername(TEST_USERNAME).orElseThrow().getId();
+
+        userRepository.incrementPublishedThreadCount(userId);
+        userRepository.decrementPublishedThreadCount(userId);
+        userRepository.decrementPublishedThreadCount(userId); // Ya está en cero
+        userRepository.incrementPublishedThreadCount(userId);
+        entityManager.clear();
+
+        assertThat(userRepository.findById(userId).orElseThrow().getPublishedThreadCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("No debería sobrescribir el contador al guardar una entidad desactualizada")
+    void publishedThreadCount_ShouldNotBeOverwrittenByEntitySave() {
+        User stale = userRepository.findByUsername(TEST_USERNAME).orElseThrow();
+        userRepository.incrementPublishedThreadCount(stale.getId());
+
+        stale.setDisplayName("Renamed");
+        userRepository.saveAndFlush(stale);
+        entityManager.clear();
+
+        assertThat(userRepository.findById(stale.getId()).orElseThrow().getPublishedThreadCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debería reconciliar el contador con los hilos publicados y no eliminados")
+    void reconcilePublishedThreadCounts_ShouldFixDrift() {
+        User author = userRepository.findByUsername(TEST_USERNAME).orElseThrow();
+        CategoryClass category = new CategoryClass();
+        category.setName("General");
+        category.setDescription("Desc");
+        entityManager.persist(category);
+
+        persistThread(author, category, true, false);
+        persistThread(author, category, true, false);
+        persistThread(author, category, true, true);  // Eliminado: no cuenta
+        persistThread(author, category, false, false); // Programado: no cuenta
+        entityManager.flush();
+
+        int corrected = userRepository.reconcilePublishedThreadCounts();
+        entityManager.clear();
+
+        assertThat(corrected).isEqualTo(1);
+        assertThat(userRepository.findById(author.getId()).orElseThrow().getPublishedThreadCount()).isEqualTo(2);
+        assertThat(userRepository.reconcilePublishedThreadCounts()).isZero();
+    }
+
+    private void persistThread(User author, CategoryClass category, boolean published, boolean deleted) {
+        ThreadClass thread = new ThreadClass();
+        thread.setUser(author);
+        thread.setCategory(category);
+        thread.setPublishedAt(LocalDateTime.now());
+        thread.setPublished(published);
+        thread.setDeleted(deleted);
+        entityManager.persist(thread);
+    }
 }
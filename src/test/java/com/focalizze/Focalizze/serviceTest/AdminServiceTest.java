@@ -4,6 +4,9 @@ import com.focalizze.Focalizze.dto.*;
 import com.focalizze.Focalizze.models.*;
 import com.focalizze.Focalizze.repository.ReportRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.HashtagService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
 import com.focalizze.Focalizze.services.servicesImpl.AdminServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -39,6 +42,12 @@ public class AdminServiceTest {
     private UserRepository userRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private HomeTimelineService homeTimelineService;
+    @Mock
+    private ContentSearchIndexService contentSearchIndexService;
+    @Mock
+    private HashtagService hashtagService;
 
     @InjectMocks
     private AdminServiceImpl adminService;
@@ -147,6 +156,7 @@ public class AdminServiceTest {
     void processThreadReport_Delete_ShouldSoftDeleteThread() {
         // Given
         AdminThreadActionDto request = new AdminThreadActionDto(200L, "DELETE", null, null, null);
+        thread.setPublished(true);
         given(reportRepository.findById(200L)).willReturn(Optional.of(threadReport));
 
         // When
@@ -154,6 +164,8 @@ public class AdminServiceTest {
 
         // Then
         assertThat(thread.isDeleted()).isTrue();
+        verify(userRepository).decrementPublishedThreadCount(3L);
+        verify(contentSearchIndexService).remove(thread.getId());
         assertThat(threadReport.getStatus()).isEqualTo(ReportStatus.ACTION_TAKEN);
         verify(reportRepository).save(threadReport);
     }
@@ -170,6 +182,8 @@ public class AdminServiceTest {
 
         // Then
         assertThat(thread.getPosts().get(0).getContent()).isEqualTo("Clean content");
+        verify(hashtagService).applyHashtags(thread);
+        verify(contentSearchIndexService).index(thread);
         assertThat(threadReport.getStatus()).isEqualTo(ReportStatus.ACTION_TAKEN);
     }
 
@@ -7,6 +7,7 @@ import com.focalizze.Focalizze.exceptions.UserAlreadyExistsException;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.models.UserRole;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
 import com.focalizze.Focalizze.services.servicesImpl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -34,6 +35,8 @@ public class AuthServiceTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private RegisterMapper registerMapper;
+    @Mock
+    private UserSearchIndexService userSearchIndexService;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -79,6 +82,7 @@ public class AuthServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.username()).isEqualTo("newuser");
         verify(userRepository).save(any(User.class));
+        verify(userSearchIndexService).index(savedUser);
     }
 
     @Test
@@ -6,6 +6,9 @@ import com.focalizze.Focalizze.models.UserRole;
 import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.FollowRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.BlockServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +40,12 @@ public class BlockServiceTest {
     private BlockRepository blockRepository;
     @Mock
     private FollowRepository followRepository;
+    @Mock
+    private HomeTimelineService homeTimelineService;
+    @Mock
+    private RelationshipCacheService relationshipCacheService;
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
 
     // Mocks para simular el contexto de seguridad
     @Mock
@@ -112,6 +121,14 @@ public class BlockServiceTest {
 
         verify(userRepository).decrementFollowingCount(targetUser.getId()); // target dejó de seguir
         verify(userRepository).decrementFollowersCount(currentUser.getId()); // currentUser perdió un seguidor
+
+        // 4. Cachés de ambos usuarios invalidadas
+        verify(relationshipCacheService).evict(currentUser.getId());
+        verify(relationshipCacheService).evict(targetUser.getId());
+        verify(recommendationCacheService).invalidate(currentUser.getId());
+        verify(recommendationCacheService).invalidate(targetUser.getId());
+        verify(homeTimelineService).invalidate(currentUser.getId());
+        verify(homeTimelineService).invalidate(targetUser.getId());
     }
 
     // --- TEST: toggleBlock (DESBLOQUEAR) ---
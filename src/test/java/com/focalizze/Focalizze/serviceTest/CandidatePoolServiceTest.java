@@ -0,0 +1,97 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.ThreadEngagementDto;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.servicesImpl.CandidatePoolServiceImpl;
+import com.focalizze.Focalizze.utils.PoolCandidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class CandidatePoolServiceTest {
+
+    @Mock private ThreadRepository threadRepository;
+
+    private CandidatePoolServiceImpl candidatePoolService;
+
+    @BeforeEach
+    void setUp() {
+        // Ventana 7 días, escaneo 100, 2 por categoría, 3 en tendencias
+        candidatePoolService = new CandidatePoolServiceImpl(threadRepository, 7, 100, 2, 3);
+    }
+
+    @Test
+    @DisplayName("refresh: Debería construir pools por categoría ordenados por puntuación y acotados")
+    void refresh_ShouldBuildSortedBoundedCategoryPools() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        given(threadRepository.findEngagementSince(any(LocalDateTime.class), any(Pageable.class))).willReturn(List.of(
+                row(1L, 10L, 5L, 1, now),
+                row(2L, 11L, 5L, 50, now),
+                row(3L, 12L, 5L, 20, now),
+                row(4L, 13L, 6L, 7, now),
+                row(5L, 14L, null, 100, now)
+        ));
+
+        // When
+        candidatePoolService.refresh();
+
+        // Then
+        assertThat(candidatePoolService.getCategoryPool(5L)).extracting(PoolCandidate::threadId).containsExactly(2L, 3L);
+        assertThat(candidatePoolService.getCategoryPool(6L)).extracting(PoolCandidate::threadId).containsExactly(4L);
+        assertThat(candidatePoolService.getCategoryPool(99L)).isEmpty();
+        // Tendencias: global, incluye hilos sin categoría
+        assertThat(candidatePoolService.getTrendingPool()).extracting(PoolCandidate::threadId).containsExactly(5L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("refresh: Debería favorecer hilos recientes con la misma interacción")
+    void refresh_ShouldDecayOlderThreads() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        given(threadRepository.findEngagementSince(any(LocalDateTime.class), any(Pageable.class))).willReturn(List.of(
+                row(1L, 10L, 5L, 10, now.minusDays(5)),
+                row(2L, 11L, 5L, 10, now)
+        ));
+
+        // When
+        candidatePoolService.refresh();
+
+        // Then
+        assertThat(candidatePoolService.getTrendingPool()).extracting(PoolCandidate::threadId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("getTrendingPool: Debería construir los pools bajo demanda una sola vez si aún no se han refrescado")
+    void getTrendingPool_WhenNotRefreshed_ShouldLoadLazilyOnce() {
+        // Given
+        given(threadRepository.findEngagementSince(any(LocalDateTime.class), any(Pageable.class)))
+                .willReturn(List.of(row(1L, 10L, 5L, 3, LocalDateTime.now())));
+
+        // When
+        candidatePoolService.getTrendingPool();
+        List<PoolCandidate> pool = candidatePoolService.getCategoryPool(5L);
+
+        // Then
+        assertThat(pool).hasSize(1);
+        verify(threadRepository, times(1)).findEngagementSince(any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    private ThreadEngagementDto row(Long threadId, Long authorId, Long categoryId, int likes, LocalDateTime publishedAt) {
+        return new ThreadEngagementDto(threadId, authorId, categoryId, likes, 0, 0, publishedAt);
+    }
+}
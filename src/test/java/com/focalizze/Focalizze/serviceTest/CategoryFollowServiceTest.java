@@ -5,6 +5,9 @@ import com.focalizze.Focalizze.models.CategoryFollow;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.CategoryFollowRepository;
 import com.focalizze.Focalizze.repository.CategoryRepository;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.CategoryFollowServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +31,12 @@ public class CategoryFollowServiceTest {
     private CategoryRepository categoryRepository;
     @Mock
     private CategoryFollowRepository categoryFollowRepository;
+    @Mock
+    private HomeTimelineService homeTimelineService;
+    @Mock
+    private RelationshipCacheService relationshipCacheService;
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
 
     @InjectMocks
     private CategoryFollowServiceImpl categoryFollowService;
@@ -0,0 +1,76 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.models.CategoryClass;
+import com.focalizze.Focalizze.repository.CategoryRepository;
+import com.focalizze.Focalizze.services.servicesImpl.CategorySearchIndexServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class CategorySearchIndexServiceTest {
+
+    @Mock private CategoryRepository categoryRepository;
+
+    private CategorySearchIndexServiceImpl categorySearchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        categorySearchIndexService = new CategorySearchIndexServiceImpl(categoryRepository, 2000, 0.85);
+        given(categoryRepository.findAll()).willReturn(List.of(category(1L, "Tecnología"), category(2L, "Arte")));
+    }
+
+    @Test
+    @DisplayName("resolveId: Debería resolver la categoría sin tildes, con mayúsculas o con una errata")
+    void resolveId_ShouldTolerateAccentsAndTypos() {
+        assertThat(categorySearchIndexService.resolveId("tecnologia")).contains(1L);
+        assertThat(categorySearchIndexService.resolveId("TECNOLOGÍA")).contains(1L);
+        assertThat(categorySearchIndexService.resolveId("tecnolgia")).contains(1L);
+        assertThat(categorySearchIndexService.resolveId("arte")).contains(2L);
+
+        // El índice se carga una sola vez
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("resolveId: No debería confundir palabras corrientes o textos largos con una categoría")
+    void resolveId_ShouldNotMatchOrdinaryWords() {
+        assertThat(categorySearchIndexService.resolveId("parte")).isEmpty();
+        assertThat(categorySearchIndexService.resolveId("arte moderno")).isEmpty();
+        assertThat(categorySearchIndexService.resolveId("  ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rebuild: Debería aplicar categorías renombradas y eliminadas")
+    void rebuild_ShouldApplyRenamesAndRemovals() {
+        // Given
+        assertThat(categorySearchIndexService.resolveId("arte")).contains(2L);
+        given(categoryRepository.findAll()).willReturn(List.of(category(1L, "Ciencia")));
+
+        // When
+        categorySearchIndexService.rebuild();
+
+        // Then
+        assertThat(categorySearchIndexService.resolveId("ciencia")).contains(1L);
+        assertThat(categorySearchIndexService.resolveId("tecnologia")).isEqualTo(Optional.empty());
+        assertThat(categorySearchIndexService.resolveId("arte")).isEmpty();
+    }
+
+    private CategoryClass category(Long id, String name) {
+        CategoryClass category = new CategoryClass();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+}
@@ -6,11 +6,11 @@ import com.focalizze.Focalizze.models.CategoryClass;
 import com.focalizze.Focalizze.models.CategoryFollow;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.CategoryRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.CategoryServiceImpl;
+import com.focalizze.Focalizze.utils.LongIdSet;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.focalizze.Focalizze.serviceTest.RelationshipFixtures.relations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,10 +45,9 @@ import static org.mockito.Mockito.*;
 public class CategoryServiceTest {
 
     @Mock private CategoryRepository categoryRepository;
-    @Mock private UserRepository userRepository;
     @Mock private ThreadRepository threadRepository;
     @Mock private ThreadEnricher threadEnricher;
-    @Mock private BlockRepository blockRepository;
+    @Mock private RelationshipCacheService relationshipCacheService;
 
     // Mocks de Seguridad
     @Mock private SecurityContext securityContext;
@@ -76,12 +76,9 @@ public class CategoryServiceTest {
     @DisplayName("getAllCategories: Should identify followed categories if user is logged in")
     void getAllCategories_LoggedIn_ShouldMarkFollowed() {
         // Given
-        CategoryFollow cf = CategoryFollow.builder().category(category1).user(currentUser).build();
-        currentUser.getFollowedCategories().add(cf);
-
         given(securityContext.getAuthentication()).willReturn(authentication);
         given(authentication.getPrincipal()).willReturn(currentUser);
-        given(userRepository.findById(1L)).willReturn(Optional.of(currentUser));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.of(Set.of(10L)), LongIdSet.empty()));
         given(categoryRepository.findAll()).willReturn(List.of(category1, category2));
 
         // When
@@ -159,8 +156,7 @@ public class CategoryServiceTest {
         given(authentication.getPrincipal()).willReturn(currentUser);
 
         // Simular Bloqueos
-        given(blockRepository.findBlockedUserIdsByBlocker(currentUser.getId())).willReturn(Set.of(99L));
-        given(blockRepository.findUserIdsWhoBlockedUser(currentUser.getId())).willReturn(Collections.emptySet());
+        given(relationshipCacheService.getSnapshot(currentUser.getId())).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(99L))));
 
         // When
         categoryService.getThreadsByCategory("Tech", Pageable.unpaged());
@@ -6,13 +6,13 @@ import com.focalizze.Focalizze.models.CommentClass;
 import com.focalizze.Focalizze.models.InteractionType;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.CommentRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.InteractionLimitService;
 import com.focalizze.Focalizze.services.NotificationService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.CommentServiceImpl;
+import com.focalizze.Focalizze.utils.LongIdSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,6 +31,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static com.focalizze.Focalizze.serviceTest.RelationshipFixtures.relations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,8 +46,7 @@ public class CommentServiceTest {
     @Mock private CommentMapper commentMapper;
     @Mock private InteractionLimitService interactionLimitService;
     @Mock private NotificationService notificationService;
-    @Mock private BlockRepository blockRepository;
-    @Mock private UserRepository userRepository;
+    @Mock private RelationshipCacheService relationshipCacheService;
     @Mock private UserMapper userMapper;
 
     // Mocks para seguridad
@@ -95,8 +95,7 @@ public class CommentServiceTest {
         given(threadRepository.findById(10L)).willReturn(Optional.of(thread));
 
         // Simulamos que NO hay bloqueos
-        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Collections.emptySet());
-        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Collections.emptySet());
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
 
         Page<CommentClass> page = new PageImpl<>(List.of(comment));
 
@@ -128,8 +127,7 @@ public class CommentServiceTest {
         given(threadRepository.findById(10L)).willReturn(Optional.of(thread));
 
         // Simulamos bloqueos
-        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Set.of(5L));
-        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Set.of(6L));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(5L, 6L))));
 
         given(commentRepository.findActiveRootCommentsByThreadAndFilterBlocked(any(), any(), any()))
                 .willReturn(Page.empty());
@@ -155,7 +153,7 @@ public class CommentServiceTest {
         CommentRequestDto request = new CommentRequestDto("Hola");
         given(threadRepository.findById(10L)).willReturn(Optional.of(thread));
         // No hay bloqueo entre currentUser y threadAuthor (otherUser)
-        given(blockRepository.existsByBlockerAndBlocked(any(), any())).willReturn(false);
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
         given(commentRepository.save(any(CommentClass.class))).willReturn(comment);
 
         // When
@@ -175,7 +173,7 @@ public class CommentServiceTest {
         CommentRequestDto request = new CommentRequestDto("Hola");
         given(threadRepository.findById(10L)).willReturn(Optional.of(thread));
         // Simulamos bloqueo
-        given(blockRepository.existsByBlockerAndBlocked(currentUser, otherUser)).willReturn(true);
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(otherUser.getId()))));
 
         // When & Then
         assertThrows(AccessDeniedException.class, () ->
@@ -0,0 +1,242 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.PostIndexRowDto;
+import com.focalizze.Focalizze.models.CategoryClass;
+import com.focalizze.Focalizze.models.Post;
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.SearchResultCacheService;
+import com.focalizze.Focalizze.services.servicesImpl.ContentSearchIndexServiceImpl;
+import com.focalizze.Focalizze.utils.ContentSearchFilter;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.ThreadSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ContentSearchIndexServiceTest {
+
+    @Mock private ThreadRepository threadRepository;
+    @Mock private SearchResultCacheService searchResultCacheService;
+
+    private ContentSearchIndexServiceImpl contentSearchIndexService;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        // Lotes de 2 hilos para recorrer varias páginas keyset
+        contentSearchIndexService = new ContentSearchIndexServiceImpl(threadRepository, searchResultCacheService, 2);
+
+        given(threadRepository.findVisibleIdsAfter(eq(0L), any(Pageable.class))).willReturn(List.of(1L, 2L));
+        given(threadRepository.findVisibleIdsAfter(eq(2L), any(Pageable.class))).willReturn(List.of(3L));
+        List<PostIndexRowDto> firstBatch = new ArrayList<>();
+        firstBatch.add(row(1L, 10L, 100L, now.minusDays(3), 1, "Aprendiendo Java con Spring Boot"));
+        firstBatch.add(row(1L, 10L, 100L, now.minusDays(3), 2, "Java, Java y más Java"));
+        firstBatch.add(row(2L, 20L, 200L, now.minusDays(1), 1, "Boot camp de cocina"));
+        firstBatch.add(row(2L, 20L, 200L, now.minusDays(1), 2, "Receta de pasta con Java de café"));
+        given(threadRepository.findPostIndexRows(List.of(1L, 2L))).willReturn(firstBatch);
+        given(threadRepository.findPostIndexRows(List.of(3L))).willReturn(List.of(
+                row(3L, 10L, 100L, now, 1, "Spring Boot en producción")));
+    }
+
+    @Test
+    @DisplayName("search: Debería construir el índice en el primer uso y ordenar por relevancia BM25")
+    void search_ShouldBuildLazilyAndRankByRelevance() {
+        // When
+        List<ThreadSearchIndex.Hit> hits = contentSearchIndexService.search("java", ContentSearchFilter.NONE, 10);
+
+        // Then: El hilo 1 menciona Java muchas más veces que el 2
+        assertThat(hits).extracting(ThreadSearchIndex.Hit::threadId).containsExactly(1L, 2L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("search: Debería exigir todos los términos, ignorar tildes y casar frases por posición")
+    void search_ShouldRequireAllTermsAndMatchPhrases() {
+        assertThat(ids("spring boot ")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids("produccion ")).containsExactly(3L);
+        // "boot camp" solo aparece junto en el hilo 2
+        assertThat(ids("\"boot camp\"")).containsExactly(2L);
+        // Una frase no cruza posts: "Boot" termina el post 1 y "Java" empieza el 2 en el hilo 1
+        assertThat(ids("\"boot java\"")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search: Debería expandir como prefijo la última palabra mientras se escribe")
+    void search_LastWord_ShouldMatchAsPrefix() {
+        assertThat(ids("produc")).containsExactly(3L);
+        assertThat(ids("produc ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search: Debería aplicar los filtros de categoría, autor y fecha")
+    void search_ShouldApplyFilters() {
+        assertThat(ids("boot ", new ContentSearchFilter(200L, null, null, null))).containsExactly(2L);
+        assertThat(ids("boot ", new ContentSearchFilter(null, 10L, null, null))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids("boot ", new ContentSearchFilter(null, null, now.minusDays(2), now.minusHours(1)))).containsExactly(2L);
+        assertThat(ids("boot ", ContentSearchFilter.NONE.excludingAuthors(LongIdSet.of(Set.of(10L))))).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("search: Debería paginar por keyset a partir del último resultado")
+    void search_AfterHit_ShouldReturnNextPage() {
+        // Given: Primera página de 2 de los 3 hilos con "boot"
+        List<ThreadSearchIndex.Hit> first = contentSearchIndexService.search("boot ", ContentSearchFilter.NONE, null, 2);
+
+        // When
+        List<ThreadSearchIndex.Hit> second = contentSearchIndexService.search("boot ", ContentSearchFilter.NONE, first.get(1), 2);
+
+        // Then: Sin repetidos y cubriendo los 3
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(1);
+        List<Long> all = new ArrayList<>(first.stream().map(ThreadSearchIndex.Hit::threadId).toList());
+        all.add(second.get(0).threadId());
+        assertThat(all).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("index/remove: Debería actualizar el índice de forma incremental")
+    void indexAndRemove_ShouldUpdateIncrementally() {
+        // Given: El índice ya está construido
+        assertThat(ids("kotlin ")).isEmpty();
+
+        // When: Se edita el hilo 3 y se borra el 1
+        ThreadClass edited = ThreadClass.builder()
+                .id(3L)
+                .isPublished(true)
+                .publishedAt(now)
+                .user(User.builder().id(10L).build())
+                .category(category(100L))
+                .posts(List.of(
+                        Post.builder().position(2).content("y corrutinas").build(),
+                        Post.builder().position(1).content("Migrando a Kotlin").build()))
+                .build();
+        contentSearchIndexService.index(edited);
+        contentSearchIndexService.remove(1L);
+
+        // Then
+        assertThat(ids("\"migrando a kotlin\" corrutinas ")).containsExactly(3L);
+        assertThat(ids("produccion ")).isEmpty();
+        assertThat(ids("java ")).containsExactly(2L);
+        // Las búsquedas cacheadas afectadas se descartan
+        verify(searchResultCacheService).invalidateThread(3L, 100L, List.of("Migrando a Kotlin", "y corrutinas"));
+        verify(searchResultCacheService).invalidateThread(1L);
+    }
+
+    @Test
+    @DisplayName("index/remove: Un rollback no debería alterar el índice; un commit sí")
+    void indexAndRemove_InsideTransaction_AppliedOnlyAfterCommit() {
+        // Given: El índice ya está construido
+        assertThat(ids("java ")).containsExactlyInAnyOrder(1L, 2L);
+        ThreadClass created = ThreadClass.builder()
+                .id(4L)
+                .isPublished(true)
+                .publishedAt(now)
+                .user(User.builder().id(10L).build())
+                .posts(List.of(Post.builder().position(1).content("Hilo sobre Kotlin").build()))
+                .build();
+
+        // When: Crear el hilo 4 y borrar el 1 en una transacción que hace rollback
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            contentSearchIndexService.index(created);
+            contentSearchIndexService.remove(1L);
+            // Nada cambia antes de que termine la transacción
+            assertThat(ids("kotlin ")).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then: Ni hilo fantasma ni hilo vivo perdido
+        assertThat(ids("kotlin ")).isEmpty();
+        assertThat(ids("java ")).containsExactlyInAnyOrder(1L, 2L);
+
+        // When: Lo mismo con commit
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            contentSearchIndexService.index(created);
+            contentSearchIndexService.remove(1L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(ids("kotlin ")).containsExactly(4L);
+        assertThat(ids("java ")).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("index: Debería quitar del índice un hilo borrado")
+    void index_DeletedThread_ShouldRemove() {
+        // Given
+        assertThat(ids("cocina ")).containsExactly(2L);
+        ThreadClass deleted = ThreadClass.builder().id(2L).isPublished(true).isDeleted(true).build();
+
+        // When
+        contentSearchIndexService.index(deleted);
+
+        // Then
+        assertThat(ids("cocina ")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rebuild: Debería recargar todo desde la BD")
+    void rebuild_ShouldReloadFromDatabase() {
+        // Given
+        assertThat(ids("java ")).hasSize(2);
+        given(threadRepository.findVisibleIdsAfter(eq(0L), any(Pageable.class))).willReturn(List.of(2L));
+        given(threadRepository.findPostIndexRows(anyList())).willReturn(List.of(
+                row(2L, 20L, 200L, now, 1, "Solo cocina")));
+
+        // When
+        contentSearchIndexService.rebuild();
+
+        // Then
+        assertThat(ids("java ")).isEmpty();
+        assertThat(ids("cocina ")).containsExactly(2L);
+        verify(searchResultCacheService, times(2)).invalidateAll();
+    }
+
+    private List<Long> ids(String query) {
+        return ids(query, ContentSearchFilter.NONE);
+    }
+
+    private List<Long> ids(String query, ContentSearchFilter filter) {
+        return contentSearchIndexService.search(query, filter, 10).stream().map(ThreadSearchIndex.Hit::threadId).toList();
+    }
+
+    private CategoryClass category(Long id) {
+        CategoryClass category = new CategoryClass();
+        category.setId(id);
+        return category;
+    }
+
+    private PostIndexRowDto row(Long threadId, Long authorId, Long categoryId, LocalDateTime publishedAt, int position, String content) {
+        return new PostIndexRowDto(threadId, authorId, categoryId, publishedAt, position, content);
+    }
+}
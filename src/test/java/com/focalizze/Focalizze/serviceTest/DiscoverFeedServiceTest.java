@@ -1,12 +1,18 @@
 package com.focalizze.Focalizze.serviceTest;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.DiscoverItemDto;
 import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
 import com.focalizze.Focalizze.services.RecommendationService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.services.SeenItemsService;
 import com.focalizze.Focalizze.services.servicesImpl.DiscoverFeedServiceImpl;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.SeenFilter;
+import com.focalizze.Focalizze.utils.FeedCursor;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,14 +23,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 
+import static com.focalizze.Focalizze.serviceTest.RelationshipFixtures.relations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,28 +44,29 @@ public class DiscoverFeedServiceTest {
     @Mock private ThreadRepository threadRepository;
     @Mock private RecommendationService recommendationService;
     @Mock private ThreadEnricher threadEnricher;
-    @Mock private UserRepository userRepository;
+    @Mock private RelationshipCacheService relationshipCacheService;
+    @Mock private RecommendationCacheService recommendationCacheService;
+    @Mock private SeenItemsService seenItemsService;
 
     @InjectMocks
     private DiscoverFeedServiceImpl discoverFeedService;
 
     private User currentUser;
+    private SeenFilter seen;
 
     @BeforeEach
     void setUp() {
         currentUser = User.builder().id(1L).username("user").following(new ArrayList<>()).build();
+        seen = new SeenFilter(100, 0.01);
+        given(seenItemsService.getFilter(eq(1L), anyBoolean())).willReturn(seen);
     }
 
     @Test
     @DisplayName("getDiscoverFeed: Debería mezclar hilos normales con recomendaciones")
     void getDiscoverFeed_ShouldMixContent() {
         // Given
-        // 1. Mock de User y Follows
-        given(userRepository.findByIdWithFollows(1L)).willReturn(Optional.of(currentUser));
-
-        // 2. Mock de Bloqueos (Vacíos)
-        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Collections.emptySet());
-        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Collections.emptySet());
+        // 1-2. Relaciones cacheadas (sin seguidos ni bloqueos)
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
 
         // 3. Mock de Hilos Normales (Simulamos 6 hilos normales)
         List<ThreadClass> threads = createThreads(6);
@@ -69,7 +82,7 @@ public class DiscoverFeedServiceTest {
 
         // 4. Mock de Recomendaciones (Simulamos 3 recomendaciones)
         List<DiscoverItemDto> recommendations = createRecommendationDtos(3);
-        given(recommendationService.getRecommendations(eq(currentUser), anyInt())).willReturn(recommendations);
+        given(recommendationCacheService.getRanked(eq(1L), any())).willReturn(recommendations);
 
         // When
         Page<DiscoverItemDto> result = discoverFeedService.getDiscoverFeed(currentUser, Pageable.unpaged());
@@ -96,9 +109,7 @@ public class DiscoverFeedServiceTest {
     @DisplayName("getDiscoverFeed: Debería manejar lista de recomendaciones vacía")
     void getDiscoverFeed_NoRecommendations_ShouldReturnOnlyNormal() {
         // Given
-        given(userRepository.findByIdWithFollows(1L)).willReturn(Optional.of(currentUser));
-        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Collections.emptySet());
-        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Collections.emptySet());
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
 
         List<ThreadClass> threads = createThreads(5);
         Page<ThreadClass> page = new PageImpl<>(threads);
@@ -108,7 +119,7 @@ public class DiscoverFeedServiceTest {
         given(threadEnricher.enrichList(anyList(), any())).willReturn(dtos);
 
         // Mock: Recomendaciones vacías
-        given(recommendationService.getRecommendations(any(), anyInt())).willReturn(Collections.emptyList());
+        given(recommendationCacheService.getRanked(eq(1L), any())).willReturn(Collections.emptyList());
 
         // When
         Page<DiscoverItemDto> result = discoverFeedService.getDiscoverFeed(currentUser, Pageable.unpaged());
@@ -118,11 +129,145 @@ public class DiscoverFeedServiceTest {
         assertThat(result.getContent()).allMatch(item -> !item.isRecommended());
     }
 
+    @Test
+    @DisplayName("getDiscoverFeed: La página siguiente debería continuar el ranking cacheado")
+    void getDiscoverFeed_NextPage_ShouldContinueCachedRanking() {
+        // Given: Páginas de 6 hilos -> 2 recomendaciones por página
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        given(threadRepository.findThreadsForDiscover(anyLong(), anyList(), anySet(), any())).willReturn(new PageImpl<>(createThreads(6)));
+        given(threadEnricher.enrichList(anyList(), any())).willReturn(createThreadDtos(6));
+
+        List<DiscoverItemDto> ranked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ranked.add(recommendation(100L + i, "Reason " + i));
+        }
+        given(recommendationCacheService.getRanked(eq(1L), any())).willReturn(ranked);
+
+        // When
+        Page<DiscoverItemDto> result = discoverFeedService.getDiscoverFeed(currentUser, PageRequest.of(1, 6));
+
+        // Then: Se usan las recomendaciones 2 y 3, no las de la primera página
+        assertThat(result.getContent()).filteredOn(DiscoverItemDto::isRecommended)
+                .extracting(DiscoverItemDto::recommendationReason)
+                .containsExactly("Reason 2", "Reason 3");
+        verify(recommendationService, never()).getRecommendations(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("getDiscoverFeed: Si la caché falla debería calcular el ranking completo una vez")
+    void getDiscoverFeed_CacheMiss_ShouldLoadFullRanking() {
+        // Given
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        given(threadRepository.findThreadsForDiscover(anyLong(), anyList(), anySet(), any())).willReturn(new PageImpl<>(createThreads(3)));
+        given(threadEnricher.enrichList(anyList(), any())).willReturn(createThreadDtos(3));
+        given(recommendationCacheService.getCapacity()).willReturn(60);
+        given(recommendationCacheService.getRanked(eq(1L), any())).willAnswer(invocation ->
+                invocation.<Supplier<List<DiscoverItemDto>>>getArgument(1).get());
+        given(recommendationService.getRecommendations(currentUser, 60)).willReturn(createRecommendationDtos(1));
+
+        // When
+        Page<DiscoverItemDto> result = discoverFeedService.getDiscoverFeed(currentUser, PageRequest.of(0, 3));
+
+        // Then
+        assertThat(result.getContent()).hasSize(4);
+        verify(recommendationService).getRecommendations(currentUser, 60);
+    }
+
+    @Test
+    @DisplayName("getDiscoverFeed: Las recomendaciones no deberían repetir hilos ya mostrados; los orgánicos no se filtran")
+    void getDiscoverFeed_ShouldSkipThreadsAlreadyShown() {
+        // Given: El hilo 0 y la recomendación 100 ya se mostraron; la recomendación 101 es también orgánica en esta página
+        seen.add(0L);
+        seen.add(100L);
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        given(threadRepository.findThreadsForDiscover(anyLong(), anyList(), anySet(), any())).willReturn(new PageImpl<>(List.of(
+                ThreadClass.builder().id(0L).build(), ThreadClass.builder().id(1L).build(),
+                ThreadClass.builder().id(2L).build(), ThreadClass.builder().id(101L).build())));
+        given(threadEnricher.enrichList(anyList(), any())).willReturn(createThreadDtos(4));
+        given(recommendationCacheService.getRanked(eq(1L), any())).willReturn(List.of(
+                recommendation(100L, "Shown"), recommendation(101L, "Organic"), recommendation(102L, "New")));
+
+        // When
+        Page<DiscoverItemDto> result = discoverFeedService.getDiscoverFeed(currentUser, PageRequest.of(1, 3));
+
+        // Then: Se enriquecen todos los orgánicos (el 0 incluido) y se inserta la primera recomendación nueva
+        verify(threadEnricher).enrichList(argThat(list -> list.stream().map(ThreadClass::getId).toList().equals(List.of(0L, 1L, 2L, 101L))), eq(currentUser));
+        assertThat(result.getContent()).filteredOn(DiscoverItemDto::isRecommended)
+                .extracting(DiscoverItemDto::recommendationReason)
+                .containsExactly("New");
+    }
+
+    @Test
+    @DisplayName("getDiscoverFeed: Repetir una página (reintento, otra pestaña) debería devolver los mismos orgánicos")
+    void getDiscoverFeed_RepeatedPage_KeepsOrganicItems() {
+        // Given
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        List<ThreadClass> page = List.of(ThreadClass.builder().id(1L).build(), ThreadClass.builder().id(2L).build());
+        given(threadRepository.findThreadsForDiscover(anyLong(), anyList(), anySet(), any())).willReturn(new PageImpl<>(page));
+        given(threadEnricher.enrichList(anyList(), any())).willReturn(createThreadDtos(2));
+        given(recommendationCacheService.getRanked(eq(1L), any())).willReturn(Collections.emptyList());
+
+        // When
+        discoverFeedService.getDiscoverFeed(currentUser, PageRequest.of(1, 2));
+        discoverFeedService.getDiscoverFeed(currentUser, PageRequest.of(1, 2));
+
+        // Then: Ambas veces se enriquecen los dos hilos
+        verify(threadEnricher, times(2)).enrichList(page, currentUser);
+    }
+
+    @Test
+    @DisplayName("getDiscoverFeedByCursor: Debería pedir size + 1 filas y devolver el cursor del último hilo")
+    void getDiscoverFeedByCursor_ShouldReturnNextCursor() {
+        // Given
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ThreadClass> threads = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            threads.add(ThreadClass.builder().id(i).publishedAt(now.minusMinutes(i)).build());
+        }
+        given(threadRepository.findThreadsForDiscoverAfter(eq(1L), argThat(list -> list.contains(-1L)), anySet(),
+                isNull(), isNull(), eq(PageRequest.of(0, 3)))).willReturn(threads);
+        given(threadEnricher.enrichList(anyList(), eq(currentUser))).willReturn(createThreadDtos(2));
+        given(recommendationCacheService.getRanked(eq(1L), any())).willReturn(Collections.emptyList());
+
+        // When
+        CursorPageDto<DiscoverItemDto> result = discoverFeedService.getDiscoverFeedByCursor(currentUser, null, 2);
+
+        // Then
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(FeedCursor.decode(result.nextCursor())).isEqualTo(FeedCursor.of(threads.get(1)));
+        verify(threadEnricher).enrichList(threads.subList(0, 2), currentUser);
+    }
+
+    @Test
+    @DisplayName("getDiscoverFeedByCursor: Debería limitar el tamaño de página pedido a [1, 50]")
+    void getDiscoverFeedByCursor_ClampsSize() {
+        // Given
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        ThreadClass thread = ThreadClass.builder().id(1L).publishedAt(LocalDateTime.now()).build();
+        given(threadRepository.findThreadsForDiscoverAfter(eq(1L), anyList(), anySet(), isNull(), isNull(), any(Pageable.class)))
+                .willReturn(List.of(thread, ThreadClass.builder().id(2L).publishedAt(LocalDateTime.now()).build()));
+        given(threadEnricher.enrichList(anyList(), eq(currentUser))).willReturn(createThreadDtos(1));
+        given(recommendationCacheService.getRanked(eq(1L), any())).willReturn(Collections.emptyList());
+
+        // When: size=0 se trata como 1, size enorme como 50
+        CursorPageDto<DiscoverItemDto> result = discoverFeedService.getDiscoverFeedByCursor(currentUser, null, 0);
+        discoverFeedService.getDiscoverFeedByCursor(currentUser, null, 1_000_000);
+
+        // Then
+        assertThat(result.hasNext()).isTrue();
+        assertThat(FeedCursor.decode(result.nextCursor())).isEqualTo(FeedCursor.of(thread));
+        verify(threadRepository).findThreadsForDiscoverAfter(eq(1L), anyList(), anySet(), isNull(), isNull(), eq(PageRequest.of(0, 2)));
+        verify(threadRepository).findThreadsForDiscoverAfter(eq(1L), anyList(), anySet(), isNull(), isNull(), eq(PageRequest.of(0, 51)));
+    }
+
     // --- Helpers ---
 
     private List<ThreadClass> createThreads(int count) {
         List<ThreadClass> list = new ArrayList<>();
-        for(int i=0; i<count; i++) list.add(new ThreadClass());
+        for(int i=0; i<count; i++) list.add(ThreadClass.builder().id((long) i).build());
         return list;
     }
 
@@ -138,8 +283,13 @@ public class DiscoverFeedServiceTest {
     private List<DiscoverItemDto> createRecommendationDtos(int count) {
         List<DiscoverItemDto> list = new ArrayList<>();
         for(int i=0; i<count; i++) {
-            list.add(new DiscoverItemDto(null, true, "Reason", "TYPE"));
+            list.add(recommendation(100L + i, "Reason"));
         }
         return list;
     }
+
+    private DiscoverItemDto recommendation(Long threadId, String reason) {
+        FeedThreadDto thread = new FeedThreadDto(threadId, null, null, null, null, false, false, "Cat", null);
+        return new DiscoverItemDto(thread, true, reason, "TYPE");
+    }
 }
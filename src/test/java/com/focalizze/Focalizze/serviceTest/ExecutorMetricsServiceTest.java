@@ -0,0 +1,87 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.ExecutorStatsDto;
+import com.focalizze.Focalizze.services.servicesImpl.ExecutorMetricsServiceImpl;
+import com.focalizze.Focalizze.utils.InstrumentedTaskExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecutorMetricsServiceTest {
+
+    private InstrumentedTaskExecutor emails;
+    private InstrumentedTaskExecutor notifications;
+    private ExecutorMetricsServiceImpl executorMetricsService;
+
+    @BeforeEach
+    void setUp() {
+        notifications = new InstrumentedTaskExecutor("notifications", 1, 1);
+        emails = new InstrumentedTaskExecutor("emails", 1, 10);
+        notifications.initialize();
+        emails.initialize();
+        executorMetricsService = new ExecutorMetricsServiceImpl(List.of(notifications, emails));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notifications.shutdown();
+        emails.shutdown();
+    }
+
+    @Test
+    @DisplayName("getStats: Debería contar las tareas completadas y ordenar los pools por nombre")
+    void getStats_ShouldCountCompletedTasks() throws InterruptedException {
+        // Given
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            emails.execute(done::countDown);
+        }
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        List<ExecutorStatsDto> stats = executorMetricsService.getStats();
+
+        // Then
+        assertThat(stats).extracting(ExecutorStatsDto::name).containsExactly("emails", "notifications");
+        ExecutorStatsDto emailStats = stats.get(0);
+        assertThat(emailStats.submitted()).isEqualTo(3);
+        assertThat(emailStats.rejected()).isZero();
+        assertThat(emailStats.queueCapacity()).isEqualTo(10);
+        assertThat(emailStats.maxQueueWaitMillis()).isGreaterThanOrEqualTo(emailStats.avgQueueWaitMillis());
+    }
+
+    @Test
+    @DisplayName("execute: Con la cola llena, la tarea se ejecuta en el hilo llamante y se cuenta como rechazada")
+    void execute_FullQueue_RunsOnCaller() throws InterruptedException {
+        // Given
+        // Un hilo ocupado y la cola (capacidad 1) llena
+        CountDownLatch release = new CountDownLatch(1);
+        notifications.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        notifications.execute(() -> { });
+
+        // When
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        notifications.execute(() -> ranOn.set(Thread.currentThread()));
+        release.countDown();
+
+        // Then
+        assertThat(ranOn.get()).isEqualTo(Thread.currentThread());
+        ExecutorStatsDto stats = notifications.snapshot();
+        assertThat(stats.rejected()).isEqualTo(1);
+        assertThat(stats.submitted()).isEqualTo(3);
+    }
+}
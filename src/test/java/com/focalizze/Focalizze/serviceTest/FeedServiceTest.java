@@ -1,9 +1,15 @@
 package com.focalizze.Focalizze.serviceTest;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.*;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.FeedServiceImpl;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.TimelineSnapshot;
+import com.focalizze.Focalizze.utils.FeedCursor;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,17 +21,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
+import static com.focalizze.Focalizze.serviceTest.RelationshipFixtures.relations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,10 +44,13 @@ public class FeedServiceTest {
     @Mock private ThreadRepository threadRepository;
     @Mock private ThreadEnricher threadEnricher;
     @Mock private UserRepository userRepository;
+    @Mock private HomeTimelineService homeTimelineService;
 
     @Mock private SecurityContext securityContext;
     @Mock private Authentication authentication;
 
+    @Mock private RelationshipCacheService relationshipCacheService;
+
     @InjectMocks
     private FeedServiceImpl feedService;
 
@@ -47,12 +60,9 @@ public class FeedServiceTest {
     void setUp() {
         SecurityContextHolder.setContext(securityContext);
 
-        // Inicializamos las listas para evitar NullPointerException en el servicio
         currentUser = User.builder()
                 .id(1L)
                 .username("currentUser")
-                .following(new ArrayList<>())
-                .followedCategories(new HashSet<>())
                 .build();
     }
 
@@ -65,16 +75,9 @@ public class FeedServiceTest {
         given(authentication.getName()).willReturn("currentUser");
         given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
 
-        // 2. Simular Seguimientos
-        User followedUser = User.builder().id(2L).build();
-        CategoryClass followedCategory = new CategoryClass(); followedCategory.setId(10L);
-
-        currentUser.getFollowing().add(Follow.builder().userFollowed(followedUser).build());
-        currentUser.getFollowedCategories().add(CategoryFollow.builder().category(followedCategory).build());
-
-        // 3. Simular Bloqueos (Vacíos)
-        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Collections.emptySet());
-        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Collections.emptySet());
+        // 2-3. Simular Seguimientos (usuario 2, categoría 10) y Bloqueos (Vacíos) desde la caché de relaciones
+        given(relationshipCacheService.getSnapshot(1L))
+                .willReturn(relations(LongIdSet.of(Set.of(2L)), LongIdSet.of(Set.of(10L)), LongIdSet.empty()));
 
         // 4. Simular Repositorio y Enriquecedor
         List<ThreadClass> threads = List.of(new ThreadClass());
@@ -111,12 +114,10 @@ public class FeedServiceTest {
         given(authentication.getName()).willReturn("currentUser");
         given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
 
-        // 2. Seguimientos Vacíos (currentUser por defecto en setUp)
-
+        // 2. Seguimientos Vacíos
         // 3. Simular Bloqueos (Bidireccionales)
         // Yo bloqueé al ID 5, el ID 6 me bloqueó a mí.
-        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Set.of(5L));
-        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Set.of(6L));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(5L, 6L))));
 
         // 4. Repositorio
         given(threadRepository.findFollowingFeed(anyList(), anyList(), eq(1L), anySet(), any(Pageable.class)))
@@ -137,6 +138,165 @@ public class FeedServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("getFeed: Debería servir la página desde el timeline en memoria respetando su orden")
+    void getFeed_ServedFromTimeline() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getName()).willReturn("currentUser");
+        given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(9L))));
+
+        given(homeTimelineService.getTimeline(1L)).willReturn(new TimelineSnapshot(List.of(30L, 20L, 10L), false));
+
+        User author = User.builder().id(2L).build();
+        User blockedAuthor = User.builder().id(9L).build();
+        ThreadClass t30 = ThreadClass.builder().id(30L).user(author).build();
+        ThreadClass t20 = ThreadClass.builder().id(20L).user(blockedAuthor).build();
+
+        // El repositorio devuelve en orden arbitrario
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(30L, 20L))).willReturn(List.of(t20, t30));
+        given(threadEnricher.enrichList(List.of(t30), currentUser)).willReturn(List.of(
+                new FeedThreadDto(30L, null, null, null, null, false, false, "Cat", null)));
+
+        // When
+        Page<FeedThreadDto> result = feedService.getFeed(PageRequest.of(0, 2));
+
+        // Then
+        assertThat(result.getContent()).extracting(FeedThreadDto::id).containsExactly(30L);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        verify(threadRepository, never()).findFollowingFeed(anyList(), anyList(), anyLong(), anySet(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("getFeed: Debería recurrir a SQL cuando la página excede un timeline lleno")
+    void getFeed_BeyondFullTimeline_FallsBackToSql() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getName()).willReturn("currentUser");
+        given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+
+        given(homeTimelineService.getTimeline(1L)).willReturn(new TimelineSnapshot(List.of(3L, 2L), true));
+        given(threadRepository.findFollowingFeed(anyList(), anyList(), eq(1L), anySet(), any(Pageable.class)))
+                .willReturn(Page.empty());
+        given(threadEnricher.enrichList(anyList(), any())).willReturn(Collections.emptyList());
+
+        // When
+        feedService.getFeed(PageRequest.of(1, 2));
+
+        // Then
+        verify(threadRepository).findFollowingFeed(anyList(), anyList(), eq(1L), anySet(), eq(PageRequest.of(1, 2)));
+        verify(threadRepository, never()).findPublishedByIdsWithDetails(anyCollection());
+    }
+
+    @Test
+    @DisplayName("getFeedByCursor: Debería continuar en el timeline tras el ID del cursor")
+    void getFeedByCursor_ServedFromTimeline() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getName()).willReturn("currentUser");
+        given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+
+        given(homeTimelineService.getTimeline(1L)).willReturn(new TimelineSnapshot(List.of(40L, 30L, 20L, 10L), false));
+
+        User author = User.builder().id(2L).build();
+        LocalDateTime now = LocalDateTime.now();
+        ThreadClass t30 = ThreadClass.builder().id(30L).user(author).publishedAt(now.minusMinutes(1)).build();
+        ThreadClass t20 = ThreadClass.builder().id(20L).user(author).publishedAt(now.minusMinutes(2)).build();
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(30L, 20L))).willReturn(List.of(t30, t20));
+        given(threadEnricher.enrichList(anyList(), eq(currentUser))).willReturn(Collections.emptyList());
+
+        String cursor = new FeedCursor(now, 40L).encode();
+
+        // When
+        CursorPageDto<FeedThreadDto> result = feedService.getFeedByCursor(cursor, 2);
+
+        // Then
+        assertThat(result.hasNext()).isTrue();
+        assertThat(FeedCursor.decode(result.nextCursor())).isEqualTo(FeedCursor.of(t20));
+        verify(threadRepository, never()).findFollowingFeedAfter(
+                anyList(), anyList(), anyLong(), anySet(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("getFeedByCursor: Debería usar la consulta keyset si el cursor no está en el timeline")
+    void getFeedByCursor_CursorOutsideTimeline_UsesKeyset() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getName()).willReturn("currentUser");
+        given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        given(homeTimelineService.getTimeline(1L)).willReturn(new TimelineSnapshot(List.of(40L), false));
+
+        LocalDateTime cursorDate = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123456000);
+        ThreadClass older = ThreadClass.builder().id(5L).user(User.builder().id(2L).build())
+                .publishedAt(cursorDate.minusDays(1)).build();
+        given(threadRepository.findFollowingFeedAfter(anyList(), anyList(), eq(1L), anySet(),
+                eq(cursorDate), eq(7L), eq(PageRequest.of(0, 3)))).willReturn(List.of(older));
+        given(threadEnricher.enrichList(List.of(older), currentUser)).willReturn(Collections.emptyList());
+
+        // When
+        CursorPageDto<FeedThreadDto> result = feedService.getFeedByCursor(new FeedCursor(cursorDate, 7L).encode(), 2);
+
+        // Then
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getFeedByCursor: Debería seguir por keyset tras el final de un timeline truncado con borrados")
+    void getFeedByCursor_PastTruncatedTimeline_UsesKeyset() {
+        // Given: Un timeline que se llenó y luego perdió un hilo borrado (menos IDs que la capacidad)
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getName()).willReturn("currentUser");
+        given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        given(homeTimelineService.getTimeline(1L)).willReturn(new TimelineSnapshot(List.of(40L, 20L), true));
+
+        LocalDateTime cursorDate = LocalDateTime.of(2025, 1, 1, 10, 0);
+        ThreadClass older = ThreadClass.builder().id(5L).user(User.builder().id(2L).build())
+                .publishedAt(cursorDate.minusDays(1)).build();
+        given(threadRepository.findFollowingFeedAfter(anyList(), anyList(), eq(1L), anySet(),
+                eq(cursorDate), eq(20L), eq(PageRequest.of(0, 3)))).willReturn(List.of(older));
+        given(threadEnricher.enrichList(List.of(older), currentUser)).willReturn(Collections.emptyList());
+
+        // When: La página empieza tras el último ID en memoria
+        CursorPageDto<FeedThreadDto> result = feedService.getFeedByCursor(new FeedCursor(cursorDate, 20L).encode(), 2);
+
+        // Then: Los hilos más antiguos siguen siendo alcanzables
+        verify(threadRepository).findFollowingFeedAfter(anyList(), anyList(), eq(1L), anySet(),
+                eq(cursorDate), eq(20L), eq(PageRequest.of(0, 3)));
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("getFeed: Debería recurrir a SQL tras el final de un timeline truncado con borrados")
+    void getFeed_PastTruncatedTimeline_FallsBackToSql() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getName()).willReturn("currentUser");
+        given(userRepository.findByUsername("currentUser")).willReturn(Optional.of(currentUser));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        given(homeTimelineService.getTimeline(1L)).willReturn(new TimelineSnapshot(List.of(40L, 20L), true));
+        given(threadRepository.findFollowingFeed(anyList(), anyList(), eq(1L), anySet(), any(Pageable.class)))
+                .willReturn(Page.empty());
+        given(threadEnricher.enrichList(anyList(), any())).willReturn(Collections.emptyList());
+
+        // When
+        feedService.getFeed(PageRequest.of(1, 2));
+
+        // Then
+        verify(threadRepository).findFollowingFeed(anyList(), anyList(), eq(1L), anySet(), eq(PageRequest.of(1, 2)));
+    }
+
+    @Test
+    @DisplayName("getFeedByCursor: Debería rechazar un cursor mal formado")
+    void getFeedByCursor_InvalidCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> feedService.getFeedByCursor("%%%", 10));
+    }
+
     @Test
     @DisplayName("getFeed: Debería lanzar excepción si el usuario no se encuentra")
     void getFeed_UserNotFound_ThrowsException() {
@@ -4,6 +4,8 @@ import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.HiddenContentRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.FeedbackServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +33,10 @@ public class FeedbackServiceTest {
     private HiddenContentRepository hiddenRepo;
     @Mock
     private ThreadRepository threadRepo;
+    @Mock
+    private RecommendationCacheService recommendationCacheService;
+    @Mock
+    private RelationshipCacheService relationshipCacheService;
 
     @InjectMocks
     private FeedbackServiceImpl feedbackService;
@@ -63,6 +69,9 @@ public class FeedbackServiceTest {
         assertThat(savedContent.getUser()).isEqualTo(currentUser);
         assertThat(savedContent.getThread()).isEqualTo(thread);
         assertThat(savedContent.getReasonType()).isEqualTo("NOT_INTERESTED");
+        // Los ocultos cacheados y el ranking se recalculan con el nuevo hilo oculto
+        verify(relationshipCacheService).evict(currentUser.getId());
+        verify(recommendationCacheService).invalidate(currentUser.getId());
     }
 
     @Test
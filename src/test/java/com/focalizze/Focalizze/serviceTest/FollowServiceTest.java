@@ -8,6 +8,9 @@ import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.FollowRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.NotificationService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
+import com.focalizze.Focalizze.services.RecommendationCacheService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.FollowServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -36,6 +39,9 @@ public class FollowServiceTest {
     @Mock private FollowRepository followRepository;
     @Mock private NotificationService notificationService;
     @Mock private BlockRepository blockRepository;
+    @Mock private HomeTimelineService homeTimelineService;
+    @Mock private RelationshipCacheService relationshipCacheService;
+    @Mock private RecommendationCacheService recommendationCacheService;
 
     @InjectMocks
     private FollowServiceImpl followService;
@@ -66,6 +72,9 @@ public class FollowServiceTest {
         verify(userRepository).incrementFollowingCount(currentUser.getId());
         verify(userRepository).incrementFollowersCount(targetUser.getId());
         verify(notificationService).createAndSendNotification(eq(targetUser), eq(NotificationType.NEW_FOLLOWER), eq(currentUser), isNull());
+        verify(relationshipCacheService).evict(currentUser.getId());
+        verify(recommendationCacheService).invalidate(currentUser.getId());
+        verify(homeTimelineService).invalidate(currentUser.getId());
     }
 
     @Test
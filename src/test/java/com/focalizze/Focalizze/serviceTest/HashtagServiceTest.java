@@ -0,0 +1,281 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.CursorPageDto;
+import com.focalizze.Focalizze.dto.FeedThreadDto;
+import com.focalizze.Focalizze.dto.PostIndexRowDto;
+import com.focalizze.Focalizze.dto.TrendingHashtagDto;
+import com.focalizze.Focalizze.models.DataMigration;
+import com.focalizze.Focalizze.models.Post;
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.repository.DataMigrationRepository;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.services.servicesImpl.HashtagServiceImpl;
+import com.focalizze.Focalizze.utils.FeedCursor;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+import com.focalizze.Focalizze.utils.ThreadEnricher;
+import com.focalizze.Focalizze.utils.TrendingCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class HashtagServiceTest {
+
+    @Mock private ThreadRepository threadRepository;
+    @Mock private DataMigrationRepository dataMigrationRepository;
+    @Mock private ThreadEnricher threadEnricher;
+    @Mock private RelationshipCacheService relationshipCacheService;
+
+    private HashtagServiceImpl hashtagService;
+
+    @BeforeEach
+    void setUp() {
+        // Ventana de 60 minutos en 12 cubetas
+        hashtagService = new HashtagServiceImpl(threadRepository, dataMigrationRepository, threadEnricher, relationshipCacheService, 60, 12, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("applyHashtags: Debería extraer etiquetas normalizadas e ignorar lo que no es etiqueta")
+    void applyHashtags_ShouldExtractNormalizedTags() {
+        // Given
+        ThreadClass thread = thread(true, "Aprendiendo #Java y #Programación.", "Con C#, &#39; y #2024", "Más #java_17 y #JAVA");
+
+        // When
+        hashtagService.applyHashtags(thread);
+
+        // Then
+        assertThat(thread.getHashtags()).containsExactlyInAnyOrder("java", "programacion", "java_17");
+        assertThat(hashtagService.getTrending(10)).extracting(TrendingHashtagDto::tag)
+                .containsExactlyInAnyOrder("java", "programacion", "java_17");
+    }
+
+    @Test
+    @DisplayName("applyHashtags: Al editar solo cuenta las etiquetas nuevas y quita las que desaparecen")
+    void applyHashtags_OnEdit_ShouldCountOnlyNewTags() {
+        // Given: El hilo ya tenía #java
+        ThreadClass thread = thread(true, "Sobre #java", "", "");
+        hashtagService.applyHashtags(thread);
+
+        // When: Se edita para hablar de #spring
+        thread.getPosts().get(0).setContent("Sobre #java y #spring");
+        hashtagService.applyHashtags(thread);
+        thread.getPosts().get(0).setContent("Solo #spring");
+        hashtagService.applyHashtags(thread);
+
+        // Then
+        assertThat(thread.getHashtags()).containsExactly("spring");
+        assertThat(hashtagService.getTrending(10))
+                .containsExactlyInAnyOrder(new TrendingHashtagDto("java", 1), new TrendingHashtagDto("spring", 1));
+    }
+
+    @Test
+    @DisplayName("recordPublished: Un hilo programado cuenta para la tendencia al publicarse, no al crearse")
+    void recordPublished_ScheduledThread_ShouldCountOnPublish() {
+        // Given
+        ThreadClass scheduled = thread(false, "Mañana #lanzamiento", "", "");
+        hashtagService.applyHashtags(scheduled);
+        assertThat(hashtagService.getTrending(10)).isEmpty();
+
+        // When
+        scheduled.setPublished(true);
+        hashtagService.recordPublished(scheduled);
+
+        // Then
+        assertThat(hashtagService.getTrending(10)).containsExactly(new TrendingHashtagDto("lanzamiento", 1));
+    }
+
+    @Test
+    @DisplayName("applyHashtags: Dentro de una transacción solo cuenta para la tendencia tras el commit")
+    void applyHashtags_InTransaction_ShouldCountOnlyAfterCommit() {
+        // When: Crear un hilo en una transacción que hace rollback
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            hashtagService.applyHashtags(thread(true, "Fantasma #rollback"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(hashtagService.getTrending(10)).isEmpty();
+
+        // When: Lo mismo con commit
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            hashtagService.applyHashtags(thread(true, "Real #commit"));
+            assertThat(hashtagService.getTrending(10)).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(hashtagService.getTrending(10)).containsExactly(new TrendingHashtagDto("commit", 1));
+    }
+
+    @Test
+    @DisplayName("backfillHashtags: Debería etiquetar por lotes keyset los hilos sin etiquetas, sin contar para la tendencia")
+    void backfillHashtags_ShouldTagUntaggedThreadsInBatches() {
+        // Given: Lotes de 2; el hilo 2 menciona # sin etiqueta válida
+        given(dataMigrationRepository.findById("thread-hashtags-backfill")).willReturn(Optional.empty());
+        given(dataMigrationRepository.save(any(DataMigration.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(threadRepository.findIdsWithoutHashtagsAfter(eq(0L), any(Pageable.class))).willReturn(List.of(1L, 2L));
+        given(threadRepository.findIdsWithoutHashtagsAfter(eq(2L), any(Pageable.class))).willReturn(List.of(5L));
+        given(threadRepository.findPostIndexRows(List.of(1L, 2L))).willReturn(List.of(
+                row(1L, "Aprendiendo #Java"), row(1L, "y #spring"), row(2L, "Con C#")));
+        given(threadRepository.findPostIndexRows(List.of(5L))).willReturn(List.of(row(5L, "#kotlin")));
+
+        // When
+        int tagged = hashtagService.backfillHashtags();
+
+        // Then
+        assertThat(tagged).isEqualTo(2);
+        verify(threadRepository).insertHashtags(Map.of(1L, Set.of("java", "spring")));
+        verify(threadRepository).insertHashtags(Map.of(5L, Set.of("kotlin")));
+        assertThat(hashtagService.getTrending(10)).isEmpty();
+
+        // El marcador guarda el progreso de cada lote y la finalización
+        ArgumentCaptor<DataMigration> marker = ArgumentCaptor.forClass(DataMigration.class);
+        verify(dataMigrationRepository, times(3)).save(marker.capture());
+        assertThat(marker.getValue().getLastProcessedId()).isEqualTo(5L);
+        assertThat(marker.getValue().getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("backfillHashtags: Debería continuar desde el marcador y no repetirse una vez terminada")
+    void backfillHashtags_ShouldResumeAndRunOnce() {
+        // Given: Una ejecución interrumpida tras el hilo 7
+        DataMigration migration = DataMigration.builder().name("thread-hashtags-backfill").lastProcessedId(7L).build();
+        given(dataMigrationRepository.findById("thread-hashtags-backfill")).willReturn(Optional.of(migration));
+        given(threadRepository.findIdsWithoutHashtagsAfter(eq(7L), any(Pageable.class))).willReturn(List.of());
+        given(dataMigrationRepository.save(any(DataMigration.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        hashtagService.backfillHashtags();
+        int again = hashtagService.backfillHashtags();
+
+        // Then: La segunda vez solo lee el marcador
+        assertThat(again).isZero();
+        verify(threadRepository, times(1)).findIdsWithoutHashtagsAfter(any(), any(Pageable.class));
+        verify(threadRepository, never()).insertHashtags(any());
+    }
+
+    @Test
+    @DisplayName("getTrending: Debería ordenar por uso y respetar el límite")
+    void getTrending_ShouldRankByCount() {
+        // Given
+        for (int i = 0; i < 3; i++) hashtagService.applyHashtags(thread(true, "#java", "", ""));
+        for (int i = 0; i < 2; i++) hashtagService.applyHashtags(thread(true, "#spring", "", ""));
+        hashtagService.applyHashtags(thread(true, "#kotlin", "", ""));
+
+        // When
+        List<TrendingHashtagDto> result = hashtagService.getTrending(2);
+
+        // Then
+        assertThat(result).containsExactly(new TrendingHashtagDto("java", 3), new TrendingHashtagDto("spring", 2));
+    }
+
+    @Test
+    @DisplayName("TrendingCounter: Debería olvidar lo que sale de la ventana y acotar las candidatas")
+    void trendingCounter_ShouldSlideWindowAndBoundCandidates() {
+        // Given: 4 cubetas de 1 minuto, 2 candidatas
+        TrendingCounter counter = new TrendingCounter(4, 60_000, 256, 4, 2);
+        long t0 = 1_000_000_000L;
+        counter.add("viejo", t0);
+        counter.add("viejo", t0);
+        counter.add("nuevo", t0 + 3 * 60_000);
+
+        // Then: A los 4 minutos "viejo" ya salió de la ventana
+        assertThat(counter.top(10, t0 + 3 * 60_000)).extracting(TrendingCounter.Entry::key).containsExactly("viejo", "nuevo");
+        assertThat(counter.top(10, t0 + 4 * 60_000)).containsExactly(new TrendingCounter.Entry("nuevo", 1));
+        assertThat(counter.count("viejo", t0 + 4 * 60_000)).isZero();
+
+        // When: Con 2 candidatas, una clave más pesada desplaza a la más ligera
+        long t1 = t0 + 4 * 60_000;
+        counter.add("a", t1);
+        counter.add("b", t1);
+        counter.add("b", t1);
+        List<TrendingCounter.Entry> top = counter.top(10, t1);
+        assertThat(top).hasSize(2);
+        assertThat(top.get(0)).isEqualTo(new TrendingCounter.Entry("b", 2));
+    }
+
+    @Test
+    @DisplayName("getThreadsByTag: Debería normalizar la etiqueta, excluir bloqueados y devolver el cursor")
+    void getThreadsByTag_ShouldPageByKeyset() {
+        // Given
+        User viewer = User.builder().id(1L).username("viewer").build();
+        SecurityContextHolder.setContext(new SecurityContextImpl(new UsernamePasswordAuthenticationToken(viewer, null, List.of())));
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(new RelationshipSnapshot(
+                LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(99L)), LongIdSet.empty()));
+
+        LocalDateTime now = LocalDateTime.now();
+        ThreadClass first = published(3L, now);
+        ThreadClass second = published(2L, now.minusHours(1));
+        given(threadRepository.findByHashtagAfter(eq("programacion"), eq(Set.of(99L)), isNull(), isNull(), any(Pageable.class)))
+                .willReturn(List.of(first, second, published(1L, now.minusHours(2))));
+        given(threadEnricher.enrichList(anyList(), eq(viewer))).willReturn(List.of());
+
+        // When
+        CursorPageDto<FeedThreadDto> page = hashtagService.getThreadsByTag("#Programación", null, 2);
+
+        // Then
+        assertThat(page.hasNext()).isTrue();
+        assertThat(FeedCursor.decode(page.nextCursor())).isEqualTo(FeedCursor.of(second));
+        verify(threadEnricher).enrichList(List.of(first, second), viewer);
+    }
+
+    private ThreadClass thread(boolean published, String... contents) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < contents.length; i++) {
+            posts.add(Post.builder().position(i + 1).content(contents[i]).build());
+        }
+        return ThreadClass.builder().isPublished(published).posts(posts).hashtags(new HashSet<>()).build();
+    }
+
+    private PostIndexRowDto row(Long threadId, String content) {
+        return new PostIndexRowDto(threadId, 10L, 1L, LocalDateTime.now(), 1, content);
+    }
+
+    private ThreadClass published(Long id, LocalDateTime publishedAt) {
+        return ThreadClass.builder().id(id).isPublished(true).publishedAt(publishedAt).build();
+    }
+}
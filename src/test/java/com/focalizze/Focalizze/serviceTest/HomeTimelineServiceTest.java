@@ -0,0 +1,198 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.models.CategoryClass;
+import com.focalizze.Focalizze.models.ThreadClass;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.repository.ThreadRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.services.servicesImpl.HomeTimelineServiceImpl;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class HomeTimelineServiceTest {
+
+    @Mock private ThreadRepository threadRepository;
+    @Mock private RelationshipCacheService relationshipCacheService;
+
+    private HomeTimelineServiceImpl homeTimelineService;
+
+    @BeforeEach
+    void setUp() {
+        homeTimelineService = new HomeTimelineServiceImpl(
+                threadRepository, relationshipCacheService, 3, 100, 30);
+    }
+
+    // Sigue al usuario 2 y a la categoría 5, bloquea al usuario 9
+    private void givenColdLoad(Long userId, List<Long> ids) {
+        given(relationshipCacheService.getSnapshot(userId)).willReturn(new RelationshipSnapshot(
+                LongIdSet.of(Set.of(2L)), LongIdSet.of(Set.of(5L)), LongIdSet.of(Set.of(9L)), LongIdSet.of(Set.of(9L)), LongIdSet.empty()));
+        given(threadRepository.findFollowingFeedIds(anyList(), anyList(), eq(userId), anySet(), any(Pageable.class)))
+                .willReturn(ids);
+    }
+
+    private ThreadClass thread(Long id, Long authorId, Long categoryId) {
+        CategoryClass category = null;
+        if (categoryId != null) {
+            category = new CategoryClass();
+            category.setId(categoryId);
+        }
+        return ThreadClass.builder().id(id).user(User.builder().id(authorId).build()).category(category).build();
+    }
+
+    @Test
+    @DisplayName("getTimeline: Debería construirse desde la BD una sola vez y reutilizarse")
+    void getTimeline_ColdLoad_IsCached() {
+        // Given
+        givenColdLoad(1L, List.of(20L, 10L));
+
+        // When
+        List<Long> first = homeTimelineService.getTimeline(1L).threadIds();
+        List<Long> second = homeTimelineService.getTimeline(1L).threadIds();
+
+        // Then
+        assertThat(first).containsExactly(20L, 10L);
+        assertThat(second).containsExactly(20L, 10L);
+        verify(threadRepository, times(1)).findFollowingFeedIds(
+                argThat(list -> list.contains(2L)),
+                argThat(list -> list.contains(5L)),
+                eq(1L),
+                argThat(set -> set.contains(9L)),
+                argThat(pageable -> pageable.getPageSize() == 3));
+    }
+
+    @Test
+    @DisplayName("onThreadPublished: Debería insertar al frente solo en timelines en memoria, sin duplicados y acotado")
+    void onThreadPublished_FansOutToWarmTimelines() {
+        // Given
+        givenColdLoad(1L, List.of(20L, 10L));
+        homeTimelineService.getTimeline(1L);
+
+        // When: Autor seguido, categoría seguida, autor ajeno y autor bloqueado en una categoría seguida
+        homeTimelineService.onThreadPublished(thread(30L, 2L, null));
+        homeTimelineService.onThreadPublished(thread(30L, 2L, null));
+        homeTimelineService.onThreadPublished(thread(40L, 8L, 5L));
+        homeTimelineService.onThreadPublished(thread(50L, 8L, 6L));
+        homeTimelineService.onThreadPublished(thread(60L, 9L, 5L));
+
+        // Then: Sin cargar listas de seguidores ni reconstruir
+        assertThat(homeTimelineService.getTimeline(1L).threadIds()).containsExactly(40L, 30L, 20L);
+        verify(threadRepository, times(1)).findFollowingFeedIds(anyList(), anyList(), eq(1L), anySet(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("onThreadPublished: Dentro de una transacción solo distribuye tras el commit y nunca hilos borrados")
+    void onThreadPublished_InTransaction_PushesOnlyAfterCommit() {
+        // Given
+        givenColdLoad(1L, List.of(20L, 10L));
+        homeTimelineService.getTimeline(1L);
+        ThreadClass deleted = thread(50L, 2L, null);
+        deleted.setDeleted(true);
+
+        // When: Publicación con rollback
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            homeTimelineService.onThreadPublished(thread(30L, 2L, null));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(homeTimelineService.getTimeline(1L).threadIds()).containsExactly(20L, 10L);
+
+        // When: Publicación confirmada y un hilo borrado mientras estaba programado
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            homeTimelineService.onThreadPublished(thread(40L, 2L, null));
+            homeTimelineService.onThreadPublished(deleted);
+            assertThat(homeTimelineService.getTimeline(1L).threadIds()).containsExactly(20L, 10L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(homeTimelineService.getTimeline(1L).threadIds()).containsExactly(40L, 20L, 10L);
+    }
+
+    @Test
+    @DisplayName("onThreadRemoved: Debería quitar el hilo de los timelines en memoria")
+    void onThreadRemoved_RemovesFromWarmTimelines() {
+        // Given
+        givenColdLoad(1L, List.of(30L, 20L, 10L));
+        homeTimelineService.getTimeline(1L);
+
+        // When
+        homeTimelineService.onThreadRemoved(20L);
+
+        // Then
+        assertThat(homeTimelineService.getTimeline(1L).threadIds()).containsExactly(30L, 10L);
+    }
+
+    @Test
+    @DisplayName("onThreadRemoved: Un timeline cargado lleno debe seguir truncado tras un borrado")
+    void onThreadRemoved_FullTimeline_StaysTruncated() {
+        // Given: Capacidad 3, la BD devolvió 3 IDs (puede haber más antiguos)
+        givenColdLoad(1L, List.of(30L, 20L, 10L));
+        assertThat(homeTimelineService.getTimeline(1L).truncated()).isTrue();
+
+        // When
+        homeTimelineService.onThreadRemoved(20L);
+
+        // Then
+        assertThat(homeTimelineService.getTimeline(1L).threadIds()).containsExactly(30L, 10L);
+        assertThat(homeTimelineService.getTimeline(1L).truncated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("onThreadPublished: Debería marcar el timeline como truncado al expulsar una entrada")
+    void onThreadPublished_Eviction_MarksTruncated() {
+        // Given: 2 IDs con capacidad 3, timeline completo
+        givenColdLoad(1L, List.of(20L, 10L));
+        assertThat(homeTimelineService.getTimeline(1L).truncated()).isFalse();
+
+        // When
+        homeTimelineService.onThreadPublished(thread(30L, 2L, null));
+        assertThat(homeTimelineService.getTimeline(1L).truncated()).isFalse();
+        homeTimelineService.onThreadPublished(thread(40L, 2L, null));
+
+        // Then
+        assertThat(homeTimelineService.getTimeline(1L).threadIds()).containsExactly(40L, 30L, 20L);
+        assertThat(homeTimelineService.getTimeline(1L).truncated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("invalidate: Debería forzar la reconstrucción en la próxima lectura")
+    void invalidate_ForcesRebuild() {
+        // Given
+        givenColdLoad(1L, List.of(10L));
+        homeTimelineService.getTimeline(1L);
+
+        // When
+        homeTimelineService.invalidate(1L);
+        homeTimelineService.getTimeline(1L);
+
+        // Then
+        verify(threadRepository, times(2)).findFollowingFeedIds(anyList(), anyList(), eq(1L), anySet(), any(Pageable.class));
+    }
+}
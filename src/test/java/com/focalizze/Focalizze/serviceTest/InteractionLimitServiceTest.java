@@ -10,13 +10,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,13 +32,13 @@ public class InteractionLimitServiceTest {
     @Mock
     private InteractionLogRepository interactionLogRepository;
 
-    @InjectMocks
     private InteractionLimitServiceImpl interactionLimitService;
 
     private User user;
 
     @BeforeEach
     void setUp() {
+        interactionLimitService = new InteractionLimitServiceImpl(interactionLogRepository, 500, 1, 1000, 60);
         user = User.builder().id(1L).username("user").build();
     }
 
@@ -46,13 +47,13 @@ public class InteractionLimitServiceTest {
     void checkLimit_WithinLimit_ShouldPass() {
         // Given: Usuario no suspendido, 10 interacciones hoy (limite es 20)
         user.setSuspensionEndsAt(null);
-        given(interactionLogRepository.countByUserAndCreatedAtAfter(eq(user), any(LocalDateTime.class)))
-                .willReturn(10L);
+        givenTodayCounts(10, 0);
 
         // When
         interactionLimitService.checkInteractionLimit(user);
 
         // Then: No exception thrown
+        assertThat(interactionLimitService.getRemainingInteractions(user)).isEqualTo(10);
     }
 
     @Test
@@ -60,8 +61,7 @@ public class InteractionLimitServiceTest {
     void checkLimit_LimitExceeded_ThrowsException() {
         // Given: 20 interacciones hoy
         user.setSuspensionEndsAt(null);
-        given(interactionLogRepository.countByUserAndCreatedAtAfter(eq(user), any(LocalDateTime.class)))
-                .willReturn(20L);
+        givenTodayCounts(15, 5);
 
         // When & Then
         assertThrows(DailyLimitExceededException.class, () ->
@@ -80,38 +80,161 @@ public class InteractionLimitServiceTest {
                 interactionLimitService.checkInteractionLimit(user)
         );
         // No debería ni consultar al repo si está suspendido
-        verify(interactionLogRepository, never()).countByUserAndCreatedAtAfter(any(), any());
+        verify(interactionLogRepository, never()).countByUserIdAndTypeAndCreatedAtAfter(any(), any(), any());
     }
 
     @Test
-    @DisplayName("refundInteraction: Should delete most recent log")
-    void refundInteraction_ShouldDeleteLog() {
+    @DisplayName("checkInteractionLimit: Debería leer la tabla una sola vez y contar en memoria")
+    void checkLimit_CountsInMemory() {
+        // Given: 19 interacciones hoy
+        givenTodayCounts(19, 0);
+
+        // When: Una más llega al límite
+        interactionLimitService.checkInteractionLimit(user);
+        interactionLimitService.recordInteraction(user, InteractionType.COMMENT);
+
+        // Then
+        assertThrows(DailyLimitExceededException.class, () ->
+                interactionLimitService.checkInteractionLimit(user)
+        );
+        assertThat(interactionLimitService.getRemainingInteractions(user)).isZero();
+        verify(interactionLogRepository, times(1)).countByUserIdAndTypeAndCreatedAtAfter(eq(1L), eq(InteractionType.LIKE), any());
+        // Nada se escribe hasta el volcado
+        verify(interactionLogRepository, never()).insertAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("flushPending: Should write the buffered logs in one batch")
+    void flushPending_ShouldInsertBatch() {
+        // Given
+        givenTodayCounts(0, 0);
+        interactionLimitService.recordInteraction(user, InteractionType.LIKE);
+        interactionLimitService.recordInteraction(user, InteractionType.COMMENT);
+
+        // When
+        interactionLimitService.flushPending();
+        interactionLimitService.flushPending();
+
+        // Then: Un solo lote con los dos logs
+        ArgumentCaptor<List<InteractionLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(interactionLogRepository, times(1)).insertAll(captor.capture());
+        assertThat(captor.getValue()).extracting(InteractionLog::getType)
+                .containsExactly(InteractionType.LIKE, InteractionType.COMMENT);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("flushPending: Should keep a failed batch ahead of newer logs and retry it on the next flush")
+    void flushPending_FailedBatch_ShouldRetry() {
+        // Given: El primer volcado falla
+        givenTodayCounts(0, 0);
+        willThrow(new RuntimeException("DB down")).willDoNothing().given(interactionLogRepository).insertAll(any());
+        interactionLimitService.recordInteraction(user, InteractionType.LIKE);
+        interactionLimitService.flushPending();
+
+        // When: Llega un comentario y se vuelve a volcar
+        interactionLimitService.recordInteraction(user, InteractionType.COMMENT);
+        interactionLimitService.flushPending();
+
+        // Then: El like fallido va primero y nada se pierde
+        ArgumentCaptor<List<InteractionLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(interactionLogRepository, times(2)).insertAll(captor.capture());
+        assertThat(captor.getAllValues().get(1)).extracting(InteractionLog::getType)
+                .containsExactly(InteractionType.LIKE, InteractionType.COMMENT);
+        assertThat(interactionLimitService.getRemainingInteractions(user)).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("refundInteraction: Should cancel a retried log instead of deleting an older saved one")
+    void refundInteraction_AfterFailedFlush_ShouldCancelRetriedLog() {
+        // Given: Un like cuyo volcado falló
+        givenTodayCounts(0, 0);
+        willThrow(new RuntimeException("DB down")).given(interactionLogRepository).insertAll(any());
+        interactionLimitService.recordInteraction(user, InteractionType.LIKE);
+        interactionLimitService.flushPending();
+
+        // When
+        interactionLimitService.refundInteraction(user, InteractionType.LIKE);
+        interactionLimitService.flushPending();
+
+        // Then
+        verify(interactionLogRepository, times(1)).insertAll(any());
+        verify(interactionLogRepository, never()).findIdsToRefund(any(), any(), any(), any());
+        assertThat(interactionLimitService.getRemainingInteractions(user)).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("flushPending: Should drop the logs once the retries are used up")
+    void flushPending_RetriesExhausted_ShouldDrop() {
+        // Given: Un reintento permitido y la BD siempre caída
+        givenTodayCounts(0, 0);
+        willThrow(new RuntimeException("DB down")).given(interactionLogRepository).insertAll(any());
+        interactionLimitService.recordInteraction(user, InteractionType.LIKE);
+
+        // When
+        interactionLimitService.flushPending();
+        interactionLimitService.flushPending();
+        interactionLimitService.flushPending();
+
+        // Then: Intento inicial más un reintento
+        verify(interactionLogRepository, times(2)).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("refundInteraction: Should cancel a log that is still buffered")
+    void refundInteraction_Buffered_ShouldCancelLog() {
         // Given
-        InteractionLog logToDelete = new InteractionLog();
-        logToDelete.setId(100L);
+        givenTodayCounts(0, 0);
+        interactionLimitService.recordInteraction(user, InteractionType.LIKE);
+
+        // When
+        interactionLimitService.refundInteraction(user, InteractionType.LIKE);
+        interactionLimitService.flushPending();
+
+        // Then
+        assertThat(interactionLimitService.getRemainingInteractions(user)).isEqualTo(20);
+        verify(interactionLogRepository, never()).insertAll(any());
+        verify(interactionLogRepository, never()).deleteAllByIdInBatch(any());
+    }
 
-        // El repo devuelve una lista con 1 log
-        given(interactionLogRepository.findLogsToRefund(eq(user), eq(InteractionType.LIKE), any(LocalDateTime.class)))
-                .willReturn(List.of(logToDelete));
+    @Test
+    @DisplayName("refundInteraction: Should delete most recent saved log on flush")
+    void refundInteraction_Saved_ShouldDeleteLog() {
+        // Given: Un like de hoy ya guardado
+        givenTodayCounts(1, 0);
+        given(interactionLogRepository.findIdsToRefund(eq(1L), eq(InteractionType.LIKE), any(LocalDateTime.class), any(Pageable.class)))
+                .willReturn(List.of(100L));
 
         // When
         interactionLimitService.refundInteraction(user, InteractionType.LIKE);
+        interactionLimitService.flushPending();
 
         // Then
-        verify(interactionLogRepository).delete(logToDelete);
+        assertThat(interactionLimitService.getRemainingInteractions(user)).isEqualTo(20);
+        verify(interactionLogRepository).deleteAllByIdInBatch(List.of(100L));
     }
 
     @Test
     @DisplayName("refundInteraction: Should do nothing if no logs found")
     void refundInteraction_NoLogs_ShouldDoNothing() {
-        // Given: Lista vacía
-        given(interactionLogRepository.findLogsToRefund(any(), any(), any()))
-                .willReturn(Collections.emptyList());
+        // Given: Ningún like hoy
+        givenTodayCounts(0, 3);
 
         // When
         interactionLimitService.refundInteraction(user, InteractionType.LIKE);
+        interactionLimitService.flushPending();
 
         // Then
-        verify(interactionLogRepository, never()).delete(any());
+        assertThat(interactionLimitService.getRemainingInteractions(user)).isEqualTo(17);
+        verify(interactionLogRepository, never()).findIdsToRefund(any(), any(), any(), any());
+        verify(interactionLogRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private void givenTodayCounts(long likes, long comments) {
+        lenient().when(interactionLogRepository.countByUserIdAndTypeAndCreatedAtAfter(eq(1L), eq(InteractionType.LIKE), any(LocalDateTime.class)))
+                .thenReturn(likes);
+        lenient().when(interactionLogRepository.countByUserIdAndTypeAndCreatedAtAfter(eq(1L), eq(InteractionType.COMMENT), any(LocalDateTime.class)))
+                .thenReturn(comments);
     }
 }
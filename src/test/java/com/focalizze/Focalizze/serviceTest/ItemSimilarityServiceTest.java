@@ -0,0 +1,100 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.EngagementPairDto;
+import com.focalizze.Focalizze.repository.LikeRepository;
+import com.focalizze.Focalizze.repository.SavedThreadRepository;
+import com.focalizze.Focalizze.services.servicesImpl.ItemSimilarityServiceImpl;
+import com.focalizze.Focalizze.utils.ItemSimilarityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSimilarityServiceTest {
+
+    @Mock private LikeRepository likeRepository;
+    @Mock private SavedThreadRepository savedThreadRepository;
+
+    private ItemSimilarityServiceImpl itemSimilarityService;
+
+    @BeforeEach
+    void setUp() {
+        // Ventana 30 días, escaneo 1000, 3 hilos por usuario, 2 vecinos por hilo
+        itemSimilarityService = new ItemSimilarityServiceImpl(likeRepository, savedThreadRepository, 30, 1000, 3, 2);
+    }
+
+    @Test
+    @DisplayName("getIndex: Debería estar vacío antes de la primera reconstrucción")
+    void getIndex_BeforeRebuild_ShouldBeEmpty() {
+        assertThat(itemSimilarityService.getIndex().size()).isZero();
+        assertThat(itemSimilarityService.getIndex().getRecentItems(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rebuild: Debería ordenar los vecinos por similitud coseno")
+    void rebuild_ShouldRankNeighborsByCosine() {
+        // Given: 101 y 102 comparten 2 usuarios; 101 y 103 solo 1
+        LocalDateTime now = LocalDateTime.now();
+        given(likeRepository.findEngagementPairsSince(any(LocalDateTime.class), any(Pageable.class))).willReturn(List.of(
+                pair(1L, 101L, now), pair(1L, 102L, now),
+                pair(2L, 101L, now), pair(2L, 102L, now),
+                pair(3L, 101L, now), pair(3L, 103L, now)
+        ));
+        given(savedThreadRepository.findEngagementPairsSince(any(LocalDateTime.class), any(Pageable.class))).willReturn(List.of());
+
+        // When
+        itemSimilarityService.rebuild();
+
+        // Then
+        List<Long> neighbors = new ArrayList<>();
+        List<Float> similarities = new ArrayList<>();
+        itemSimilarityService.getIndex().forEachNeighbor(101L, (threadId, authorId, similarity) -> {
+            neighbors.add(threadId);
+            similarities.add(similarity);
+        });
+        assertThat(neighbors).containsExactly(102L, 103L);
+        // co(101,102)=2, n(101)=3, n(102)=2 -> 2/sqrt(6)
+        assertThat(similarities.get(0)).isCloseTo((float) (2 / Math.sqrt(6)), offset(1e-6f));
+    }
+
+    @Test
+    @DisplayName("rebuild: Debería contar una vez like y guardado del mismo hilo y conservar los más recientes por usuario")
+    void rebuild_ShouldMergeSourcesAndKeepRecentItemsPerUser() {
+        // Given: El usuario 1 tiene 4 interacciones pero solo se guardan 3 (la más antigua se descarta)
+        LocalDateTime now = LocalDateTime.now();
+        given(likeRepository.findEngagementPairsSince(any(LocalDateTime.class), any(Pageable.class))).willReturn(List.of(
+                pair(1L, 201L, now.minusHours(1)),
+                pair(1L, 204L, now.minusDays(5))
+        ));
+        given(savedThreadRepository.findEngagementPairsSince(any(LocalDateTime.class), any(Pageable.class))).willReturn(List.of(
+                pair(1L, 202L, now),
+                pair(1L, 201L, now.minusHours(2)),
+                pair(1L, 203L, now.minusDays(1))
+        ));
+
+        // When
+        itemSimilarityService.rebuild();
+
+        // Then
+        ItemSimilarityIndex index = itemSimilarityService.getIndex();
+        assertThat(index.getRecentItems(1L)).containsExactly(202L, 201L, 203L);
+        assertThat(index.getRecentItems(99L)).isEmpty();
+    }
+
+    private EngagementPairDto pair(Long userId, Long threadId, LocalDateTime engagedAt) {
+        return new EngagementPairDto(userId, threadId, threadId * 10, engagedAt);
+    }
+}
@@ -1,6 +1,8 @@
 package com.focalizze.Focalizze.serviceTest;
 
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.NotificationDto;
+import com.focalizze.Focalizze.dto.UnreadCountDto;
 import com.focalizze.Focalizze.dto.mappers.NotificationMapper;
 import com.focalizze.Focalizze.models.NotificationClass;
 import com.focalizze.Focalizze.models.NotificationType;
@@ -8,12 +10,15 @@ import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
 import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.NotificationRepository;
+import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.NotificationStreamService;
 import com.focalizze.Focalizze.services.servicesImpl.NotificationServiceImpl;
+import com.focalizze.Focalizze.utils.FeedCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -21,12 +26,17 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,8 +45,9 @@ public class NotificationServiceTest {
     @Mock private SimpMessagingTemplate messagingTemplate;
     @Mock private NotificationMapper notificationMapper;
     @Mock private BlockRepository blockRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private NotificationStreamService notificationStreamService;
 
-    @InjectMocks
     private NotificationServiceImpl notificationService;
 
     private User recipient;
@@ -45,6 +56,7 @@ public class NotificationServiceTest {
 
     @BeforeEach
     void setUp() {
+        notificationService = new NotificationServiceImpl(notificationRepository, messagingTemplate, notificationMapper, blockRepository, userRepository, notificationStreamService, 500, 1000, 30);
         recipient = User.builder().id(1L).username("recipient").build();
         sender = User.builder().id(2L).username("sender").build();
         thread = new ThreadClass();
@@ -52,22 +64,27 @@ public class NotificationServiceTest {
     }
 
     @Test
-    @DisplayName("createAndSend: Should save and send WS message if NOT blocked")
+    @DisplayName("createAndSend: Should save and send WS message on flush if NOT blocked")
     void createAndSend_Success() {
         // Given
         // No hay bloqueo
         given(blockRepository.existsByBlockerAndBlocked(any(), any())).willReturn(false);
 
         // Mock del mapper
-        NotificationDto mockDto = new NotificationDto(1L, "Msg", null, false, null, null, null,null);
+        NotificationDto mockDto = new NotificationDto(1L, "Msg", null, false, null, null, null,null, 1);
         given(notificationMapper.toDto(any(NotificationClass.class))).willReturn(mockDto);
 
         // When
         notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, thread);
 
         // Then
+        // Nada se escribe hasta que se cierra la ventana
+        verify(notificationRepository, never()).insertAll(any());
+
+        notificationService.flushPending();
+
         // 1. Se guarda en BD
-        verify(notificationRepository).save(any(NotificationClass.class));
+        verify(notificationRepository).insertAll(any());
 
         // 2. Se envía por WebSocket al usuario correcto
         verify(messagingTemplate).convertAndSendToUser(
@@ -75,6 +92,9 @@ public class NotificationServiceTest {
                 eq("/queue/notifications"),
                 eq(mockDto)
         );
+
+        // 3. Y por el mismo camino al flujo SSE
+        verify(notificationStreamService).send("recipient", "/queue/notifications", mockDto);
     }
 
     @Test
@@ -88,10 +108,83 @@ public class NotificationServiceTest {
         notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, thread);
 
         // Then
-        verify(notificationRepository, never()).save(any());
+        notificationService.flushPending();
+        verify(notificationRepository, never()).insertAll(any());
         verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
     }
 
+    @Test
+    @DisplayName("flushPending: Should merge likes on the same thread into one row with the actor count")
+    @SuppressWarnings("unchecked")
+    void flushPending_MergesSameTarget() {
+        // Given
+        User third = User.builder().id(3L).username("third").build();
+        given(blockRepository.existsByBlockerAndBlocked(any(), any())).willReturn(false);
+
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, thread);
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, thread);
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, third, thread);
+
+        // When
+        notificationService.flushPending();
+
+        // Then
+        // Un solo lote con una sola fila: 2 actores distintos, el más reciente como desencadenante
+        ArgumentCaptor<List<NotificationClass>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).insertAll(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(n -> {
+            assertThat(n.getActorCount()).isEqualTo(2);
+            assertThat(n.getTriggerUser()).isEqualTo(third);
+            assertThat(n.getMessage()).isEqualTo(" y 1 más les ha gustado tu hilo.");
+        });
+        verify(messagingTemplate, times(1)).convertAndSendToUser(eq("recipient"), eq("/queue/notifications"), any());
+
+        // La ventana siguiente empieza vacía
+        notificationService.flushPending();
+        verify(notificationRepository, times(1)).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("flushPending: Should keep mentions and different threads as separate notifications")
+    @SuppressWarnings("unchecked")
+    void flushPending_KeepsDifferentTargetsApart() {
+        // Given
+        User third = User.builder().id(3L).username("third").build();
+        ThreadClass otherThread = new ThreadClass();
+        otherThread.setId(11L);
+        given(blockRepository.existsByBlockerAndBlocked(any(), any())).willReturn(false);
+
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, thread);
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, otherThread);
+        notificationService.createAndSendNotification(recipient, NotificationType.MENTION, sender, thread);
+        notificationService.createAndSendNotification(recipient, NotificationType.MENTION, third, thread);
+
+        // When
+        notificationService.flushPending();
+
+        // Then
+        ArgumentCaptor<List<NotificationClass>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).insertAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(4).allSatisfy(n -> assertThat(n.getActorCount()).isEqualTo(1));
+        verify(messagingTemplate, times(4)).convertAndSendToUser(eq("recipient"), eq("/queue/notifications"), any());
+    }
+
+    @Test
+    @DisplayName("createAndSend: Should flush early when a batch fills before the window ends")
+    void createAndSend_FullBatch_FlushesEarly() {
+        // Given
+        notificationService = new NotificationServiceImpl(notificationRepository, messagingTemplate, notificationMapper, blockRepository, userRepository, notificationStreamService, 2, 1000, 30);
+        User other = User.builder().id(4L).username("other").build();
+        given(blockRepository.existsByBlockerAndBlocked(any(), any())).willReturn(false);
+
+        // When
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_FOLLOWER, sender, null);
+        notificationService.createAndSendNotification(other, NotificationType.NEW_FOLLOWER, sender, null);
+
+        // Then
+        verify(notificationRepository).insertAll(any());
+    }
+
     @Test
     @DisplayName("getNotificationsForUser: Should return mapped page")
     void getNotifications_ShouldReturnPage() {
@@ -107,13 +200,99 @@ public class NotificationServiceTest {
         verify(notificationRepository).findByUserWithDetails(eq(recipient), any(Pageable.class));
     }
 
+    @Test
+    @DisplayName("getNotificationsByCursor: Should fetch one extra row and return the cursor of the last one")
+    void getNotificationsByCursor_ShouldReturnNextCursor() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        NotificationClass newest = NotificationClass.builder().id(30L).user(recipient).createdAt(now).type(NotificationType.NEW_LIKE).build();
+        NotificationClass older = NotificationClass.builder().id(20L).user(recipient).createdAt(now.minusMinutes(1)).type(NotificationType.NEW_LIKE).build();
+        NotificationClass extra = NotificationClass.builder().id(10L).user(recipient).createdAt(now.minusMinutes(2)).type(NotificationType.NEW_LIKE).build();
+        FeedCursor after = new FeedCursor(now.plusMinutes(1), 40L);
+        given(notificationRepository.findByUserAfter(eq(1L), eq(after.publishedAt()), eq(40L), any(Pageable.class)))
+                .willReturn(List.of(newest, older, extra));
+
+        // When
+        CursorPageDto<NotificationDto> page = notificationService.getNotificationsByCursor(recipient, after.encode(), 2);
+
+        // Then
+        assertThat(page.content()).hasSize(2);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(FeedCursor.decode(page.nextCursor())).isEqualTo(FeedCursor.of(older));
+        verify(notificationRepository, never()).findByUserWithDetails(any(), any());
+    }
+
     @Test
     @DisplayName("markAllAsRead: Should call repository update")
     void markAllAsRead_ShouldCallRepo() {
+        // Given: La columna ya está a cero tras el commit
+        given(userRepository.findUnreadNotificationCountById(recipient.getId())).willReturn(Optional.of(0));
+
         // When
         notificationService.markAllAsRead(recipient);
 
         // Then
         verify(notificationRepository).markAllAsReadForUser(recipient.getId());
+        verify(userRepository).resetUnreadNotificationCount(recipient.getId());
+        verify(messagingTemplate).convertAndSendToUser("recipient", "/queue/unread", new UnreadCountDto(false, 0));
+        verify(notificationStreamService).send("recipient", "/queue/unread", new UnreadCountDto(false, 0));
+        assertThat(notificationService.getUnreadCount(recipient)).isZero();
+        verify(userRepository, times(1)).findUnreadNotificationCountById(recipient.getId());
+    }
+
+    @Test
+    @DisplayName("getUnreadCount: Should read the column once and then serve from memory")
+    void getUnreadCount_ShouldCacheCounter() {
+        // Given
+        given(userRepository.findUnreadNotificationCountById(1L)).willReturn(Optional.of(4));
+
+        // When
+        int first = notificationService.getUnreadCount(recipient);
+        boolean hasUnread = notificationService.hasUnreadNotifications(recipient);
+
+        // Then
+        assertThat(first).isEqualTo(4);
+        assertThat(hasUnread).isTrue();
+        verify(userRepository, times(1)).findUnreadNotificationCountById(1L);
+        verify(notificationRepository, never()).existsByUserAndIsReadIsFalse(any());
+    }
+
+    @Test
+    @DisplayName("flushPending: Should re-read the committed counter once and push the badge")
+    void flushPending_ShouldPushUnreadBadge() {
+        // Given: La columna pasa de 2 a 4 al guardar el lote
+        given(userRepository.findUnreadNotificationCountById(1L)).willReturn(Optional.of(2), Optional.of(4));
+        given(blockRepository.existsByBlockerAndBlocked(any(), any())).willReturn(false);
+        notificationService.getUnreadCount(recipient);
+
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, thread);
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_FOLLOWER, sender, null);
+
+        // When
+        notificationService.flushPending();
+
+        // Then
+        // 2 grupos nuevos sobre los 2 que había, un solo mensaje de indicador
+        verify(messagingTemplate).convertAndSendToUser("recipient", "/queue/unread", new UnreadCountDto(true, 4));
+        assertThat(notificationService.getUnreadCount(recipient)).isEqualTo(4);
+        verify(userRepository, times(2)).findUnreadNotificationCountById(1L);
+    }
+
+    @Test
+    @DisplayName("flushPending: Should not add the batch twice when the counter was loaded after the insert committed")
+    void flushPending_CounterLoadedAfterInsert_ShouldNotDoubleCount() {
+        // Given: Una lectura concurrente carga la columna (ya con el lote) justo tras el commit del insert
+        given(blockRepository.existsByBlockerAndBlocked(any(), any())).willReturn(false);
+        given(userRepository.findUnreadNotificationCountById(1L)).willReturn(Optional.of(3));
+        willAnswer(invocation -> notificationService.getUnreadCount(recipient))
+                .given(notificationRepository).insertAll(anyList());
+        notificationService.createAndSendNotification(recipient, NotificationType.NEW_LIKE, sender, thread);
+
+        // When
+        notificationService.flushPending();
+
+        // Then
+        verify(messagingTemplate).convertAndSendToUser("recipient", "/queue/unread", new UnreadCountDto(true, 3));
+        assertThat(notificationService.getUnreadCount(recipient)).isEqualTo(3);
     }
 }
@@ -0,0 +1,173 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.UnreadCountDto;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.services.servicesImpl.NotificationStreamServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class NotificationStreamServiceTest {
+
+    private final List<SseEmitter> created = new ArrayList<>();
+    private NotificationStreamServiceImpl notificationStreamService;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        // Executor síncrono y emisores simulados / Synchronous executor and mocked emitters
+        notificationStreamService = new NotificationStreamServiceImpl(Runnable::run, 30, 2) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                SseEmitter emitter = mock(SseEmitter.class);
+                created.add(emitter);
+                return emitter;
+            }
+        };
+        alice = User.builder().id(1L).username("alice").build();
+    }
+
+    @Test
+    @DisplayName("send: Debería escribir el evento en cada flujo abierto del usuario")
+    void send_WritesToEveryStreamOfUser() throws IOException {
+        // Given
+        SseEmitter first = notificationStreamService.subscribe(alice);
+        SseEmitter second = notificationStreamService.subscribe(alice);
+
+        // When
+        notificationStreamService.send("alice", "/queue/unread", new UnreadCountDto(true, 3));
+        notificationStreamService.send("bob", "/queue/unread", new UnreadCountDto(true, 1));
+
+        // Then
+        verify(first, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(second, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("subscribe: Debería cerrar el flujo más antiguo al superar el máximo por usuario")
+    void subscribe_OverLimit_ClosesOldest() {
+        // When
+        SseEmitter oldest = notificationStreamService.subscribe(alice);
+        notificationStreamService.subscribe(alice);
+        notificationStreamService.subscribe(alice);
+
+        // Then
+        verify(oldest).complete();
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("send: Debería olvidar un flujo cuyo cliente se ha desconectado")
+    void send_ClientGone_RemovesStream() throws IOException {
+        // Given
+        SseEmitter gone = notificationStreamService.subscribe(alice);
+        doThrow(new IOException("Broken pipe")).when(gone).send(any(SseEmitter.SseEventBuilder.class));
+
+        // When
+        notificationStreamService.send("alice", "/queue/notifications", "payload");
+        notificationStreamService.sendHeartbeat();
+
+        // Then
+        verify(gone, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(notificationStreamService.getConnectionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("onCompletion: Debería quitar el flujo al completarse")
+    void onCompletion_RemovesStream() throws IOException {
+        // Given
+        SseEmitter emitter = notificationStreamService.subscribe(alice);
+        ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitter).onCompletion(onCompletion.capture());
+
+        // When
+        onCompletion.getValue().run();
+        notificationStreamService.send("alice", "/queue/notifications", "payload");
+
+        // Then
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(notificationStreamService.getConnectionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("subscribe: Un flujo abierto justo cuando se cierra el último del usuario debe seguir recibiendo eventos")
+    void subscribe_AfterLastStreamClosed_StaysRegistered() throws IOException {
+        // Given: El último flujo se cierra y su lista sale del mapa
+        SseEmitter closed = notificationStreamService.subscribe(alice);
+        ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+        verify(closed).onCompletion(onCompletion.capture());
+        onCompletion.getValue().run();
+
+        // When
+        SseEmitter reopened = notificationStreamService.subscribe(alice);
+        notificationStreamService.send("alice", "/queue/unread", new UnreadCountDto(true, 1));
+
+        // Then
+        verify(reopened).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("subscribe: Cerrar el flujo expulsado puede llamar a remove sin bloquear el mapa")
+    void subscribe_EvictedCompletionCallsRemove() {
+        // Given: complete() avisa en el acto, como un emisor real ya terminado
+        SseEmitter oldest = notificationStreamService.subscribe(alice);
+        ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+        verify(oldest).onCompletion(onCompletion.capture());
+        doAnswer(invocation -> {
+            onCompletion.getValue().run();
+            return null;
+        }).when(oldest).complete();
+        notificationStreamService.subscribe(alice);
+
+        // When
+        notificationStreamService.subscribe(alice);
+
+        // Then
+        verify(oldest).complete();
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("sendHeartbeat: Debería enviar un solo latido al executor para todos los usuarios")
+    void sendHeartbeat_SubmitsSingleTask() throws IOException {
+        // Given
+        List<Runnable> submitted = new ArrayList<>();
+        NotificationStreamServiceImpl service = new NotificationStreamServiceImpl(submitted::add, 30, 2) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                SseEmitter emitter = mock(SseEmitter.class);
+                created.add(emitter);
+                return emitter;
+            }
+        };
+        service.subscribe(alice);
+        service.subscribe(User.builder().id(2L).username("bob").build());
+
+        // When
+        service.sendHeartbeat();
+
+        // Then: Una tarea que escribe en los dos flujos
+        assertThat(submitted).hasSize(1);
+        submitted.get(0).run();
+        for (SseEmitter emitter : created) {
+            verify(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        }
+    }
+}
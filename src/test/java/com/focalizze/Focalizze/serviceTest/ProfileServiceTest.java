@@ -12,6 +12,7 @@ import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.FileStorageService;
 import com.focalizze.Focalizze.services.ThreadService;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
 import com.focalizze.Focalizze.services.servicesImpl.ProfileServiceImpl;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,6 +52,7 @@ public class ProfileServiceTest {
     @Mock private ThreadEnricher threadEnricher;
     @Mock private BlockRepository blockRepository;
     @Mock private ThreadService threadService;
+    @Mock private UserSearchIndexService userSearchIndexService;
 
     // Security Mocks
     @Mock private SecurityContext securityContext;
@@ -182,6 +184,7 @@ public class ProfileServiceTest {
         assertThat(profileUser.getDisplayName()).isEqualTo("New Name");
         assertThat(profileUser.getBiography()).isEqualTo("New Bio");
         verify(userRepository).save(profileUser);
+        verify(userSearchIndexService).index(profileUser);
     }
 
     // --- updateAvatar ---
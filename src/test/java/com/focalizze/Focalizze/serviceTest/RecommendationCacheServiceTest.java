@@ -0,0 +1,60 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.DiscoverItemDto;
+import com.focalizze.Focalizze.services.servicesImpl.RecommendationCacheServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecommendationCacheServiceTest {
+
+    private RecommendationCacheServiceImpl recommendationCacheService;
+    private AtomicInteger loads;
+    private Supplier<List<DiscoverItemDto>> loader;
+
+    @BeforeEach
+    void setUp() {
+        // Capacidad 60, 100 usuarios, 120 segundos de vida
+        recommendationCacheService = new RecommendationCacheServiceImpl(60, 100, 120);
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return List.of(new DiscoverItemDto(null, true, "Reason", "TYPE"));
+        };
+    }
+
+    @Test
+    @DisplayName("getRanked: Las páginas consecutivas deberían leer el ranking de caché sin recalcularlo")
+    void getRanked_ShouldComputeOncePerUser() {
+        // When
+        List<DiscoverItemDto> first = recommendationCacheService.getRanked(1L, loader);
+        List<DiscoverItemDto> second = recommendationCacheService.getRanked(1L, loader);
+        recommendationCacheService.getRanked(2L, loader);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("invalidate: Debería recalcular el ranking solo del usuario afectado")
+    void invalidate_ShouldRecomputeOnNextRead() {
+        // Given
+        recommendationCacheService.getRanked(1L, loader);
+        recommendationCacheService.getRanked(2L, loader);
+
+        // When
+        recommendationCacheService.invalidate(1L);
+        recommendationCacheService.getRanked(1L, loader);
+        recommendationCacheService.getRanked(2L, loader);
+
+        // Then
+        assertThat(loads.get()).isEqualTo(3);
+    }
+}
@@ -1,15 +1,20 @@
 package com.focalizze.Focalizze.serviceTest;
 
 import com.focalizze.Focalizze.dto.DiscoverItemDto;
+import com.focalizze.Focalizze.dto.EngagementPairDto;
 import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.dto.StatsDto;
 import com.focalizze.Focalizze.dto.UserDto;
 import com.focalizze.Focalizze.models.*;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
-import com.focalizze.Focalizze.repository.UserRepository;
-import com.focalizze.Focalizze.services.FeedbackService;
+import com.focalizze.Focalizze.services.CandidatePoolService;
+import com.focalizze.Focalizze.services.ItemSimilarityService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.RecommendationServiceImpl;
+import com.focalizze.Focalizze.utils.ItemSimilarityIndex;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.PoolCandidate;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,18 +32,20 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import static com.focalizze.Focalizze.serviceTest.RelationshipFixtures.relations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class RecommendationServiceTest {
     @Mock private ThreadRepository threadRepository;
     @Mock private ThreadEnricher threadEnricher;
-    @Mock private UserRepository userRepository;
-    @Mock private FeedbackService feedbackService;
-    @Mock private BlockRepository blockRepository;
+    @Mock private RelationshipCacheService relationshipCacheService;
+    @Mock private CandidatePoolService candidatePoolService;
+    @Mock private ItemSimilarityService itemSimilarityService;
 
     @InjectMocks
     private RecommendationServiceImpl recommendationService;
@@ -57,21 +64,17 @@ public class RecommendationServiceTest {
     @Test
     @DisplayName("getRecommendations: Should prioritize threads with higher score (Likes/Comments)")
     void getRecommendations_Scoring_ShouldSortCorrectly() {
-        // Given
-        setupEmptyContext();
-
+        // Given: Dos pools de categorías seguidas; el orden final es por puntuación global
         ThreadClass t1 = createThread(101L, 2L, 0, LocalDateTime.now());
         ThreadClass t2 = createThread(102L, 3L, 50, LocalDateTime.now());
+        setupContext(LongIdSet.of(Set.of(10L, 11L)), Collections.emptySet());
 
-        given(threadRepository.findRecommendationCandidates(anyLong(), anyList(), anyList(), anySet(), anySet(), any()))
-                .willReturn(List.of(t1, t2));
+        given(candidatePoolService.getCategoryPool(10L)).willReturn(List.of(candidate(t1, 1.0)));
+        given(candidatePoolService.getCategoryPool(11L)).willReturn(List.of(candidate(t2, 30.0)));
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(102L, 101L))).willReturn(List.of(t1, t2));
 
-        // FIX NPE 1: Como solo hay 2 candidatos y el límite es 10, va a intentar buscar fallback.
-        // Debemos mockearlo para que devuelva vacío y no null.
         mockFallbackEmpty();
-
-        mockEnricher(t1);
-        mockEnricher(t2);
+        mockEnricher(t2, t1);
 
         // When
         List<DiscoverItemDto> result = recommendationService.getRecommendations(currentUser, 10);
@@ -80,23 +83,21 @@ public class RecommendationServiceTest {
         assertThat(result).hasSize(2);
         assertThat(result.get(0).thread().id()).isEqualTo(102L);
         assertThat(result.get(1).thread().id()).isEqualTo(101L);
+        assertThat(result.get(0).recommendationType()).isEqualTo(RecommendationReasonType.CATEGORY_INTEREST.toString());
     }
 
     @Test
     @DisplayName("getRecommendations: Should diversify authors (only 1 thread per author)")
     void getRecommendations_Diversification_ShouldFilterSameAuthor() {
         // Given
-        setupEmptyContext();
-
         ThreadClass t1 = createThread(101L, 2L, 100, LocalDateTime.now());
         ThreadClass t2 = createThread(102L, 2L, 50, LocalDateTime.now());
+        setupContext(LongIdSet.empty(), Collections.emptySet());
 
-        given(threadRepository.findRecommendationCandidates(anyLong(), anyList(), anyList(), anySet(), anySet(), any()))
-                .willReturn(List.of(t1, t2));
+        given(candidatePoolService.getTrendingPool()).willReturn(List.of(candidate(t1, 50.0), candidate(t2, 25.0)));
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(101L))).willReturn(List.of(t1));
 
-        // FIX NPE 1: Mockear fallback vacío
         mockFallbackEmpty();
-
         mockEnricher(t1);
 
         // When
@@ -105,6 +106,133 @@ public class RecommendationServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).thread().id()).isEqualTo(101L);
+        assertThat(result.get(0).recommendationType()).isEqualTo(RecommendationReasonType.SOCIAL_PROOF.toString());
+    }
+
+    @Test
+    @DisplayName("getRecommendations: Debería elegir el mejor hilo de cada autor y quedarse con los K mejores")
+    void getRecommendations_TopK_ShouldKeepBestPerAuthor() {
+        // Given: El autor 2 tiene un hilo débil y otro fuerte; el límite es 2
+        ThreadClass weakA = createThread(401L, 2L, 1, LocalDateTime.now());
+        ThreadClass strongA = createThread(402L, 2L, 90, LocalDateTime.now());
+        ThreadClass midB = createThread(403L, 3L, 50, LocalDateTime.now());
+        ThreadClass lowC = createThread(404L, 4L, 10, LocalDateTime.now());
+        setupEmptyContext();
+
+        given(candidatePoolService.getTrendingPool()).willReturn(List.of(
+                candidate(weakA, 1.0), candidate(lowC, 10.0), candidate(midB, 50.0), candidate(strongA, 90.0)));
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(402L, 403L))).willReturn(List.of(midB, strongA));
+        mockEnricher(strongA, midB);
+
+        // When
+        List<DiscoverItemDto> result = recommendationService.getRecommendations(currentUser, 2);
+
+        // Then
+        assertThat(result).extracting(r -> r.thread().id()).containsExactly(402L, 403L);
+    }
+
+    @Test
+    @DisplayName("getRecommendations: Debería enriquecer pool y respaldo en una sola llamada por lotes")
+    void getRecommendations_ShouldEnrichOnceForPoolAndFallback() {
+        // Given
+        ThreadClass pooled = createThread(501L, 2L, 10, LocalDateTime.now());
+        ThreadClass fallback = createThread(502L, 3L, 1, LocalDateTime.now());
+        setupEmptyContext();
+
+        given(candidatePoolService.getTrendingPool()).willReturn(List.of(candidate(pooled, 10.0)));
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(501L))).willReturn(List.of(pooled));
+        // El respaldo repite el hilo del pool: no debe duplicarse
+        given(threadRepository.findThreadsForDiscover(anyLong(), anyList(), anySet(), any()))
+                .willReturn(new PageImpl<>(List.of(pooled, fallback)));
+        mockEnricher(pooled, fallback);
+
+        // When
+        List<DiscoverItemDto> result = recommendationService.getRecommendations(currentUser, 5);
+
+        // Then
+        assertThat(result).extracting(r -> r.thread().id()).containsExactly(501L, 502L);
+        assertThat(result.get(1).recommendationType()).isEqualTo("TRENDING");
+        verify(threadEnricher, times(1)).enrichList(anyList(), eq(currentUser));
+    }
+
+    @Test
+    @DisplayName("getRecommendations: Debería priorizar hilos co-valorados con los likes recientes del usuario")
+    void getRecommendations_SimilarContent_ShouldComeFirstWithSeedReason() {
+        // Given: Los usuarios 2 y 3 dieron like a 601 y 602; el usuario actual solo a 601
+        ThreadClass seed = createThread(601L, 7L, 5, LocalDateTime.now());
+        ThreadClass similar = createThread(602L, 8L, 1, LocalDateTime.now());
+        ThreadClass trending = createThread(603L, 9L, 90, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        ItemSimilarityIndex index = ItemSimilarityIndex.build(List.of(
+                new EngagementPairDto(1L, 601L, 7L, now),
+                new EngagementPairDto(2L, 601L, 7L, now),
+                new EngagementPairDto(2L, 602L, 8L, now),
+                new EngagementPairDto(3L, 602L, 8L, now),
+                new EngagementPairDto(3L, 601L, 7L, now)
+        ), 50, 20);
+
+        given(relationshipCacheService.getSnapshot(currentUser.getId())).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.empty()));
+        given(itemSimilarityService.getIndex()).willReturn(index);
+        given(candidatePoolService.getTrendingPool()).willReturn(List.of(candidate(trending, 90.0)));
+        // La semilla se carga en la misma consulta que la selección
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(602L, 603L, 601L))).willReturn(List.of(seed, similar, trending));
+
+        mockFallbackEmpty();
+        mockEnricher(similar, trending);
+
+        // When
+        List<DiscoverItemDto> result = recommendationService.getRecommendations(currentUser, 10);
+
+        // Then
+        assertThat(result).extracting(r -> r.thread().id()).containsExactly(602L, 603L);
+        assertThat(result.get(0).recommendationType()).isEqualTo(RecommendationReasonType.SIMILAR_CONTENT.toString());
+        assertThat(result.get(0).recommendationReason()).isEqualTo("Porque te gustó un hilo de @auth7.");
+    }
+
+    @Test
+    @DisplayName("getRecommendations: Debería filtrar el pool por autor propio, seguidos, bloqueados y ocultos")
+    void getRecommendations_ShouldFilterPoolAgainstViewer() {
+        // Given
+        ThreadClass own = createThread(201L, 1L, 10, LocalDateTime.now());
+        ThreadClass followed = createThread(202L, 20L, 10, LocalDateTime.now());
+        ThreadClass blocked = createThread(203L, 30L, 10, LocalDateTime.now());
+        ThreadClass hidden = createThread(204L, 40L, 10, LocalDateTime.now());
+        ThreadClass eligible = createThread(205L, 50L, 10, LocalDateTime.now());
+
+        // Los ocultos llegan en la instantánea cacheada, sin consulta por petición
+        given(relationshipCacheService.getSnapshot(currentUser.getId())).willReturn(new RelationshipSnapshot(
+                LongIdSet.of(Set.of(20L)), LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(30L)), LongIdSet.of(Set.of(204L))));
+        given(itemSimilarityService.getIndex()).willReturn(ItemSimilarityIndex.empty());
+        given(candidatePoolService.getTrendingPool()).willReturn(List.of(
+                candidate(own, 5.0), candidate(followed, 4.0), candidate(blocked, 3.0),
+                candidate(hidden, 2.0), candidate(eligible, 1.0)));
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(205L))).willReturn(List.of(eligible));
+
+        mockFallbackEmpty();
+        mockEnricher(eligible);
+
+        // When
+        List<DiscoverItemDto> result = recommendationService.getRecommendations(currentUser, 10);
+
+        // Then
+        assertThat(result).extracting(r -> r.thread().id()).containsExactly(205L);
+    }
+
+    @Test
+    @DisplayName("getRecommendations: Debería descartar hilos del pool borrados desde el último refresco")
+    void getRecommendations_ShouldSkipThreadsDeletedSinceRefresh() {
+        // Given
+        ThreadClass deleted = createThread(301L, 2L, 10, LocalDateTime.now());
+        setupContext(LongIdSet.empty(), Collections.emptySet());
+        given(candidatePoolService.getTrendingPool()).willReturn(List.of(candidate(deleted, 9.0)));
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(301L))).willReturn(Collections.emptyList());
+        mockFallbackEmpty();
+
+        // When
+        List<DiscoverItemDto> result = recommendationService.getRecommendations(currentUser, 10);
+
+        // Then
+        assertThat(result).isEmpty();
     }
 
     @Test
@@ -113,14 +241,9 @@ public class RecommendationServiceTest {
         // Given
         setupEmptyContext();
 
-        // 1. Candidatos principales: Vacío
-        given(threadRepository.findRecommendationCandidates(anyLong(), anyList(), anyList(), anySet(), anySet(), any()))
-                .willReturn(Collections.emptyList());
-
-        // 2. Fallback (Trending): Devuelve 1 hilo
+        // Fallback (Trending): Devuelve 1 hilo
         ThreadClass fallbackThread = createThread(999L, 5L, 5, LocalDateTime.now());
 
-        // FIX: Stub correcto para el fallback
         given(threadRepository.findThreadsForDiscover(anyLong(), anyList(), anySet(), any(Pageable.class)))
                 .willReturn(new PageImpl<>(List.of(fallbackThread)));
 
@@ -132,27 +255,16 @@ public class RecommendationServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).thread().id()).isEqualTo(999L);
-
-        // FIX ERROR 2: Assertion Correcta.
-        // El servicio asigna "TRENDING" al 'recommendationReason' (el 4to parámetro del DTO)
-        assertThat(result.get(0).recommendationReason()).isEqualTo("Tendencia en Focalizze.");
-        // Y asigna "Tendencia en Focalizze." al 'recommendationReason'
         assertThat(result.get(0).recommendationReason()).isEqualTo("Tendencia en Focalizze.");
     }
 
     @Test
-    @DisplayName("getRecommendations: Should verify SQL safety (-1L insertion) for empty lists")
+    @DisplayName("getRecommendations: Should verify SQL safety (-1L insertion) for empty lists in the fallback")
     void getRecommendations_EmptyLists_ShouldAddDummyIds() {
         // Given
         setupEmptyContext();
-
-        // FIX NPE 1: Mockear fallback vacío, ya que el servicio intentará llenar huecos
         mockFallbackEmpty();
 
-        // Mockear candidatos vacíos
-        given(threadRepository.findRecommendationCandidates(anyLong(), anyList(), anyList(), anySet(), anySet(), any()))
-                .willReturn(Collections.emptyList());
-
         // When
         recommendationService.getRecommendations(currentUser, 10);
 
@@ -161,21 +273,15 @@ public class RecommendationServiceTest {
         ArgumentCaptor<List<Long>> listCaptor = ArgumentCaptor.forClass(List.class);
         @SuppressWarnings("unchecked")
         ArgumentCaptor<Set<Long>> setCaptor = ArgumentCaptor.forClass(Set.class);
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Set<Long>> hiddenCaptor = ArgumentCaptor.forClass(Set.class);
 
-        verify(threadRepository).findRecommendationCandidates(
+        verify(threadRepository).findThreadsForDiscover(
                 eq(currentUser.getId()),
                 listCaptor.capture(), // Followed Users
-                listCaptor.capture(), // Followed Categories
-                hiddenCaptor.capture(), // Hidden Threads
                 setCaptor.capture(),  // Blocked Users
                 any()
         );
 
-        assertThat(listCaptor.getAllValues().get(0)).contains(-1L);
-        assertThat(listCaptor.getAllValues().get(1)).contains(-1L);
-        assertThat(hiddenCaptor.getValue()).contains(-1L);
+        assertThat(listCaptor.getValue()).contains(-1L);
         assertThat(setCaptor.getValue()).contains(-1L);
     }
 
@@ -183,14 +289,7 @@ public class RecommendationServiceTest {
     @DisplayName("getRecommendations: Fallback should exclude hidden threads")
     void getRecommendations_Fallback_ShouldFilterHidden() {
         // Given
-        setupEmptyContext();
-
-        // Candidatos vacíos
-        given(threadRepository.findRecommendationCandidates(anyLong(), anyList(), anyList(), anySet(), anySet(), any()))
-                .willReturn(Collections.emptyList());
-
-        // El usuario ocultó el hilo 500
-        given(feedbackService.getHiddenThreadIds(currentUser)).willReturn(Set.of(500L));
+        setupContext(LongIdSet.empty(), Set.of(500L));
 
         // El fallback devuelve el hilo 500
         ThreadClass hiddenThread = createThread(500L, 8L, 10, LocalDateTime.now());
@@ -207,10 +306,18 @@ public class RecommendationServiceTest {
     // --- Helpers ---
 
     private void setupEmptyContext() {
-        given(userRepository.findByIdWithFollows(currentUser.getId())).willReturn(Optional.of(currentUser));
-        given(feedbackService.getHiddenThreadIds(currentUser)).willReturn(Collections.emptySet());
-        given(blockRepository.findBlockedUserIdsByBlocker(currentUser.getId())).willReturn(Collections.emptySet());
-        given(blockRepository.findUserIdsWhoBlockedUser(currentUser.getId())).willReturn(Collections.emptySet());
+        setupContext(LongIdSet.empty(), Collections.emptySet());
+    }
+
+    private void setupContext(LongIdSet followedCategories, Set<Long> hiddenThreadIds) {
+        given(relationshipCacheService.getSnapshot(currentUser.getId())).willReturn(new RelationshipSnapshot(
+                LongIdSet.empty(), followedCategories, LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(hiddenThreadIds)));
+        given(itemSimilarityService.getIndex()).willReturn(ItemSimilarityIndex.empty());
+    }
+
+    private PoolCandidate candidate(ThreadClass thread, double score) {
+        return new PoolCandidate(thread.getId(), thread.getUser().getId(),
+                thread.getCategory() != null ? thread.getCategory().getId() : null, score);
     }
 
     // FIX: Nuevo helper para evitar NPE cuando no esperamos fallback pero el código pasa por ahí
@@ -232,17 +339,18 @@ public class RecommendationServiceTest {
         return t;
     }
 
-    private void mockEnricher(ThreadClass thread) {
-        UserDto uDto = new UserDto(thread.getUser().getId(), "u", "d", "url", 0, false, 0, 0, false, "USER", false, null, null);
-        StatsDto sDto = new StatsDto(thread.getLikeCount(), 0, 0, 0);
-        // FIX: Constructor con 'images' null
-        FeedThreadDto dto = new FeedThreadDto(thread.getId(), uDto, thread.getPublishedAt(), List.of("Post"), sDto, false, false, "Cat", null);
+    private void mockEnricher(ThreadClass... threads) {
+        List<Long> expectedIds = Arrays.stream(threads).map(ThreadClass::getId).toList();
+        List<FeedThreadDto> dtos = Arrays.stream(threads).map(thread -> {
+            UserDto uDto = new UserDto(thread.getUser().getId(), "u", "d", "url", 0, false, 0, 0, false, "USER", false, null, null);
+            StatsDto sDto = new StatsDto(thread.getLikeCount(), 0, 0, 0);
+            return new FeedThreadDto(thread.getId(), uDto, thread.getPublishedAt(), List.of("Post"), sDto, false, false, "Cat", null);
+        }).toList();
 
-        // FIX ERROR 3: Añadir chequeo de null en el lambda
+        // Un solo enriquecimiento por lotes con los hilos en el orden final
         given(threadEnricher.enrichList(
-                argThat(list -> list != null && list.size() == 1 && list.get(0).getId().equals(thread.getId())),
+                argThat(list -> list != null && list.stream().map(ThreadClass::getId).toList().equals(expectedIds)),
                 eq(currentUser)
-        )).willReturn(List.of(dto));
+        )).willReturn(dtos);
     }
 }
-
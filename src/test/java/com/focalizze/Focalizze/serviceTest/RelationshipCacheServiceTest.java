@@ -0,0 +1,114 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.repository.CategoryFollowRepository;
+import com.focalizze.Focalizze.repository.FollowRepository;
+import com.focalizze.Focalizze.repository.HiddenContentRepository;
+import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.servicesImpl.RelationshipCacheServiceImpl;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class RelationshipCacheServiceTest {
+
+    @Mock private FollowRepository followRepository;
+    @Mock private CategoryFollowRepository categoryFollowRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private HiddenContentRepository hiddenContentRepository;
+
+    private RelationshipCacheServiceImpl relationshipCacheService;
+
+    @BeforeEach
+    void setUp() {
+        relationshipCacheService = new RelationshipCacheServiceImpl(
+                followRepository, categoryFollowRepository, userRepository, hiddenContentRepository, 100, 30);
+    }
+
+    private void givenRelations() {
+        given(followRepository.findFollowedIdsByFollowerId(1L)).willReturn(Set.of(2L, 3L));
+        given(categoryFollowRepository.findCategoryIdsByUserId(1L)).willReturn(Set.of(10L));
+        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Set.of(5L));
+        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Set.of(6L, 5L));
+        given(hiddenContentRepository.findHiddenThreadIdsByUserId(1L)).willReturn(List.of(100L, 200L));
+    }
+
+    @Test
+    @DisplayName("getSnapshot: Debería cargar relaciones y unir bloqueos en ambas direcciones")
+    void getSnapshot_LoadsAndMergesBlocks() {
+        // Given
+        givenRelations();
+
+        // When
+        RelationshipSnapshot snapshot = relationshipCacheService.getSnapshot(1L);
+
+        // Then
+        assertThat(snapshot.followedUserIds().contains(2L)).isTrue();
+        assertThat(snapshot.followedUserIds().contains(4L)).isFalse();
+        assertThat(snapshot.followedCategoryIds().contains(10L)).isTrue();
+        assertThat(snapshot.blockedByMeIds().contains(6L)).isFalse();
+        assertThat(snapshot.blockedUserIds().size()).isEqualTo(2);
+        assertThat(snapshot.blockedUserIds().toQuerySet()).containsExactlyInAnyOrder(5L, 6L);
+        assertThat(snapshot.hiddenThreadIds().contains(200L)).isTrue();
+        assertThat(snapshot.hiddenThreadIds().contains(300L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("getSnapshot: Debería consultar la BD una sola vez hasta que se expulse la entrada")
+    void getSnapshot_CachedUntilEvicted() {
+        // Given
+        givenRelations();
+
+        // When
+        relationshipCacheService.getSnapshot(1L);
+        relationshipCacheService.getSnapshot(1L);
+        relationshipCacheService.evict(1L);
+        relationshipCacheService.getSnapshot(1L);
+
+        // Then
+        verify(followRepository, times(2)).findFollowedIdsByFollowerId(1L);
+    }
+
+    @Test
+    @DisplayName("getSnapshot: Debería devolver instantánea vacía para anónimos y listas seguras para SQL")
+    void getSnapshot_Anonymous_ReturnsEmpty() {
+        // When
+        RelationshipSnapshot snapshot = relationshipCacheService.getSnapshot(null);
+
+        // Then
+        assertThat(snapshot.blockedUserIds().isEmpty()).isTrue();
+        assertThat(snapshot.followedUserIds().toQueryList()).containsExactly(-1L);
+        verifyNoInteractions(followRepository, categoryFollowRepository, userRepository);
+    }
+
+    @Test
+    @DisplayName("getSnapshot: Debería manejar usuarios sin relaciones")
+    void getSnapshot_NoRelations() {
+        // Given
+        given(followRepository.findFollowedIdsByFollowerId(1L)).willReturn(Collections.emptySet());
+        given(categoryFollowRepository.findCategoryIdsByUserId(1L)).willReturn(Collections.emptySet());
+        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Collections.emptySet());
+        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Collections.emptySet());
+
+        // When
+        RelationshipSnapshot snapshot = relationshipCacheService.getSnapshot(1L);
+
+        // Then
+        assertThat(snapshot.followedUserIds().isEmpty()).isTrue();
+        assertThat(snapshot.blockedUserIds().toQuerySet()).containsExactly(-1L);
+    }
+}
@@ -0,0 +1,20 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.RelationshipSnapshot;
+
+/**
+ * Relationship snapshots shared by the service tests.
+ * <p>
+ * Instantáneas de relaciones compartidas por los tests de servicios.
+ */
+final class RelationshipFixtures {
+
+    private RelationshipFixtures() {
+    }
+
+    // Blocks in either direction, nothing hidden / Bloqueos en cualquier dirección, nada oculto
+    static RelationshipSnapshot relations(LongIdSet followedUsers, LongIdSet followedCategories, LongIdSet blocked) {
+        return new RelationshipSnapshot(followedUsers, followedCategories, LongIdSet.empty(), blocked, LongIdSet.empty());
+    }
+}
@@ -4,11 +4,12 @@ import com.focalizze.Focalizze.dto.FeedThreadDto;
 import com.focalizze.Focalizze.models.SavedThreads;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.BlockRepository;
 import com.focalizze.Focalizze.repository.SavedThreadRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
 import com.focalizze.Focalizze.services.servicesImpl.SaveServiceImpl;
+import com.focalizze.Focalizze.utils.LongIdSet;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.focalizze.Focalizze.serviceTest.RelationshipFixtures.relations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,7 +44,7 @@ public class SaveServiceTest {
     @Mock private SavedThreadRepository savedThreadRepository;
     @Mock private ThreadEnricher threadEnricher;
     @Mock private UserRepository userRepository;
-    @Mock private BlockRepository blockRepository;
+    @Mock private RelationshipCacheService relationshipCacheService;
 
     @Mock private SecurityContext securityContext;
     @Mock private Authentication authentication;
@@ -132,8 +134,7 @@ public class SaveServiceTest {
                 .willReturn(page);
 
         // Simulamos bloqueo
-        given(blockRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Set.of(99L));
-        given(blockRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Collections.emptySet());
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(99L))));
 
         // Mock enriquecedor
         given(threadEnricher.enrichList(anyList(), eq(currentUser))).willReturn(List.of(new FeedThreadDto(100L, null, null, null, null, false, true, "Cat", null)));
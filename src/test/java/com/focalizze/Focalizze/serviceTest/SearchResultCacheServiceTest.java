@@ -0,0 +1,153 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.services.servicesImpl.SearchResultCacheServiceImpl;
+import com.focalizze.Focalizze.utils.ContentSearchFilter;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.SearchQueryKey;
+import com.focalizze.Focalizze.utils.SearchResults;
+import com.focalizze.Focalizze.utils.ThreadSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SearchResultCacheServiceTest {
+
+    private SearchResultCacheServiceImpl searchResultCacheService;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        // 250 resultados por consulta, 100 consultas, 60 s
+        searchResultCacheService = new SearchResultCacheServiceImpl(250, 100, 60);
+    }
+
+    @Test
+    @DisplayName("get: Debería cargar una sola vez aunque muchas peticiones fallen a la vez en la misma clave")
+    void get_ConcurrentMisses_ShouldLoadOnce() throws Exception {
+        // Given: El loader tarda hasta que todas las peticiones están esperando
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        SearchQueryKey key = SearchQueryKey.forText("java", ContentSearchFilter.NONE);
+
+        // When
+        List<Future<SearchResults>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> searchResultCacheService.get(key, () -> {
+                    loads.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return results(1L);
+                })));
+            }
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            // Then
+            for (Future<SearchResults> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS).containsThread(1L)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("invalidateThread: Debería descartar solo las búsquedas en las que el hilo nuevo puede aparecer")
+    void invalidateThread_Published_ShouldDropMatchingQueries() {
+        // Given
+        cache(SearchQueryKey.forText("spring bo", ContentSearchFilter.NONE));
+        cache(SearchQueryKey.forText("python ", ContentSearchFilter.NONE));
+        cache(SearchQueryKey.forCategory(100L));
+        cache(SearchQueryKey.forCategory(200L));
+
+        // When: Se publica en la categoría 100 un hilo sobre Spring Boot
+        searchResultCacheService.invalidateThread(5L, 100L, List.of("Novedades de Spring", "Boot 3.5"));
+
+        // Then
+        assertThat(isCached(SearchQueryKey.forText("Spring  Bo", ContentSearchFilter.NONE))).isFalse();
+        assertThat(isCached(SearchQueryKey.forCategory(100L))).isFalse();
+        assertThat(isCached(SearchQueryKey.forText("python ", ContentSearchFilter.NONE))).isTrue();
+        assertThat(isCached(SearchQueryKey.forCategory(200L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("invalidateThread: Debería descartar las búsquedas que listan un hilo eliminado")
+    void invalidateThread_Removed_ShouldDropQueriesListingIt() {
+        // Given: Ambas consultas listan el hilo 1, solo una lista el 2
+        searchResultCacheService.get(SearchQueryKey.forText("java", ContentSearchFilter.NONE), () -> results(1L, 2L));
+        searchResultCacheService.get(SearchQueryKey.forText("spring", ContentSearchFilter.NONE), () -> results(1L));
+
+        // When
+        searchResultCacheService.invalidateThread(2L);
+
+        // Then
+        assertThat(isCached(SearchQueryKey.forText("java", ContentSearchFilter.NONE))).isFalse();
+        assertThat(isCached(SearchQueryKey.forText("spring", ContentSearchFilter.NONE))).isTrue();
+    }
+
+    @Test
+    @DisplayName("page: Debería continuar tras el último resultado y omitir a los autores bloqueados del espectador")
+    void page_ShouldContinueAfterCursorAndSkipBlockedAuthors() {
+        // Given: Resultados en orden de ranking; el autor 99 publica el hilo 2
+        List<ThreadSearchIndex.Hit> hits = List.of(
+                new ThreadSearchIndex.Hit(1L, 3.0, now),
+                new ThreadSearchIndex.Hit(2L, 2.0, now),
+                new ThreadSearchIndex.Hit(3L, 2.0, now.minusDays(1)),
+                new ThreadSearchIndex.Hit(4L, 1.0, null));
+        SearchResults results = SearchResults.of(hits, new long[]{5L, 99L, 5L, 5L});
+
+        // When
+        List<ThreadSearchIndex.Hit> first = results.page(null, LongIdSet.of(Set.of(99L)), 2);
+        List<ThreadSearchIndex.Hit> next = results.page(first.get(1), LongIdSet.of(Set.of(99L)), 2);
+
+        // Then
+        assertThat(first).extracting(ThreadSearchIndex.Hit::threadId).containsExactly(1L, 3L);
+        assertThat(next).extracting(ThreadSearchIndex.Hit::threadId).containsExactly(4L);
+        assertThat(results.page(null, LongIdSet.empty(), 10)).hasSize(4);
+    }
+
+    private void cache(SearchQueryKey key) {
+        searchResultCacheService.get(key, SearchResults::empty);
+    }
+
+    private boolean isCached(SearchQueryKey key) {
+        AtomicInteger loads = new AtomicInteger();
+        searchResultCacheService.get(key, () -> {
+            loads.incrementAndGet();
+            return SearchResults.empty();
+        });
+        return loads.get() == 0;
+    }
+
+    private SearchResults results(Long... threadIds) {
+        List<ThreadSearchIndex.Hit> hits = new ArrayList<>();
+        for (Long threadId : threadIds) hits.add(new ThreadSearchIndex.Hit(threadId, 1.0, now));
+        return SearchResults.of(hits, new long[threadIds.length]);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
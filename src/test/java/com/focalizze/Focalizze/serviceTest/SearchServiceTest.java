@@ -1,31 +1,52 @@
 package com.focalizze.Focalizze.serviceTest;
 
+import com.focalizze.Focalizze.dto.ContentSearchFiltersDto;
+import com.focalizze.Focalizze.dto.CursorPageDto;
 import com.focalizze.Focalizze.dto.ThreadResponseDto;
 import com.focalizze.Focalizze.dto.UserSearchDto;
 import com.focalizze.Focalizze.dto.mappers.ThreadMapper;
-import com.focalizze.Focalizze.models.CategoryClass;
 import com.focalizze.Focalizze.models.ThreadClass;
 import com.focalizze.Focalizze.models.User;
-import com.focalizze.Focalizze.repository.CategoryRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.CategorySearchIndexService;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.RelationshipCacheService;
+import com.focalizze.Focalizze.services.SearchResultCacheService;
+import com.focalizze.Focalizze.services.UserSearchIndexService;
+import com.focalizze.Focalizze.services.servicesImpl.SearchResultCacheServiceImpl;
 import com.focalizze.Focalizze.services.servicesImpl.SearchServiceImpl;
+import com.focalizze.Focalizze.utils.ContentSearchFilter;
+import com.focalizze.Focalizze.utils.LongIdSet;
+import com.focalizze.Focalizze.utils.SearchCursor;
+import com.focalizze.Focalizze.utils.SearchResults;
+import com.focalizze.Focalizze.utils.ThreadSearchIndex;
+import com.focalizze.Focalizze.utils.UsernameIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
+import static com.focalizze.Focalizze.serviceTest.RelationshipFixtures.relations;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -33,13 +54,19 @@ import static org.mockito.Mockito.*;
 public class SearchServiceTest {
 
     @Mock private UserRepository userRepository;
-    @Mock private CategoryRepository categoryRepository;
+    @Mock private CategorySearchIndexService categorySearchIndexService;
     @Mock private ThreadRepository threadRepository;
     @Mock private ThreadMapper threadMapper;
 
     @Mock private SecurityContext securityContext;
     @Mock private Authentication authentication;
 
+    @Mock private RelationshipCacheService relationshipCacheService;
+    @Mock private ContentSearchIndexService contentSearchIndexService;
+    @Mock private UserSearchIndexService userSearchIndexService;
+    // Caché real: 250 resultados por consulta, 100 consultas, 60 s
+    @Spy private SearchResultCacheService searchResultCacheService = new SearchResultCacheServiceImpl(250, 100, 60);
+
     @InjectMocks
     private SearchServiceImpl searchService;
 
@@ -51,11 +78,11 @@ public class SearchServiceTest {
     // --- searchUsersByPrefix ---
 
     @Test
-    @DisplayName("searchUsersByPrefix: Should clean prefix and return mapped DTOs")
+    @DisplayName("searchUsersByPrefix: Should clean prefix and return mapped DTOs from the username index")
     void searchUsers_Valid_ShouldReturnUsers() {
         // Given
-        User u1 = User.builder().username("john").displayName("John Doe").avatarUrl("url").build();
-        given(userRepository.findTop5ByUsernameStartingWithIgnoreCase("jo")).willReturn(List.of(u1));
+        UsernameIndex.Entry u1 = new UsernameIndex.Entry(1L, "john", "John Doe", "url", 10);
+        given(userSearchIndexService.searchByPrefix("jo", 5)).willReturn(List.of(u1));
 
         // When: Pasamos "@jo" para verificar que limpia el '@'
         List<UserSearchDto> result = searchService.searchUsersByPrefix("@jo");
@@ -63,7 +90,24 @@ public class SearchServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).username()).isEqualTo("john");
-        verify(userRepository).findTop5ByUsernameStartingWithIgnoreCase("jo");
+        assertThat(result.get(0).displayName()).isEqualTo("John Doe");
+        verify(userSearchIndexService).searchByPrefix("jo", 5);
+    }
+
+    @Test
+    @DisplayName("searchUsersByPrefix: Debería completar con coincidencias tolerantes a erratas sin repetir usuarios")
+    void searchUsers_FewPrefixMatches_ShouldFillWithFuzzyMatches() {
+        // Given: "jhon" solo coincide por prefijo con un usuario
+        UsernameIndex.Entry jhonny = new UsernameIndex.Entry(2L, "jhonny", "Jhonny", "url", 3);
+        UsernameIndex.Entry john = new UsernameIndex.Entry(1L, "john", "John Doe", "url", 10);
+        given(userSearchIndexService.searchByPrefix("jhon", 5)).willReturn(List.of(jhonny));
+        given(userSearchIndexService.searchFuzzy("jhon", 5)).willReturn(List.of(jhonny, john));
+
+        // When
+        List<UserSearchDto> result = searchService.searchUsersByPrefix("jhon");
+
+        // Then: Primero el prefijo, luego la errata
+        assertThat(result).extracting(UserSearchDto::username).containsExactly("jhonny", "john");
     }
 
     @Test
@@ -72,40 +116,43 @@ public class SearchServiceTest {
         assertThat(searchService.searchUsersByPrefix("")).isEmpty();
         assertThat(searchService.searchUsersByPrefix("  ")).isEmpty();
         assertThat(searchService.searchUsersByPrefix(null)).isEmpty();
-        verify(userRepository, never()).findTop5ByUsernameStartingWithIgnoreCase(any());
+        verify(userSearchIndexService, never()).searchByPrefix(any(), anyInt());
     }
 
     // --- searchContent ---
 
     @Test
-    @DisplayName("searchContent: Should search by CATEGORY if match found")
+    @DisplayName("searchContent: Should page CATEGORY threads by keyset if match found")
     void searchContent_CategoryMatch_ShouldSearchByCategory() {
         // Given
         String query = "Tech";
-        CategoryClass cat = new CategoryClass();
-        cat.setName("Tech");
-
         // --- CORRECCIÓN CLAVE ---
         // Simulamos un usuario anónimo o autenticado para evitar el NPE
         given(securityContext.getAuthentication()).willReturn(authentication);
         given(authentication.getPrincipal()).willReturn("anonymousUser"); // No es instancia de User, así que no hay bloqueos
         // ------------------------
 
-        given(categoryRepository.findByName("Tech")).willReturn(Optional.of(cat));
-        given(threadRepository.findByCategory(cat)).willReturn(new ArrayList<>());
+        given(categorySearchIndexService.resolveId("Tech")).willReturn(Optional.of(3L));
+        // Pedimos 2 y la BD devuelve 3: hay siguiente página
+        LocalDateTime now = LocalDateTime.now();
+        given(threadRepository.findByCategoryAfter(eq(3L), eq(Set.of(-1L)), isNull(), isNull(), any(Pageable.class)))
+                .willReturn(List.of(thread(30L, 5L, now), thread(20L, 5L, now.minusHours(1)), thread(10L, 5L, now.minusHours(2))));
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(30L, 20L)))
+                .willReturn(List.of(thread(30L, 5L, now), thread(20L, 5L, now.minusHours(1))));
 
         // When
-        searchService.searchContent(query);
+        CursorPageDto<ThreadResponseDto> page = searchService.searchContent(query, null, null, 2);
 
         // Then
-        verify(threadRepository).findByCategory(cat);
-        verify(threadRepository, never()).findByPostContentContainingIgnoreCase(any());
+        assertThat(page.hasNext()).isTrue();
+        assertThat(SearchCursor.decode(page.nextCursor())).isEqualTo(new SearchCursor(0, now.minusHours(1), 20L, 2));
+        verify(threadMapper).toDtoList(argThat(list -> list.size() == 2 && list.get(1).getId().equals(20L)));
+        verify(contentSearchIndexService, never()).searchResults(any(), any(), anyInt());
     }
 
-
     @Test
-    @DisplayName("searchContent: Should search by TEXT CONTENT if no category match")
-    void searchContent_NoCategory_ShouldSearchByText() {
+    @DisplayName("searchContent: Should search the FULL-TEXT INDEX and keep its ranking if no category match")
+    void searchContent_NoCategory_ShouldSearchIndexInRankOrder() {
         // Given
         String query = "Hello World";
 
@@ -114,57 +161,162 @@ public class SearchServiceTest {
         given(authentication.getPrincipal()).willReturn("anonymousUser");
         // ------------------------
 
-        given(categoryRepository.findByName(query)).willReturn(Optional.empty());
-        given(threadRepository.findByPostContentContainingIgnoreCase(query)).willReturn(new ArrayList<>());
+        given(categorySearchIndexService.resolveId(query)).willReturn(Optional.empty());
+        given(contentSearchIndexService.searchResults(eq(query), eq(ContentSearchFilter.NONE), eq(250))).willReturn(SearchResults.of(List.of(
+                new ThreadSearchIndex.Hit(20L, 3.0, LocalDateTime.now()),
+                new ThreadSearchIndex.Hit(10L, 1.0, LocalDateTime.now())), new long[]{5L, 5L}));
+        // La BD devuelve los hilos en otro orden
+        given(threadRepository.findPublishedByIdsWithDetails(List.of(20L, 10L))).willReturn(List.of(thread(10L, 5L), thread(20L, 5L)));
 
         // When
-        searchService.searchContent(query);
+        CursorPageDto<ThreadResponseDto> page = searchService.searchContent(query, null, null, 20);
+
+        // Then: Se conserva el orden del índice y no hay más páginas
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+        verify(threadMapper).toDtoList(argThat(list ->
+                list.size() == 2 && list.get(0).getId().equals(20L) && list.get(1).getId().equals(10L)
+        ));
+    }
+
+    @Test
+    @DisplayName("searchContent: Debería continuar tras el cursor y no pasar del máximo total de resultados")
+    void searchContent_WithCursor_ShouldContinueAndRespectCap() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getPrincipal()).willReturn("anonymousUser");
+        given(categorySearchIndexService.resolveId("java")).willReturn(Optional.empty());
+
+        // Ya se sirvieron 190 de 200: la página se recorta a 10 aunque se pidan 50
+        ThreadSearchIndex.Hit last = new ThreadSearchIndex.Hit(7L, 1.5, LocalDateTime.of(2025, 1, 1, 10, 0));
+        String cursor = SearchCursor.of(last, 190).encode();
+        List<ThreadSearchIndex.Hit> hits = new ArrayList<>();
+        for (long id = 100; id < 111; id++) hits.add(new ThreadSearchIndex.Hit(id, 1.0, null));
+        given(contentSearchIndexService.searchResults(eq("java"), any(), anyInt())).willReturn(SearchResults.of(hits, new long[11]));
+        given(threadRepository.findPublishedByIdsWithDetails(anyList())).willReturn(List.of());
+
+        // When
+        CursorPageDto<ThreadResponseDto> page = searchService.searchContent("java", null, cursor, 50);
+
+        // Then: Aunque el índice tenga más, se alcanzó el tope
+        assertThat(page.hasNext()).isFalse();
+        verify(threadRepository).findPublishedByIdsWithDetails(argThat(ids -> ids.size() == 10));
+    }
+
+    @Test
+    @DisplayName("searchContent: Debería devolver una página vacía si el cursor ya alcanzó el tope")
+    void searchContent_CursorAtCap_ShouldReturnEmpty() {
+        String cursor = SearchCursor.of(new ThreadSearchIndex.Hit(7L, 1.5, null), 200).encode();
+
+        CursorPageDto<ThreadResponseDto> page = searchService.searchContent("java", null, cursor, 20);
+
+        assertThat(page.content()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+        verify(contentSearchIndexService, never()).searchResults(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("searchContent: Debería traducir los filtros de categoría, autor y fechas al índice")
+    void searchContent_WithFilters_ShouldResolveNamesAndDates() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getPrincipal()).willReturn("anonymousUser");
+
+        given(categorySearchIndexService.resolveId("Tech")).willReturn(Optional.of(3L));
+        given(userRepository.findByUsername("john")).willReturn(Optional.of(User.builder().id(7L).build()));
+        given(contentSearchIndexService.searchResults(any(), any(), anyInt())).willReturn(SearchResults.empty());
+
+        // When
+        searchService.searchContent("java", new ContentSearchFiltersDto(
+                "Tech", "@john", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)), null, 20);
+
+        // Then: 'to' incluye el día completo
+        verify(contentSearchIndexService).searchResults(eq("java"), eq(new ContentSearchFilter(
+                3L, 7L, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0))), anyInt());
+        // Con filtros no se intenta la coincidencia exacta de categoría
+        verify(categorySearchIndexService, never()).resolveId("java");
+    }
+
+    @Test
+    @DisplayName("searchContent: Debería devolver vacío si el autor filtrado no existe")
+    void searchContent_UnknownAuthor_ShouldReturnEmpty() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getPrincipal()).willReturn("anonymousUser");
+        given(userRepository.findByUsername("ghost")).willReturn(Optional.empty());
+
+        // When
+        CursorPageDto<ThreadResponseDto> result = searchService.searchContent("java", new ContentSearchFiltersDto(null, "ghost", null, null), null, 20);
 
         // Then
-        verify(threadRepository).findByPostContentContainingIgnoreCase(query);
+        assertThat(result.content()).isEmpty();
+        verify(contentSearchIndexService, never()).searchResults(any(), any(), anyInt());
     }
 
     @Test
-    @DisplayName("searchContent: Should FILTER OUT threads from blocked users")
-    void searchContent_WithBlocks_ShouldFilter() {
+    @DisplayName("searchContent: Should skip blocked users per viewer over the shared cached results")
+    void searchContent_WithBlocks_ShouldFilterSharedResultsPerViewer() {
         // Given
         User currentUser = User.builder().id(1L).build();
-        User blockedUser = User.builder().id(99L).build();
-        User cleanUser = User.builder().id(50L).build();
 
-        // 1. Simular Auth
+        // 1. Simular Auth: primero el usuario con bloqueos, luego un anónimo
         given(securityContext.getAuthentication()).willReturn(authentication);
-        given(authentication.getPrincipal()).willReturn(currentUser);
+        given(authentication.getPrincipal()).willReturn(currentUser, "anonymousUser");
 
         // 2. Simular Bloqueos
-        given(userRepository.findBlockedUserIdsByBlocker(1L)).willReturn(Set.of(99L)); // Bloqueado por mí
-        given(userRepository.findUserIdsWhoBlockedUser(1L)).willReturn(Collections.emptySet());
+        given(relationshipCacheService.getSnapshot(1L)).willReturn(relations(LongIdSet.empty(), LongIdSet.empty(), LongIdSet.of(Set.of(99L)))); // Bloqueado por mí
+
+        // 3. Búsqueda por texto: el hilo 20 es del autor bloqueado
+        given(categorySearchIndexService.resolveId(any())).willReturn(Optional.empty());
+        given(contentSearchIndexService.searchResults(any(), any(), anyInt())).willReturn(SearchResults.of(List.of(
+                new ThreadSearchIndex.Hit(20L, 3.0, null),
+                new ThreadSearchIndex.Hit(10L, 1.0, null)), new long[]{99L, 5L}));
+        given(threadRepository.findPublishedByIdsWithDetails(anyList())).willReturn(List.of());
 
-        // 3. Simular Resultados de Búsqueda (1 hilo de bloqueado, 1 hilo limpio)
-        ThreadClass t1 = new ThreadClass(); t1.setUser(blockedUser);
-        ThreadClass t2 = new ThreadClass(); t2.setUser(cleanUser);
+        // When
+        searchService.searchContent("query", null, null, 20);
+        searchService.searchContent("query", null, null, 20);
 
-        // Asumimos búsqueda por texto
-        given(categoryRepository.findByName(any())).willReturn(Optional.empty());
-        given(threadRepository.findByPostContentContainingIgnoreCase(any())).willReturn(List.of(t1, t2));
+        // Then: El índice se consulta una vez sin bloqueos y cada espectador ve lo suyo
+        verify(contentSearchIndexService, times(1)).searchResults(eq("query"), eq(ContentSearchFilter.NONE), anyInt());
+        verify(threadRepository).findPublishedByIdsWithDetails(List.of(10L));
+        verify(threadRepository).findPublishedByIdsWithDetails(List.of(20L, 10L));
+    }
 
-        // 4. Mock Mapper
-        given(threadMapper.toDtoList(anyList())).willAnswer(invocation -> {
-            List<ThreadClass> list = invocation.getArgument(0);
-            return list.stream().map(t -> new ThreadResponseDto(null, null, null, null, null, null, null)).toList();
-        });
+    @Test
+    @DisplayName("searchContent: Debería compartir la caché entre escrituras equivalentes de la misma consulta")
+    void searchContent_EquivalentQueries_ShouldShareOneLoad() {
+        // Given
+        given(securityContext.getAuthentication()).willReturn(authentication);
+        given(authentication.getPrincipal()).willReturn("anonymousUser");
+        given(categorySearchIndexService.resolveId(any())).willReturn(Optional.empty());
+        given(contentSearchIndexService.searchResults(any(), any(), anyInt())).willReturn(SearchResults.empty());
 
         // When
-        List<ThreadResponseDto> result = searchService.searchContent("query");
+        searchService.searchContent("Spring  Boot", null, null, 20);
+        searchService.searchContent("spring boot", null, null, 20);
+        searchService.searchContent("spring boot ", null, null, 20);
 
-        // Then
-        // La lista original tenía 2 hilos. El resultado debe tener 1.
-        assertThat(result).hasSize(1);
+        // Then: El espacio final cambia el significado (término completo), el resto no
+        verify(contentSearchIndexService, times(2)).searchResults(any(), any(), anyInt());
+    }
 
-        // Verificamos que el filtro se aplicó correctamente antes de mapear
-        // t1 (blockedUser) debió ser eliminado.
-        verify(threadMapper).toDtoList(argThat(list ->
-                list.size() == 1 && list.get(0).getUser().getId().equals(50L)
-        ));
+    @Test
+    @DisplayName("searchContent: Debería rechazar un cursor mal formado")
+    void searchContent_InvalidCursor_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.searchContent("java", null, "%%%", 20));
+    }
+
+    private ThreadClass thread(Long id, Long authorId, LocalDateTime publishedAt) {
+        ThreadClass thread = thread(id, authorId);
+        thread.setPublishedAt(publishedAt);
+        return thread;
+    }
+
+    private ThreadClass thread(Long id, Long authorId) {
+        ThreadClass thread = new ThreadClass();
+        thread.setId(id);
+        thread.setUser(User.builder().id(authorId).build());
+        return thread;
     }
 }
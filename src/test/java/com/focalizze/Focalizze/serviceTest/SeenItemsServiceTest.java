@@ -0,0 +1,74 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.services.servicesImpl.SeenItemsServiceImpl;
+import com.focalizze.Focalizze.utils.SeenFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SeenItemsServiceTest {
+
+    private SeenItemsServiceImpl seenItemsService;
+
+    @BeforeEach
+    void setUp() {
+        // 1000 ítems esperados, 1% de falsos positivos, 100 usuarios, 30 minutos
+        seenItemsService = new SeenItemsServiceImpl(1000, 0.01, 100, 30);
+    }
+
+    @Test
+    @DisplayName("getFilter: Las páginas siguientes deberían compartir el filtro de la sesión")
+    void getFilter_NextPages_ShouldKeepSessionFilter() {
+        // Given
+        seenItemsService.getFilter(1L, true).add(42L);
+
+        // When
+        SeenFilter nextPage = seenItemsService.getFilter(1L, false);
+
+        // Then
+        assertThat(nextPage.mightContain(42L)).isTrue();
+        assertThat(seenItemsService.getFilter(2L, false).mightContain(42L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("getFilter: La primera página debería iniciar una sesión vacía")
+    void getFilter_FirstPage_ShouldStartNewSession() {
+        // Given
+        seenItemsService.getFilter(1L, true).add(42L);
+
+        // When
+        SeenFilter restarted = seenItemsService.getFilter(1L, true);
+
+        // Then
+        assertThat(restarted.mightContain(42L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("SeenFilter: Debería mantener la tasa de falsos positivos y reiniciarse al llenarse")
+    void seenFilter_ShouldStayBoundedAndAccurate() {
+        // Given
+        SeenFilter filter = new SeenFilter(1000, 0.01);
+        for (long id = 1; id <= 1000; id++) {
+            filter.add(id);
+        }
+
+        // When: IDs nunca añadidos
+        int falsePositives = 0;
+        for (long id = 1_000_001; id <= 1_010_000; id++) {
+            if (filter.mightContain(id)) falsePositives++;
+        }
+
+        // Then
+        assertThat(filter.mightContain(500L)).isTrue();
+        assertThat(filter.add(500L)).isFalse();
+        assertThat(falsePositives).isLessThan(300); // ~1% de 10.000, con margen
+        // Lleno: seguir añadiendo IDs nuevos reinicia el filtro en lugar de saturarlo
+        for (long id = 2_000_000; id < 2_000_100; id++) {
+            filter.add(id);
+        }
+        assertThat(filter.mightContain(2_000_099L)).isTrue();
+        assertThat(filter.mightContain(1L)).isFalse();
+    }
+}
@@ -16,6 +16,9 @@ import com.focalizze.Focalizze.repository.SavedThreadRepository;
 import com.focalizze.Focalizze.repository.ThreadRepository;
 import com.focalizze.Focalizze.repository.UserRepository;
 import com.focalizze.Focalizze.services.FileStorageService;
+import com.focalizze.Focalizze.services.ContentSearchIndexService;
+import com.focalizze.Focalizze.services.HashtagService;
+import com.focalizze.Focalizze.services.HomeTimelineService;
 import com.focalizze.Focalizze.services.MentionService;
 import com.focalizze.Focalizze.services.servicesImpl.ThreadServiceImpl;
 import com.focalizze.Focalizze.utils.ThreadEnricher;
@@ -46,6 +49,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,6 +63,9 @@ public class ThreadServiceTest {
     @Mock private MentionService mentionService;
     @Mock private FileStorageService fileStorageService;
     @Mock private ThreadEnricher threadEnricher;
+    @Mock private HomeTimelineService homeTimelineService;
+    @Mock private ContentSearchIndexService contentSearchIndexService;
+    @Mock private HashtagService hashtagService;
     @Mock private SecurityContext securityContext;
     @Mock private Authentication authentication;
 
@@ -136,6 +143,9 @@ public class ThreadServiceTest {
         assertThat(saved.getPosts()).hasSize(3);
         assertThat(saved.getCategory().getName()).isEqualTo("Tech");
         assertThat(saved.getUser().getUsername()).isEqualTo("creator");
+        verify(userRepository).incrementPublishedThreadCount(1L);
+        verify(contentSearchIndexService).index(saved);
+        verify(hashtagService).applyHashtags(saved);
     }
 
     @Test
@@ -219,6 +229,22 @@ public class ThreadServiceTest {
         // Then
         assertThat(thread.isDeleted()).isTrue();
         verify(threadRepository).save(thread);
+        verify(contentSearchIndexService).remove(100L);
+    }
+
+    @Test
+    @DisplayName("deleteThread: Debería descontar el hilo del contador del autor solo si estaba publicado")
+    void deleteThread_Published_ShouldDecrementAuthorCount() {
+        // Given
+        thread.setPublished(true);
+        given(threadRepository.findById(100L)).willReturn(Optional.of(thread));
+
+        // When
+        threadService.deleteThread(100L, currentUser);
+        threadService.deleteThread(100L, currentUser); // Segundo borrado: ya no cuenta
+
+        // Then
+        verify(userRepository, times(1)).decrementPublishedThreadCount(1L);
     }
 
     @Test
@@ -256,6 +282,7 @@ public class ThreadServiceTest {
         assertThat(thread.getPosts().get(1).getContent()).isEqualTo("Old content 2"); // No change
         assertThat(thread.getPosts().get(2).getContent()).isEqualTo("New 3");
         assertThat(thread.getCategory().getName()).isEqualTo("Art");
+        verify(contentSearchIndexService).index(thread);
     }
 
     // Helper
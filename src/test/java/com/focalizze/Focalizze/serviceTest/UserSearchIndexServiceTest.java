@@ -0,0 +1,118 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.UsernameIndexRowDto;
+import com.focalizze.Focalizze.models.User;
+import com.focalizze.Focalizze.repository.UserRepository;
+import com.focalizze.Focalizze.services.servicesImpl.UserSearchIndexServiceImpl;
+import com.focalizze.Focalizze.utils.UsernameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class UserSearchIndexServiceTest {
+
+    @Mock private UserRepository userRepository;
+
+    private UserSearchIndexServiceImpl userSearchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        // Lotes de 2 usuarios para recorrer varias páginas keyset; 2000 candidatos y similitud 0.6 para erratas
+        userSearchIndexService = new UserSearchIndexServiceImpl(userRepository, 2, 2000, 0.6);
+
+        given(userRepository.findUsernameIndexRowsAfter(eq(0L), any(Pageable.class))).willReturn(List.of(
+                row(1L, "maria", 5), row(2L, "Mario", 50)));
+        given(userRepository.findUsernameIndexRowsAfter(eq(2L), any(Pageable.class))).willReturn(List.of(
+                row(3L, "marta", 50), row(4L, "pedro", 100)));
+        given(userRepository.findUsernameIndexRowsAfter(eq(4L), any(Pageable.class))).willReturn(List.of(
+                row(5L, "marianela", 0)));
+    }
+
+    @Test
+    @DisplayName("searchByPrefix: Debería ordenar por seguidores y desempatar alfabéticamente, sin distinguir mayúsculas")
+    void searchByPrefix_ShortPrefix_ShouldRankByFollowers() {
+        // When
+        List<String> result = usernames("M", 10);
+
+        // Then: Mario y marta empatan a 50
+        assertThat(result).containsExactly("Mario", "marta", "maria", "marianela");
+    }
+
+    @Test
+    @DisplayName("searchByPrefix: Debería acotar por prefijo largo y por límite")
+    void searchByPrefix_LongPrefix_ShouldMatchRangeAndLimit() {
+        assertThat(usernames("mari", 10)).containsExactly("Mario", "maria", "marianela");
+        assertThat(usernames("mari", 2)).containsExactly("Mario", "maria");
+        assertThat(usernames("maz", 10)).isEmpty();
+        assertThat(usernames("", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("index: Debería encontrar al instante un usuario recién registrado y los datos de perfil nuevos")
+    void index_ShouldApplyRegistrationsAndProfileChanges() {
+        // Given: El índice ya está construido
+        assertThat(usernames("mar", 10)).hasSize(4);
+
+        // When: Se registra "marco" y "maria" cambia su nombre visible
+        userSearchIndexService.index(User.builder().id(6L).username("marco").displayName("Marco").followersCount(0).build());
+        userSearchIndexService.index(User.builder().id(1L).username("maria").displayName("María G.").avatarUrl("a.png").followersCount(5).build());
+
+        // Then
+        assertThat(usernames("marc", 10)).containsExactly("marco");
+        assertThat(usernames("ma", 10)).contains("marco");
+        UsernameIndex.Entry maria = userSearchIndexService.searchByPrefix("maria", 1).get(0);
+        assertThat(maria.displayName()).isEqualTo("María G.");
+        assertThat(maria.avatarUrl()).isEqualTo("a.png");
+    }
+
+    @Test
+    @DisplayName("rebuild: Debería refrescar los seguidores usados para ordenar")
+    void rebuild_ShouldRefreshFollowerCounts() {
+        // Given
+        assertThat(usernames("mar", 1)).containsExactly("Mario");
+        given(userRepository.findUsernameIndexRowsAfter(eq(2L), any(Pageable.class))).willReturn(List.of(
+                row(3L, "marta", 500), row(4L, "pedro", 100)));
+
+        // When
+        userSearchIndexService.rebuild();
+
+        // Then
+        assertThat(usernames("mar", 1)).containsExactly("marta");
+    }
+
+    @Test
+    @DisplayName("searchFuzzy: Debería tolerar erratas y transposiciones en nombres de usuario y visibles")
+    void searchFuzzy_ShouldTolerateTypos() {
+        // Transposición ("mraia"), letra cambiada ("pedor") y nombre visible editado
+        assertThat(fuzzy("mraia")).first().isEqualTo("maria");
+        assertThat(fuzzy("pedor")).containsExactly("pedro");
+        assertThat(fuzzy("zzzz")).isEmpty();
+
+        userSearchIndexService.index(User.builder().id(4L).username("pedro").displayName("Pedro Almodóvar").followersCount(100).build());
+        assertThat(fuzzy("almodobar")).containsExactly("pedro");
+    }
+
+    private List<String> usernames(String prefix, int limit) {
+        return userSearchIndexService.searchByPrefix(prefix, limit).stream().map(UsernameIndex.Entry::username).toList();
+    }
+
+    private List<String> fuzzy(String query) {
+        return userSearchIndexService.searchFuzzy(query, 5).stream().map(UsernameIndex.Entry::username).toList();
+    }
+
+    private UsernameIndexRowDto row(Long id, String username, int followers) {
+        return new UsernameIndexRowDto(id, username, username, "", followers);
+    }
+}
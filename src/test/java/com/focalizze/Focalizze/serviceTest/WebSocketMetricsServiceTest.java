@@ -0,0 +1,121 @@
+package com.focalizze.Focalizze.serviceTest;
+
+import com.focalizze.Focalizze.dto.WebSocketStatsDto;
+import com.focalizze.Focalizze.services.servicesImpl.WebSocketMetricsServiceImpl;
+import com.focalizze.Focalizze.utils.WebSocketOutboundMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebSocketMetricsServiceTest {
+
+    private WebSocketOutboundMonitor monitor;
+    private WebSocketMetricsServiceImpl webSocketMetricsService;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new WebSocketOutboundMonitor(2, List.of("/user/queue/unread"));
+        webSocketMetricsService = new WebSocketMetricsServiceImpl(monitor);
+        connect("s1", "alice");
+    }
+
+    @Test
+    @DisplayName("preSend: Debería descartar los mensajes por encima del máximo pendiente de la sesión")
+    void preSend_SlowSession_DropsBeyondLimit() {
+        // Given
+        Message<?> first = message("s1", "/user/queue/notifications");
+        Message<?> second = message("s1", "/user/queue/notifications");
+        Message<?> third = message("s1", "/user/queue/notifications");
+
+        // When
+        assertThat(monitor.preSend(first, null)).isSameAs(first);
+        assertThat(monitor.preSend(second, null)).isSameAs(second);
+        Message<?> dropped = monitor.preSend(third, null);
+
+        // Then
+        assertThat(dropped).isNull();
+        WebSocketStatsDto stats = webSocketMetricsService.getStats();
+        assertThat(stats.pending()).isEqualTo(2);
+        assertThat(stats.dropped()).isEqualTo(1);
+        assertThat(stats.busiestSessions()).singleElement().satisfies(s -> {
+            assertThat(s.username()).isEqualTo("alice");
+            assertThat(s.dropped()).isEqualTo(1);
+        });
+
+        // When: La sesión se pone al día
+        monitor.afterMessageHandled(first, null, null, null);
+
+        // Then
+        assertThat(monitor.preSend(message("s1", "/user/queue/notifications"), null)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("beforeHandle: Debería entregar solo el último mensaje pendiente de un destino agrupado")
+    void beforeHandle_CoalescedDestination_KeepsLatest() {
+        // Given
+        // Los indicadores no cuentan para el límite: se sustituyen
+        Message<?> old1 = message("s1", "/user/queue/unread");
+        Message<?> old2 = message("s1", "/user/queue/unread");
+        Message<?> latest = message("s1", "/user/queue/unread");
+        monitor.preSend(old1, null);
+        monitor.preSend(old2, null);
+        assertThat(monitor.preSend(latest, null)).isSameAs(latest);
+
+        // When
+        // Como el canal real, afterMessageHandled se llama también para los omitidos
+        Message<?> skipped1 = monitor.beforeHandle(old1, null, null);
+        monitor.afterMessageHandled(old1, null, null, null);
+        Message<?> skipped2 = monitor.beforeHandle(old2, null, null);
+        monitor.afterMessageHandled(old2, null, null, null);
+        Message<?> delivered = monitor.beforeHandle(latest, null, null);
+        monitor.afterMessageHandled(latest, null, null, null);
+
+        // Then
+        assertThat(skipped1).isNull();
+        assertThat(skipped2).isNull();
+        assertThat(delivered).isSameAs(latest);
+        WebSocketStatsDto stats = webSocketMetricsService.getStats();
+        assertThat(stats.coalesced()).isEqualTo(2);
+        assertThat(stats.pending()).isZero();
+        assertThat(stats.busiestSessions().get(0).delivered()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("onDisconnected: Debería olvidar la sesión y dejar pasar mensajes de sesiones desconocidas")
+    void onDisconnected_ShouldForgetSession() {
+        // When
+        monitor.onDisconnected(new SessionDisconnectEvent(this, MessageBuilder.withPayload(new byte[0]).build(), "s1", CloseStatus.NORMAL));
+
+        // Then
+        assertThat(webSocketMetricsService.getStats().sessions()).isZero();
+        Message<?> unknown = message("s1", "/user/queue/notifications");
+        assertThat(monitor.preSend(unknown, null)).isSameAs(unknown);
+    }
+
+    private void connect(String sessionId, String username) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> connectAck = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        monitor.onConnected(new SessionConnectedEvent(this, connectAck, new UsernamePasswordAuthenticationToken(username, null)));
+    }
+
+    private Message<?> message(String sessionId, String userDestination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(userDestination.replace("/user", "") + "-user" + sessionId);
+        accessor.setHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, userDestination);
+        return MessageBuilder.createMessage("payload", accessor.getMessageHeaders());
+    }
+}